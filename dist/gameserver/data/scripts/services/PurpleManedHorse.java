@@ -19,11 +19,13 @@ import lineage2.gameserver.data.xml.holder.MultiSellHolder.MultiSellListContaine
 import lineage2.gameserver.model.base.MultiSellEntry;
 import lineage2.gameserver.scripts.Functions;
 import lineage2.gameserver.scripts.ScriptFile;
+import lineage2.gameserver.scripts.Stateless;
 
 /**
  * @author Mobius
  * @version $Revision: 1.0 $
  */
+@Stateless
 public class PurpleManedHorse extends Functions implements ScriptFile
 {
 	/**
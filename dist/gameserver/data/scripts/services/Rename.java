@@ -22,6 +22,7 @@ import lineage2.commons.dbutils.DbUtils;
 import lineage2.gameserver.Config;
 import lineage2.gameserver.cache.Msg;
 import lineage2.gameserver.dao.CharacterDAO;
+import lineage2.gameserver.dao.CharacterStoreDAO;
 import lineage2.gameserver.database.DatabaseFactory;
 import lineage2.gameserver.database.mysql;
 import lineage2.gameserver.model.Player;
@@ -443,6 +444,7 @@ public class Rename extends Functions
 		PreparedStatement offline = null;
 		try
 		{
+			CharacterStoreDAO.getInstance().flush(ObjectId);
 			con = DatabaseFactory.getInstance().getConnection();
 			offline = con.prepareStatement("UPDATE characters SET sex = ? WHERE obj_Id = ?");
 			offline.setInt(1, sex);
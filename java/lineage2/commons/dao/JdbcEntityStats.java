@@ -41,4 +41,16 @@ public interface JdbcEntityStats
 	 * @return long
 	 */
 	public long getDeleteCount();
+	
+	/**
+	 * Method getBatchCount.
+	 * @return long round trips of bulk loads and writes
+	 */
+	public long getBatchCount();
+	
+	/**
+	 * Method getBatchRowCount.
+	 * @return long rows loaded or written by bulk round trips
+	 */
+	public long getBatchRowCount();
 }
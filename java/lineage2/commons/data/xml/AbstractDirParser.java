@@ -76,6 +76,11 @@ public abstract class AbstractDirParser<H extends AbstractHolder> extends Abstra
 		
 		initDTD(dtd);
 		
+		if (openSnapshot(dir))
+		{
+			return;
+		}
+		
 		try
 		{
 			Collection<File> files = FileUtils.listFiles(dir, FileFilterUtils.suffixFileFilter(".xml"), FileFilterUtils.directoryFileFilter());
@@ -93,10 +98,12 @@ public abstract class AbstractDirParser<H extends AbstractHolder> extends Abstra
 						catch (Exception e)
 						{
 							info("Exception: " + e + " in file: " + f.getName(), e);
+							discardSnapshot();
 						}
 					}
 				}
 			}
+			saveSnapshot();
 		}
 		catch (Exception e)
 		{
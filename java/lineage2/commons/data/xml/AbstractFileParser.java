@@ -65,6 +65,11 @@ public abstract class AbstractFileParser<H extends AbstractHolder> extends Abstr
 		
 		initDTD(dtd);
 		
+		if (openSnapshot(file, dtd))
+		{
+			return;
+		}
+		
 		try
 		{
 			parseDocument(new FileInputStream(file), file.getName());
@@ -72,6 +77,8 @@ public abstract class AbstractFileParser<H extends AbstractHolder> extends Abstr
 		catch (Exception e)
 		{
 			warn("Exception: " + e, e);
+			discardSnapshot();
 		}
+		saveSnapshot();
 	}
 }
@@ -14,6 +14,7 @@ package lineage2.commons.data.xml;
 
 import java.io.File;
 import java.io.InputStream;
+import java.util.List;
 
 import lineage2.commons.data.xml.helpers.ErrorHandlerImpl;
 import lineage2.commons.data.xml.helpers.SimpleDTDEntityResolver;
@@ -41,6 +42,18 @@ public abstract class AbstractParser<H extends AbstractHolder> extends LoggerObj
 	 * Field _reader.
 	 */
 	protected SAXReader _reader;
+	/**
+	 * Field _snapshot. Collects the parsed documents while a snapshot is being written.
+	 */
+	protected XmlSnapshot _snapshot;
+	/**
+	 * Field _parseTime. Nanoseconds spent reading XML in the current parse.
+	 */
+	protected long _parseTime;
+	/**
+	 * Field _snapshotDiscarded. Set on parse errors, the snapshot is then not written.
+	 */
+	protected boolean _snapshotDiscarded;
 	
 	/**
 	 * Constructor for AbstractParser.
@@ -73,11 +86,80 @@ public abstract class AbstractParser<H extends AbstractHolder> extends LoggerObj
 	{
 		_currentFile = name;
 		
+		long start = System.nanoTime();
 		org.dom4j.Document document = _reader.read(f);
+		_parseTime += System.nanoTime() - start;
+		if (_snapshot != null)
+		{
+			_snapshot.add(name, document);
+		}
 		
 		readData(document.getRootElement());
 	}
 	
+	/**
+	 * Method openSnapshot. Reads the documents from the snapshot of the sources if it is up to date, otherwise prepares a new snapshot to be filled by parseDocument.
+	 * @param sources File[]
+	 * @return boolean true if the documents were read from the snapshot
+	 */
+	protected boolean openSnapshot(File... sources)
+	{
+		_snapshot = null;
+		_parseTime = 0;
+		_snapshotDiscarded = false;
+		if (!XmlSnapshot.isEnabled())
+		{
+			return false;
+		}
+		XmlSnapshot snapshot = new XmlSnapshot(getClass().getSimpleName(), sources);
+		List<XmlSnapshot.Entry<org.dom4j.Document>> documents = snapshot.readDom4j();
+		if (documents == null)
+		{
+			_snapshot = snapshot;
+			return false;
+		}
+		for (XmlSnapshot.Entry<org.dom4j.Document> entry : documents)
+		{
+			_currentFile = entry.getName();
+			try
+			{
+				readData(entry.getDocument().getRootElement());
+			}
+			catch (Exception e)
+			{
+				info("Exception: " + e + " in file: " + entry.getName(), e);
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Method discardSnapshot. Called on parse errors, so they are reported again on the next load until fixed.
+	 */
+	public void discardSnapshot()
+	{
+		_snapshotDiscarded = true;
+	}
+	
+	/**
+	 * Method saveSnapshot. Writes the documents parsed since openSnapshot, or deletes the snapshot when it was discarded.
+	 */
+	protected void saveSnapshot()
+	{
+		if (_snapshot != null)
+		{
+			if (_snapshotDiscarded)
+			{
+				_snapshot.delete();
+			}
+			else
+			{
+				_snapshot.save(_parseTime / 1000000L);
+			}
+			_snapshot = null;
+		}
+	}
+	
 	/**
 	 * Method readData.
 	 * @param rootElement Element
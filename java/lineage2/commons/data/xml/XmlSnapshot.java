@@ -0,0 +1,708 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.commons.data.xml;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.CRC32;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.filefilter.TrueFileFilter;
+import org.dom4j.Attribute;
+import org.dom4j.DocumentFactory;
+import org.dom4j.QName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+
+/**
+ * Compiled snapshot of the parsed XML documents of one parser. The element trees are stored with a shared string table in a binary file keyed by a content hash of the source files, so an unchanged datapack is decoded from the memory mapped snapshot instead of being parsed and validated again.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class XmlSnapshot
+{
+	/**
+	 * Field _log.
+	 */
+	private static final Logger _log = LoggerFactory.getLogger(XmlSnapshot.class);
+	/**
+	 * Field MAGIC.
+	 */
+	private static final int MAGIC = 0x4C325853;
+	/**
+	 * Field VERSION. Has to be increased when the format changes.
+	 */
+	private static final int VERSION = 1;
+	/**
+	 * Field ELEMENT.
+	 */
+	private static final int ELEMENT = 0;
+	/**
+	 * Field TEXT.
+	 */
+	private static final int TEXT = 1;
+	/**
+	 * Field UTF8.
+	 */
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+	/**
+	 * Field _directory. Null when snapshots are disabled.
+	 */
+	private static volatile File _directory;
+	/**
+	 * Field _loaded.
+	 */
+	private static final AtomicInteger _loaded = new AtomicInteger();
+	/**
+	 * Field _saved. Milliseconds of XML parsing saved by the loaded snapshots.
+	 */
+	private static final AtomicLong _saved = new AtomicLong();
+	
+	/**
+	 * Method setDirectory.
+	 * @param directory File where snapshots are kept, null disables them
+	 */
+	public static void setDirectory(File directory)
+	{
+		if ((directory != null) && !directory.exists() && !directory.mkdirs())
+		{
+			_log.warn("XmlSnapshot: could not create " + directory.getAbsolutePath() + ", snapshots disabled.");
+			directory = null;
+		}
+		_directory = directory;
+	}
+	
+	/**
+	 * Method isEnabled.
+	 * @return boolean
+	 */
+	public static boolean isEnabled()
+	{
+		return _directory != null;
+	}
+	
+	/**
+	 * Method getLoadedCount.
+	 * @return int
+	 */
+	public static int getLoadedCount()
+	{
+		return _loaded.get();
+	}
+	
+	/**
+	 * Method getSavedTime.
+	 * @return long milliseconds
+	 */
+	public static long getSavedTime()
+	{
+		return _saved.get();
+	}
+	
+	/**
+	 * @author Mobius
+	 */
+	public static class Entry<D>
+	{
+		/**
+		 * Field _name.
+		 */
+		private final String _name;
+		/**
+		 * Field _document.
+		 */
+		private final D _document;
+		
+		/**
+		 * Constructor for Entry.
+		 * @param name String
+		 * @param document D
+		 */
+		Entry(String name, D document)
+		{
+			_name = name;
+			_document = document;
+		}
+		
+		/**
+		 * Method getName.
+		 * @return String
+		 */
+		public String getName()
+		{
+			return _name;
+		}
+		
+		/**
+		 * Method getDocument.
+		 * @return D
+		 */
+		public D getDocument()
+		{
+			return _document;
+		}
+	}
+	
+	/**
+	 * Field _file.
+	 */
+	private final File _file;
+	/**
+	 * Field _sources.
+	 */
+	private final File[] _sources;
+	/**
+	 * Field _hash.
+	 */
+	private long _hash;
+	/**
+	 * Field _hashed.
+	 */
+	private boolean _hashed;
+	/**
+	 * Field _strings. String table of the snapshot being written.
+	 */
+	private final Map<String, Integer> _strings = new HashMap<>();
+	/**
+	 * Field _stringList.
+	 */
+	private final List<String> _stringList = new ArrayList<>();
+	/**
+	 * Field _body. Encoded documents of the snapshot being written.
+	 */
+	private final ByteArrayOutputStream _body = new ByteArrayOutputStream();
+	/**
+	 * Field _count.
+	 */
+	private int _count;
+	
+	/**
+	 * Constructor for XmlSnapshot.
+	 * @param name String unique name of the snapshot
+	 * @param sources File[] files and directories the documents are parsed from
+	 */
+	public XmlSnapshot(String name, File... sources)
+	{
+		_file = new File(_directory, name + ".bin");
+		_sources = sources;
+	}
+	
+	/**
+	 * Method getHash. CRC32 over relative path, length and content of every source file.
+	 * @return long
+	 * @throws IOException
+	 */
+	private long getHash() throws IOException
+	{
+		if (_hashed)
+		{
+			return _hash;
+		}
+		CRC32 crc = new CRC32();
+		byte[] buffer = new byte[65536];
+		for (File source : _sources)
+		{
+			List<File> files = new ArrayList<>();
+			if (source.isDirectory())
+			{
+				files.addAll(FileUtils.listFiles(source, TrueFileFilter.INSTANCE, TrueFileFilter.INSTANCE));
+			}
+			else if (source.exists())
+			{
+				files.add(source);
+			}
+			Collections.sort(files);
+			for (File file : files)
+			{
+				crc.update(file.getPath().substring(source.getPath().length()).getBytes(UTF8));
+				crc.update(ByteBuffer.allocate(8).putLong(0, file.length()).array());
+				FileInputStream in = new FileInputStream(file);
+				try
+				{
+					int read;
+					while ((read = in.read(buffer)) > 0)
+					{
+						crc.update(buffer, 0, read);
+					}
+				}
+				finally
+				{
+					IOUtils.closeQuietly(in);
+				}
+			}
+		}
+		_hash = crc.getValue();
+		_hashed = true;
+		return _hash;
+	}
+	
+	/**
+	 * Method open. Maps the snapshot and checks that it was written for the current sources.
+	 * @return ByteBuffer positioned after the header, null if there is no valid snapshot
+	 */
+	private ByteBuffer open()
+	{
+		if (!_file.exists())
+		{
+			return null;
+		}
+		RandomAccessFile raf = null;
+		try
+		{
+			raf = new RandomAccessFile(_file, "r");
+			ByteBuffer buf = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+			if ((buf.getInt() != MAGIC) || (buf.getInt() != VERSION) || (buf.getLong() != getHash()))
+			{
+				return null;
+			}
+			return buf;
+		}
+		catch (Exception e)
+		{
+			_log.warn("XmlSnapshot: could not read " + _file.getName(), e);
+			return null;
+		}
+		finally
+		{
+			IOUtils.closeQuietly(raf);
+		}
+	}
+	
+	/**
+	 * Method readStrings.
+	 * @param buf ByteBuffer
+	 * @return String[]
+	 */
+	private static String[] readStrings(ByteBuffer buf)
+	{
+		String[] strings = new String[readVarInt(buf)];
+		byte[] bytes = new byte[256];
+		for (int i = 0; i < strings.length; i++)
+		{
+			int length = readVarInt(buf);
+			if (length > bytes.length)
+			{
+				bytes = new byte[length];
+			}
+			buf.get(bytes, 0, length);
+			strings[i] = new String(bytes, 0, length, UTF8);
+		}
+		return strings;
+	}
+	
+	/**
+	 * Method readDom4j.
+	 * @return List<Entry<org.dom4j.Document>> null if the snapshot is missing or outdated
+	 */
+	public List<Entry<org.dom4j.Document>> readDom4j()
+	{
+		long start = System.currentTimeMillis();
+		ByteBuffer buf = open();
+		if (buf == null)
+		{
+			return null;
+		}
+		try
+		{
+			long xmlTime = buf.getLong();
+			String[] strings = readStrings(buf);
+			DocumentFactory factory = DocumentFactory.getInstance();
+			QName[] names = new QName[strings.length];
+			int count = readVarInt(buf);
+			List<Entry<org.dom4j.Document>> documents = new ArrayList<>(count);
+			for (int i = 0; i < count; i++)
+			{
+				String name = strings[readVarInt(buf)];
+				org.dom4j.Document document = factory.createDocument();
+				buf.get();
+				document.setRootElement(readDom4j(buf, strings, names, factory));
+				documents.add(new Entry<>(name, document));
+			}
+			loaded(count, xmlTime, System.currentTimeMillis() - start);
+			return documents;
+		}
+		catch (Exception e)
+		{
+			_log.warn("XmlSnapshot: could not decode " + _file.getName(), e);
+			return null;
+		}
+	}
+	
+	/**
+	 * Method readDom4j.
+	 * @param buf ByteBuffer
+	 * @param strings String[]
+	 * @param names QName[] QNames by string index, filled on first use
+	 * @param factory DocumentFactory
+	 * @return org.dom4j.Element
+	 */
+	private static org.dom4j.Element readDom4j(ByteBuffer buf, String[] strings, QName[] names, DocumentFactory factory)
+	{
+		int index = readVarInt(buf);
+		if (names[index] == null)
+		{
+			names[index] = factory.createQName(strings[index]);
+		}
+		org.dom4j.Element element = factory.createElement(names[index]);
+		for (int i = readVarInt(buf); i > 0; i--)
+		{
+			index = readVarInt(buf);
+			if (names[index] == null)
+			{
+				names[index] = factory.createQName(strings[index]);
+			}
+			element.addAttribute(names[index], strings[readVarInt(buf)]);
+		}
+		for (int i = readVarInt(buf); i > 0; i--)
+		{
+			if (buf.get() == TEXT)
+			{
+				element.addText(strings[readVarInt(buf)]);
+			}
+			else
+			{
+				element.add(readDom4j(buf, strings, names, factory));
+			}
+		}
+		return element;
+	}
+	
+	/**
+	 * Method readW3c.
+	 * @return List<Entry<org.w3c.dom.Document>> null if the snapshot is missing or outdated
+	 */
+	public List<Entry<org.w3c.dom.Document>> readW3c()
+	{
+		long start = System.currentTimeMillis();
+		ByteBuffer buf = open();
+		if (buf == null)
+		{
+			return null;
+		}
+		try
+		{
+			long xmlTime = buf.getLong();
+			String[] strings = readStrings(buf);
+			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			int count = readVarInt(buf);
+			List<Entry<org.w3c.dom.Document>> documents = new ArrayList<>(count);
+			for (int i = 0; i < count; i++)
+			{
+				String name = strings[readVarInt(buf)];
+				org.w3c.dom.Document document = factory.newDocumentBuilder().newDocument();
+				buf.get();
+				document.appendChild(readW3c(buf, strings, document));
+				documents.add(new Entry<>(name, document));
+			}
+			loaded(count, xmlTime, System.currentTimeMillis() - start);
+			return documents;
+		}
+		catch (Exception e)
+		{
+			_log.warn("XmlSnapshot: could not decode " + _file.getName(), e);
+			return null;
+		}
+	}
+	
+	/**
+	 * Method readW3c.
+	 * @param buf ByteBuffer
+	 * @param strings String[]
+	 * @param document org.w3c.dom.Document
+	 * @return org.w3c.dom.Element
+	 */
+	private static org.w3c.dom.Element readW3c(ByteBuffer buf, String[] strings, org.w3c.dom.Document document)
+	{
+		org.w3c.dom.Element element = document.createElement(strings[readVarInt(buf)]);
+		for (int i = readVarInt(buf); i > 0; i--)
+		{
+			String name = strings[readVarInt(buf)];
+			element.setAttribute(name, strings[readVarInt(buf)]);
+		}
+		for (int i = readVarInt(buf); i > 0; i--)
+		{
+			if (buf.get() == TEXT)
+			{
+				element.appendChild(document.createTextNode(strings[readVarInt(buf)]));
+			}
+			else
+			{
+				element.appendChild(readW3c(buf, strings, document));
+			}
+		}
+		return element;
+	}
+	
+	/**
+	 * Method loaded.
+	 * @param count int
+	 * @param xmlTime long
+	 * @param time long
+	 */
+	private void loaded(int count, long xmlTime, long time)
+	{
+		_loaded.incrementAndGet();
+		_saved.addAndGet(Math.max(0, xmlTime - time));
+		_log.info("XmlSnapshot: " + _file.getName() + ": " + count + " document(s) in " + time + " ms, XML parsing took " + xmlTime + " ms.");
+	}
+	
+	/**
+	 * Method add.
+	 * @param name String
+	 * @param document org.dom4j.Document
+	 */
+	public void add(String name, org.dom4j.Document document)
+	{
+		writeVarInt(_body, string(name));
+		write(document.getRootElement());
+		_count++;
+	}
+	
+	/**
+	 * Method add.
+	 * @param name String
+	 * @param document org.w3c.dom.Document
+	 */
+	public void add(String name, org.w3c.dom.Document document)
+	{
+		writeVarInt(_body, string(name));
+		write(document.getDocumentElement());
+		_count++;
+	}
+	
+	/**
+	 * Method write.
+	 * @param element org.dom4j.Element
+	 */
+	private void write(org.dom4j.Element element)
+	{
+		_body.write(ELEMENT);
+		writeVarInt(_body, string(element.getName()));
+		writeVarInt(_body, element.attributeCount());
+		for (int i = 0; i < element.attributeCount(); i++)
+		{
+			Attribute attribute = element.attribute(i);
+			writeVarInt(_body, string(attribute.getName()));
+			writeVarInt(_body, string(attribute.getValue()));
+		}
+		List<Object> children = new ArrayList<>();
+		boolean hasElements = element.elements().size() > 0;
+		for (int i = 0; i < element.nodeCount(); i++)
+		{
+			org.dom4j.Node node = element.node(i);
+			if (node instanceof org.dom4j.Element)
+			{
+				children.add(node);
+			}
+			else if (((node instanceof org.dom4j.Text) || (node instanceof org.dom4j.CDATA)) && !(hasElements && node.getText().trim().isEmpty()))
+			{
+				children.add(node.getText());
+			}
+		}
+		writeChildren(children);
+	}
+	
+	/**
+	 * Method write.
+	 * @param element org.w3c.dom.Element
+	 */
+	private void write(org.w3c.dom.Element element)
+	{
+		_body.write(ELEMENT);
+		writeVarInt(_body, string(element.getNodeName()));
+		NamedNodeMap attributes = element.getAttributes();
+		writeVarInt(_body, attributes.getLength());
+		for (int i = 0; i < attributes.getLength(); i++)
+		{
+			Node attribute = attributes.item(i);
+			writeVarInt(_body, string(attribute.getNodeName()));
+			writeVarInt(_body, string(attribute.getNodeValue()));
+		}
+		List<Object> children = new ArrayList<>();
+		boolean hasElements = false;
+		for (Node node = element.getFirstChild(); node != null; node = node.getNextSibling())
+		{
+			hasElements |= node.getNodeType() == Node.ELEMENT_NODE;
+		}
+		for (Node node = element.getFirstChild(); node != null; node = node.getNextSibling())
+		{
+			if (node.getNodeType() == Node.ELEMENT_NODE)
+			{
+				children.add(node);
+			}
+			else if (((node.getNodeType() == Node.TEXT_NODE) || (node.getNodeType() == Node.CDATA_SECTION_NODE)) && !(hasElements && node.getNodeValue().trim().isEmpty()))
+			{
+				children.add(node.getNodeValue());
+			}
+		}
+		writeChildren(children);
+	}
+	
+	/**
+	 * Method writeChildren. Whitespace between child elements is dropped, comments and processing instructions are not kept.
+	 * @param children List<Object> elements and text
+	 */
+	private void writeChildren(List<Object> children)
+	{
+		writeVarInt(_body, children.size());
+		for (Object child : children)
+		{
+			if (child instanceof String)
+			{
+				_body.write(TEXT);
+				writeVarInt(_body, string((String) child));
+			}
+			else if (child instanceof org.dom4j.Element)
+			{
+				write((org.dom4j.Element) child);
+			}
+			else
+			{
+				write((org.w3c.dom.Element) child);
+			}
+		}
+	}
+	
+	/**
+	 * Method string.
+	 * @param value String
+	 * @return int index in the string table
+	 */
+	private int string(String value)
+	{
+		Integer index = _strings.get(value);
+		if (index == null)
+		{
+			index = _stringList.size();
+			_strings.put(value, index);
+			_stringList.add(value);
+		}
+		return index;
+	}
+	
+	/**
+	 * Method delete.
+	 */
+	public void delete()
+	{
+		if (_file.exists() && !_file.delete())
+		{
+			_log.warn("XmlSnapshot: could not delete " + _file.getName());
+		}
+	}
+	
+	/**
+	 * Method save. Writes the added documents, the snapshot is replaced atomically.
+	 * @param xmlTime long milliseconds the XML parsing took
+	 */
+	public void save(long xmlTime)
+	{
+		File temp = new File(_file.getPath() + ".tmp");
+		DataOutputStream out = null;
+		try
+		{
+			ByteArrayOutputStream strings = new ByteArrayOutputStream();
+			writeVarInt(strings, _stringList.size());
+			for (String value : _stringList)
+			{
+				byte[] bytes = value.getBytes(UTF8);
+				writeVarInt(strings, bytes.length);
+				strings.write(bytes);
+			}
+			ByteArrayOutputStream count = new ByteArrayOutputStream();
+			writeVarInt(count, _count);
+			out = new DataOutputStream(new FileOutputStream(temp));
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeLong(getHash());
+			out.writeLong(xmlTime);
+			strings.writeTo(out);
+			count.writeTo(out);
+			_body.writeTo(out);
+			out.close();
+			out = null;
+			if (_file.exists() && !_file.delete())
+			{
+				throw new IOException("Could not replace " + _file.getName());
+			}
+			if (!temp.renameTo(_file))
+			{
+				throw new IOException("Could not rename " + temp.getName());
+			}
+		}
+		catch (IOException e)
+		{
+			_log.warn("XmlSnapshot: could not write " + _file.getName(), e);
+			temp.delete();
+		}
+		finally
+		{
+			IOUtils.closeQuietly(out);
+		}
+	}
+	
+	/**
+	 * Method writeVarInt.
+	 * @param out ByteArrayOutputStream
+	 * @param value int
+	 */
+	private static void writeVarInt(ByteArrayOutputStream out, int value)
+	{
+		while ((value & ~0x7F) != 0)
+		{
+			out.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+	
+	/**
+	 * Method readVarInt.
+	 * @param buf ByteBuffer
+	 * @return int
+	 */
+	private static int readVarInt(ByteBuffer buf)
+	{
+		int value = 0;
+		int shift = 0;
+		byte b;
+		do
+		{
+			b = buf.get();
+			value |= (b & 0x7F) << shift;
+			shift += 7;
+		}
+		while ((b & 0x80) != 0);
+		return value;
+	}
+}
\ No newline at end of file
@@ -57,6 +57,7 @@ public class ErrorHandlerImpl implements ErrorHandler
 	public void error(SAXParseException exception)
 	{
 		_parser.error("File: " + _parser.getCurrentFileName() + ":" + exception.getLineNumber() + " error: " + exception.getMessage());
+		_parser.discardSnapshot();
 	}
 	
 	/**
@@ -68,5 +69,6 @@ public class ErrorHandlerImpl implements ErrorHandler
 	public void fatalError(SAXParseException exception)
 	{
 		_parser.error("File: " + _parser.getCurrentFileName() + ":" + exception.getLineNumber() + " fatal: " + exception.getMessage());
+		_parser.discardSnapshot();
 	}
 }
@@ -164,6 +164,93 @@ public class Polygon extends AbstractShape
 		return ((hits & 1) != 0);
 	}
 	
+	/**
+	 * Method isBorderInside. Points of a rectangle the border does not pass through are either all inside or all outside.
+	 * @param xmin int
+	 * @param ymin int
+	 * @param xmax int
+	 * @param ymax int
+	 * @return boolean true when an edge touches the rectangle
+	 */
+	public boolean isBorderInside(int xmin, int ymin, int xmax, int ymax)
+	{
+		if ((xmax < min.x) || (xmin > max.x) || (ymax < min.y) || (ymin > max.y))
+		{
+			return false;
+		}
+		Point2D last = points[points.length - 1];
+		for (Point2D cur : points)
+		{
+			if (isSegmentInside(last, cur, xmin, ymin, xmax, ymax))
+			{
+				return true;
+			}
+			last = cur;
+		}
+		return false;
+	}
+	
+	/**
+	 * Method isSegmentInside. Liang-Barsky clipping of the segment against the rectangle.
+	 * @param a Point2D
+	 * @param b Point2D
+	 * @param xmin int
+	 * @param ymin int
+	 * @param xmax int
+	 * @param ymax int
+	 * @return boolean
+	 */
+	private static boolean isSegmentInside(Point2D a, Point2D b, int xmin, int ymin, int xmax, int ymax)
+	{
+		double dx = b.x - a.x;
+		double dy = b.y - a.y;
+		double[] p =
+		{
+			-dx,
+			dx,
+			-dy,
+			dy
+		};
+		double[] q =
+		{
+			a.x - xmin,
+			xmax - a.x,
+			a.y - ymin,
+			ymax - a.y
+		};
+		double t0 = 0;
+		double t1 = 1;
+		for (int i = 0; i < 4; i++)
+		{
+			if (p[i] == 0)
+			{
+				if (q[i] < 0)
+				{
+					return false;
+				}
+				continue;
+			}
+			double t = q[i] / p[i];
+			if (p[i] < 0)
+			{
+				if (t > t1)
+				{
+					return false;
+				}
+				t0 = Math.max(t0, t);
+			}
+			else
+			{
+				if (t < t0)
+				{
+					return false;
+				}
+				t1 = Math.min(t1, t);
+			}
+		}
+		return true;
+	}
+	
 	/**
 	 * Method validate.
 	 * @return boolean
@@ -0,0 +1,209 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.commons.math;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free log-linear histogram. Every power of two is split into 8 linear sub-buckets, so reported percentiles are at most 12.5% above the recorded value.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class LatencyHistogram
+{
+	/**
+	 * Field SUB_BUCKET_BITS. (value is 3)
+	 */
+	private static final int SUB_BUCKET_BITS = 3;
+	/**
+	 * Field SUB_BUCKET_COUNT.
+	 */
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	/**
+	 * Field BUCKET_COUNT.
+	 */
+	private static final int BUCKET_COUNT = ((64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT) + SUB_BUCKET_COUNT;
+	
+	/**
+	 * Field _buckets.
+	 */
+	private final AtomicLongArray _buckets = new AtomicLongArray(BUCKET_COUNT);
+	/**
+	 * Field _total.
+	 */
+	private final AtomicLong _total = new AtomicLong();
+	/**
+	 * Field _max.
+	 */
+	private final AtomicLong _max = new AtomicLong();
+	
+	/**
+	 * Method bucketOf.
+	 * @param value long
+	 * @return int
+	 */
+	private static int bucketOf(long value)
+	{
+		if (value < SUB_BUCKET_COUNT)
+		{
+			return (int) value;
+		}
+		int exp = 63 - Long.numberOfLeadingZeros(value);
+		return ((exp - SUB_BUCKET_BITS) + 1) * SUB_BUCKET_COUNT + (int) ((value >>> (exp - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1));
+	}
+	
+	/**
+	 * Method highestValueOf.
+	 * @param bucket int
+	 * @return long
+	 */
+	private static long highestValueOf(int bucket)
+	{
+		if (bucket < SUB_BUCKET_COUNT)
+		{
+			return bucket;
+		}
+		int shift = (bucket / SUB_BUCKET_COUNT) - 1;
+		long lowest = (long) (SUB_BUCKET_COUNT + (bucket % SUB_BUCKET_COUNT)) << shift;
+		return (lowest + (1L << shift)) - 1;
+	}
+	
+	/**
+	 * Method record.
+	 * @param value long
+	 */
+	public void record(long value)
+	{
+		if (value < 0)
+		{
+			value = 0;
+		}
+		_buckets.incrementAndGet(bucketOf(value));
+		_total.addAndGet(value);
+		long max;
+		while (value > (max = _max.get()))
+		{
+			if (_max.compareAndSet(max, value))
+			{
+				break;
+			}
+		}
+	}
+	
+	/**
+	 * Method add.
+	 * @param other LatencyHistogram
+	 */
+	public void add(LatencyHistogram other)
+	{
+		for (int i = 0; i < BUCKET_COUNT; i++)
+		{
+			long c = other._buckets.get(i);
+			if (c != 0)
+			{
+				_buckets.addAndGet(i, c);
+			}
+		}
+		_total.addAndGet(other._total.get());
+		long value = other._max.get();
+		long max;
+		while (value > (max = _max.get()))
+		{
+			if (_max.compareAndSet(max, value))
+			{
+				break;
+			}
+		}
+	}
+	
+	/**
+	 * Method getPercentile.
+	 * @param percentile double
+	 * @return long
+	 */
+	public long getPercentile(double percentile)
+	{
+		long count = getCount();
+		if (count == 0)
+		{
+			return 0;
+		}
+		long rank = Math.max(1L, (long) Math.ceil((percentile / 100.) * count));
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++)
+		{
+			seen += _buckets.get(i);
+			if (seen >= rank)
+			{
+				return Math.min(highestValueOf(i), _max.get());
+			}
+		}
+		return _max.get();
+	}
+	
+	/**
+	 * Method getCount. Summed up from the buckets, recording does not update a shared counter.
+	 * @return long
+	 */
+	public long getCount()
+	{
+		long count = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++)
+		{
+			count += _buckets.get(i);
+		}
+		return count;
+	}
+	
+	/**
+	 * Method getTotal.
+	 * @return long
+	 */
+	public long getTotal()
+	{
+		return _total.get();
+	}
+	
+	/**
+	 * Method getMax.
+	 * @return long
+	 */
+	public long getMax()
+	{
+		return _max.get();
+	}
+	
+	/**
+	 * Method getAverage.
+	 * @return long
+	 */
+	public long getAverage()
+	{
+		long count = getCount();
+		return count == 0 ? 0 : _total.get() / count;
+	}
+	
+	/**
+	 * Method reset.
+	 */
+	public void reset()
+	{
+		for (int i = 0; i < BUCKET_COUNT; i++)
+		{
+			_buckets.set(i, 0);
+		}
+		_total.set(0);
+		_max.set(0);
+	}
+}
\ No newline at end of file
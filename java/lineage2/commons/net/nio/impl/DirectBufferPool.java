@@ -0,0 +1,171 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.commons.net.nio.impl;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Pool of equally sized direct buffers sliced from one slab. Not thread safe, every selector owns its own pool.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class DirectBufferPool
+{
+	/**
+	 * Field _log.
+	 */
+	private static final Logger _log = LoggerFactory.getLogger(DirectBufferPool.class);
+	
+	/**
+	 * Field _chunkSize.
+	 */
+	private final int _chunkSize;
+	/**
+	 * Field _chunks.
+	 */
+	private final ByteBuffer[] _chunks;
+	/**
+	 * Field _chunkIndex.
+	 */
+	private final Map<ByteBuffer, Integer> _chunkIndex;
+	/**
+	 * Field _leased.
+	 */
+	private final boolean[] _leased;
+	/**
+	 * Field _free.
+	 */
+	private final ArrayDeque<ByteBuffer> _free;
+	/**
+	 * Field _stats.
+	 */
+	private final SelectorStats _stats;
+	/**
+	 * Field _leasedCount.
+	 */
+	private int _leasedCount;
+	/**
+	 * Field _missLeasedCount. Buffers allocated outside the slab which are still in use.
+	 */
+	private int _missLeasedCount;
+	
+	/**
+	 * Constructor for DirectBufferPool.
+	 * @param chunkSize int
+	 * @param chunkCount int
+	 * @param stats SelectorStats
+	 */
+	public DirectBufferPool(int chunkSize, int chunkCount, SelectorStats stats)
+	{
+		_chunkSize = chunkSize;
+		_chunks = new ByteBuffer[chunkCount];
+		_chunkIndex = new IdentityHashMap<>(chunkCount);
+		_leased = new boolean[chunkCount];
+		_free = new ArrayDeque<>(chunkCount);
+		_stats = stats;
+		
+		ByteBuffer slab = ByteBuffer.allocateDirect(chunkSize * chunkCount);
+		for (int i = 0; i < chunkCount; i++)
+		{
+			slab.limit((i + 1) * chunkSize);
+			slab.position(i * chunkSize);
+			_chunks[i] = slab.slice();
+			_chunkIndex.put(_chunks[i], i);
+			_free.add(_chunks[i]);
+		}
+		_stats.increaseDirectBuffersCapacity(chunkCount);
+	}
+	
+	/**
+	 * Method acquire.
+	 * @return ByteBuffer cleared buffer of getChunkSize() bytes
+	 */
+	public ByteBuffer acquire()
+	{
+		ByteBuffer buf = _free.poll();
+		if (buf == null)
+		{
+			_missLeasedCount++;
+			_stats.increaseDirectBufferMisses();
+			return ByteBuffer.allocateDirect(_chunkSize);
+		}
+		_leased[_chunkIndex.get(buf)] = true;
+		_leasedCount++;
+		_stats.increaseDirectBuffersLeased(1);
+		buf.clear();
+		return buf;
+	}
+	
+	/**
+	 * Method release.
+	 * @param buf ByteBuffer
+	 */
+	public void release(ByteBuffer buf)
+	{
+		Integer index = _chunkIndex.get(buf);
+		if (index == null)
+		{
+			// allocated on a pool miss, left to the GC
+			_missLeasedCount--;
+			return;
+		}
+		if (!_leased[index])
+		{
+			_log.warn("Direct buffer " + index + " released twice.", new Exception());
+			return;
+		}
+		_leased[index] = false;
+		_leasedCount--;
+		_stats.increaseDirectBuffersLeased(-1);
+		_free.add(buf);
+	}
+	
+	/**
+	 * Method checkLeaks. Compares the leased buffers with the buffers still owned by live connections.
+	 * @param owned int buffers queued on the connections of the selector
+	 * @return int buffers that nobody will ever release
+	 */
+	public int checkLeaks(int owned)
+	{
+		int leaked = (_leasedCount + _missLeasedCount) - owned;
+		if (leaked > 0)
+		{
+			_log.warn("Direct buffer pool leaked " + leaked + " buffer(s), leased: " + _leasedCount + ", miss leased: " + _missLeasedCount + ", owned: " + owned + ".");
+		}
+		return leaked;
+	}
+	
+	/**
+	 * Method getChunkSize.
+	 * @return int
+	 */
+	public int getChunkSize()
+	{
+		return _chunkSize;
+	}
+	
+	/**
+	 * Method getLeasedCount.
+	 * @return int
+	 */
+	public int getLeasedCount()
+	{
+		return _leasedCount;
+	}
+}
\ No newline at end of file
@@ -20,6 +20,7 @@ import java.nio.channels.ReadableByteChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.WritableByteChannel;
 import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -64,9 +65,13 @@ public class MMOConnection<T extends MMOClient>
 	 */
 	private T _client;
 	/**
-	 * Field _secondaryWriteBuffer. Field _primaryWriteBuffer. Field _readBuffer.
+	 * Field _readBuffer.
 	 */
-	private ByteBuffer _readBuffer, _primaryWriteBuffer, _secondaryWriteBuffer;
+	private ByteBuffer _readBuffer;
+	/**
+	 * Field _writeQueue. Encrypted data waiting for the socket, pooled direct buffers in read mode, touched by the selector only.
+	 */
+	private final Deque<ByteBuffer> _writeQueue = new ArrayDeque<>();
 	/**
 	 * Field _pendingClose.
 	 */
@@ -87,6 +92,10 @@ public class MMOConnection<T extends MMOClient>
 	 * Field _isPengingWrite.
 	 */
 	private final AtomicBoolean _isPengingWrite = new AtomicBoolean();
+	/**
+	 * Field _sendQueueTime. Time in nanoseconds when the oldest unsent packet was queued, 0 if the queue was empty.
+	 */
+	private long _sendQueueTime;
 	
 	/**
 	 * Constructor for MMOConnection.
@@ -156,6 +165,7 @@ public class MMOConnection<T extends MMOClient>
 			{
 				return;
 			}
+			markSendQueueTime();
 			_sendQueue.add(sp);
 		}
 		scheduleWriteInterest();
@@ -178,6 +188,7 @@ public class MMOConnection<T extends MMOClient>
 			{
 				return;
 			}
+			markSendQueueTime();
 			for (SendablePacket<T> sp : args)
 			{
 				if (sp != null)
@@ -206,6 +217,7 @@ public class MMOConnection<T extends MMOClient>
 			{
 				return;
 			}
+			markSendQueueTime();
 			for (int i = 0; i < args.size(); i++)
 			{
 				if ((sp = args.get(i)) != null)
@@ -217,6 +229,28 @@ public class MMOConnection<T extends MMOClient>
 		scheduleWriteInterest();
 	}
 	
+	/**
+	 * Method markSendQueueTime.
+	 */
+	private void markSendQueueTime()
+	{
+		if (_sendQueueTime == 0L)
+		{
+			_sendQueueTime = System.nanoTime();
+		}
+	}
+	
+	/**
+	 * Method resetSendQueueTime.
+	 * @return long the queue time of the oldest packet sent in this pass
+	 */
+	protected synchronized long resetSendQueueTime()
+	{
+		long queueTime = _sendQueueTime;
+		_sendQueueTime = _sendQueue.isEmpty() ? 0L : System.nanoTime();
+		return queueTime;
+	}
+	
 	/**
 	 * Method getSelectionKey.
 	 * @return SelectionKey
@@ -250,6 +284,7 @@ public class MMOConnection<T extends MMOClient>
 			if (_isPengingWrite.compareAndSet(false, true))
 			{
 				_pendingWriteTime = System.currentTimeMillis();
+				_selectorThread.schedulePendingConnection(this);
 			}
 		}
 		catch (CancelledKeyException e)
@@ -285,6 +320,15 @@ public class MMOConnection<T extends MMOClient>
 		}
 	}
 	
+	/**
+	 * Method clearPendingWrite.
+	 * @return boolean
+	 */
+	protected boolean clearPendingWrite()
+	{
+		return _isPengingWrite.compareAndSet(true, false);
+	}
+	
 	/**
 	 * Method isPendingWrite.
 	 * @return boolean
@@ -349,39 +393,12 @@ public class MMOConnection<T extends MMOClient>
 	}
 	
 	/**
-	 * Method createWriteBuffer.
-	 * @param buf ByteBuffer
+	 * Method getWriteQueue.
+	 * @return Deque<ByteBuffer>
 	 */
-	protected void createWriteBuffer(ByteBuffer buf)
+	protected Deque<ByteBuffer> getWriteQueue()
 	{
-		if (_primaryWriteBuffer == null)
-		{
-			_primaryWriteBuffer = _selectorThread.getPooledBuffer();
-			_primaryWriteBuffer.put(buf);
-		}
-		else
-		{
-			ByteBuffer temp = _selectorThread.getPooledBuffer();
-			temp.put(buf);
-			int remaining = temp.remaining();
-			_primaryWriteBuffer.flip();
-			int limit = _primaryWriteBuffer.limit();
-			if (remaining >= _primaryWriteBuffer.remaining())
-			{
-				temp.put(_primaryWriteBuffer);
-				_selectorThread.recycleBuffer(_primaryWriteBuffer);
-				_primaryWriteBuffer = temp;
-			}
-			else
-			{
-				_primaryWriteBuffer.limit(remaining);
-				temp.put(_primaryWriteBuffer);
-				_primaryWriteBuffer.limit(limit);
-				_primaryWriteBuffer.compact();
-				_secondaryWriteBuffer = _primaryWriteBuffer;
-				_primaryWriteBuffer = temp;
-			}
-		}
+		return _writeQueue;
 	}
 	
 	/**
@@ -390,20 +407,7 @@ public class MMOConnection<T extends MMOClient>
 	 */
 	protected boolean hasPendingWriteBuffer()
 	{
-		return _primaryWriteBuffer != null;
-	}
-	
-	/**
-	 * Method movePendingWriteBufferTo.
-	 * @param dest ByteBuffer
-	 */
-	protected void movePendingWriteBufferTo(ByteBuffer dest)
-	{
-		_primaryWriteBuffer.flip();
-		dest.put(_primaryWriteBuffer);
-		_selectorThread.recycleBuffer(_primaryWriteBuffer);
-		_primaryWriteBuffer = _secondaryWriteBuffer;
-		_secondaryWriteBuffer = null;
+		return !_writeQueue.isEmpty();
 	}
 	
 	/**
@@ -433,6 +437,15 @@ public class MMOConnection<T extends MMOClient>
 		return _pendingClose || _closed;
 	}
 	
+	/**
+	 * Method isConnectionClosed.
+	 * @return boolean
+	 */
+	protected boolean isConnectionClosed()
+	{
+		return _closed;
+	}
+	
 	/**
 	 * Method isPengingClose.
 	 * @return boolean
@@ -476,6 +489,7 @@ public class MMOConnection<T extends MMOClient>
 			_pendingClose = true;
 			_pendingCloseTime = System.currentTimeMillis();
 		}
+		_selectorThread.schedulePendingConnection(this);
 		disableReadInterest();
 		disableWriteInterest();
 	}
@@ -497,6 +511,7 @@ public class MMOConnection<T extends MMOClient>
 			_pendingClose = true;
 			_pendingCloseTime = System.currentTimeMillis();
 		}
+		_selectorThread.schedulePendingConnection(this);
 		disableReadInterest();
 	}
 	
@@ -514,6 +529,7 @@ public class MMOConnection<T extends MMOClient>
 			_pendingClose = true;
 			_pendingCloseTime = System.currentTimeMillis();
 		}
+		_selectorThread.schedulePendingConnection(this);
 	}
 	
 	/**
@@ -521,15 +537,10 @@ public class MMOConnection<T extends MMOClient>
 	 */
 	protected void releaseBuffers()
 	{
-		if (_primaryWriteBuffer != null)
+		ByteBuffer buf;
+		while ((buf = _writeQueue.poll()) != null)
 		{
-			_selectorThread.recycleBuffer(_primaryWriteBuffer);
-			_primaryWriteBuffer = null;
-			if (_secondaryWriteBuffer != null)
-			{
-				_selectorThread.recycleBuffer(_secondaryWriteBuffer);
-				_secondaryWriteBuffer = null;
-			}
+			_selectorThread.releaseDirectBuffer(buf);
 		}
 		if (_readBuffer != null)
 		{
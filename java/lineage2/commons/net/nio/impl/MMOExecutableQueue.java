@@ -18,6 +18,9 @@ import java.util.Iterator;
 import java.util.Queue;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import lineage2.commons.threading.RunnableStatsManager;
+import lineage2.commons.threading.RunnableStatsWrapper;
+
 /**
  * @author Mobius
  * @version $Revision: 1.0 $
@@ -78,7 +81,14 @@ public class MMOExecutableQueue<T extends MMOClient> implements Queue<Receivable
 					{
 						break;
 					}
-					t.run();
+					if (RunnableStatsManager.getInstance().isEnabled())
+					{
+						RunnableStatsWrapper.execute(t);
+					}
+					else
+					{
+						t.run();
+					}
 				}
 			}
 			finally
@@ -40,6 +40,18 @@ public class SelectorConfig
 	 * Field INTEREST_DELAY.
 	 */
 	public long INTEREST_DELAY = 30;
+	/**
+	 * Field BLOCKING_SELECT. Block in select() and wake up on queued writes instead of polling with selectNow().
+	 */
+	public boolean BLOCKING_SELECT = false;
+	/**
+	 * Field SELECT_TIMEOUT. Upper bound of a blocking select(), used to expire pending closes.
+	 */
+	public long SELECT_TIMEOUT = 100;
+	/**
+	 * Field REACTOR_COUNT. Number of selectors sharing the accepted connections, 1 to read and write in the accepting selector.
+	 */
+	public int REACTOR_COUNT = 1;
 	/**
 	 * Field HEADER_SIZE.
 	 */
@@ -52,6 +64,14 @@ public class SelectorConfig
 	 * Field HELPER_BUFFER_COUNT.
 	 */
 	public int HELPER_BUFFER_COUNT = 64;
+	/**
+	 * Field DIRECT_BUFFER_SIZE. Size of a pooled direct buffer queued for gathering writes.
+	 */
+	public int DIRECT_BUFFER_SIZE = 16384;
+	/**
+	 * Field DIRECT_BUFFER_COUNT. Direct buffers sliced from the slab of every selector.
+	 */
+	public int DIRECT_BUFFER_COUNT = 512;
 	/**
 	 * Field BYTE_ORDER.
 	 */
@@ -14,6 +14,8 @@ package lineage2.commons.net.nio.impl;
 
 import java.util.concurrent.atomic.AtomicLong;
 
+import lineage2.commons.math.LatencyHistogram;
+
 /**
  * @author Mobius
  * @version $Revision: 1.0 $
@@ -56,6 +58,47 @@ public class SelectorStats
 	 * Field _bytesMaxPerWrite.
 	 */
 	private final AtomicLong _bytesMaxPerWrite = new AtomicLong();
+	/**
+	 * Field _sendLatency. Microseconds between queueing a packet and writing it to the socket.
+	 */
+	private final LatencyHistogram _sendLatency = new LatencyHistogram();
+	/**
+	 * Field _directBuffersCapacity.
+	 */
+	private final AtomicLong _directBuffersCapacity = new AtomicLong();
+	/**
+	 * Field _directBuffersLeased.
+	 */
+	private final AtomicLong _directBuffersLeased = new AtomicLong();
+	/**
+	 * Field _directBufferMisses. Buffers allocated because the pool was empty.
+	 */
+	private final AtomicLong _directBufferMisses = new AtomicLong();
+	/**
+	 * Field _directBufferLeaks.
+	 */
+	private final AtomicLong _directBufferLeaks = new AtomicLong();
+	/**
+	 * Field _parent. Aggregated stats every update is forwarded to, null for the top level stats.
+	 */
+	private final SelectorStats _parent;
+	
+	/**
+	 * Constructor for SelectorStats.
+	 */
+	public SelectorStats()
+	{
+		this(null);
+	}
+	
+	/**
+	 * Constructor for SelectorStats.
+	 * @param parent SelectorStats
+	 */
+	public SelectorStats(SelectorStats parent)
+	{
+		_parent = parent;
+	}
 	
 	/**
 	 * Method increaseOpenedConnections.
@@ -67,6 +110,10 @@ public class SelectorStats
 			_connectionsMax.incrementAndGet();
 		}
 		_connectionsTotal.incrementAndGet();
+		if (_parent != null)
+		{
+			_parent.increaseOpenedConnections();
+		}
 	}
 	
 	/**
@@ -75,6 +122,10 @@ public class SelectorStats
 	public void decreseOpenedConnections()
 	{
 		_connectionsCurrent.decrementAndGet();
+		if (_parent != null)
+		{
+			_parent.decreseOpenedConnections();
+		}
 	}
 	
 	/**
@@ -88,6 +139,10 @@ public class SelectorStats
 			_bytesMaxPerRead.set(size);
 		}
 		_incomingBytesTotal.addAndGet(size);
+		if (_parent != null)
+		{
+			_parent.increaseIncomingBytes(size);
+		}
 	}
 	
 	/**
@@ -101,6 +156,10 @@ public class SelectorStats
 			_bytesMaxPerWrite.set(size);
 		}
 		_outgoingBytesTotal.addAndGet(size);
+		if (_parent != null)
+		{
+			_parent.increaseOutgoingBytes(size);
+		}
 	}
 	
 	/**
@@ -109,6 +168,10 @@ public class SelectorStats
 	public void increaseIncomingPacketsCount()
 	{
 		_incomingPacketsTotal.incrementAndGet();
+		if (_parent != null)
+		{
+			_parent.increaseIncomingPacketsCount();
+		}
 	}
 	
 	/**
@@ -117,6 +180,74 @@ public class SelectorStats
 	public void increaseOutgoingPacketsCount()
 	{
 		_outgoingPacketsTotal.incrementAndGet();
+		if (_parent != null)
+		{
+			_parent.increaseOutgoingPacketsCount();
+		}
+	}
+	
+	/**
+	 * Method recordSendLatency.
+	 * @param nanos long
+	 */
+	public void recordSendLatency(long nanos)
+	{
+		_sendLatency.record(nanos / 1000L);
+		if (_parent != null)
+		{
+			_parent.recordSendLatency(nanos);
+		}
+	}
+	
+	/**
+	 * Method increaseDirectBuffersCapacity.
+	 * @param count int
+	 */
+	public void increaseDirectBuffersCapacity(int count)
+	{
+		_directBuffersCapacity.addAndGet(count);
+		if (_parent != null)
+		{
+			_parent.increaseDirectBuffersCapacity(count);
+		}
+	}
+	
+	/**
+	 * Method increaseDirectBuffersLeased.
+	 * @param count int negative when buffers are returned
+	 */
+	public void increaseDirectBuffersLeased(int count)
+	{
+		_directBuffersLeased.addAndGet(count);
+		if (_parent != null)
+		{
+			_parent.increaseDirectBuffersLeased(count);
+		}
+	}
+	
+	/**
+	 * Method increaseDirectBufferMisses.
+	 */
+	public void increaseDirectBufferMisses()
+	{
+		_directBufferMisses.incrementAndGet();
+		if (_parent != null)
+		{
+			_parent.increaseDirectBufferMisses();
+		}
+	}
+	
+	/**
+	 * Method setDirectBufferLeaks.
+	 * @param count long
+	 */
+	public void setDirectBufferLeaks(long count)
+	{
+		long old = _directBufferLeaks.getAndSet(count);
+		if (_parent != null)
+		{
+			_parent._directBufferLeaks.addAndGet(count - old);
+		}
 	}
 	
 	/**
@@ -199,4 +330,67 @@ public class SelectorStats
 	{
 		return _bytesMaxPerWrite.get();
 	}
-}
+	
+	/**
+	 * Method getSendLatencyPercentile.
+	 * @param percentile double
+	 * @return long
+	 */
+	public long getSendLatencyPercentile(double percentile)
+	{
+		return _sendLatency.getPercentile(percentile);
+	}
+	
+	/**
+	 * Method getSendLatencyMax.
+	 * @return long
+	 */
+	public long getSendLatencyMax()
+	{
+		return _sendLatency.getMax();
+	}
+	
+	/**
+	 * Method resetSendLatency.
+	 */
+	public void resetSendLatency()
+	{
+		_sendLatency.reset();
+	}
+	
+	/**
+	 * Method getDirectBuffersCapacity.
+	 * @return long
+	 */
+	public long getDirectBuffersCapacity()
+	{
+		return _directBuffersCapacity.get();
+	}
+	
+	/**
+	 * Method getDirectBuffersLeased.
+	 * @return long
+	 */
+	public long getDirectBuffersLeased()
+	{
+		return _directBuffersLeased.get();
+	}
+	
+	/**
+	 * Method getDirectBufferMisses.
+	 * @return long
+	 */
+	public long getDirectBufferMisses()
+	{
+		return _directBufferMisses.get();
+	}
+	
+	/**
+	 * Method getDirectBufferLeaks.
+	 * @return long
+	 */
+	public long getDirectBufferLeaks()
+	{
+		return _directBufferLeaks.get();
+	}
+}
\ No newline at end of file
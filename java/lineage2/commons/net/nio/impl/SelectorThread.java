@@ -17,17 +17,22 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.nio.channels.CancelledKeyException;
+import java.nio.channels.GatheringByteChannel;
 import java.nio.channels.SelectionKey;
 import java.nio.channels.Selector;
 import java.nio.channels.ServerSocketChannel;
 import java.nio.channels.SocketChannel;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -84,9 +89,17 @@ public class SelectorThread<T extends MMOClient> extends Thread
 	
 	// MAIN BUFFERS
 	/**
-	 * Field DIRECT_WRITE_BUFFER.
+	 * Field _directPool. Direct buffers holding encrypted outbound data until the socket takes it, null for an acceptor.
 	 */
-	private final ByteBuffer DIRECT_WRITE_BUFFER;
+	private final DirectBufferPool _directPool;
+	/**
+	 * Field _gatherBuffers.
+	 */
+	private ByteBuffer[] _gatherBuffers = new ByteBuffer[16];
+	/**
+	 * Field _lastLeakCheck.
+	 */
+	private long _lastLeakCheck;
 	/**
 	 * Field READ_BUFFER. Field WRITE_BUFFER.
 	 */
@@ -105,6 +118,18 @@ public class SelectorThread<T extends MMOClient> extends Thread
 	 * Field _connections.
 	 */
 	private final List<MMOConnection<T>> _connections;
+	/**
+	 * Field _pendingConnections. Connections with queued writes or closes, filled by any thread in blocking select mode.
+	 */
+	private final Queue<MMOConnection<T>> _pendingConnections = new ConcurrentLinkedQueue<>();
+	/**
+	 * Field _closingConnections. Connections waiting for their last packets before close, touched by the selector only.
+	 */
+	private final List<MMOConnection<T>> _closingConnections = new ArrayList<>();
+	/**
+	 * Field _wakenUp.
+	 */
+	private final AtomicBoolean _wakenUp = new AtomicBoolean();
 	
 	/**
 	 * Field ALL_SELECTORS.
@@ -114,6 +139,22 @@ public class SelectorThread<T extends MMOClient> extends Thread
 	 * Field stats.
 	 */
 	private static SelectorStats stats = new SelectorStats();
+	/**
+	 * Field _stats. Counters of this selector, also accounted in the global stats.
+	 */
+	private final SelectorStats _stats = new SelectorStats(stats);
+	/**
+	 * Field _reactors. Selectors serving the accepted connections, null if this selector serves them itself.
+	 */
+	private final SelectorThread<T>[] _reactors;
+	/**
+	 * Field _nextReactor.
+	 */
+	private int _nextReactor;
+	/**
+	 * Field _pendingChannels. Channels handed over by the acceptor, registered by this selector on its next pass.
+	 */
+	private final Queue<SocketChannel> _pendingChannels = new ConcurrentLinkedQueue<>();
 	
 	/**
 	 * Constructor for SelectorThread.
@@ -125,6 +166,21 @@ public class SelectorThread<T extends MMOClient> extends Thread
 	 * @throws IOException
 	 */
 	public SelectorThread(SelectorConfig sc, IPacketHandler<T> packetHandler, IMMOExecutor<T> executor, IClientFactory<T> clientFactory, IAcceptFilter acceptFilter) throws IOException
+	{
+		this(sc, packetHandler, executor, clientFactory, acceptFilter, sc.REACTOR_COUNT);
+	}
+	
+	/**
+	 * Constructor for SelectorThread.
+	 * @param sc SelectorConfig
+	 * @param packetHandler IPacketHandler<T>
+	 * @param executor IMMOExecutor<T>
+	 * @param clientFactory IClientFactory<T>
+	 * @param acceptFilter IAcceptFilter
+	 * @param reactorCount int selectors the accepted connections are spread over, 1 to serve them in this selector
+	 * @throws IOException
+	 */
+	private SelectorThread(SelectorConfig sc, IPacketHandler<T> packetHandler, IMMOExecutor<T> executor, IClientFactory<T> clientFactory, IAcceptFilter acceptFilter, int reactorCount) throws IOException
 	{
 		synchronized (ALL_SELECTORS)
 		{
@@ -140,17 +196,48 @@ public class SelectorThread<T extends MMOClient> extends Thread
 		_bufferPool = new ArrayDeque<>(_sc.HELPER_BUFFER_COUNT);
 		_connections = new CopyOnWriteArrayList<>();
 		
-		DIRECT_WRITE_BUFFER = ByteBuffer.wrap(new byte[_sc.WRITE_BUFFER_SIZE]).order(_sc.BYTE_ORDER);
 		WRITE_BUFFER = ByteBuffer.wrap(new byte[_sc.WRITE_BUFFER_SIZE]).order(_sc.BYTE_ORDER);
 		READ_BUFFER = ByteBuffer.wrap(new byte[_sc.READ_BUFFER_SIZE]).order(_sc.BYTE_ORDER);
 		HELPER_BUFFER_SIZE = Math.max(_sc.READ_BUFFER_SIZE, _sc.WRITE_BUFFER_SIZE);
 		
+		if (reactorCount > 1)
+		{
+			_reactors = new SelectorThread[reactorCount];
+			for (int i = 0; i < reactorCount; i++)
+			{
+				_reactors[i] = new SelectorThread<>(sc, packetHandler, executor, clientFactory, null, 1);
+			}
+			// the acceptor never reads or writes, no need for buffer pools
+			_directPool = null;
+			return;
+		}
+		_reactors = null;
+		_directPool = new DirectBufferPool(_sc.DIRECT_BUFFER_SIZE, _sc.DIRECT_BUFFER_COUNT, _stats);
+		
 		for (int i = 0; i < _sc.HELPER_BUFFER_COUNT; i++)
 		{
 			_bufferPool.add(ByteBuffer.wrap(new byte[HELPER_BUFFER_SIZE]).order(_sc.BYTE_ORDER));
 		}
 	}
 	
+	/**
+	 * Method start.
+	 * @see java.lang.Thread#start()
+	 */
+	@Override
+	public synchronized void start()
+	{
+		if (_reactors != null)
+		{
+			for (int i = 0; i < _reactors.length; i++)
+			{
+				_reactors[i].setName(getName() + "-" + (i + 1));
+				_reactors[i].start();
+			}
+		}
+		super.start();
+	}
+	
 	/**
 	 * Method openServerSocket.
 	 * @param address InetAddress
@@ -193,6 +280,28 @@ public class SelectorThread<T extends MMOClient> extends Thread
 		}
 	}
 	
+	/**
+	 * Method releaseDirectBuffer.
+	 * @param buf ByteBuffer
+	 */
+	protected void releaseDirectBuffer(ByteBuffer buf)
+	{
+		_directPool.release(buf);
+	}
+	
+	/**
+	 * Method checkDirectBufferLeaks.
+	 */
+	protected void checkDirectBufferLeaks()
+	{
+		int owned = 0;
+		for (MMOConnection<T> con : _connections)
+		{
+			owned += con.getWriteQueue().size();
+		}
+		_stats.setDirectBufferLeaks(Math.max(0, _directPool.checkLeaks(owned)));
+	}
+	
 	/**
 	 * Method freeBuffer.
 	 * @param buf ByteBuffer
@@ -240,29 +349,58 @@ public class SelectorThread<T extends MMOClient> extends Thread
 				
 				currentMillis = System.currentTimeMillis();
 				
-				conItr = _connections.iterator();
-				while (conItr.hasNext())
+				if (!_pendingChannels.isEmpty())
+				{
+					registerPendingChannels();
+				}
+				
+				if ((_directPool != null) && ((currentMillis - _lastLeakCheck) >= 60000L))
+				{
+					_lastLeakCheck = currentMillis;
+					checkDirectBufferLeaks();
+				}
+				
+				if (_sc.BLOCKING_SELECT)
 				{
-					con = conItr.next();
-					if (con.isPengingClose())
+					closePendingConnections(currentMillis);
+					
+					_wakenUp.set(false);
+					// a channel handed over before the flag was cleared did not wake the selector up
+					if (_pendingConnections.isEmpty() && _pendingChannels.isEmpty())
 					{
-						if (!con.isPendingWrite() || ((currentMillis - con.getPendingCloseTime()) >= 10000L))
-						{
-							closeConnectionImpl(con);
-							continue;
-						}
+						totalKeys = getSelector().select(_sc.SELECT_TIMEOUT);
+					}
+					else
+					{
+						totalKeys = getSelector().selectNow();
 					}
-					if (con.isPendingWrite())
+				}
+				else
+				{
+					conItr = _connections.iterator();
+					while (conItr.hasNext())
 					{
-						if ((currentMillis - con.getPendingWriteTime()) >= _sc.INTEREST_DELAY)
+						con = conItr.next();
+						if (con.isPengingClose())
 						{
-							con.enableWriteInterest();
+							if (!con.isPendingWrite() || ((currentMillis - con.getPendingCloseTime()) >= 10000L))
+							{
+								closeConnectionImpl(con);
+								continue;
+							}
+						}
+						if (con.isPendingWrite())
+						{
+							if ((currentMillis - con.getPendingWriteTime()) >= _sc.INTEREST_DELAY)
+							{
+								con.enableWriteInterest();
+							}
 						}
 					}
+					
+					totalKeys = getSelector().selectNow();
 				}
 				
-				totalKeys = getSelector().selectNow();
-				
 				if (totalKeys > 0)
 				{
 					keys = getSelector().selectedKeys();
@@ -308,6 +446,12 @@ public class SelectorThread<T extends MMOClient> extends Thread
 					}
 				}
 				
+				if (_sc.BLOCKING_SELECT)
+				{
+					flushPendingConnections();
+					continue;
+				}
+				
 				try
 				{
 					Thread.sleep(_sc.SLEEP_TIME);
@@ -333,6 +477,110 @@ public class SelectorThread<T extends MMOClient> extends Thread
 		}
 	}
 	
+	/**
+	 * Method schedulePendingConnection. Queues the connection for the selector and wakes it up when it blocks in select().
+	 * @param con MMOConnection<T>
+	 */
+	protected void schedulePendingConnection(MMOConnection<T> con)
+	{
+		if (!_sc.BLOCKING_SELECT)
+		{
+			return;
+		}
+		_pendingConnections.add(con);
+		if (_wakenUp.compareAndSet(false, true))
+		{
+			getSelector().wakeup();
+		}
+	}
+	
+	/**
+	 * Method flushPendingConnections.
+	 */
+	protected void flushPendingConnections()
+	{
+		MMOConnection<T> con;
+		while ((con = _pendingConnections.poll()) != null)
+		{
+			if (con.isConnectionClosed())
+			{
+				continue;
+			}
+			if (con.isPengingClose() && !_closingConnections.contains(con))
+			{
+				_closingConnections.add(con);
+			}
+			if (!con.clearPendingWrite())
+			{
+				continue;
+			}
+			
+			SelectionKey key = con.getSelectionKey();
+			try
+			{
+				// socket is full, OP_WRITE will flush it
+				if (key.isValid() && ((key.interestOps() & SelectionKey.OP_WRITE) == 0))
+				{
+					writePacket(key);
+				}
+			}
+			catch (CancelledKeyException cke)
+			{
+				
+			}
+		}
+	}
+	
+	/**
+	 * Method closePendingConnections.
+	 * @param currentMillis long
+	 */
+	protected void closePendingConnections(long currentMillis)
+	{
+		if (_closingConnections.isEmpty())
+		{
+			return;
+		}
+		
+		Iterator<MMOConnection<T>> itr = _closingConnections.iterator();
+		while (itr.hasNext())
+		{
+			MMOConnection<T> con = itr.next();
+			if (con.isConnectionClosed())
+			{
+				itr.remove();
+			}
+			else if ((!con.isPendingWrite() && !con.hasPendingWriteBuffer()) || ((currentMillis - con.getPendingCloseTime()) >= 10000L))
+			{
+				itr.remove();
+				closeConnectionImpl(con);
+			}
+		}
+	}
+	
+	/**
+	 * Method setWriteInterest.
+	 * @param con MMOConnection<T>
+	 * @param enable boolean
+	 */
+	private void setWriteInterest(MMOConnection<T> con, boolean enable)
+	{
+		SelectionKey key = con.getSelectionKey();
+		try
+		{
+			int ops = key.interestOps();
+			int newOps = enable ? (ops | SelectionKey.OP_WRITE) : (ops & ~SelectionKey.OP_WRITE);
+			if (ops != newOps)
+			{
+				key.interestOps(newOps);
+			}
+		}
+		catch (CancelledKeyException e)
+		{
+			
+		}
+	}
+	
 	/**
 	 * Method finishConnection.
 	 * @param key SelectionKey
@@ -360,7 +608,6 @@ public class SelectorThread<T extends MMOClient> extends Thread
 	{
 		ServerSocketChannel ssc = (ServerSocketChannel) key.channel();
 		SocketChannel sc;
-		SelectionKey clientKey;
 		try
 		{
 			while ((sc = ssc.accept()) != null)
@@ -368,16 +615,14 @@ public class SelectorThread<T extends MMOClient> extends Thread
 				if ((getAcceptFilter() == null) || getAcceptFilter().accept(sc))
 				{
 					sc.configureBlocking(false);
-					clientKey = sc.register(getSelector(), SelectionKey.OP_READ);
-					
-					MMOConnection<T> con = new MMOConnection<>(this, sc.socket(), clientKey);
-					T client = getClientFactory().create(con);
-					client.setConnection(con);
-					con.setClient(client);
-					clientKey.attach(con);
-					
-					_connections.add(con);
-					stats.increaseOpenedConnections();
+					if (_reactors != null)
+					{
+						nextReactor().addPendingChannel(sc);
+					}
+					else
+					{
+						registerConnection(sc);
+					}
 				}
 				else
 				{
@@ -391,6 +636,96 @@ public class SelectorThread<T extends MMOClient> extends Thread
 		}
 	}
 	
+	/**
+	 * Method registerConnection.
+	 * @param sc SocketChannel
+	 * @throws IOException
+	 */
+	protected void registerConnection(SocketChannel sc) throws IOException
+	{
+		SelectionKey clientKey = sc.register(getSelector(), SelectionKey.OP_READ);
+		
+		MMOConnection<T> con = new MMOConnection<>(this, sc.socket(), clientKey);
+		T client = getClientFactory().create(con);
+		client.setConnection(con);
+		con.setClient(client);
+		clientKey.attach(con);
+		
+		_connections.add(con);
+		_stats.increaseOpenedConnections();
+	}
+	
+	/**
+	 * Method nextReactor. Picks the least loaded reactor, starting after the last used one so equal loads go round-robin.
+	 * @return SelectorThread<T>
+	 */
+	private SelectorThread<T> nextReactor()
+	{
+		SelectorThread<T> best = null;
+		int bestLoad = Integer.MAX_VALUE;
+		for (int i = 0; i < _reactors.length; i++)
+		{
+			int idx = (_nextReactor + i) % _reactors.length;
+			int load = _reactors[idx].getConnectionsCount();
+			if (load < bestLoad)
+			{
+				bestLoad = load;
+				best = _reactors[idx];
+				_nextReactor = idx + 1;
+			}
+		}
+		return best;
+	}
+	
+	/**
+	 * Method addPendingChannel.
+	 * @param sc SocketChannel
+	 */
+	protected void addPendingChannel(SocketChannel sc)
+	{
+		_pendingChannels.add(sc);
+		if (_sc.BLOCKING_SELECT && _wakenUp.compareAndSet(false, true))
+		{
+			getSelector().wakeup();
+		}
+	}
+	
+	/**
+	 * Method registerPendingChannels.
+	 */
+	protected void registerPendingChannels()
+	{
+		SocketChannel sc;
+		while ((sc = _pendingChannels.poll()) != null)
+		{
+			try
+			{
+				registerConnection(sc);
+			}
+			catch (IOException e)
+			{
+				_log.error("Error in " + getName(), e);
+				try
+				{
+					sc.close();
+				}
+				catch (IOException ioe)
+				{
+					// ignore
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Method getConnectionsCount.
+	 * @return int
+	 */
+	public int getConnectionsCount()
+	{
+		return _connections.size() + _pendingChannels.size();
+	}
+	
 	/**
 	 * Method readPacket.
 	 * @param key SelectionKey
@@ -435,7 +770,7 @@ public class SelectorThread<T extends MMOClient> extends Thread
 			{
 				buf.flip();
 				
-				stats.increaseIncomingBytes(result);
+				_stats.increaseIncomingBytes(result);
 				
 				@SuppressWarnings("unused")
 				int i;
@@ -494,7 +829,7 @@ public class SelectorThread<T extends MMOClient> extends Thread
 			
 			if (size <= buf.remaining())
 			{
-				stats.increaseIncomingPacketsCount();
+				_stats.increaseIncomingPacketsCount();
 				parseClientPacket(getPacketHandler(), buf, size, con);
 				buf.position(pos + size + _sc.HEADER_SIZE);
 				
@@ -588,32 +923,53 @@ public class SelectorThread<T extends MMOClient> extends Thread
 		
 		prepareWriteBuffer(con);
 		
-		DIRECT_WRITE_BUFFER.flip();
-		int size = DIRECT_WRITE_BUFFER.remaining();
+		Deque<ByteBuffer> writeQueue = con.getWriteQueue();
+		int count = writeQueue.size();
+		if (_gatherBuffers.length < count)
+		{
+			_gatherBuffers = new ByteBuffer[Math.max(count, _gatherBuffers.length * 2)];
+		}
+		writeQueue.toArray(_gatherBuffers);
 		
-		int result = -1;
+		long result = -1;
 		
 		try
 		{
-			result = con.getWritableChannel().write(DIRECT_WRITE_BUFFER);
+			result = count == 0 ? 0 : ((GatheringByteChannel) con.getWritableChannel()).write(_gatherBuffers, 0, count);
 		}
 		catch (IOException e)
 		{
 			// error handling goes on the if bellow
 		}
+		Arrays.fill(_gatherBuffers, 0, count, null);
 		
 		// check if no error happened
 		if (result >= 0)
 		{
-			stats.increaseOutgoingBytes(result);
+			_stats.increaseOutgoingBytes((int) result);
 			
-			// check if we written everything
-			if (result != size)
+			long queueTime = con.resetSendQueueTime();
+			if (queueTime != 0L)
 			{
-				con.createWriteBuffer(DIRECT_WRITE_BUFFER);
+				_stats.recordSendLatency(System.nanoTime() - queueTime);
 			}
 			
-			if (!con.getSendQueue().isEmpty() || con.hasPendingWriteBuffer())
+			// give back what was written completely, the rest waits for the next pass
+			while (!writeQueue.isEmpty() && !writeQueue.peekFirst().hasRemaining())
+			{
+				_directPool.release(writeQueue.pollFirst());
+			}
+			
+			if (_sc.BLOCKING_SELECT)
+			{
+				// keep OP_WRITE only while the socket can not take the rest
+				setWriteInterest(con, con.hasPendingWriteBuffer());
+				if (!con.getSendQueue().isEmpty())
+				{
+					con.scheduleWriteInterest();
+				}
+			}
+			else if (!con.getSendQueue().isEmpty() || con.hasPendingWriteBuffer())
 			{
 				con.scheduleWriteInterest();
 			}
@@ -650,14 +1006,15 @@ public class SelectorThread<T extends MMOClient> extends Thread
 	protected void prepareWriteBuffer(MMOConnection<T> con)
 	{
 		WRITE_CLIENT = con.getClient();
-		DIRECT_WRITE_BUFFER.clear();
 		
-		if (con.hasPendingWriteBuffer())
+		Deque<ByteBuffer> writeQueue = con.getWriteQueue();
+		int pending = 0;
+		for (ByteBuffer buf : writeQueue)
 		{
-			con.movePendingWriteBufferTo(DIRECT_WRITE_BUFFER);
+			pending += buf.remaining();
 		}
 		
-		if (DIRECT_WRITE_BUFFER.hasRemaining() && !con.hasPendingWriteBuffer())
+		if (pending < _sc.WRITE_BUFFER_SIZE)
 		{
 			int i;
 			Queue<SendablePacket<T>> sendQueue = con.getSendQueue();
@@ -675,16 +1032,13 @@ public class SelectorThread<T extends MMOClient> extends Thread
 				
 				try
 				{
-					stats.increaseOutgoingPacketsCount();
+					_stats.increaseOutgoingPacketsCount();
 					putPacketIntoWriteBuffer(sp, true);
 					WRITE_BUFFER.flip();
-					if (DIRECT_WRITE_BUFFER.remaining() >= WRITE_BUFFER.limit())
+					pending += WRITE_BUFFER.remaining();
+					appendToWriteQueue(writeQueue, WRITE_BUFFER);
+					if (pending >= _sc.WRITE_BUFFER_SIZE)
 					{
-						DIRECT_WRITE_BUFFER.put(WRITE_BUFFER);
-					}
-					else
-					{
-						con.createWriteBuffer(WRITE_BUFFER);
 						break;
 					}
 				}
@@ -700,6 +1054,43 @@ public class SelectorThread<T extends MMOClient> extends Thread
 		WRITE_CLIENT = null;
 	}
 	
+	/**
+	 * Method appendToWriteQueue. Copies the encrypted packet behind the data already queued, taking new direct buffers from the pool as needed.
+	 * @param writeQueue Deque<ByteBuffer>
+	 * @param src ByteBuffer
+	 */
+	private void appendToWriteQueue(Deque<ByteBuffer> writeQueue, ByteBuffer src)
+	{
+		ByteBuffer tail = writeQueue.peekLast();
+		while (src.hasRemaining())
+		{
+			if ((tail == null) || (tail.limit() == tail.capacity()))
+			{
+				tail = _directPool.acquire();
+				tail.limit(0);
+				writeQueue.addLast(tail);
+			}
+			
+			int pos = tail.position();
+			int limit = tail.limit();
+			tail.limit(tail.capacity());
+			tail.position(limit);
+			if (src.remaining() > tail.remaining())
+			{
+				int srcLimit = src.limit();
+				src.limit(src.position() + tail.remaining());
+				tail.put(src);
+				src.limit(srcLimit);
+			}
+			else
+			{
+				tail.put(src);
+			}
+			tail.limit(tail.position());
+			tail.position(pos);
+		}
+	}
+	
 	/**
 	 * Method putPacketIntoWriteBuffer.
 	 * @param sp SendablePacket<T>
@@ -832,7 +1223,7 @@ public class SelectorThread<T extends MMOClient> extends Thread
 				
 				_connections.remove(con);
 				
-				stats.decreseOpenedConnections();
+				_stats.decreseOpenedConnections();
 			}
 		}
 	}
@@ -843,6 +1234,14 @@ public class SelectorThread<T extends MMOClient> extends Thread
 	public void shutdown()
 	{
 		_shutdown = true;
+		getSelector().wakeup();
+		if (_reactors != null)
+		{
+			for (SelectorThread<T> reactor : _reactors)
+			{
+				reactor.shutdown();
+			}
+		}
 	}
 	
 	/**
@@ -899,6 +1298,7 @@ public class SelectorThread<T extends MMOClient> extends Thread
 		StringBuilder list = new StringBuilder();
 		
 		list.append("selectorThreadCount: .... ").append(ALL_SELECTORS.size()).append('\n');
+		list.append("selectorMode: ........... ").append(ALL_SELECTORS.isEmpty() || !ALL_SELECTORS.get(0).getConfig().BLOCKING_SELECT ? "polling" : "blocking").append('\n');
 		list.append("=================================================\n");
 		list.append("getTotalConnections: .... ").append(stats.getTotalConnections()).append('\n');
 		list.append("getCurrentConnections: .. ").append(stats.getCurrentConnections()).append('\n');
@@ -909,6 +1309,33 @@ public class SelectorThread<T extends MMOClient> extends Thread
 		list.append("getOutgoingPacketsTotal:  ").append(stats.getOutgoingPacketsTotal()).append('\n');
 		list.append("getMaxBytesPerRead: ..... ").append(stats.getMaxBytesPerRead()).append('\n');
 		list.append("getMaxBytesPerWrite: .... ").append(stats.getMaxBytesPerWrite()).append('\n');
+		list.append("sendLatency p50 (us): ... ").append(stats.getSendLatencyPercentile(50)).append('\n');
+		list.append("sendLatency p99 (us): ... ").append(stats.getSendLatencyPercentile(99)).append('\n');
+		list.append("sendLatency max (us): ... ").append(stats.getSendLatencyMax()).append('\n');
+		list.append("directBuffersLeased: .... ").append(stats.getDirectBuffersLeased()).append(" / ").append(stats.getDirectBuffersCapacity()).append('\n');
+		list.append("directBufferMisses: ..... ").append(stats.getDirectBufferMisses()).append('\n');
+		list.append("directBufferLeaks: ...... ").append(stats.getDirectBufferLeaks()).append('\n');
+		list.append("=================================================\n");
+		synchronized (ALL_SELECTORS)
+		{
+			for (SelectorThread st : ALL_SELECTORS)
+			{
+				if (st._reactors != null)
+				{
+					continue;
+				}
+				SelectorStats rs = st._stats;
+				list.append(st.getName()).append(": connections=").append(rs.getCurrentConnections());
+				list.append(", max=").append(rs.getMaximumConnections());
+				list.append(", inPackets=").append(rs.getIncomingPacketsTotal());
+				list.append(", outPackets=").append(rs.getOutgoingPacketsTotal());
+				list.append(", inBytes=").append(rs.getIncomingBytesTotal());
+				list.append(", outBytes=").append(rs.getOutgoingBytesTotal());
+				list.append(", sendP99(us)=").append(rs.getSendLatencyPercentile(99));
+				list.append(", directLeased=").append(rs.getDirectBuffersLeased());
+				list.append(", directMisses=").append(rs.getDirectBufferMisses()).append('\n');
+			}
+		}
 		list.append("=================================================\n");
 		
 		return list;
@@ -12,21 +12,47 @@
  */
 package lineage2.commons.threading;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import lineage2.commons.math.LatencyHistogram;
+import lineage2.commons.net.nio.ReceivablePacket;
 
 /**
+ * Run time histograms in microseconds per runnable and client packet class. Recording takes no lock and touches a single histogram: every class records into {@link #WINDOW_SLOTS} slots of about {@link #SLOT_SECONDS} seconds each, striped by thread, and the stripes are merged when read. A slot being reused is swapped for a fresh one and the old one is added to the histogram since the start once the threads recording into it left, so no sample is lost.
  * @author Mobius
  * @version $Revision: 1.0 $
  */
 public final class RunnableStatsManager
 {
+	/**
+	 * Field WINDOW_SLOTS. Power of two.
+	 */
+	public static final int WINDOW_SLOTS = 4;
+	/**
+	 * Field SLOT_SHIFT. A slot lasts 2^34 nanoseconds, about 17 seconds.
+	 */
+	private static final int SLOT_SHIFT = 34;
+	/**
+	 * Field SLOT_SECONDS.
+	 */
+	public static final int SLOT_SECONDS = (int) ((1L << SLOT_SHIFT) / 1000000000L);
+	/**
+	 * Field STRIPES. Power of two, at least the number of processors up to 16.
+	 */
+	static final int STRIPES = Math.min(16, Integer.highestOneBit((Runtime.getRuntime().availableProcessors() * 2) - 1));
+	/**
+	 * Field START. Slots are counted from here, nanoTime may be negative.
+	 */
+	private static final long START = System.nanoTime();
 	/**
 	 * Field _instance.
 	 */
@@ -44,37 +70,57 @@ public final class RunnableStatsManager
 	/**
 	 * Field classStats.
 	 */
-	final Map<Class<?>, ClassStat> classStats = new HashMap<>();
+	final ConcurrentMap<Class<?>, ClassStat> classStats = new ConcurrentHashMap<>();
 	/**
-	 * Field lock.
+	 * Field _enabled.
 	 */
-	private final Lock lock = new ReentrantLock();
+	private volatile boolean _enabled;
 	
 	/**
 	 * @author Mobius
 	 */
-	private class ClassStat
+	private static final class Slot
 	{
 		/**
-		 * Field clazz.
+		 * Field number.
 		 */
-		final Class<?> clazz;
+		final long number;
+		/**
+		 * Field histogram.
+		 */
+		final LatencyHistogram histogram = new LatencyHistogram();
+		/**
+		 * Field writers. Threads recording into the histogram, it is merged into the total once they left.
+		 */
+		final AtomicInteger writers = new AtomicInteger();
+		
 		/**
-		 * Field runCount.
+		 * Constructor for Slot.
+		 * @param number long
 		 */
-		long runCount = 0;
+		Slot(long number)
+		{
+			this.number = number;
+		}
+	}
+	
+	/**
+	 * @author Mobius
+	 */
+	private static class ClassStat
+	{
 		/**
-		 * Field runTime.
+		 * Field clazz.
 		 */
-		long runTime = 0;
+		final Class<?> clazz;
 		/**
-		 * Field minTime.
+		 * Field total. Slots which left the rolling window.
 		 */
-		long minTime = Long.MAX_VALUE;
+		final LatencyHistogram total = new LatencyHistogram();
 		/**
-		 * Field maxTime.
+		 * Field window. STRIPES entries per slot, created by the first record of a stripe in the slot.
 		 */
-		long maxTime = Long.MIN_VALUE;
+		final AtomicReferenceArray<Slot> window = new AtomicReferenceArray<>(WINDOW_SLOTS * STRIPES);
 		
 		/**
 		 * Constructor for ClassStat.
@@ -83,94 +129,237 @@ public final class RunnableStatsManager
 		ClassStat(Class<?> cl)
 		{
 			clazz = cl;
-			classStats.put(cl, this);
 		}
-	}
-	
-	/**
-	 * Method handleStats.
-	 * @param cl Class<?>
-	 * @param runTime long
-	 */
-	public void handleStats(Class<?> cl, long runTime)
-	{
-		try
+		
+		/**
+		 * Method record.
+		 * @param runTime long microseconds
+		 * @param slot long
+		 */
+		void record(long runTime, long slot)
 		{
-			lock.lock();
-			ClassStat stat = classStats.get(cl);
-			if (stat == null)
+			int index = (((int) slot & (WINDOW_SLOTS - 1)) * STRIPES) + ((int) Thread.currentThread().getId() & (STRIPES - 1));
+			for (;;)
 			{
-				stat = new ClassStat(cl);
+				Slot current = window.get(index);
+				if ((current != null) && (current.number > slot))
+				{
+					total.record(runTime);
+					return;
+				}
+				if ((current == null) || (current.number != slot))
+				{
+					if (window.compareAndSet(index, current, new Slot(slot)) && (current != null))
+					{
+						retire(current);
+					}
+					continue;
+				}
+				current.writers.incrementAndGet();
+				try
+				{
+					if (window.get(index) == current)
+					{
+						current.histogram.record(runTime);
+						return;
+					}
+				}
+				finally
+				{
+					current.writers.decrementAndGet();
+				}
 			}
-			stat.runCount++;
-			stat.runTime += runTime;
-			if (stat.minTime > runTime)
+		}
+		
+		/**
+		 * Method retire. Waits for the threads still recording into a swapped out slot, a thread coming later sees the swap and records into the new slot.
+		 * @param slot Slot
+		 */
+		private void retire(Slot slot)
+		{
+			while (slot.writers.get() != 0)
 			{
-				stat.minTime = runTime;
+				Thread.yield();
 			}
-			if (stat.maxTime < runTime)
+			total.add(slot.histogram);
+		}
+		
+		/**
+		 * Method getTotal.
+		 * @return LatencyHistogram all slots merged
+		 */
+		LatencyHistogram getTotal()
+		{
+			LatencyHistogram result = new LatencyHistogram();
+			result.add(total);
+			for (int i = 0; i < window.length(); i++)
 			{
-				stat.maxTime = runTime;
+				Slot slot = window.get(i);
+				if (slot != null)
+				{
+					result.add(slot.histogram);
+				}
 			}
+			return result;
 		}
-		finally
+		
+		/**
+		 * Method getWindow.
+		 * @param slot long current slot
+		 * @return LatencyHistogram slots of the rolling window merged
+		 */
+		LatencyHistogram getWindow(long slot)
 		{
-			lock.unlock();
+			LatencyHistogram result = new LatencyHistogram();
+			for (int i = 0; i < window.length(); i++)
+			{
+				Slot s = window.get(i);
+				if ((s != null) && (s.number > (slot - WINDOW_SLOTS)))
+				{
+					result.add(s.histogram);
+				}
+			}
+			return result;
+		}
+		
+		/**
+		 * Method isPacket.
+		 * @return boolean
+		 */
+		boolean isPacket()
+		{
+			return ReceivablePacket.class.isAssignableFrom(clazz);
 		}
 	}
 	
 	/**
-	 * Method getSortedClassStats.
-	 * @return List<ClassStat>
+	 * Method setEnabled.
+	 * @param enabled boolean
+	 */
+	public void setEnabled(boolean enabled)
+	{
+		_enabled = enabled;
+	}
+	
+	/**
+	 * Method isEnabled.
+	 * @return boolean
+	 */
+	public boolean isEnabled()
+	{
+		return _enabled;
+	}
+	
+	/**
+	 * Method handleStats.
+	 * @param cl Class<?>
+	 * @param runTime long nanoseconds
+	 */
+	public void handleStats(Class<?> cl, long runTime)
+	{
+		long end = System.nanoTime();
+		handleStats(cl, end - runTime, end);
+	}
+	
+	/**
+	 * Method handleStats.
+	 * @param cl Class<?>
+	 * @param begin long System.nanoTime() before the run
+	 * @param end long System.nanoTime() after the run
 	 */
-	private List<ClassStat> getSortedClassStats()
+	public void handleStats(Class<?> cl, long begin, long end)
 	{
-		List<ClassStat> result = Collections.emptyList();
-		try
+		ClassStat stat = classStats.get(cl);
+		if (stat == null)
 		{
-			lock.lock();
-			result = Arrays.asList(classStats.values().toArray(new ClassStat[classStats.size()]));
+			stat = new ClassStat(cl);
+			ClassStat old = classStats.putIfAbsent(cl, stat);
+			if (old != null)
+			{
+				stat = old;
+			}
 		}
-		finally
+		stat.record((end - begin) / 1000L, Math.max(0L, end - START) >>> SLOT_SHIFT);
+	}
+	
+	/**
+	 * Method getStats.
+	 * @return CharSequence all classes since the start, the highest maximum first
+	 */
+	public CharSequence getStats()
+	{
+		List<ClassStat> stats = new ArrayList<>(classStats.values());
+		final Map<ClassStat, LatencyHistogram> totals = new HashMap<>();
+		for (ClassStat stat : stats)
 		{
-			lock.unlock();
+			totals.put(stat, stat.getTotal());
 		}
-		Collections.sort(result, new Comparator<ClassStat>()
+		Collections.sort(stats, new Comparator<ClassStat>()
 		{
 			@Override
 			public int compare(ClassStat c1, ClassStat c2)
 			{
-				if (c1.maxTime < c2.maxTime)
-				{
-					return 1;
-				}
-				if (c1.maxTime == c2.maxTime)
-				{
-					return 0;
-				}
-				return -1;
+				return Long.compare(totals.get(c2).getMax(), totals.get(c1).getMax());
 			}
 		});
-		return result;
+		StringBuilder list = new StringBuilder();
+		for (ClassStat stat : stats)
+		{
+			LatencyHistogram total = totals.get(stat);
+			list.append(stat.clazz.getName()).append(":\n");
+			list.append("\tRun: ............ ").append(total.getCount()).append('\n');
+			list.append("\tTime (us): ...... ").append(total.getTotal()).append('\n');
+			list.append("\tAverage (us): ... ").append(total.getAverage()).append('\n');
+			list.append("\tp50 (us): ....... ").append(total.getPercentile(50)).append('\n');
+			list.append("\tp90 (us): ....... ").append(total.getPercentile(90)).append('\n');
+			list.append("\tp99 (us): ....... ").append(total.getPercentile(99)).append('\n');
+			list.append("\tMax (us): ....... ").append(total.getMax()).append('\n');
+		}
+		return list;
 	}
 	
 	/**
-	 * Method getStats.
+	 * Method getWindowStats. Classes which ran within the rolling window, the most run time first.
+	 * @param packets boolean client packets, or all other runnables
+	 * @param limit int
 	 * @return CharSequence
 	 */
-	public CharSequence getStats()
+	public CharSequence getWindowStats(boolean packets, int limit)
 	{
+		long slot = (System.nanoTime() - START) >>> SLOT_SHIFT;
+		List<ClassStat> stats = new ArrayList<>();
+		final Map<ClassStat, LatencyHistogram> windows = new HashMap<>();
+		for (ClassStat stat : classStats.values())
+		{
+			if (stat.isPacket() != packets)
+			{
+				continue;
+			}
+			LatencyHistogram window = stat.getWindow(slot);
+			if (window.getCount() > 0)
+			{
+				stats.add(stat);
+				windows.put(stat, window);
+			}
+		}
+		Collections.sort(stats, new Comparator<ClassStat>()
+		{
+			@Override
+			public int compare(ClassStat c1, ClassStat c2)
+			{
+				return Long.compare(windows.get(c2).getTotal(), windows.get(c1).getTotal());
+			}
+		});
 		StringBuilder list = new StringBuilder();
-		List<ClassStat> stats = getSortedClassStats();
-		for (ClassStat stat : stats)
+		list.append("Last ").append((WINDOW_SLOTS - 1) * SLOT_SECONDS).append(" to ").append(WINDOW_SLOTS * SLOT_SECONDS).append(" seconds, times in microseconds\n");
+		list.append(String.format("%-40s %9s %10s %8s %8s %8s %9s", packets ? "Packet" : "Runnable", "Run", "Time", "p50", "p90", "p99", "Max")).append('\n');
+		for (int i = 0; (i < stats.size()) && (i < limit); i++)
 		{
-			list.append(stat.clazz.getName()).append(":\n");
-			list.append("\tRun: ............ ").append(stat.runCount).append('\n');
-			list.append("\tTime: ........... ").append(stat.runTime).append('\n');
-			list.append("\tMin: ............ ").append(stat.minTime).append('\n');
-			list.append("\tMax: ............ ").append(stat.maxTime).append('\n');
-			list.append("\tAverage: ........ ").append(stat.runTime / stat.runCount).append('\n');
+			Class<?> clazz = stats.get(i).clazz;
+			LatencyHistogram window = windows.get(stats.get(i));
+			String name = clazz.getName().substring(clazz.getName().lastIndexOf('.') + 1);
+			list.append(String.format("%-40s %9d %10d %8d %8d %8d %9d", name, window.getCount(), window.getTotal(), window.getPercentile(50), window.getPercentile(90), window.getPercentile(99), window.getMax())).append('\n');
 		}
 		return list;
 	}
-}
+}
\ No newline at end of file
@@ -69,7 +69,7 @@ public class RunnableStatsWrapper implements Runnable
 		try
 		{
 			runnable.run();
-			RunnableStatsManager.getInstance().handleStats(runnable.getClass(), System.nanoTime() - begin);
+			RunnableStatsManager.getInstance().handleStats(runnable.getClass(), begin, System.nanoTime());
 		}
 		catch (Exception e)
 		{
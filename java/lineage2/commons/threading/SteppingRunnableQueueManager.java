@@ -12,22 +12,23 @@
  */
 package lineage2.commons.threading;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Delayed;
 import java.util.concurrent.RunnableScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-
-import lineage2.commons.collections.LazyArrayList;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.commons.lang3.mutable.MutableLong;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Steps scheduled runnables on a hierarchical timing wheel. Every level has 64 slots, a slot of level N covers 64^N ticks, so inserting and cancelling take constant time and a tick only touches the futures which are due or cascade down a level.
  * @author Mobius
  * @version $Revision: 1.0 $
  */
@@ -37,18 +38,58 @@ public abstract class SteppingRunnableQueueManager implements Runnable
 	 * Field _log.
 	 */
 	static final Logger _log = LoggerFactory.getLogger(SteppingRunnableQueueManager.class);
+	/**
+	 * Field WHEEL_BITS. (value is 6)
+	 */
+	private static final int WHEEL_BITS = 6;
+	/**
+	 * Field WHEEL_SIZE.
+	 */
+	private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+	/**
+	 * Field WHEEL_MASK.
+	 */
+	private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+	/**
+	 * Field WHEEL_LEVELS. (value is 4)
+	 */
+	private static final int WHEEL_LEVELS = 4;
+	/**
+	 * Field MAX_SPAN. Ticks covered by all levels, farther futures are parked on the last level and cascaded again.
+	 */
+	private static final long MAX_SPAN = 1L << (WHEEL_BITS * WHEEL_LEVELS);
 	/**
 	 * Field tickPerStepInMillis.
 	 */
 	protected final long tickPerStepInMillis;
 	/**
-	 * Field queue.
+	 * Field wheel.
 	 */
-	private final List<SteppingScheduledFuture<?>> queue = new CopyOnWriteArrayList<>();
+	private final SteppingScheduledFuture<?>[][] wheel = new SteppingScheduledFuture<?>[WHEEL_LEVELS][WHEEL_SIZE];
+	/**
+	 * Field lock.
+	 */
+	private final Lock lock = new ReentrantLock();
+	/**
+	 * Field due. Only touched by the ticking thread.
+	 */
+	private final List<SteppingScheduledFuture<?>> due = new ArrayList<>();
 	/**
 	 * Field isRunning.
 	 */
 	private final AtomicBoolean isRunning = new AtomicBoolean();
+	/**
+	 * Field currentTick.
+	 */
+	private long currentTick;
+	/**
+	 * Field size.
+	 */
+	private int size;
+	/**
+	 * Field cancelled.
+	 */
+	private long cancelled;
 	
 	/**
 	 * Constructor for SteppingRunnableQueueManager.
@@ -71,31 +112,49 @@ public abstract class SteppingRunnableQueueManager implements Runnable
 		/**
 		 * Field stepping.
 		 */
-		private final long stepping;
+		final long stepping;
 		/**
 		 * Field isPeriodic.
 		 */
 		private final boolean isPeriodic;
 		/**
-		 * Field step.
+		 * Field deadline. Tick the future is due at.
+		 */
+		long deadline;
+		/**
+		 * Field level. Wheel level the future is linked in, -1 when it is not linked.
+		 */
+		int level = -1;
+		/**
+		 * Field slot.
+		 */
+		int slot;
+		/**
+		 * Field prev.
 		 */
-		private long step;
+		SteppingScheduledFuture<?> prev;
+		/**
+		 * Field next.
+		 */
+		SteppingScheduledFuture<?> next;
+		/**
+		 * Field isDone.
+		 */
+		volatile boolean isDone;
 		/**
 		 * Field isCancelled.
 		 */
-		private boolean isCancelled;
+		private volatile boolean isCancelled;
 		
 		/**
 		 * Constructor for SteppingScheduledFuture.
 		 * @param r Runnable
-		 * @param initial long
 		 * @param stepping long
 		 * @param isPeriodic boolean
 		 */
-		public SteppingScheduledFuture(Runnable r, long initial, long stepping, boolean isPeriodic)
+		public SteppingScheduledFuture(Runnable r, long stepping, boolean isPeriodic)
 		{
 			this.r = r;
-			this.step = initial;
 			this.stepping = stepping;
 			this.isPeriodic = isPeriodic;
 		}
@@ -107,23 +166,13 @@ public abstract class SteppingRunnableQueueManager implements Runnable
 		@Override
 		public void run()
 		{
-			if (--step == 0)
+			try
 			{
-				try
-				{
-					r.run();
-				}
-				catch (Exception e)
-				{
-					_log.error("Exception in a Runnable execution:", e);
-				}
-				finally
-				{
-					if (isPeriodic)
-					{
-						step = stepping;
-					}
-				}
+				r.run();
+			}
+			catch (Exception e)
+			{
+				_log.error("Exception in a Runnable execution:", e);
 			}
 		}
 		
@@ -134,7 +183,7 @@ public abstract class SteppingRunnableQueueManager implements Runnable
 		@Override
 		public boolean isDone()
 		{
-			return isCancelled || (!isPeriodic && (step == 0));
+			return isCancelled || isDone;
 		}
 		
 		/**
@@ -155,7 +204,21 @@ public abstract class SteppingRunnableQueueManager implements Runnable
 		@Override
 		public boolean cancel(boolean mayInterruptIfRunning)
 		{
-			return isCancelled = true;
+			isCancelled = true;
+			lock.lock();
+			try
+			{
+				if (level >= 0)
+				{
+					unlink(this);
+					cancelled++;
+				}
+			}
+			finally
+			{
+				lock.unlock();
+			}
+			return true;
 		}
 		
 		/**
@@ -188,7 +251,7 @@ public abstract class SteppingRunnableQueueManager implements Runnable
 		@Override
 		public long getDelay(TimeUnit unit)
 		{
-			return unit.convert(step * tickPerStepInMillis, TimeUnit.MILLISECONDS);
+			return unit.convert(Math.max(0, deadline - currentTick) * tickPerStepInMillis, TimeUnit.MILLISECONDS);
 		}
 		
 		/**
@@ -246,10 +309,18 @@ public abstract class SteppingRunnableQueueManager implements Runnable
 	 */
 	private SteppingScheduledFuture<?> schedule(Runnable r, long initial, long delay, boolean isPeriodic)
 	{
-		SteppingScheduledFuture<?> sr;
+		SteppingScheduledFuture<?> sr = new SteppingScheduledFuture<Boolean>(r, getStepping(delay), isPeriodic);
 		long initialStepping = getStepping(initial);
-		long stepping = getStepping(delay);
-		queue.add(sr = new SteppingScheduledFuture<Boolean>(r, initialStepping, stepping, isPeriodic));
+		lock.lock();
+		try
+		{
+			sr.deadline = currentTick + initialStepping;
+			link(sr);
+		}
+		finally
+		{
+			lock.unlock();
+		}
 		return sr;
 	}
 	
@@ -264,6 +335,141 @@ public abstract class SteppingRunnableQueueManager implements Runnable
 		return (delay % tickPerStepInMillis) > (tickPerStepInMillis / 2) ? (delay / tickPerStepInMillis) + 1 : delay < tickPerStepInMillis ? 1 : delay / tickPerStepInMillis;
 	}
 	
+	/**
+	 * Method link. Puts the future in the slot of the lowest level which still covers its deadline.
+	 * @param sr SteppingScheduledFuture<?>
+	 */
+	private void link(SteppingScheduledFuture<?> sr)
+	{
+		long ticks = sr.deadline - currentTick;
+		int level = 0;
+		long deadline = sr.deadline;
+		if (ticks >= MAX_SPAN)
+		{
+			level = WHEEL_LEVELS - 1;
+			deadline = (currentTick + MAX_SPAN) - 1;
+		}
+		else
+		{
+			while ((level < (WHEEL_LEVELS - 1)) && (ticks >= (1L << (WHEEL_BITS * (level + 1)))))
+			{
+				level++;
+			}
+		}
+		int slot = (int) (Math.max(deadline, currentTick) >>> (WHEEL_BITS * level)) & WHEEL_MASK;
+		SteppingScheduledFuture<?> head = wheel[level][slot];
+		sr.level = level;
+		sr.slot = slot;
+		sr.prev = null;
+		sr.next = head;
+		if (head != null)
+		{
+			head.prev = sr;
+		}
+		wheel[level][slot] = sr;
+		size++;
+	}
+	
+	/**
+	 * Method unlink.
+	 * @param sr SteppingScheduledFuture<?>
+	 */
+	void unlink(SteppingScheduledFuture<?> sr)
+	{
+		if (sr.prev != null)
+		{
+			sr.prev.next = sr.next;
+		}
+		else
+		{
+			wheel[sr.level][sr.slot] = sr.next;
+		}
+		if (sr.next != null)
+		{
+			sr.next.prev = sr.prev;
+		}
+		sr.prev = null;
+		sr.next = null;
+		sr.level = -1;
+		size--;
+	}
+	
+	/**
+	 * Method cascade. Moves the futures of a slot of a higher level down to the levels matching their remaining delay.
+	 * @param level int
+	 * @param slot int
+	 */
+	private void cascade(int level, int slot)
+	{
+		SteppingScheduledFuture<?> sr = wheel[level][slot];
+		wheel[level][slot] = null;
+		while (sr != null)
+		{
+			SteppingScheduledFuture<?> next = sr.next;
+			size--;
+			link(sr);
+			sr = next;
+		}
+	}
+	
+	/**
+	 * Method advance. Steps the wheel one tick and detaches the futures due at it.
+	 */
+	private void advance()
+	{
+		lock.lock();
+		try
+		{
+			currentTick++;
+			for (int level = 1; level < WHEEL_LEVELS; level++)
+			{
+				if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) != 0)
+				{
+					break;
+				}
+				cascade(level, (int) (currentTick >>> (WHEEL_BITS * level)) & WHEEL_MASK);
+			}
+			int slot = (int) currentTick & WHEEL_MASK;
+			SteppingScheduledFuture<?> sr = wheel[0][slot];
+			wheel[0][slot] = null;
+			while (sr != null)
+			{
+				SteppingScheduledFuture<?> next = sr.next;
+				sr.prev = null;
+				sr.next = null;
+				sr.level = -1;
+				size--;
+				due.add(sr);
+				sr = next;
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Method reschedule.
+	 * @param sr SteppingScheduledFuture<?>
+	 */
+	private void reschedule(SteppingScheduledFuture<?> sr)
+	{
+		lock.lock();
+		try
+		{
+			if (!sr.isCancelled())
+			{
+				sr.deadline = currentTick + sr.stepping;
+				link(sr);
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+	
 	/**
 	 * Method run.
 	 * @see java.lang.Runnable#run()
@@ -273,44 +479,44 @@ public abstract class SteppingRunnableQueueManager implements Runnable
 	{
 		if (!isRunning.compareAndSet(false, true))
 		{
-			_log.warn("Slow running queue, managed by " + this + ", queue size : " + queue.size() + "!");
+			_log.warn("Slow running queue, managed by " + this + ", queue size : " + size + "!");
 			return;
 		}
 		try
 		{
-			if (queue.isEmpty())
-			{
-				return;
-			}
-			for (SteppingScheduledFuture<?> sr : queue)
+			advance();
+			for (int i = 0; i < due.size(); i++)
 			{
-				if (!sr.isDone())
+				SteppingScheduledFuture<?> sr = due.get(i);
+				if (sr.isCancelled())
+				{
+					continue;
+				}
+				sr.run();
+				if (sr.isPeriodic())
+				{
+					reschedule(sr);
+				}
+				else
 				{
-					sr.run();
+					sr.isDone = true;
 				}
 			}
 		}
 		finally
 		{
+			due.clear();
 			isRunning.set(false);
 		}
 	}
 	
 	/**
-	 * Method purge.
+	 * Method size.
+	 * @return int
 	 */
-	public void purge()
+	public int size()
 	{
-		LazyArrayList<SteppingScheduledFuture<?>> purge = LazyArrayList.newInstance();
-		for (SteppingScheduledFuture<?> sr : queue)
-		{
-			if (sr.isDone())
-			{
-				purge.add(sr);
-			}
-		}
-		queue.removeAll(purge);
-		LazyArrayList.recycle(purge);
+		return size;
 	}
 	
 	/**
@@ -321,32 +527,51 @@ public abstract class SteppingRunnableQueueManager implements Runnable
 	{
 		StringBuilder list = new StringBuilder();
 		Map<String, MutableLong> stats = new TreeMap<>();
+		int[] levels = new int[WHEEL_LEVELS];
 		int total = 0;
-		int done = 0;
-		for (SteppingScheduledFuture<?> sr : queue)
+		long cancelledCount;
+		lock.lock();
+		try
 		{
-			if (sr.isDone())
+			for (int level = 0; level < WHEEL_LEVELS; level++)
 			{
-				done++;
-				continue;
-			}
-			total++;
-			MutableLong count = stats.get(sr.r.getClass().getName());
-			if (count == null)
-			{
-				stats.put(sr.r.getClass().getName(), count = new MutableLong(1L));
-			}
-			else
-			{
-				count.increment();
+				for (SteppingScheduledFuture<?> head : wheel[level])
+				{
+					for (SteppingScheduledFuture<?> sr = head; sr != null; sr = sr.next)
+					{
+						total++;
+						levels[level]++;
+						MutableLong count = stats.get(sr.r.getClass().getName());
+						if (count == null)
+						{
+							stats.put(sr.r.getClass().getName(), count = new MutableLong(1L));
+						}
+						else
+						{
+							count.increment();
+						}
+					}
+				}
 			}
+			cancelledCount = cancelled;
+		}
+		finally
+		{
+			lock.unlock();
 		}
 		for (Map.Entry<String, MutableLong> e : stats.entrySet())
 		{
 			list.append('\t').append(e.getKey()).append(" : ").append(e.getValue().longValue()).append('\n');
 		}
 		list.append("Scheduled: ....... ").append(total).append('\n');
-		list.append("Done/Cancelled: .. ").append(done).append('\n');
+		list.append("Wheel levels: .... ");
+		for (int level = 0; level < WHEEL_LEVELS; level++)
+		{
+			list.append(level == 0 ? "" : " / ").append(levels[level]);
+		}
+		list.append('\n');
+		list.append("Cancelled: ....... ").append(cancelledCount).append('\n');
+		list.append("Ticks: ........... ").append(currentTick).append('\n');
 		return list;
 	}
-}
+}
\ No newline at end of file
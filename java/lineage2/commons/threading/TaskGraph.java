@@ -0,0 +1,325 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.commons.threading;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs named stages once all the stages they depend on have finished. Independent stages run in parallel on a fork-join pool, start and end of every stage are kept for a timing report with the critical path.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class TaskGraph
+{
+	/**
+	 * @author Mobius
+	 */
+	private class Stage implements Runnable
+	{
+		/**
+		 * Field name.
+		 */
+		final String name;
+		/**
+		 * Field task.
+		 */
+		final Runnable task;
+		/**
+		 * Field dependencies.
+		 */
+		final String[] dependencies;
+		/**
+		 * Field dependents.
+		 */
+		final List<Stage> dependents = new ArrayList<>();
+		/**
+		 * Field pending. Dependencies which did not finish yet.
+		 */
+		final AtomicInteger pending = new AtomicInteger();
+		/**
+		 * Field start. Nanoseconds since the start of the graph.
+		 */
+		volatile long start;
+		/**
+		 * Field end. Nanoseconds since the start of the graph.
+		 */
+		volatile long end;
+		/**
+		 * Field done.
+		 */
+		volatile boolean done;
+		
+		/**
+		 * Constructor for Stage.
+		 * @param name String
+		 * @param task Runnable
+		 * @param dependencies String[]
+		 */
+		Stage(String name, Runnable task, String[] dependencies)
+		{
+			this.name = name;
+			this.task = task;
+			this.dependencies = dependencies;
+		}
+		
+		/**
+		 * Method run.
+		 * @see java.lang.Runnable#run()
+		 */
+		@Override
+		public void run()
+		{
+			try
+			{
+				if (_failure == null)
+				{
+					start = System.nanoTime() - _started;
+					task.run();
+					end = System.nanoTime() - _started;
+					done = true;
+				}
+			}
+			catch (Throwable t)
+			{
+				synchronized (TaskGraph.this)
+				{
+					if (_failure == null)
+					{
+						_failure = new IllegalStateException("Stage " + name + " failed.", t);
+					}
+				}
+			}
+			finally
+			{
+				for (Stage dependent : dependents)
+				{
+					if (dependent.pending.decrementAndGet() == 0)
+					{
+						submit(dependent);
+					}
+				}
+				_latch.countDown();
+			}
+		}
+	}
+	
+	/**
+	 * Field _stages.
+	 */
+	private final Map<String, Stage> _stages = new LinkedHashMap<>();
+	/**
+	 * Field _pool. Null when the stages run on the calling thread.
+	 */
+	private ForkJoinPool _pool;
+	/**
+	 * Field _latch.
+	 */
+	private CountDownLatch _latch;
+	/**
+	 * Field _started.
+	 */
+	private long _started;
+	/**
+	 * Field _finished.
+	 */
+	private long _finished;
+	/**
+	 * Field _failure.
+	 */
+	private volatile Exception _failure;
+	
+	/**
+	 * Method add.
+	 * @param name String
+	 * @param task Runnable
+	 * @param dependencies String[] names of stages added before or after this one
+	 */
+	public void add(String name, Runnable task, String... dependencies)
+	{
+		if (_stages.containsKey(name))
+		{
+			throw new IllegalArgumentException("Duplicate stage " + name + ".");
+		}
+		_stages.put(name, new Stage(name, task, dependencies));
+	}
+	
+	/**
+	 * Method run. Blocks until all stages finished.
+	 * @param parallelism int 1 runs the stages one by one on the calling thread in the order they were added, as far as the dependencies allow
+	 * @throws Exception the failure of the first failed stage, the stages depending on it are not run
+	 */
+	public void run(int parallelism) throws Exception
+	{
+		List<Stage> roots = link();
+		_started = System.nanoTime();
+		_latch = new CountDownLatch(_stages.size());
+		if (parallelism > 1)
+		{
+			_pool = new ForkJoinPool(parallelism);
+			try
+			{
+				for (Stage stage : roots)
+				{
+					submit(stage);
+				}
+				_latch.await();
+			}
+			finally
+			{
+				_pool.shutdown();
+			}
+		}
+		else
+		{
+			List<Stage> left = new LinkedList<>(_stages.values());
+			while (!left.isEmpty())
+			{
+				for (Iterator<Stage> it = left.iterator(); it.hasNext();)
+				{
+					Stage stage = it.next();
+					if (stage.pending.get() == 0)
+					{
+						it.remove();
+						stage.run();
+						break;
+					}
+				}
+			}
+		}
+		_finished = System.nanoTime() - _started;
+		if (_failure != null)
+		{
+			throw _failure;
+		}
+	}
+	
+	/**
+	 * Method link. Resolves the dependencies and checks the graph for cycles.
+	 * @return List<Stage> stages without dependencies
+	 */
+	private List<Stage> link()
+	{
+		List<Stage> roots = new ArrayList<>();
+		for (Stage stage : _stages.values())
+		{
+			for (String name : stage.dependencies)
+			{
+				Stage dependency = _stages.get(name);
+				if (dependency == null)
+				{
+					throw new IllegalArgumentException("Stage " + stage.name + " depends on unknown stage " + name + ".");
+				}
+				dependency.dependents.add(stage);
+			}
+			stage.pending.set(stage.dependencies.length);
+			if (stage.dependencies.length == 0)
+			{
+				roots.add(stage);
+			}
+		}
+		Map<Stage, Integer> pending = new LinkedHashMap<>();
+		LinkedList<Stage> ready = new LinkedList<>(roots);
+		int visited = 0;
+		Stage stage;
+		while ((stage = ready.poll()) != null)
+		{
+			visited++;
+			for (Stage dependent : stage.dependents)
+			{
+				Integer left = pending.get(dependent);
+				left = (left == null ? dependent.dependencies.length : left) - 1;
+				pending.put(dependent, left);
+				if (left == 0)
+				{
+					ready.add(dependent);
+				}
+			}
+		}
+		if (visited != _stages.size())
+		{
+			throw new IllegalArgumentException("Stages have cyclic dependencies.");
+		}
+		return roots;
+	}
+	
+	/**
+	 * Method submit.
+	 * @param stage Stage
+	 */
+	void submit(Stage stage)
+	{
+		if (_pool != null)
+		{
+			_pool.execute(stage);
+		}
+	}
+	
+	/**
+	 * Method getReport.
+	 * @return CharSequence stage timings in the order they were added, followed by the critical path
+	 */
+	public CharSequence getReport()
+	{
+		StringBuilder sb = new StringBuilder();
+		long total = 0;
+		for (Stage stage : _stages.values())
+		{
+			if (!stage.done)
+			{
+				sb.append(stage.name).append(": not run").append('\n');
+				continue;
+			}
+			total += stage.end - stage.start;
+			sb.append(String.format("%-25s %7d ms (at %d ms)", stage.name + ":", (stage.end - stage.start) / 1000000L, stage.start / 1000000L)).append('\n');
+		}
+		sb.append("Stages: .................. ").append(total / 1000000L).append(" ms").append('\n');
+		sb.append("Wall time: ............... ").append(_finished / 1000000L).append(" ms").append('\n');
+		Stage last = null;
+		for (Stage stage : _stages.values())
+		{
+			if (stage.done && ((last == null) || (stage.end > last.end)))
+			{
+				last = stage;
+			}
+		}
+		LinkedList<String> path = new LinkedList<>();
+		while (last != null)
+		{
+			path.addFirst(last.name + " (" + ((last.end - last.start) / 1000000L) + " ms)");
+			Stage previous = null;
+			for (String name : last.dependencies)
+			{
+				Stage dependency = _stages.get(name);
+				if ((previous == null) || (dependency.end > previous.end))
+				{
+					previous = dependency;
+				}
+			}
+			last = previous;
+		}
+		sb.append("Critical path: ........... ");
+		for (int i = 0; i < path.size(); i++)
+		{
+			sb.append(i == 0 ? "" : " -> ").append(path.get(i));
+		}
+		return sb.append('\n');
+	}
+}
\ No newline at end of file
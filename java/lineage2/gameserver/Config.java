@@ -88,6 +88,8 @@ public class Config
 	public static String DATABASE_LOGIN;
 	public static String DATABASE_PASSWORD;
 	public static boolean AUTOSAVE;
+	public static int CHARACTER_STORE_DELAY;
+	public static int VARIABLES_STORE_DELAY;
 	public static int EFFECT_TASK_MANAGER_COUNT;
 	public static int MAXIMUM_ONLINE_USERS;
 	public static boolean DONTLOADSPAWN;
@@ -151,10 +153,14 @@ public class Config
 	public static int SCHEDULED_THREAD_POOL_SIZE;
 	public static int EXECUTOR_THREAD_POOL_SIZE;
 	public static int THREAD_P_MOVE;
+	public static long MOVE_TASK_TICK;
+	public static int STARTUP_THREADS;
+	public static boolean DATAPACK_SNAPSHOT;
 	public static int NPC_AI_MAX_THREAD;
 	public static int PLAYER_AI_MAX_THREAD;
 	public static int THREAD_P_PATHFIND;
 	public static boolean ENABLE_RUNNABLE_STATS;
+	public static boolean STATS_CACHE_ENABLED;
 	public static boolean L2_TOP_MANAGER_ENABLED;
 	public static int L2_TOP_MANAGER_INTERVAL;
 	public static String L2_TOP_WEB_ADDRESS;
@@ -788,6 +794,9 @@ public class Config
 	public static int PATHFIND_MAX_Z_DIFF;
 	public static long PATHFIND_MAX_TIME;
 	public static String PATHFIND_BUFFERS;
+	public static int PATHFIND_QUEUE_SIZE;
+	public static int PATHFIND_CACHE_SIZE;
+	public static long PATHFIND_CACHE_TIME;
 	public static boolean DEBUG;
 	public static int GAME_POINT_ITEM_ID;
 	public static int WEAR_DELAY;
@@ -922,6 +931,8 @@ public class Config
 		SERVER_SIDE_NPC_NAME = serverSettings.getProperty("ServerSideNpcName", false);
 		SERVER_SIDE_NPC_TITLE = serverSettings.getProperty("ServerSideNpcTitle", false);
 		AUTOSAVE = serverSettings.getProperty("Autosave", true);
+		CHARACTER_STORE_DELAY = serverSettings.getProperty("CharacterStoreDelay", 1000);
+		VARIABLES_STORE_DELAY = serverSettings.getProperty("VariablesStoreDelay", 500);
 		MAXIMUM_ONLINE_USERS = serverSettings.getProperty("MaximumOnlineUsers", 3000);
 		DATABASE_DRIVER = serverSettings.getProperty("Driver", "com.mysql.jdbc.Driver");
 		DATABASE_MAX_CONNECTIONS = serverSettings.getProperty("MaximumDbConnections", 10);
@@ -934,16 +945,25 @@ public class Config
 		SCHEDULED_THREAD_POOL_SIZE = serverSettings.getProperty("ScheduledThreadPoolSize", NCPUS * 4);
 		EXECUTOR_THREAD_POOL_SIZE = serverSettings.getProperty("ExecutorThreadPoolSize", NCPUS * 2);
 		THREAD_P_MOVE = serverSettings.getProperty("ThreadPoolSizeMove", 25);
+		MOVE_TASK_TICK = serverSettings.getProperty("MoveTaskTick", 50L);
+		STARTUP_THREADS = serverSettings.getProperty("StartupThreads", NCPUS);
+		DATAPACK_SNAPSHOT = serverSettings.getProperty("DatapackSnapshot", false);
 		THREAD_P_PATHFIND = serverSettings.getProperty("ThreadPoolSizePathfind", 10);
 		NPC_AI_MAX_THREAD = serverSettings.getProperty("NpcAiMaxThread", 10);
 		PLAYER_AI_MAX_THREAD = serverSettings.getProperty("PlayerAiMaxThread", 20);
 		ENABLE_RUNNABLE_STATS = serverSettings.getProperty("EnableRunnableStats", false);
+		STATS_CACHE_ENABLED = serverSettings.getProperty("StatsCacheEnabled", true);
 		SELECTOR_CONFIG.SLEEP_TIME = serverSettings.getProperty("SelectorSleepTime", 10L);
 		SELECTOR_CONFIG.INTEREST_DELAY = serverSettings.getProperty("InterestDelay", 30L);
+		SELECTOR_CONFIG.BLOCKING_SELECT = serverSettings.getProperty("SelectorBlockingMode", false);
+		SELECTOR_CONFIG.SELECT_TIMEOUT = serverSettings.getProperty("SelectorSelectTimeout", 100L);
+		SELECTOR_CONFIG.REACTOR_COUNT = serverSettings.getProperty("SelectorReactorCount", 1);
 		SELECTOR_CONFIG.MAX_SEND_PER_PASS = serverSettings.getProperty("MaxSendPerPass", 32);
 		SELECTOR_CONFIG.READ_BUFFER_SIZE = serverSettings.getProperty("ReadBufferSize", 65536);
 		SELECTOR_CONFIG.WRITE_BUFFER_SIZE = serverSettings.getProperty("WriteBufferSize", 131072);
 		SELECTOR_CONFIG.HELPER_BUFFER_COUNT = serverSettings.getProperty("BufferPoolSize", 64);
+		SELECTOR_CONFIG.DIRECT_BUFFER_SIZE = serverSettings.getProperty("DirectBufferSize", 16384);
+		SELECTOR_CONFIG.DIRECT_BUFFER_COUNT = serverSettings.getProperty("DirectBufferPoolSize", 512);
 		CHAT_MESSAGE_MAX_LEN = serverSettings.getProperty("ChatMessageLimit", 1000);
 		ABUSEWORD_BANCHAT = serverSettings.getProperty("ABUSEWORD_BANCHAT", false);
 		int counter = 0;
@@ -1847,6 +1867,9 @@ public class Config
 		MIN_LAYER_HEIGHT = geodataSettings.getProperty("MinLayerHeight", 64);
 		PATHFIND_MAX_TIME = geodataSettings.getProperty("PathFindMaxTime", 10000000);
 		PATHFIND_BUFFERS = geodataSettings.getProperty("PathFindBuffers", "8x96;8x128;8x160;8x192;4x224;4x256;4x288;2x320;2x384;2x352;1x512");
+		PATHFIND_QUEUE_SIZE = geodataSettings.getProperty("PathFindQueueSize", 512);
+		PATHFIND_CACHE_SIZE = geodataSettings.getProperty("PathFindCacheSize", 4096);
+		PATHFIND_CACHE_TIME = geodataSettings.getProperty("PathFindCacheTime", 10000L);
 	}
 	
 	/**
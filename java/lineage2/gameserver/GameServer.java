@@ -16,10 +16,12 @@ import java.io.File;
 import java.net.InetAddress;
 import java.net.ServerSocket;
 
+import lineage2.commons.data.xml.XmlSnapshot;
 import lineage2.commons.lang.StatsUtils;
 import lineage2.commons.listener.Listener;
 import lineage2.commons.listener.ListenerList;
 import lineage2.commons.net.nio.impl.SelectorThread;
+import lineage2.commons.threading.TaskGraph;
 import lineage2.commons.versioning.Version;
 import lineage2.gameserver.cache.CrestCache;
 import lineage2.gameserver.dao.CharacterDAO;
@@ -96,6 +98,7 @@ import lineage2.gameserver.taskmanager.tasks.RestoreOfflineTraders;
 import lineage2.gameserver.utils.Strings;
 import net.sf.ehcache.CacheManager;
 
+import org.apache.commons.lang3.ArrayUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -229,93 +232,163 @@ public class GameServer
 		}
 		CacheManager.getInstance();
 		ThreadPoolManager.getInstance();
-		AttributeStoneManager.load();
-		LifeStoneManager.load();
-		EnchantScrollManager.load();
-		CrystallizationManager.load();
-		Scripts.getInstance();
-		GeoEngine.load();
-		Strings.reload();
-		GameTimeController.getInstance();
-		World.init();
-		Parsers.parseAll();
-		ItemsDAO.getInstance();
-		CrestCache.getInstance();
-		CharacterDAO.getInstance();
-		ClanTable.getInstance();
-		FakePlayersTable.getInstance();
-		SkillTreeTable.getInstance();
-		AugmentationData.getInstance();
-		EnchantHPBonusTable.getInstance();
-		EnchantStatBonusTable.getInstance();
-		AttributeDamageResistTable.getInstance();
-		PetSkillsTable.getInstance();
-		ItemAuctionManager.getInstance();
-		CommissionShopManager.getInstance();
-		SpawnManager.getInstance().spawnAll();
-		StaticObjectHolder.getInstance().spawnAll();
-		RaidBossSpawnManager.getInstance();
-		Scripts.getInstance().init();
-		DelusionChamberManager.getInstance();
-		Announcements.getInstance();
-		LotteryManager.getInstance();
-		PlayerMessageStack.getInstance();
-		if (Config.AUTODESTROY_ITEM_AFTER > 0)
+		XmlSnapshot.setDirectory(Config.DATAPACK_SNAPSHOT ? new File(Config.DATAPACK_ROOT, "data/snapshot") : null);
+		TaskGraph startup = new TaskGraph();
+		startup.add("EnchantData", new Runnable()
 		{
-			ItemsAutoDestroy.getInstance();
-		}
-		MonsterRace.getInstance();
-		if (Config.ENABLE_OLYMPIAD)
+			@Override
+			public void run()
+			{
+				AttributeStoneManager.load();
+				LifeStoneManager.load();
+				EnchantScrollManager.load();
+				CrystallizationManager.load();
+			}
+		});
+		startup.add("Scripts", new Runnable()
 		{
-			Olympiad.load();
-			Hero.getInstance();
-		}
-		PetitionManager.getInstance();
-		CursedWeaponsManager.getInstance();
-		if (!Config.ALLOW_WEDDING)
+			@Override
+			public void run()
+			{
+				Scripts.getInstance();
+			}
+		});
+		startup.add("Geodata", new Runnable()
 		{
-			CoupleManager.getInstance();
-			_log.info("CoupleManager initialized");
-		}
-		ItemHandler.getInstance();
-		AdminCommandHandler.getInstance().log();
-		UserCommandHandler.getInstance().log();
-		VoicedCommandHandler.getInstance().log();
-		TaskManager.getInstance();
-		_log.info("=[Events]=========================================");
-		ResidenceHolder.getInstance().callInit();
-		EventHolder.getInstance().callInit();
-		_log.info("==================================================");
-		BoatHolder.getInstance().spawnAll();
-		CastleManorManager.getInstance();
+			@Override
+			public void run()
+			{
+				GeoEngine.load();
+			}
+		});
+		startup.add("World", new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				Strings.reload();
+				GameTimeController.getInstance();
+				World.init();
+			}
+		});
+		Parsers.addStages(startup, "Geodata", "World");
+		startup.add("Tables", new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				ItemsDAO.getInstance();
+				CrestCache.getInstance();
+				CharacterDAO.getInstance();
+				ClanTable.getInstance();
+				FakePlayersTable.getInstance();
+				SkillTreeTable.getInstance();
+				AugmentationData.getInstance();
+				EnchantHPBonusTable.getInstance();
+				EnchantStatBonusTable.getInstance();
+				AttributeDamageResistTable.getInstance();
+				PetSkillsTable.getInstance();
+				ItemAuctionManager.getInstance();
+				CommissionShopManager.getInstance();
+			}
+		}, ArrayUtils.add(Parsers.STAGES, "EnchantData"));
+		startup.add("Spawns", new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				SpawnManager.getInstance().spawnAll();
+				StaticObjectHolder.getInstance().spawnAll();
+				RaidBossSpawnManager.getInstance();
+			}
+		}, "Tables", "Scripts", "Geodata");
+		startup.add("ScriptsInit", new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				Scripts.getInstance().init();
+			}
+		}, "Spawns");
+		startup.add("Managers", new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				DelusionChamberManager.getInstance();
+				Announcements.getInstance();
+				LotteryManager.getInstance();
+				PlayerMessageStack.getInstance();
+				if (Config.AUTODESTROY_ITEM_AFTER > 0)
+				{
+					ItemsAutoDestroy.getInstance();
+				}
+				MonsterRace.getInstance();
+				if (Config.ENABLE_OLYMPIAD)
+				{
+					Olympiad.load();
+					Hero.getInstance();
+				}
+				PetitionManager.getInstance();
+				CursedWeaponsManager.getInstance();
+				if (!Config.ALLOW_WEDDING)
+				{
+					CoupleManager.getInstance();
+					_log.info("CoupleManager initialized");
+				}
+				ItemHandler.getInstance();
+				AdminCommandHandler.getInstance().log();
+				UserCommandHandler.getInstance().log();
+				VoicedCommandHandler.getInstance().log();
+				TaskManager.getInstance();
+			}
+		}, "ScriptsInit");
+		startup.add("Events", new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				_log.info("=[Events]=========================================");
+				ResidenceHolder.getInstance().callInit();
+				EventHolder.getInstance().callInit();
+				_log.info("==================================================");
+				BoatHolder.getInstance().spawnAll();
+				CastleManorManager.getInstance();
+			}
+		}, "Managers");
+		startup.add("Instances", new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				CoupleManager.getInstance();
+				if (Config.ALT_FISH_CHAMPIONSHIP_ENABLED)
+				{
+					FishingChampionShipManager.getInstance();
+				}
+				HellboundManager.getInstance();
+				NaiaTowerManager.getInstance();
+				NaiaCoreManager.getInstance();
+				SoDManager.getInstance();
+				SoIManager.getInstance();
+				SoHManager.getInstance();
+				HarnakUndegroundManager.getInstance();
+				BloodAltarManager.getInstance();
+				L2TopManager.getInstance();
+				MMOTopManager.getInstance();
+				SMSWayToPay.getInstance();
+				MiniGameScoreManager.getInstance();
+				AwakingManager.getInstance();
+				FindPartyManager.getInstance().load();
+				ArcanManager.getInstance();
+				WorldStatisticsManager.getInstance();
+				SubClassTable.getInstance();
+				DualClassTable.getInstance();
+			}
+		}, "Events");
+		startup.run(Config.STARTUP_THREADS);
 		Runtime.getRuntime().addShutdownHook(Shutdown.getInstance());
 		_log.info("IdFactory: Free ObjectID's remaining: " + IdFactory.getInstance().size());
-		CoupleManager.getInstance();
-		if (Config.ALT_FISH_CHAMPIONSHIP_ENABLED)
-		{
-			FishingChampionShipManager.getInstance();
-		}
-		HellboundManager.getInstance();
-		NaiaTowerManager.getInstance();
-		NaiaCoreManager.getInstance();
-		SoDManager.getInstance();
-		SoIManager.getInstance();
-        SoHManager.getInstance();
-        HarnakUndegroundManager.getInstance();
-
-        BloodAltarManager.getInstance();
-		L2TopManager.getInstance();
-		MMOTopManager.getInstance();
-		SMSWayToPay.getInstance();
-		MiniGameScoreManager.getInstance();
-		AwakingManager.getInstance();
-		FindPartyManager.getInstance().load();
-		
-        ArcanManager.getInstance();
-        WorldStatisticsManager.getInstance();
-
-		SubClassTable.getInstance();
-		DualClassTable.getInstance();
 		if (Config.GARBAGE_COLLECTOR_INTERVAL > 0)
 		{
 			Class.forName(GarbageCollector.class.getName());
@@ -346,6 +419,15 @@ public class GameServer
 		{
 			_log.info("Telnet server is currently disabled.");
 		}
+		_log.info("=[Startup]=======================================");
+		for (String line : startup.getReport().toString().split("\n"))
+		{
+			_log.info(line);
+		}
+		if (XmlSnapshot.isEnabled())
+		{
+			_log.info("Datapack snapshots: ...... " + XmlSnapshot.getLoadedCount() + " loaded, " + XmlSnapshot.getSavedTime() + " ms of XML parsing saved");
+		}
 		_log.info("=================================================");
 		String memUsage = new StringBuilder().append(StatsUtils.getMemUsage()).toString();
 		for (String line : memUsage.split("\n"))
@@ -18,6 +18,8 @@ import java.util.TimerTask;
 import lineage2.commons.net.nio.impl.SelectorThread;
 import lineage2.commons.time.cron.SchedulingPattern;
 import lineage2.commons.time.cron.SchedulingPattern.InvalidPatternException;
+import lineage2.gameserver.dao.CharacterStoreDAO;
+import lineage2.gameserver.dao.VariablesStoreDAO;
 import lineage2.gameserver.database.DatabaseFactory;
 import lineage2.gameserver.instancemanager.CoupleManager;
 import lineage2.gameserver.instancemanager.CursedWeaponsManager;
@@ -241,6 +243,24 @@ public class Shutdown extends Thread
 		System.out.println("Saving data...");
 		saveData();
 		try
+		{
+			CharacterStoreDAO.getInstance().shutdown();
+			System.out.println("CharacterStoreDAO: Data saved.");
+		}
+		catch (Exception e)
+		{
+			e.printStackTrace();
+		}
+		try
+		{
+			VariablesStoreDAO.getInstance().shutdown();
+			System.out.println("VariablesStoreDAO: Data saved.");
+		}
+		catch (Exception e)
+		{
+			e.printStackTrace();
+		}
+		try
 		{
 			System.out.println("Shutting down thread pool...");
 			ThreadPoolManager.getInstance().shutdown();
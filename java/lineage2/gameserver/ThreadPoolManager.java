@@ -21,6 +21,7 @@ import java.util.concurrent.TimeUnit;
 import lineage2.commons.threading.LoggingRejectedExecutionHandler;
 import lineage2.commons.threading.PriorityThreadFactory;
 import lineage2.commons.threading.RunnableImpl;
+import lineage2.commons.threading.RunnableStatsManager;
 import lineage2.commons.threading.RunnableStatsWrapper;
 
 /**
@@ -65,6 +66,7 @@ public class ThreadPoolManager
 	 */
 	private ThreadPoolManager()
 	{
+		RunnableStatsManager.getInstance().setEnabled(Config.ENABLE_RUNNABLE_STATS);
 		_scheduledExecutor = new ScheduledThreadPoolExecutor(Config.SCHEDULED_THREAD_POOL_SIZE, new PriorityThreadFactory("ScheduledThreadPool", Thread.NORM_PRIORITY), new LoggingRejectedExecutionHandler());
 		_executor = new ThreadPoolExecutor(Config.EXECUTOR_THREAD_POOL_SIZE, Integer.MAX_VALUE, 5L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(), new PriorityThreadFactory("ThreadPoolExecutor", Thread.NORM_PRIORITY), new LoggingRejectedExecutionHandler());
 		scheduleAtFixedRate(new RunnableImpl()
@@ -12,12 +12,16 @@
  */
 package lineage2.gameserver.ai;
 
+import gnu.trove.procedure.TObjectProcedure;
+
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.ScheduledFuture;
 
@@ -31,6 +35,7 @@ import lineage2.gameserver.Config;
 import lineage2.gameserver.ThreadPoolManager;
 import lineage2.gameserver.data.xml.holder.NpcHolder;
 import lineage2.gameserver.geodata.GeoEngine;
+import lineage2.gameserver.geodata.PathFindService;
 import lineage2.gameserver.model.AggroList.AggroInfo;
 import lineage2.gameserver.model.Creature;
 import lineage2.gameserver.model.MinionList;
@@ -439,6 +444,73 @@ public class DefaultAI extends CharacterAI
 	 * Field _nearestTargetComparator.
 	 */
 	protected final Comparator<Creature> _nearestTargetComparator;
+	/**
+	 * Field NEAREST_TARGETS. Aggression candidates selected at once, the next ones are only selected when all of them were refused.
+	 */
+	private static final int NEAREST_TARGETS = 16;
+	/**
+	 * Field NEAREST_BATCHES. Batches of candidates selected before the remaining ones are collected and sorted at once.
+	 */
+	private static final int NEAREST_BATCHES = 4;
+	/**
+	 * Field _defaultAggressionClasses. Whether an AI class keeps the checkAggression of DefaultAI.
+	 */
+	private static final Map<Class<?>, Boolean> _defaultAggressionClasses = new ConcurrentHashMap<>();
+	/**
+	 * Field _defaultAggression. True if checkAggression is not overridden, the aggression scan then only selects creatures it may accept.
+	 */
+	private final boolean _defaultAggression;
+	/**
+	 * Field _selfAggressive. SelfAggressive roll of the running aggression scan.
+	 */
+	private boolean _selfAggressive;
+	/**
+	 * Field _nearestTargets. Allocated on the first aggression check.
+	 */
+	private Creature[] _nearestTargets;
+	/**
+	 * Field _hatedTarget. Accepts the creatures of the aggro list.
+	 */
+	private final TObjectProcedure<Creature> _hatedTarget = new TObjectProcedure<Creature>()
+	{
+		@Override
+		public boolean execute(Creature cha)
+		{
+			return getActor().getAggroList().get(cha) != null;
+		}
+	};
+	/**
+	 * Field _aggressionCandidate. Cheap rejections of checkAggression, used when it is not overridden.
+	 */
+	private final TObjectProcedure<Creature> _aggressionCandidate = new TObjectProcedure<Creature>()
+	{
+		@Override
+		public boolean execute(Creature cha)
+		{
+			NpcInstance actor = getActor();
+			if (cha.isAlikeDead())
+			{
+				return false;
+			}
+			AggroInfo ai = actor.getAggroList().get(cha);
+			if ((ai == null) && !_selfAggressive)
+			{
+				return false;
+			}
+			if ((ai != null) && (ai.hate > 0))
+			{
+				if (!cha.isInRangeZ(actor.getSpawnedLoc(), MAX_PURSUE_RANGE))
+				{
+					return false;
+				}
+			}
+			else if (!actor.isAggressive() || !cha.isInRangeZ(actor.getSpawnedLoc(), actor.getAggroRange()))
+			{
+				return false;
+			}
+			return !actor.isMonster() || !cha.isPlayable() || !cha.isInZonePeace();
+		}
+	};
 	
 	/**
 	 * Constructor for DefaultAI.
@@ -456,6 +528,7 @@ public class DefaultAI extends CharacterAI
 		_stunSkills = npc.getTemplate().getStunSkills();
 		_healSkills = npc.getTemplate().getHealSkills();
 		_nearestTargetComparator = new NearestTargetComparator(actor);
+		_defaultAggression = isDefaultAggression(getClass());
 		MAX_PURSUE_RANGE = actor.getParameter("MaxPursueRange", actor.isRaid() ? Config.MAX_PURSUE_RANGE_RAID : npc.isUnderground() ? Config.MAX_PURSUE_UNDERGROUND_RANGE : Config.MAX_PURSUE_RANGE);
 		_minFactionNotifyInterval = actor.getParameter("FactionNotifyInterval", 10000);
 	}
@@ -684,6 +757,92 @@ public class DefaultAI extends CharacterAI
 		return !actor.isMoving && maybeMoveToHome();
 	}
 	
+	/**
+	 * Method getAggressionRange. Distance from the actor covering every creature the checkAggression of DefaultAI may accept.
+	 * @return int
+	 */
+	private int getAggressionRange()
+	{
+		NpcInstance actor = getActor();
+		int range = actor.isAggressive() ? actor.getAggroRange() : 0;
+		if (!actor.getAggroList().isEmpty())
+		{
+			range = Math.max(range, MAX_PURSUE_RANGE);
+		}
+		long radius = (long) Math.ceil(Math.sqrt(actor.getXYZDeltaSq(actor.getSpawnedLoc()))) + Math.max(range, 0);
+		return (int) Math.min(radius, Integer.MAX_VALUE);
+	}
+	
+	/**
+	 * Method checkRemainingAggression. Collects and sorts at once the candidates farther than the last selected one, used when many batches of the nearest ones were refused.
+	 * @param range int
+	 * @param accept TObjectProcedure<Creature>
+	 * @param after Creature
+	 * @return boolean
+	 */
+	private boolean checkRemainingAggression(int range, final TObjectProcedure<Creature> accept, Creature after)
+	{
+		final NpcInstance actor = getActor();
+		final long afterDistance = actor.getXYZDeltaSq(after.getX(), after.getY(), after.getZ());
+		final int afterId = after.getObjectId();
+		final List<Creature> chars = new ArrayList<>();
+		World.forEachAroundCharacter(actor, range, range, true, new TObjectProcedure<Creature>()
+		{
+			@Override
+			public boolean execute(Creature cha)
+			{
+				long distance = actor.getXYZDeltaSq(cha.getX(), cha.getY(), cha.getZ());
+				if ((distance < afterDistance) || ((distance == afterDistance) && (cha.getObjectId() <= afterId)))
+				{
+					return true;
+				}
+				if ((accept == null) || accept.execute(cha))
+				{
+					chars.add(cha);
+				}
+				return true;
+			}
+		});
+		CollectionUtils.eqSort(chars, _nearestTargetComparator);
+		for (Creature cha : chars)
+		{
+			if (checkAggression(cha))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Method isDefaultAggression.
+	 * @param ai Class<?> AI class
+	 * @return boolean true if no class between it and DefaultAI overrides checkAggression
+	 */
+	private static boolean isDefaultAggression(Class<?> ai)
+	{
+		Boolean result = _defaultAggressionClasses.get(ai);
+		if (result == null)
+		{
+			result = Boolean.TRUE;
+			for (Class<?> cls = ai; (cls != DefaultAI.class) && (cls != null); cls = cls.getSuperclass())
+			{
+				try
+				{
+					cls.getDeclaredMethod("checkAggression", Creature.class);
+					result = Boolean.FALSE;
+					break;
+				}
+				catch (NoSuchMethodException e)
+				{
+					continue;
+				}
+			}
+			_defaultAggressionClasses.put(ai, result);
+		}
+		return result;
+	}
+	
 	/**
 	 * Method thinkActive.
 	 * @return boolean
@@ -714,17 +873,49 @@ public class DefaultAI extends CharacterAI
 			boolean aggressive = Rnd.chance(actor.getParameter("SelfAggressive", actor.isAggressive() ? 100 : 0));
 			if (!actor.getAggroList().isEmpty() || aggressive)
 			{
-				List<Creature> chars = World.getAroundCharacters(actor);
-				CollectionUtils.eqSort(chars, _nearestTargetComparator);
-				for (Creature cha : chars)
+				if (_nearestTargets == null)
+				{
+					_nearestTargets = new Creature[NEAREST_TARGETS];
+				}
+				Creature[] chars = _nearestTargets;
+				int range = Integer.MAX_VALUE;
+				TObjectProcedure<Creature> accept = aggressive ? null : _hatedTarget;
+				if (_defaultAggression)
 				{
-					if (aggressive || (actor.getAggroList().get(cha) != null))
+					range = getAggressionRange();
+					accept = _aggressionCandidate;
+					_selfAggressive = aggressive;
+				}
+				Creature after = null;
+				int batches = 0;
+				int count;
+				try
+				{
+					do
 					{
-						if (checkAggression(cha))
+						if (batches++ == NEAREST_BATCHES)
+						{
+							if (checkRemainingAggression(range, accept, after))
+							{
+								return true;
+							}
+							break;
+						}
+						count = World.getNearestCharacters(actor, range, range, true, accept, after, chars);
+						for (int i = 0; i < count; i++)
 						{
-							return true;
+							if (checkAggression(chars[i]))
+							{
+								return true;
+							}
 						}
+						after = count > 0 ? chars[count - 1] : null;
 					}
+					while (count == chars.length);
+				}
+				finally
+				{
+					Arrays.fill(chars, null);
 				}
 			}
 		}
@@ -979,7 +1170,7 @@ public class DefaultAI extends CharacterAI
 	protected boolean tryMoveToTarget(Creature target, int range)
 	{
 		NpcInstance actor = getActor();
-		if (!actor.followToCharacter(target, actor.getPhysicalAttackRange(), true))
+		if (!actor.followToCharacter(target, actor.getPhysicalAttackRange(), true) && !PathFindService.getInstance().isPending(actor))
 		{
 			_pathfindFails++;
 		}
@@ -1059,6 +1250,11 @@ public class DefaultAI extends CharacterAI
 				}
 				if (!actor.moveToLocation(currentTask.loc, 0, currentTask.pathfind))
 				{
+					if (PathFindService.getInstance().isPending(actor))
+					{
+						_tasks.add(currentTask);
+						return false;
+					}
 					clientStopMoving();
 					_pathfindFails = 0;
 					actor.teleToLocation(currentTask.loc);
@@ -1377,7 +1573,7 @@ public class DefaultAI extends CharacterAI
 		}
 		Location pos = Location.findPointToStay(actor, sloc, 0, Config.MAX_DRIFT_RANGE);
 		actor.setWalking();
-		if (!actor.moveToLocation(pos.x, pos.y, pos.z, 0, true) && !isInRange)
+		if (!actor.moveToLocation(pos.x, pos.y, pos.z, 0, true) && !isInRange && !PathFindService.getInstance().isPending(actor))
 		{
 			teleportHome();
 		}
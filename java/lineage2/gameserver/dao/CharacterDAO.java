@@ -62,6 +62,7 @@ public class CharacterDAO
 		PreparedStatement statement = null;
 		try
 		{
+			CharacterStoreDAO.getInstance().flush(objid);
 			con = DatabaseFactory.getInstance().getConnection();
 			statement = con.prepareStatement("DELETE FROM characters WHERE obj_Id=?");
 			statement.setInt(1, objid);
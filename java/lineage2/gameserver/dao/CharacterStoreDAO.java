@@ -0,0 +1,470 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.gameserver.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lineage2.commons.dbutils.DbUtils;
+import lineage2.gameserver.Config;
+import lineage2.gameserver.database.DatabaseFactory;
+import lineage2.gameserver.utils.GameStats;
+
+/**
+ * Write-behind store of the characters row and the vitality of the account. Player.store only takes a snapshot, repeated saves of a character are coalesced and the writer sends the changed column groups as JDBC batches.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class CharacterStoreDAO extends WriteBehindDAO<CharacterStoreDAO.PendingStore>
+{
+	/**
+	 * Field _instance.
+	 */
+	private static final CharacterStoreDAO _instance = new CharacterStoreDAO();
+	/**
+	 * Field COLUMNS. Order of the values of a row snapshot.
+	 */
+	public static final String[] COLUMNS =
+	{
+		"x",
+		"y",
+		"z",
+		"karma",
+		"pvpkills",
+		"pkkills",
+		"rec_have",
+		"rec_left",
+		"rec_bonus_time",
+		"pcBangPoints",
+		"fame",
+		"face",
+		"hairStyle",
+		"hairColor",
+		"sex",
+		"char_name",
+		"title",
+		"accesslevel",
+		"key_bindings",
+		"bookmarks",
+		"clanid",
+		"pledge_type",
+		"pledge_rank",
+		"lvl_joined_academy",
+		"apprentice",
+		"leaveclan",
+		"deleteclan",
+		"online",
+		"onlinetime",
+		"nochannel",
+		"deletetime"
+	};
+	/**
+	 * Field GROUPS. First column of every group, a group is written when any of its columns changed.
+	 */
+	private static final int[] GROUPS =
+	{
+		0,
+		3,
+		11,
+		20,
+		27,
+		COLUMNS.length
+	};
+	/**
+	 * Field GROUP_NAMES.
+	 */
+	private static final String[] GROUP_NAMES =
+	{
+		"position",
+		"progress",
+		"appearance",
+		"clan",
+		"session"
+	};
+	/**
+	 * Field ONLINE_COLUMN.
+	 */
+	private static final int ONLINE_COLUMN = 27;
+	/**
+	 * Field UPDATE_VITALITY_QUERY.
+	 */
+	private static final String UPDATE_VITALITY_QUERY = "UPDATE `vitality_points` SET `points`=? WHERE `account_name`=?";
+	/**
+	 * Field UPDATE_GROUP_QUERIES.
+	 */
+	private static final String[] UPDATE_GROUP_QUERIES = new String[GROUP_NAMES.length];
+	static
+	{
+		for (int group = 0; group < GROUP_NAMES.length; group++)
+		{
+			StringBuilder sb = new StringBuilder("UPDATE characters SET ");
+			for (int i = GROUPS[group]; i < GROUPS[group + 1]; i++)
+			{
+				sb.append(i == GROUPS[group] ? "" : ",").append(COLUMNS[i]).append("=?");
+			}
+			UPDATE_GROUP_QUERIES[group] = sb.append(" WHERE obj_Id=? LIMIT 1").toString();
+		}
+	}
+	
+	/**
+	 * Method getInstance.
+	 * @return CharacterStoreDAO
+	 */
+	public static CharacterStoreDAO getInstance()
+	{
+		return _instance;
+	}
+	
+	/**
+	 * @author Mobius
+	 */
+	static final class PendingStore extends Entry
+	{
+		/**
+		 * Field objectId.
+		 */
+		final int objectId;
+		/**
+		 * Field accountName.
+		 */
+		final String accountName;
+		/**
+		 * Field row.
+		 */
+		final Object[] row;
+		/**
+		 * Field vitality.
+		 */
+		final int vitality;
+		
+		/**
+		 * Constructor for PendingStore.
+		 * @param objectId int
+		 * @param accountName String
+		 * @param row Object[]
+		 * @param vitality int
+		 */
+		PendingStore(int objectId, String accountName, Object[] row, int vitality)
+		{
+			this.objectId = objectId;
+			this.accountName = accountName;
+			this.row = row;
+			this.vitality = vitality;
+		}
+	}
+	
+	/**
+	 * Field _pending. Latest snapshot of every character waiting for the writer.
+	 */
+	private final ConcurrentMap<Integer, PendingStore> _pending = new ConcurrentHashMap<>();
+	/**
+	 * Field _written. Last rows written for online characters, guarded by _writeLock.
+	 */
+	private final Map<Integer, Object[]> _written = new HashMap<>();
+	/**
+	 * Field _rows.
+	 */
+	private final AtomicLong _rows = new AtomicLong();
+	/**
+	 * Field _groups.
+	 */
+	private final AtomicLong _groups = new AtomicLong();
+	
+	/**
+	 * Constructor for CharacterStoreDAO.
+	 */
+	private CharacterStoreDAO()
+	{
+		super("CharacterStore", Config.CHARACTER_STORE_DELAY);
+	}
+	
+	/**
+	 * Method store. Queues the snapshot, it is written on the calling thread when the writer is disabled or stopped.
+	 * @param objectId int
+	 * @param accountName String
+	 * @param row Object[] values in the order of COLUMNS
+	 * @param vitality int
+	 */
+	public void store(int objectId, String accountName, Object[] row, int vitality)
+	{
+		_queued.incrementAndGet();
+		if (_pending.put(objectId, new PendingStore(objectId, accountName, row, vitality)) != null)
+		{
+			_coalesced.incrementAndGet();
+		}
+		if (!isWriteBehind())
+		{
+			_writeLock.lock();
+			try
+			{
+				writePending(objectId);
+			}
+			finally
+			{
+				_writeLock.unlock();
+			}
+		}
+	}
+	
+	/**
+	 * Method flush. Writes every queued snapshot.
+	 */
+	@Override
+	public void flush()
+	{
+		_writeLock.lock();
+		try
+		{
+			List<PendingStore> list = new ArrayList<>(_pending.size());
+			for (PendingStore store : _pending.values())
+			{
+				if (_pending.remove(store.objectId, store))
+				{
+					list.add(store);
+				}
+			}
+			write(list);
+		}
+		finally
+		{
+			_writeLock.unlock();
+		}
+	}
+	
+	/**
+	 * Method flush. Writes the queued snapshot of one character, called before its row is read back or updated directly. The next snapshot is written whole.
+	 * @param objectId int
+	 */
+	public void flush(int objectId)
+	{
+		_writeLock.lock();
+		try
+		{
+			writePending(objectId);
+			_written.remove(objectId);
+		}
+		finally
+		{
+			_writeLock.unlock();
+		}
+	}
+	
+	/**
+	 * Method writePending. Has to be called under _writeLock.
+	 * @param objectId int
+	 */
+	private void writePending(int objectId)
+	{
+		PendingStore store = _pending.remove(objectId);
+		if (store != null)
+		{
+			write(Collections.singletonList(store));
+		}
+	}
+	
+	/**
+	 * Method flushAccount. Writes the queued snapshots of the characters of an account, called before the character list is read back.
+	 * @param accountName String
+	 */
+	public void flushAccount(String accountName)
+	{
+		_writeLock.lock();
+		try
+		{
+			List<PendingStore> list = new ArrayList<>();
+			for (PendingStore store : _pending.values())
+			{
+				if (store.accountName.equalsIgnoreCase(accountName) && _pending.remove(store.objectId, store))
+				{
+					list.add(store);
+				}
+			}
+			write(list);
+		}
+		finally
+		{
+			_writeLock.unlock();
+		}
+	}
+	
+	/**
+	 * Method requeue. Newer snapshots queued meanwhile are kept.
+	 * @param list List<PendingStore>
+	 */
+	@Override
+	protected void requeue(List<PendingStore> list)
+	{
+		for (PendingStore store : list)
+		{
+			_pending.putIfAbsent(store.objectId, store);
+		}
+	}
+	
+	/**
+	 * Method describe.
+	 * @param store PendingStore
+	 * @return String
+	 */
+	@Override
+	protected String describe(PendingStore store)
+	{
+		return "the row of character " + store.objectId;
+	}
+	
+	/**
+	 * Method writeRows. Has to be called under _writeLock.
+	 * @param list List<PendingStore>
+	 * @throws Exception
+	 */
+	@Override
+	protected void writeRows(List<PendingStore> list) throws Exception
+	{
+		Connection con = null;
+		PreparedStatement[] statements = new PreparedStatement[GROUP_NAMES.length];
+		PreparedStatement vitality = null;
+		try
+		{
+			con = DatabaseFactory.getInstance().getConnection();
+			Map<String, Integer> vitalities = new LinkedHashMap<>();
+			for (PendingStore store : list)
+			{
+				Object[] last = _written.get(store.objectId);
+				for (int group = 0; group < GROUP_NAMES.length; group++)
+				{
+					if ((last != null) && isSameGroup(last, store.row, group))
+					{
+						continue;
+					}
+					if (statements[group] == null)
+					{
+						statements[group] = con.prepareStatement(UPDATE_GROUP_QUERIES[group]);
+					}
+					PreparedStatement statement = statements[group];
+					int index = 1;
+					for (int i = GROUPS[group]; i < GROUPS[group + 1]; i++)
+					{
+						if (store.row[i] == null)
+						{
+							statement.setNull(index++, Types.NULL);
+						}
+						else
+						{
+							statement.setObject(index++, store.row[i]);
+						}
+					}
+					statement.setInt(index, store.objectId);
+					statement.addBatch();
+					_groups.incrementAndGet();
+				}
+				vitalities.put(store.accountName, store.vitality);
+			}
+			for (PreparedStatement statement : statements)
+			{
+				if (statement != null)
+				{
+					statement.executeBatch();
+				}
+			}
+			vitality = con.prepareStatement(UPDATE_VITALITY_QUERY);
+			for (Map.Entry<String, Integer> e : vitalities.entrySet())
+			{
+				vitality.setInt(1, e.getValue());
+				vitality.setString(2, e.getKey());
+				vitality.addBatch();
+			}
+			vitality.executeBatch();
+			for (PendingStore store : list)
+			{
+				if (Integer.valueOf(0).equals(store.row[ONLINE_COLUMN]))
+				{
+					_written.remove(store.objectId);
+				}
+				else
+				{
+					_written.put(store.objectId, store.row);
+				}
+				_rows.incrementAndGet();
+				GameStats.increaseUpdatePlayerBase();
+			}
+		}
+		finally
+		{
+			for (PreparedStatement statement : statements)
+			{
+				DbUtils.closeQuietly(statement);
+			}
+			DbUtils.closeQuietly(con, vitality);
+		}
+	}
+	
+	/**
+	 * Method isSameGroup.
+	 * @param last Object[]
+	 * @param row Object[]
+	 * @param group int
+	 * @return boolean
+	 */
+	private static boolean isSameGroup(Object[] last, Object[] row, int group)
+	{
+		for (int i = GROUPS[group]; i < GROUPS[group + 1]; i++)
+		{
+			if (!Objects.deepEquals(last[i], row[i]))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Method getQueueSize.
+	 * @return int
+	 */
+	@Override
+	public int getQueueSize()
+	{
+		return _pending.size();
+	}
+	
+	/**
+	 * Method getStats.
+	 * @return CharSequence
+	 */
+	public CharSequence getStats()
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append("     Queue: ....................... ").append(_pending.size()).append('\n');
+		sb.append("     Queued: ...................... ").append(_queued.get()).append('\n');
+		sb.append("     Coalesced: ................... ").append(_coalesced.get()).append('\n');
+		sb.append("     Rows: ........................ ").append(_rows.get()).append('\n');
+		sb.append("     Column groups: ............... ").append(_groups.get()).append('\n');
+		sb.append("     Errors: ...................... ").append(_errors.get()).append('\n');
+		sb.append("     Dropped: ..................... ").append(_dropped.get()).append('\n');
+		sb.append("     Queue time p99 (ms): ......... ").append(_queueTimes.getPercentile(99)).append('\n');
+		sb.append("     Flush p50 (ms): .............. ").append(_flushTimes.getPercentile(50)).append('\n');
+		sb.append("     Flush p99 (ms): .............. ").append(_flushTimes.getPercentile(99)).append('\n');
+		sb.append("     Flush max (ms): .............. ").append(_flushTimes.getMax()).append('\n');
+		return sb;
+	}
+}
\ No newline at end of file
@@ -15,17 +15,14 @@ package lineage2.gameserver.dao;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.util.ArrayDeque;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Queue;
 
 import lineage2.commons.dbutils.DbUtils;
 import lineage2.gameserver.database.DatabaseFactory;
 import lineage2.gameserver.instancemanager.commission.CommissionItemContainer;
 import lineage2.gameserver.instancemanager.commission.CommissionItemInfo;
-import lineage2.gameserver.instancemanager.commission.CommissionShopManager;
-import lineage2.gameserver.model.Player;
 import lineage2.gameserver.model.items.ItemInstance;
 import lineage2.gameserver.templates.item.ExItemType;
 
@@ -47,25 +44,13 @@ public class CommissionShopDAO
 	 */
 	private static final String INSERT_SQL_QUERY = "INSERT INTO commission_shop(obj_id, seller_id, item_name, price, item_type, sale_days, sale_end_time, seller_name) VALUES (?,?,?,?,?,?,?,?)";
 	/**
-	 * Field SELECT_PLAYER_REGISTERED_ITEMS_SQL_QUERY. (value is ""SELECT auction_id, price, item_type, sale_days, sale_end_time, seller_name, obj_id FROM commission_shop WHERE seller_id=?"")
+	 * Field SELECT_ITEMS. (value is ""SELECT auction_id, price, item_name, item_type, sale_days, sale_end_time, seller_name, obj_id FROM commission_shop ORDER BY auction_id"")
 	 */
-	private static final String SELECT_PLAYER_REGISTERED_ITEMS_SQL_QUERY = "SELECT auction_id, price, item_type, sale_days, sale_end_time, seller_name, obj_id  FROM commission_shop WHERE seller_id=?";
-	/**
-	 * Field SELECT_REGISTERED_ITEMS. (value is ""SELECT auction_id, price, item_name, item_type, sale_days, sale_end_time, seller_name, obj_id FROM commission_shop WHERE item_type IN(?) ORDER BY auction_id"")
-	 */
-	private static final String SELECT_REGISTERED_ITEMS = "SELECT auction_id, price, item_name, item_type, sale_days, sale_end_time, seller_name, obj_id  FROM commission_shop WHERE item_type IN(?) ORDER BY auction_id";
-	/**
-	 * Field SELECT_COMMISSION_ITEM_INFO. (value is ""SELECT price, sale_days, sale_end_time, seller_name, obj_id FROM commission_shop WHERE auction_id=? AND item_type=?"")
-	 */
-	private static final String SELECT_COMMISSION_ITEM_INFO = "SELECT price, sale_days, sale_end_time, seller_name, obj_id  FROM commission_shop WHERE auction_id=? AND item_type=?";
+	private static final String SELECT_ITEMS = "SELECT auction_id, price, item_name, item_type, sale_days, sale_end_time, seller_name, obj_id FROM commission_shop ORDER BY auction_id";
 	/**
 	 * Field DELETE_COMMISSION_ITEM. (value is ""DELETE FROM commission_shop WHERE auction_id=?"")
 	 */
 	private static final String DELETE_COMMISSION_ITEM = "DELETE FROM commission_shop WHERE auction_id=?";
-	/**
-	 * Field SELECT_EXPIRED_ITEMS. (value is ""SELECT auction_id, price, sale_days, seller_name, item_type, obj_id, sale_end_time FROM commission_shop WHERE sale_end_time <= ?"")
-	 */
-	private static final String SELECT_EXPIRED_ITEMS = "SELECT auction_id, price, sale_days, seller_name, item_type, obj_id, sale_end_time  FROM commission_shop WHERE sale_end_time <= ?";
 	/**
 	 * Field ourInstance.
 	 */
@@ -90,15 +75,17 @@ public class CommissionShopDAO
 	 * @param sale_days int
 	 * @param sale_end_time long
 	 * @param player_name String
+	 * @return long auction id, 0 when the item was not saved
 	 */
-	public void saveNewItem(int objectId, int seller_id, String item_name, long price, String exItemType, int sale_days, long sale_end_time, String player_name)
+	public long saveNewItem(int objectId, int seller_id, String item_name, long price, String exItemType, int sale_days, long sale_end_time, String player_name)
 	{
 		Connection con = null;
 		PreparedStatement statement = null;
+		ResultSet rset = null;
 		try
 		{
 			con = DatabaseFactory.getInstance().getConnection();
-			statement = con.prepareStatement(INSERT_SQL_QUERY);
+			statement = con.prepareStatement(INSERT_SQL_QUERY, Statement.RETURN_GENERATED_KEYS);
 			statement.setInt(1, objectId);
 			statement.setInt(2, seller_id);
 			statement.setString(3, item_name);
@@ -108,197 +95,79 @@ public class CommissionShopDAO
 			statement.setLong(7, sale_end_time);
 			statement.setString(8, player_name);
 			statement.execute();
+			rset = statement.getGeneratedKeys();
+			return rset.next() ? rset.getLong(1) : 0;
 		}
 		catch (Exception e)
 		{
 			_log.info("CommissionShopDAO.saveNewItem: " + e, e);
+			return 0;
 		}
 		finally
 		{
-			DbUtils.closeQuietly(con, statement);
+			DbUtils.closeQuietly(con, statement, rset);
 		}
 	}
 	
 	/**
-	 * Method getRegisteredItemsFor.
-	 * @param player Player
-	 * @return List<CommissionItemInfo>
+	 * Method restore.
+	 * @param container CommissionItemContainer restored items
+	 * @return List<CommissionItemInfo> listings in auction order, rows whose item is no longer in the container are deleted
 	 */
-	public List<CommissionItemInfo> getRegisteredItemsFor(Player player)
+	public List<CommissionItemInfo> restore(CommissionItemContainer container)
 	{
-		List<CommissionItemInfo> items = new ArrayList<>(10);
+		List<CommissionItemInfo> items = new ArrayList<>();
+		List<Long> stale = new ArrayList<>();
 		Connection con = null;
 		PreparedStatement statement = null;
 		ResultSet rset = null;
-		CommissionItemContainer container = CommissionShopManager.getInstance().getContainer();
-		container.readLock();
 		try
 		{
 			con = DatabaseFactory.getInstance().getConnection();
-			statement = con.prepareStatement(SELECT_PLAYER_REGISTERED_ITEMS_SQL_QUERY);
-			statement.setInt(1, player.getObjectId());
+			statement = con.prepareStatement(SELECT_ITEMS);
 			rset = statement.executeQuery();
 			while (rset.next())
 			{
-				int objectId = rset.getInt("obj_id");
-				ItemInstance item;
-				if ((item = container.getItemByObjectId(objectId)) == null)
+				ItemInstance item = container.getItemByObjectId(rset.getInt("obj_id"));
+				if (item == null)
 				{
+					stale.add(rset.getLong("auction_id"));
 					continue;
 				}
 				CommissionItemInfo itemInfo = new CommissionItemInfo(item);
 				itemInfo.setAuctionId(rset.getLong("auction_id"));
 				itemInfo.setRegisteredPrice(rset.getLong("price"));
+				itemInfo.setItemName(rset.getString("item_name"));
 				itemInfo.setExItemType(ExItemType.valueOf(rset.getString("item_type")));
 				itemInfo.setSaleDays(rset.getInt("sale_days"));
 				itemInfo.setSaleEndTime(rset.getLong("sale_end_time"));
 				itemInfo.setSellerName(rset.getString("seller_name"));
 				items.add(itemInfo);
 			}
-		}
-		catch (Exception e)
-		{
-			_log.info("CommissionShopDAO.getRegisteredItemsFor: " + e, e);
-		}
-		finally
-		{
-			container.readUnlock();
-			DbUtils.closeQuietly(con, statement, rset);
-		}
-		return items;
-	}
-	
-	/**
-	 * Method getRegisteredItems.
-	 * @param types ExItemType[]
-	 * @param rareType int
-	 * @param grade int
-	 * @param searchName String
-	 * @return Queue<List<CommissionItemInfo>>
-	 */
-	public Queue<List<CommissionItemInfo>> getRegisteredItems(ExItemType[] types, int rareType, int grade, String searchName)
-	{
-		Queue<List<CommissionItemInfo>> items = new ArrayDeque<>();
-		Connection con = null;
-		PreparedStatement statement = null;
-		ResultSet rset = null;
-		String type = "";
-		for (int i = 0; i < types.length; i++)
-		{
-			type += types[i].name();
-			if ((i + 1) < types.length)
-			{
-				type += ",";
-			}
-		}
-		CommissionItemContainer container = CommissionShopManager.getInstance().getContainer();
-		container.readLock();
-		try
-		{
-			con = DatabaseFactory.getInstance().getConnection();
-			statement = con.prepareStatement(SELECT_REGISTERED_ITEMS);
-			statement.setString(1, type);
-			rset = statement.executeQuery();
-			int i = 0;
-			List<CommissionItemInfo> list = new ArrayList<>(120);
-			items.add(list);
-			while (rset.next() && (i <= 999))
+			DbUtils.close(statement, rset);
+			if (!stale.isEmpty())
 			{
-				int objectId = rset.getInt("obj_id");
-				ItemInstance item;
-				if ((item = container.getItemByObjectId(objectId)) == null)
-				{
-					continue;
-				}
-				if (((rareType == 1) && !item.getTemplate().isBlessed()) || ((rareType == 0) && item.getTemplate().isBlessed()))
-				{
-					continue;
-				}
-				if ((grade > -1) && (item.getTemplate().getItemGrade().ordinal() != grade))
-				{
-					continue;
-				}
-				if (!searchName.isEmpty() && !rset.getString("item_name").toLowerCase().contains(searchName.toLowerCase()))
-				{
-					continue;
-				}
-				CommissionItemInfo itemInfo = new CommissionItemInfo(item);
-				itemInfo.setAuctionId(rset.getLong("auction_id"));
-				itemInfo.setRegisteredPrice(rset.getLong("price"));
-				itemInfo.setExItemType(ExItemType.valueOf(rset.getString("item_type")));
-				itemInfo.setSaleDays(rset.getInt("sale_days"));
-				itemInfo.setSaleEndTime(rset.getLong("sale_end_time"));
-				itemInfo.setSellerName(rset.getString("seller_name"));
-				list.add(itemInfo);
-				if ((i != 0) && ((i % 120) == 0))
+				statement = con.prepareStatement(DELETE_COMMISSION_ITEM);
+				for (long auctionId : stale)
 				{
-					list = new ArrayList<>(120);
-					items.add(list);
+					statement.setLong(1, auctionId);
+					statement.addBatch();
 				}
-				i++;
+				statement.executeBatch();
+				_log.info("CommissionShopDAO: deleted " + stale.size() + " listings of items no longer on sale.");
 			}
 		}
 		catch (Exception e)
 		{
-			_log.info("CommissionShopDAO.getRegisteredItems: " + e, e);
+			_log.info("CommissionShopDAO.restore: " + e, e);
 		}
 		finally
 		{
-			container.readUnlock();
 			DbUtils.closeQuietly(con, statement, rset);
 		}
 		return items;
 	}
 	
-	/**
-	 * Method getCommissionItemInfo.
-	 * @param auctionId long
-	 * @param exItemType ExItemType
-	 * @return CommissionItemInfo
-	 */
-	public CommissionItemInfo getCommissionItemInfo(long auctionId, ExItemType exItemType)
-	{
-		CommissionItemInfo itemInfo = null;
-		ResultSet rset = null;
-		CommissionItemContainer container = CommissionShopManager.getInstance().getContainer();
-		container.readLock();
-		try (
-				Connection con = DatabaseFactory.getInstance().getConnection();
-				PreparedStatement statement = con.prepareStatement(SELECT_COMMISSION_ITEM_INFO);
-		)
-		{
-			statement.setLong(1, auctionId);
-			statement.setString(2, exItemType.name());
-			rset = statement.executeQuery();
-			while (rset.next())
-			{
-				int objectId = rset.getInt("obj_id");
-				ItemInstance item;
-				if ((item = container.getItemByObjectId(objectId)) == null)
-				{
-					return null;
-				}
-				itemInfo = new CommissionItemInfo(item);
-				itemInfo.setAuctionId(auctionId);
-				itemInfo.setRegisteredPrice(rset.getLong("price"));
-				itemInfo.setExItemType(exItemType);
-				itemInfo.setSaleDays(rset.getInt("sale_days"));
-				itemInfo.setSaleEndTime(rset.getLong("sale_end_time"));
-				itemInfo.setSellerName(rset.getString("seller_name"));
-			}
-		}
-		catch (Exception e)
-		{
-			_log.info("CommissionShopDAO.getCommissionItemInfo(long,int): " + e, e);
-		}
-		finally
-		{
-			container.readUnlock();
-			DbUtils.closeQuietly(rset);
-		}
-		return itemInfo;
-	}
-	
 	/**
 	 * Method removeItem.
 	 * @param auctionId long
@@ -326,53 +195,4 @@ public class CommissionShopDAO
 		}
 		return true;
 	}
-	
-	/**
-	 * Method removeExpiredItems.
-	 * @param expireTime long
-	 * @return List<CommissionItemInfo>
-	 */
-	public List<CommissionItemInfo> removeExpiredItems(long expireTime)
-	{
-		List<CommissionItemInfo> list = new ArrayList<>();
-		Connection con = null;
-		PreparedStatement statement = null;
-		ResultSet rset = null;
-		CommissionItemContainer container = CommissionShopManager.getInstance().getContainer();
-		container.writeLock();
-		try
-		{
-			con = DatabaseFactory.getInstance().getConnection();
-			statement = con.prepareStatement(SELECT_EXPIRED_ITEMS);
-			statement.setLong(1, expireTime);
-			rset = statement.executeQuery();
-			while (rset.next())
-			{
-				int objectId = rset.getInt("obj_id");
-				ItemInstance item;
-				if ((item = container.getItemByObjectId(objectId)) == null)
-				{
-					continue;
-				}
-				CommissionItemInfo itemInfo = new CommissionItemInfo(item);
-				itemInfo.setAuctionId(rset.getLong("auction_id"));
-				itemInfo.setRegisteredPrice(rset.getLong("price"));
-				itemInfo.setExItemType(ExItemType.valueOf(rset.getString("item_type")));
-				itemInfo.setSaleDays(rset.getInt("sale_days"));
-				itemInfo.setSaleEndTime(rset.getLong("sale_end_time"));
-				itemInfo.setSellerName(rset.getString("seller_name"));
-				list.add(itemInfo);
-			}
-		}
-		catch (Exception e)
-		{
-			_log.info("CommissionShopDAO.removeExpiredItems(long): " + e, e);
-		}
-		finally
-		{
-			container.writeUnlock();
-			DbUtils.closeQuietly(con, statement, rset);
-		}
-		return list;
-	}
 }
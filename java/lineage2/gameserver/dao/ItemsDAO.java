@@ -12,13 +12,18 @@
  */
 package lineage2.gameserver.dao;
 
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
 
 import lineage2.commons.dao.JdbcDAO;
@@ -42,11 +47,32 @@ public class ItemsDAO implements JdbcDAO<Integer, ItemInstance>
 	 */
 	private static final Logger _log = LoggerFactory.getLogger(ItemsDAO.class);
 	private final static String RESTORE_ITEM = "SELECT object_id, owner_id, item_id, count, enchant_level, loc, loc_data, custom_type1, custom_type2, life_time, custom_flags, augmentation_id, attribute_fire, attribute_water, attribute_wind, attribute_earth, attribute_holy, attribute_unholy, agathion_energy, visual_id FROM items WHERE object_id = ?";
+	private final static String RESTORE_ITEMS = "SELECT object_id, owner_id, item_id, count, enchant_level, loc, loc_data, custom_type1, custom_type2, life_time, custom_flags, augmentation_id, attribute_fire, attribute_water, attribute_wind, attribute_earth, attribute_holy, attribute_unholy, agathion_energy, visual_id FROM items WHERE object_id IN ";
 	private final static String RESTORE_OWNER_ITEMS = "SELECT object_id FROM items WHERE owner_id = ? AND loc = ?";
 	private final static String RESTORE_ITEMS_BY_LOC = "SELECT object_id FROM items WHERE loc = ?";
 	private final static String STORE_ITEM = "INSERT INTO items (object_id, owner_id, item_id, count, enchant_level, loc, loc_data, custom_type1, custom_type2, life_time, custom_flags, augmentation_id, attribute_fire, attribute_water, attribute_wind, attribute_earth, attribute_holy, attribute_unholy, agathion_energy, visual_id) VALUES (?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?)";
 	private final static String UPDATE_ITEM = "UPDATE items SET owner_id = ?, item_id = ?, count = ?, enchant_level = ?, loc = ?, loc_data = ?, custom_type1 = ?, custom_type2 = ?, life_time = ?, custom_flags = ?, augmentation_id = ?, attribute_fire = ?, attribute_water = ?, attribute_wind = ?, attribute_earth = ?, attribute_holy = ?, attribute_unholy = ?, agathion_energy=?, visual_id=? WHERE object_id = ?";
 	private final static String REMOVE_ITEM = "DELETE FROM items WHERE object_id = ?";
+	/**
+	 * Field LOAD_BATCH_SIZE. Object ids per IN list.
+	 */
+	private final static int LOAD_BATCH_SIZE = 250;
+	/**
+	 * Field WRITE_BATCH_SIZE. Statements per JDBC batch.
+	 */
+	private final static int WRITE_BATCH_SIZE = 500;
+	/**
+	 * Field BATCH_INSERT.
+	 */
+	private final static int BATCH_INSERT = 0;
+	/**
+	 * Field BATCH_UPDATE.
+	 */
+	private final static int BATCH_UPDATE = 1;
+	/**
+	 * Field BATCH_DELETE.
+	 */
+	private final static int BATCH_DELETE = 2;
 	private final static ItemsDAO instance = new ItemsDAO();
 	
 	/**
@@ -74,6 +100,14 @@ public class ItemsDAO implements JdbcDAO<Integer, ItemInstance>
 	 * Field delete.
 	 */
 	final AtomicLong delete = new AtomicLong();
+	/**
+	 * Field batch.
+	 */
+	final AtomicLong batch = new AtomicLong();
+	/**
+	 * Field batchRows.
+	 */
+	final AtomicLong batchRows = new AtomicLong();
 	/**
 	 * Field cache.
 	 */
@@ -106,6 +140,18 @@ public class ItemsDAO implements JdbcDAO<Integer, ItemInstance>
 		{
 			return delete.get();
 		}
+		
+		@Override
+		public long getBatchCount()
+		{
+			return batch.get();
+		}
+		
+		@Override
+		public long getBatchRowCount()
+		{
+			return batchRows.get();
+		}
 	};
 	
 	/**
@@ -172,28 +218,88 @@ public class ItemsDAO implements JdbcDAO<Integer, ItemInstance>
 		ItemInstance item = null;
 		if (rset.next())
 		{
-			int objectId = rset.getInt(1);
-			item = new ItemInstance(objectId);
-			item.setOwnerId(rset.getInt(2));
-			item.setItemId(rset.getInt(3));
-			item.setCount(rset.getLong(4));
-			item.setEnchantLevel(rset.getInt(5));
-			item.setLocName(rset.getString(6));
-			item.setLocData(rset.getInt(7));
-			item.setCustomType1(rset.getInt(8));
-			item.setCustomType2(rset.getInt(9));
-			item.setLifeTime(rset.getInt(10));
-			item.setCustomFlags(rset.getInt(11));
-			item.setAugmentationId(rset.getInt(12));
-			item.getAttributes().setFire(rset.getInt(13));
-			item.getAttributes().setWater(rset.getInt(14));
-			item.getAttributes().setWind(rset.getInt(15));
-			item.getAttributes().setEarth(rset.getInt(16));
-			item.getAttributes().setHoly(rset.getInt(17));
-			item.getAttributes().setUnholy(rset.getInt(18));
-			item.setAgathionEnergy(rset.getInt(19));
-			item.setVisualId(rset.getInt(20));
+			item = restore0(rset);
+		}
+		return item;
+	}
+	
+	/**
+	 * Method load0. Restores up to LOAD_BATCH_SIZE items with one query and puts them into the cache.
+	 * @param objectIds List<Integer>
+	 * @param items Map<Integer,ItemInstance>
+	 * @throws SQLException
+	 */
+	private void load0(List<Integer> objectIds, Map<Integer, ItemInstance> items) throws SQLException
+	{
+		StringBuilder query = new StringBuilder(RESTORE_ITEMS.length() + (objectIds.size() * 2) + 1).append(RESTORE_ITEMS).append('(');
+		for (int i = 0; i < objectIds.size(); i++)
+		{
+			query.append(i == 0 ? "?" : ",?");
+		}
+		query.append(')');
+		Connection con = null;
+		PreparedStatement statement = null;
+		ResultSet rset = null;
+		try
+		{
+			con = DatabaseFactory.getInstance().getConnection();
+			statement = con.prepareStatement(query.toString());
+			for (int i = 0; i < objectIds.size(); i++)
+			{
+				statement.setInt(i + 1, objectIds.get(i));
+			}
+			rset = statement.executeQuery();
+			ItemInstance item;
+			Element ce;
+			while (rset.next())
+			{
+				item = restore0(rset);
+				item.setJdbcState(JdbcEntityState.STORED);
+				ce = cache.putIfAbsent(new Element(item.getObjectId(), item));
+				if (ce != null)
+				{
+					item = (ItemInstance) ce.getObjectValue();
+				}
+				items.put(item.getObjectId(), item);
+			}
+		}
+		finally
+		{
+			DbUtils.closeQuietly(con, statement, rset);
 		}
+		load.addAndGet(objectIds.size());
+		batch.incrementAndGet();
+		batchRows.addAndGet(objectIds.size());
+	}
+	
+	/**
+	 * Method restore0.
+	 * @param rset ResultSet positioned on an item row
+	 * @return ItemInstance * @throws SQLException
+	 */
+	private ItemInstance restore0(ResultSet rset) throws SQLException
+	{
+		int objectId = rset.getInt(1);
+		ItemInstance item = new ItemInstance(objectId);
+		item.setOwnerId(rset.getInt(2));
+		item.setItemId(rset.getInt(3));
+		item.setCount(rset.getLong(4));
+		item.setEnchantLevel(rset.getInt(5));
+		item.setLocName(rset.getString(6));
+		item.setLocData(rset.getInt(7));
+		item.setCustomType1(rset.getInt(8));
+		item.setCustomType2(rset.getInt(9));
+		item.setLifeTime(rset.getInt(10));
+		item.setCustomFlags(rset.getInt(11));
+		item.setAugmentationId(rset.getInt(12));
+		item.getAttributes().setFire(rset.getInt(13));
+		item.getAttributes().setWater(rset.getInt(14));
+		item.getAttributes().setWind(rset.getInt(15));
+		item.getAttributes().setEarth(rset.getInt(16));
+		item.getAttributes().setHoly(rset.getInt(17));
+		item.getAttributes().setUnholy(rset.getInt(18));
+		item.setAgathionEnergy(rset.getInt(19));
+		item.setVisualId(rset.getInt(20));
 		return item;
 	}
 	
@@ -337,6 +443,96 @@ public class ItemsDAO implements JdbcDAO<Integer, ItemInstance>
 		update.incrementAndGet();
 	}
 	
+	/**
+	 * Method batch0. Sends up to WRITE_BATCH_SIZE statements in one JDBC batch, items whose statement failed keep their state.
+	 * @param items List<ItemInstance>
+	 * @param type int
+	 */
+	private void batch0(List<ItemInstance> items, int type)
+	{
+		int[] counts = null;
+		Connection con = null;
+		PreparedStatement statement = null;
+		try
+		{
+			con = DatabaseFactory.getInstance().getConnection();
+			statement = con.prepareStatement(type == BATCH_INSERT ? STORE_ITEM : type == BATCH_UPDATE ? UPDATE_ITEM : REMOVE_ITEM);
+			for (ItemInstance item : items)
+			{
+				switch (type)
+				{
+					case BATCH_INSERT:
+						save0(item, statement);
+						break;
+					case BATCH_UPDATE:
+						update0(item, statement);
+						break;
+					default:
+						delete0(item, statement);
+						break;
+				}
+				statement.addBatch();
+			}
+			counts = statement.executeBatch();
+		}
+		catch (BatchUpdateException e)
+		{
+			_log.error("Error while storing batch of " + items.size() + " items", e);
+			counts = e.getUpdateCounts();
+		}
+		catch (SQLException e)
+		{
+			_log.error("Error while storing batch of " + items.size() + " items", e);
+			return;
+		}
+		finally
+		{
+			DbUtils.closeQuietly(con, statement);
+		}
+		batch.incrementAndGet();
+		batchRows.addAndGet(items.size());
+		ItemInstance item;
+		for (int i = 0; i < items.size(); i++)
+		{
+			if ((i >= counts.length) || (counts[i] == Statement.EXECUTE_FAILED))
+			{
+				continue;
+			}
+			item = items.get(i);
+			switch (type)
+			{
+				case BATCH_INSERT:
+					item.setJdbcState(JdbcEntityState.STORED);
+					cache.put(new Element(item.getObjectId(), item));
+					insert.incrementAndGet();
+					break;
+				case BATCH_UPDATE:
+					item.setJdbcState(JdbcEntityState.STORED);
+					cache.putIfAbsent(new Element(item.getObjectId(), item));
+					update.incrementAndGet();
+					break;
+				default:
+					item.setJdbcState(JdbcEntityState.DELETED);
+					cache.remove(item.getObjectId());
+					delete.incrementAndGet();
+					break;
+			}
+		}
+	}
+	
+	/**
+	 * Method batch.
+	 * @param items List<ItemInstance>
+	 * @param type int
+	 */
+	private void batch(List<ItemInstance> items, int type)
+	{
+		for (int i = 0; i < items.size(); i += WRITE_BATCH_SIZE)
+		{
+			batch0(items.subList(i, Math.min(items.size(), i + WRITE_BATCH_SIZE)), type);
+		}
+	}
+	
 	/**
 	 * Method load.
 	 * @param objectId Integer
@@ -382,11 +578,39 @@ public class ItemsDAO implements JdbcDAO<Integer, ItemInstance>
 		{
 			return list;
 		}
+		Map<Integer, ItemInstance> items = new HashMap<>(objectIds.size());
+		List<Integer> missing = new ArrayList<>();
+		Element ce;
+		for (Integer objectId : objectIds)
+		{
+			ce = cache.get(objectId);
+			if (ce != null)
+			{
+				items.put(objectId, (ItemInstance) ce.getObjectValue());
+			}
+			else
+			{
+				missing.add(objectId);
+			}
+		}
+		List<Integer> chunk;
+		for (int i = 0; i < missing.size(); i += LOAD_BATCH_SIZE)
+		{
+			chunk = missing.subList(i, Math.min(missing.size(), i + LOAD_BATCH_SIZE));
+			try
+			{
+				load0(chunk, items);
+			}
+			catch (SQLException e)
+			{
+				_log.error("Error while restoring items : " + chunk, e);
+			}
+		}
 		list = new ArrayList<>(objectIds.size());
 		ItemInstance item;
 		for (Integer objectId : objectIds)
 		{
-			item = load(objectId);
+			item = items.get(objectId);
 			if (item != null)
 			{
 				list.add(item);
@@ -429,10 +653,15 @@ public class ItemsDAO implements JdbcDAO<Integer, ItemInstance>
 		{
 			return;
 		}
+		List<ItemInstance> list = new ArrayList<>(items.size());
 		for (ItemInstance item : items)
 		{
-			save(item);
+			if (item.getJdbcState().isSavable())
+			{
+				list.add(item);
+			}
 		}
+		batch(list, BATCH_INSERT);
 	}
 	
 	/**
@@ -469,10 +698,15 @@ public class ItemsDAO implements JdbcDAO<Integer, ItemInstance>
 		{
 			return;
 		}
+		List<ItemInstance> list = new ArrayList<>(items.size());
 		for (ItemInstance item : items)
 		{
-			update(item);
+			if (item.getJdbcState().isUpdatable())
+			{
+				list.add(item);
+			}
 		}
+		batch(list, BATCH_UPDATE);
 	}
 	
 	/**
@@ -502,10 +736,21 @@ public class ItemsDAO implements JdbcDAO<Integer, ItemInstance>
 		{
 			return;
 		}
+		List<ItemInstance> saved = new ArrayList<>();
+		List<ItemInstance> updated = new ArrayList<>();
 		for (ItemInstance item : items)
 		{
-			saveOrUpdate(item);
+			if (item.getJdbcState().isSavable())
+			{
+				saved.add(item);
+			}
+			else if (item.getJdbcState().isUpdatable())
+			{
+				updated.add(item);
+			}
 		}
+		batch(saved, BATCH_INSERT);
+		batch(updated, BATCH_UPDATE);
 	}
 	
 	/**
@@ -542,10 +787,15 @@ public class ItemsDAO implements JdbcDAO<Integer, ItemInstance>
 		{
 			return;
 		}
+		List<ItemInstance> list = new ArrayList<>(items.size());
 		for (ItemInstance item : items)
 		{
-			delete(item);
+			if (item.getJdbcState().isDeletable())
+			{
+				list.add(item);
+			}
 		}
+		batch(list, BATCH_DELETE);
 	}
 	
 	/**
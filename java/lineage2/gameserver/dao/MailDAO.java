@@ -153,6 +153,18 @@ public class MailDAO implements JdbcDAO<Integer, Mail>
 		{
 			return delete.get();
 		}
+		
+		@Override
+		public long getBatchCount()
+		{
+			return 0;
+		}
+		
+		@Override
+		public long getBatchRowCount()
+		{
+			return 0;
+		}
 	};
 	
 	/**
@@ -286,16 +298,14 @@ public class MailDAO implements JdbcDAO<Integer, Mail>
 				statement = con.prepareStatement(RESTORE_MAIL_ATTACHMENTS);
 				statement.setInt(1, messageId);
 				rset = statement.executeQuery();
-				ItemInstance item;
-				int objectId;
+				List<Integer> objectIds = new ArrayList<>();
 				while (rset.next())
 				{
-					objectId = rset.getInt(1);
-					item = ItemsDAO.getInstance().load(objectId);
-					if (item != null)
-					{
-						mail.addAttachment(item);
-					}
+					objectIds.add(rset.getInt(1));
+				}
+				for (ItemInstance item : ItemsDAO.getInstance().load(objectIds))
+				{
+					mail.addAttachment(item);
 				}
 			}
 		}
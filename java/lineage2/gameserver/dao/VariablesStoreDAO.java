@@ -0,0 +1,769 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.gameserver.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import lineage2.commons.dbutils.DbUtils;
+import lineage2.commons.math.LatencyHistogram;
+import lineage2.gameserver.Config;
+import lineage2.gameserver.database.DatabaseFactory;
+
+/**
+ * Write-behind store of character variables, quest variables, instance reuses, recipe books and server variables. Only the latest write of every row is kept, the writer sends them as JDBC batches. Deleting all rows of a quest or all instance reuses drops the queued writes of those rows.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class VariablesStoreDAO extends WriteBehindDAO<VariablesStoreDAO.Write>
+{
+	/**
+	 * Field SERVER. Owner of the server variables.
+	 */
+	private static final int SERVER = 0;
+	/**
+	 * Field CHARACTER_VARIABLES.
+	 */
+	private static final Table CHARACTER_VARIABLES = new Table("character_variables", true, "REPLACE INTO character_variables (obj_id, type, name, value, expire_time) VALUES (?,'user-var',?,?,?)", "DELETE FROM character_variables WHERE obj_id=? AND type='user-var' AND name=? LIMIT 1", null);
+	/**
+	 * Field CHARACTER_QUESTS.
+	 */
+	private static final Table CHARACTER_QUESTS = new Table("character_quests", true, "REPLACE INTO character_quests (char_id,name,var,value) VALUES (?,?,?,?)", "DELETE FROM character_quests WHERE char_id=? AND name=? AND var=?", "DELETE FROM character_quests WHERE char_id=? AND name=?");
+	/**
+	 * Field CHARACTER_INSTANCES.
+	 */
+	private static final Table CHARACTER_INSTANCES = new Table("character_instances", true, "REPLACE INTO character_instances (obj_id, id, reuse) VALUES (?,?,?)", "DELETE FROM character_instances WHERE obj_id=? AND id=? LIMIT 1", "DELETE FROM character_instances WHERE obj_id=?");
+	/**
+	 * Field CHARACTER_RECIPEBOOK.
+	 */
+	private static final Table CHARACTER_RECIPEBOOK = new Table("character_recipebook", true, "REPLACE INTO character_recipebook (char_id, id) VALUES(?,?)", "DELETE FROM character_recipebook WHERE char_id=? AND id=? LIMIT 1", null);
+	/**
+	 * Field SERVER_VARIABLES.
+	 */
+	private static final Table SERVER_VARIABLES = new Table("server_variables", false, "REPLACE INTO server_variables (name, value) VALUES (?,?)", "DELETE FROM server_variables WHERE name=?", null);
+	/**
+	 * Field TABLES.
+	 */
+	private static final Table[] TABLES =
+	{
+		CHARACTER_VARIABLES,
+		CHARACTER_QUESTS,
+		CHARACTER_INSTANCES,
+		CHARACTER_RECIPEBOOK,
+		SERVER_VARIABLES
+	};
+	/**
+	 * Field _instance.
+	 */
+	private static final VariablesStoreDAO _instance = new VariablesStoreDAO();
+	
+	/**
+	 * Method getInstance.
+	 * @return VariablesStoreDAO
+	 */
+	public static VariablesStoreDAO getInstance()
+	{
+		return _instance;
+	}
+	
+	/**
+	 * @author Mobius
+	 */
+	private static final class Table
+	{
+		/**
+		 * Field name.
+		 */
+		final String name;
+		/**
+		 * Field owned. The owner is the first column of the key.
+		 */
+		final boolean owned;
+		/**
+		 * Field replaceQuery. Key columns followed by the value columns.
+		 */
+		final String replaceQuery;
+		/**
+		 * Field deleteQuery.
+		 */
+		final String deleteQuery;
+		/**
+		 * Field deleteAllQuery. Deletes the rows of an owner starting with a partial key, null if not supported.
+		 */
+		final String deleteAllQuery;
+		/**
+		 * Field rows.
+		 */
+		final AtomicLong rows = new AtomicLong();
+		
+		/**
+		 * Constructor for Table.
+		 * @param name String
+		 * @param owned boolean
+		 * @param replaceQuery String
+		 * @param deleteQuery String
+		 * @param deleteAllQuery String
+		 */
+		Table(String name, boolean owned, String replaceQuery, String deleteQuery, String deleteAllQuery)
+		{
+			this.name = name;
+			this.owned = owned;
+			this.replaceQuery = replaceQuery;
+			this.deleteQuery = deleteQuery;
+			this.deleteAllQuery = deleteAllQuery;
+		}
+	}
+	
+	/**
+	 * @author Mobius
+	 */
+	static final class Write extends Entry
+	{
+		/**
+		 * Field REPLACE.
+		 */
+		static final int REPLACE = 0;
+		/**
+		 * Field DELETE.
+		 */
+		static final int DELETE = 1;
+		/**
+		 * Field DELETE_ALL. Sent before the other writes, the writes it covers are dropped when it is queued so any left are newer.
+		 */
+		static final int DELETE_ALL = 2;
+		/**
+		 * Field ORDER. Order in which the kinds of writes are sent.
+		 */
+		static final int[] ORDER =
+		{
+			DELETE_ALL,
+			REPLACE,
+			DELETE
+		};
+		/**
+		 * Field table.
+		 */
+		final Table table;
+		/**
+		 * Field owner.
+		 */
+		final int owner;
+		/**
+		 * Field type.
+		 */
+		final int type;
+		/**
+		 * Field key. Key columns without the owner, a partial key for DELETE_ALL.
+		 */
+		final Object[] key;
+		/**
+		 * Field values.
+		 */
+		final Object[] values;
+		/**
+		 * Field id. Writes with the same id replace each other.
+		 */
+		final List<Object> id;
+		
+		/**
+		 * Constructor for Write.
+		 * @param table Table
+		 * @param owner int
+		 * @param type int
+		 * @param key Object[]
+		 * @param values Object[]
+		 */
+		Write(Table table, int owner, int type, Object[] key, Object... values)
+		{
+			this.table = table;
+			this.owner = owner;
+			this.type = type;
+			this.key = key;
+			this.values = values;
+			id = new ArrayList<>(key.length + 2);
+			id.add(table);
+			id.add(type == DELETE_ALL);
+			id.addAll(Arrays.asList(key));
+		}
+		
+		/**
+		 * Method covers.
+		 * @param write Write of the same owner
+		 * @return boolean true if this write deletes the row of the other one
+		 */
+		boolean covers(Write write)
+		{
+			if ((type != DELETE_ALL) || (write.table != table) || (write.key.length < key.length))
+			{
+				return false;
+			}
+			for (int i = 0; i < key.length; i++)
+			{
+				if (!key[i].equals(write.key[i]))
+				{
+					return false;
+				}
+			}
+			return true;
+		}
+		
+		/**
+		 * Method getQuery.
+		 * @return String
+		 */
+		String getQuery()
+		{
+			switch (type)
+			{
+				case REPLACE:
+					return table.replaceQuery;
+				case DELETE:
+					return table.deleteQuery;
+				default:
+					return table.deleteAllQuery;
+			}
+		}
+		
+		/**
+		 * Method bind.
+		 * @param statement PreparedStatement
+		 * @throws Exception
+		 */
+		void bind(PreparedStatement statement) throws Exception
+		{
+			int index = 1;
+			if (table.owned)
+			{
+				statement.setInt(index++, owner);
+			}
+			for (Object value : key)
+			{
+				statement.setObject(index++, value);
+			}
+			if (type == REPLACE)
+			{
+				for (Object value : values)
+				{
+					statement.setObject(index++, value);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Field _pending. Queued writes by owner, guarded by _lock.
+	 */
+	private final Map<Integer, Map<List<Object>, Write>> _pending = new HashMap<>();
+	/**
+	 * Field _size. Queued writes, guarded by _lock.
+	 */
+	private int _size;
+	/**
+	 * Field _lock.
+	 */
+	private final Lock _lock = new ReentrantLock();
+	/**
+	 * Field _batchSizes. Rows per write.
+	 */
+	private final LatencyHistogram _batchSizes = new LatencyHistogram();
+	
+	/**
+	 * Constructor for VariablesStoreDAO.
+	 */
+	private VariablesStoreDAO()
+	{
+		super("VariablesStore", Config.VARIABLES_STORE_DELAY);
+	}
+	
+	/**
+	 * Method setCharacterVariable.
+	 * @param objectId int
+	 * @param name String
+	 * @param value String
+	 * @param expireTime long
+	 */
+	public void setCharacterVariable(int objectId, String name, String value, long expireTime)
+	{
+		queue(new Write(CHARACTER_VARIABLES, objectId, Write.REPLACE, new Object[]
+		{
+			name
+		}, value, expireTime));
+	}
+	
+	/**
+	 * Method deleteCharacterVariable.
+	 * @param objectId int
+	 * @param name String
+	 */
+	public void deleteCharacterVariable(int objectId, String name)
+	{
+		queue(new Write(CHARACTER_VARIABLES, objectId, Write.DELETE, new Object[]
+		{
+			name
+		}));
+	}
+	
+	/**
+	 * Method setQuestVariable.
+	 * @param objectId int
+	 * @param quest String
+	 * @param var String
+	 * @param value String
+	 */
+	public void setQuestVariable(int objectId, String quest, String var, String value)
+	{
+		queue(new Write(CHARACTER_QUESTS, objectId, Write.REPLACE, new Object[]
+		{
+			quest,
+			var
+		}, value));
+	}
+	
+	/**
+	 * Method deleteQuestVariable.
+	 * @param objectId int
+	 * @param quest String
+	 * @param var String
+	 */
+	public void deleteQuestVariable(int objectId, String quest, String var)
+	{
+		queue(new Write(CHARACTER_QUESTS, objectId, Write.DELETE, new Object[]
+		{
+			quest,
+			var
+		}));
+	}
+	
+	/**
+	 * Method deleteQuest. Deletes all variables of the quest.
+	 * @param objectId int
+	 * @param quest String
+	 */
+	public void deleteQuest(int objectId, String quest)
+	{
+		queue(new Write(CHARACTER_QUESTS, objectId, Write.DELETE_ALL, new Object[]
+		{
+			quest
+		}));
+	}
+	
+	/**
+	 * Method setInstanceReuse.
+	 * @param objectId int
+	 * @param id int
+	 * @param reuse long
+	 */
+	public void setInstanceReuse(int objectId, int id, long reuse)
+	{
+		queue(new Write(CHARACTER_INSTANCES, objectId, Write.REPLACE, new Object[]
+		{
+			id
+		}, reuse));
+	}
+	
+	/**
+	 * Method deleteInstanceReuse.
+	 * @param objectId int
+	 * @param id int
+	 */
+	public void deleteInstanceReuse(int objectId, int id)
+	{
+		queue(new Write(CHARACTER_INSTANCES, objectId, Write.DELETE, new Object[]
+		{
+			id
+		}));
+	}
+	
+	/**
+	 * Method deleteInstanceReuses. Deletes all instance reuses of the character.
+	 * @param objectId int
+	 */
+	public void deleteInstanceReuses(int objectId)
+	{
+		queue(new Write(CHARACTER_INSTANCES, objectId, Write.DELETE_ALL, new Object[0]));
+	}
+	
+	/**
+	 * Method addRecipe.
+	 * @param objectId int
+	 * @param id int
+	 */
+	public void addRecipe(int objectId, int id)
+	{
+		queue(new Write(CHARACTER_RECIPEBOOK, objectId, Write.REPLACE, new Object[]
+		{
+			id
+		}));
+	}
+	
+	/**
+	 * Method deleteRecipe.
+	 * @param objectId int
+	 * @param id int
+	 */
+	public void deleteRecipe(int objectId, int id)
+	{
+		queue(new Write(CHARACTER_RECIPEBOOK, objectId, Write.DELETE, new Object[]
+		{
+			id
+		}));
+	}
+	
+	/**
+	 * Method setServerVariable.
+	 * @param name String
+	 * @param value String
+	 */
+	public void setServerVariable(String name, String value)
+	{
+		queue(new Write(SERVER_VARIABLES, SERVER, Write.REPLACE, new Object[]
+		{
+			name
+		}, value));
+	}
+	
+	/**
+	 * Method deleteServerVariable.
+	 * @param name String
+	 */
+	public void deleteServerVariable(String name)
+	{
+		queue(new Write(SERVER_VARIABLES, SERVER, Write.DELETE, new Object[]
+		{
+			name
+		}));
+	}
+	
+	/**
+	 * Method queue. The write is sent on the calling thread when the writer is disabled or stopped.
+	 * @param write Write
+	 */
+	private void queue(Write write)
+	{
+		_queued.incrementAndGet();
+		_lock.lock();
+		try
+		{
+			Map<List<Object>, Write> writes = _pending.get(write.owner);
+			if (writes == null)
+			{
+				writes = new LinkedHashMap<>();
+				_pending.put(write.owner, writes);
+			}
+			if (write.type == Write.DELETE_ALL)
+			{
+				for (Iterator<Write> it = writes.values().iterator(); it.hasNext();)
+				{
+					if (write.covers(it.next()))
+					{
+						it.remove();
+						_size--;
+						_coalesced.incrementAndGet();
+					}
+				}
+			}
+			if (writes.put(write.id, write) == null)
+			{
+				_size++;
+			}
+			else
+			{
+				_coalesced.incrementAndGet();
+			}
+		}
+		finally
+		{
+			_lock.unlock();
+		}
+		if (!isWriteBehind())
+		{
+			flush(write.owner);
+		}
+	}
+	
+	/**
+	 * Method flush. Writes everything queued.
+	 */
+	@Override
+	public void flush()
+	{
+		_writeLock.lock();
+		try
+		{
+			List<Write> list;
+			_lock.lock();
+			try
+			{
+				list = new ArrayList<>(_size);
+				for (Map<List<Object>, Write> writes : _pending.values())
+				{
+					list.addAll(writes.values());
+				}
+				_pending.clear();
+				_size = 0;
+			}
+			finally
+			{
+				_lock.unlock();
+			}
+			write(list);
+		}
+		finally
+		{
+			_writeLock.unlock();
+		}
+	}
+	
+	/**
+	 * Method flush. Writes the queued rows of one character, called on logout and before its rows are read back.
+	 * @param objectId int
+	 */
+	public void flush(int objectId)
+	{
+		_writeLock.lock();
+		try
+		{
+			Map<List<Object>, Write> writes;
+			_lock.lock();
+			try
+			{
+				writes = _pending.remove(objectId);
+				if (writes != null)
+				{
+					_size -= writes.size();
+				}
+			}
+			finally
+			{
+				_lock.unlock();
+			}
+			if (writes != null)
+			{
+				write(new ArrayList<>(writes.values()));
+			}
+		}
+		finally
+		{
+			_writeLock.unlock();
+		}
+	}
+	
+	/**
+	 * Method write. Has to be called under _writeLock, deletes of all rows go first, each kind of write is one batch.
+	 * @param list List<Write>
+	 * @return List<Write> rows written
+	 */
+	@Override
+	protected List<Write> write(List<Write> list)
+	{
+		List<Write> written = super.write(list);
+		if (written.isEmpty())
+		{
+			return written;
+		}
+		for (Write write : written)
+		{
+			write.table.rows.incrementAndGet();
+		}
+		_batchSizes.record(written.size());
+		return written;
+	}
+	
+	/**
+	 * Method isolate. Failed rows are sent one by one in the same order as a batch.
+	 * @param list List<Write>
+	 * @return List<Write>
+	 */
+	@Override
+	protected List<Write> isolate(List<Write> list)
+	{
+		List<Write> ordered = new ArrayList<>(list.size());
+		for (int type : Write.ORDER)
+		{
+			for (Write write : list)
+			{
+				if (write.type == type)
+				{
+					ordered.add(write);
+				}
+			}
+		}
+		return ordered;
+	}
+	
+	/**
+	 * Method describe.
+	 * @param write Write
+	 * @return String
+	 */
+	@Override
+	protected String describe(Write write)
+	{
+		return "the " + write.table.name + " row " + Arrays.toString(write.key) + " of " + write.owner;
+	}
+	
+	/**
+	 * Method writeRows. Has to be called under _writeLock.
+	 * @param list List<Write>
+	 * @throws Exception
+	 */
+	@Override
+	protected void writeRows(List<Write> list) throws Exception
+	{
+		Connection con = null;
+		List<PreparedStatement> statements = new ArrayList<>();
+		try
+		{
+			con = DatabaseFactory.getInstance().getConnection();
+			for (int type : Write.ORDER)
+			{
+				Map<String, PreparedStatement> batches = new LinkedHashMap<>();
+				for (Write write : list)
+				{
+					if (write.type != type)
+					{
+						continue;
+					}
+					PreparedStatement statement = batches.get(write.getQuery());
+					if (statement == null)
+					{
+						statement = con.prepareStatement(write.getQuery());
+						statements.add(statement);
+						batches.put(write.getQuery(), statement);
+					}
+					write.bind(statement);
+					statement.addBatch();
+				}
+				for (PreparedStatement statement : batches.values())
+				{
+					statement.executeBatch();
+				}
+			}
+		}
+		finally
+		{
+			for (PreparedStatement statement : statements)
+			{
+				DbUtils.closeQuietly(statement);
+			}
+			DbUtils.closeQuietly(con);
+		}
+	}
+	
+	/**
+	 * Method requeue. Puts back the writes of a failed batch unless a newer write replaced or deleted their row meanwhile.
+	 * @param list List<Write>
+	 */
+	@Override
+	protected void requeue(List<Write> list)
+	{
+		_lock.lock();
+		try
+		{
+			for (Write write : list)
+			{
+				Map<List<Object>, Write> writes = _pending.get(write.owner);
+				if (writes == null)
+				{
+					writes = new LinkedHashMap<>();
+					_pending.put(write.owner, writes);
+				}
+				if (writes.containsKey(write.id) || isCovered(writes, write))
+				{
+					continue;
+				}
+				writes.put(write.id, write);
+				_size++;
+			}
+		}
+		finally
+		{
+			_lock.unlock();
+		}
+	}
+	
+	/**
+	 * Method isCovered.
+	 * @param writes Map<List<Object>,Write>
+	 * @param write Write
+	 * @return boolean
+	 */
+	private static boolean isCovered(Map<List<Object>, Write> writes, Write write)
+	{
+		for (Write other : writes.values())
+		{
+			if (other.covers(write))
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Method getQueueSize.
+	 * @return int
+	 */
+	@Override
+	public int getQueueSize()
+	{
+		_lock.lock();
+		try
+		{
+			return _size;
+		}
+		finally
+		{
+			_lock.unlock();
+		}
+	}
+	
+	/**
+	 * Method getStats.
+	 * @return CharSequence
+	 */
+	public CharSequence getStats()
+	{
+		StringBuilder sb = new StringBuilder();
+		sb.append("     Queue: ....................... ").append(getQueueSize()).append('\n');
+		sb.append("     Queued: ...................... ").append(_queued.get()).append('\n');
+		sb.append("     Coalesced: ................... ").append(_coalesced.get()).append('\n');
+		for (Table table : TABLES)
+		{
+			StringBuilder line = new StringBuilder("     ").append(table.name).append(": ");
+			while (line.length() < 35)
+			{
+				line.append('.');
+			}
+			sb.append(line).append(' ').append(table.rows.get()).append('\n');
+		}
+		sb.append("     Errors: ...................... ").append(_errors.get()).append('\n');
+		sb.append("     Dropped: ..................... ").append(_dropped.get()).append('\n');
+		sb.append("     Rows per flush p50: .......... ").append(_batchSizes.getPercentile(50)).append('\n');
+		sb.append("     Queue time p99 (ms): ......... ").append(_queueTimes.getPercentile(99)).append('\n');
+		sb.append("     Flush p50 (ms): .............. ").append(_flushTimes.getPercentile(50)).append('\n');
+		sb.append("     Flush p99 (ms): .............. ").append(_flushTimes.getPercentile(99)).append('\n');
+		sb.append("     Flush max (ms): .............. ").append(_flushTimes.getMax()).append('\n');
+		return sb;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,317 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.gameserver.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import lineage2.commons.math.LatencyHistogram;
+import lineage2.commons.threading.PriorityThreadFactory;
+import lineage2.commons.threading.RunnableImpl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Base of the write-behind DAOs. Queued rows are written as batches by one writer thread, a failed batch is requeued until one of its rows failed ATTEMPTS times, then its rows are written one by one and those still failing are dropped. Once the writer is disabled or stopped, rows are written on the calling thread.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ * @param <E> queued row
+ */
+public abstract class WriteBehindDAO<E extends WriteBehindDAO.Entry>
+{
+	/**
+	 * Field _log.
+	 */
+	private static final Logger _log = LoggerFactory.getLogger(WriteBehindDAO.class);
+	/**
+	 * Field ATTEMPTS. Failed writes after which a row is dropped.
+	 */
+	protected static final int ATTEMPTS = 5;
+	/**
+	 * Field SHUTDOWN_RETRY_DELAY. Pause in milliseconds before a failed flush is retried at shutdown.
+	 */
+	private static final long SHUTDOWN_RETRY_DELAY = 1000;
+	
+	/**
+	 * @author Mobius
+	 */
+	protected abstract static class Entry
+	{
+		/**
+		 * Field queued.
+		 */
+		final long queued = System.currentTimeMillis();
+		/**
+		 * Field attempts. Failed writes, guarded by _writeLock.
+		 */
+		int attempts;
+	}
+	
+	/**
+	 * Field _name.
+	 */
+	private final String _name;
+	/**
+	 * Field _writeLock. Held while rows are written.
+	 */
+	protected final Lock _writeLock = new ReentrantLock();
+	/**
+	 * Field _writer.
+	 */
+	private final ScheduledThreadPoolExecutor _writer;
+	/**
+	 * Field _shutdown.
+	 */
+	private volatile boolean _shutdown;
+	/**
+	 * Field _flushTimes. Duration of writes in milliseconds.
+	 */
+	protected final LatencyHistogram _flushTimes = new LatencyHistogram();
+	/**
+	 * Field _queueTimes. Time rows waited in the queue in milliseconds.
+	 */
+	protected final LatencyHistogram _queueTimes = new LatencyHistogram();
+	/**
+	 * Field _queued.
+	 */
+	protected final AtomicLong _queued = new AtomicLong();
+	/**
+	 * Field _coalesced.
+	 */
+	protected final AtomicLong _coalesced = new AtomicLong();
+	/**
+	 * Field _errors.
+	 */
+	protected final AtomicLong _errors = new AtomicLong();
+	/**
+	 * Field _dropped.
+	 */
+	protected final AtomicLong _dropped = new AtomicLong();
+	
+	/**
+	 * Constructor for WriteBehindDAO.
+	 * @param name String name of the writer thread and of the log messages
+	 * @param delay long milliseconds between flushes, rows are written on the calling thread if not positive
+	 */
+	protected WriteBehindDAO(String name, long delay)
+	{
+		_name = name;
+		if (delay > 0)
+		{
+			_writer = new ScheduledThreadPoolExecutor(1, new PriorityThreadFactory(name, Thread.NORM_PRIORITY));
+			_writer.scheduleWithFixedDelay(new RunnableImpl()
+			{
+				@Override
+				public void runImpl()
+				{
+					flush();
+				}
+			}, delay, delay, TimeUnit.MILLISECONDS);
+		}
+		else
+		{
+			_writer = null;
+		}
+	}
+	
+	/**
+	 * Method isWriteBehind.
+	 * @return boolean false if queued rows have to be written on the calling thread
+	 */
+	protected boolean isWriteBehind()
+	{
+		return (_writer != null) && !_shutdown;
+	}
+	
+	/**
+	 * Method flush. Writes every queued row.
+	 */
+	public abstract void flush();
+	
+	/**
+	 * Method getQueueSize.
+	 * @return int
+	 */
+	public abstract int getQueueSize();
+	
+	/**
+	 * Method writeRows. Writes the rows as one batch, called under _writeLock.
+	 * @param list List<E>
+	 * @throws Exception
+	 */
+	protected abstract void writeRows(List<E> list) throws Exception;
+	
+	/**
+	 * Method requeue. Puts back the rows of a failed batch unless newer rows replaced them meanwhile.
+	 * @param list List<E>
+	 */
+	protected abstract void requeue(List<E> list);
+	
+	/**
+	 * Method describe.
+	 * @param entry E
+	 * @return String row name used in log messages
+	 */
+	protected abstract String describe(E entry);
+	
+	/**
+	 * Method isolate. Order in which the rows of a failed batch are written one by one.
+	 * @param list List<E>
+	 * @return List<E>
+	 */
+	protected List<E> isolate(List<E> list)
+	{
+		return list;
+	}
+	
+	/**
+	 * Method shutdown. Stops the writer and flushes until the queue is empty, a row failing ATTEMPTS times is dropped. Later rows are written on the calling thread.
+	 */
+	public void shutdown()
+	{
+		_shutdown = true;
+		if (_writer != null)
+		{
+			_writer.shutdown();
+			try
+			{
+				_writer.awaitTermination(10, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+		long dropped = _dropped.get();
+		flush();
+		while (getQueueSize() > 0)
+		{
+			try
+			{
+				Thread.sleep(SHUTDOWN_RETRY_DELAY);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+			flush();
+		}
+		dropped = _dropped.get() - dropped;
+		if (dropped > 0)
+		{
+			_log.error(_name + ": " + dropped + " row(s) could not be written at shutdown and are lost");
+		}
+	}
+	
+	/**
+	 * Method write. Has to be called under _writeLock.
+	 * @param list List<E>
+	 * @return List<E> rows written
+	 */
+	protected List<E> write(List<E> list)
+	{
+		if (list.isEmpty())
+		{
+			return list;
+		}
+		long start = System.currentTimeMillis();
+		List<E> written = list;
+		try
+		{
+			writeRows(list);
+		}
+		catch (Exception e)
+		{
+			_errors.incrementAndGet();
+			written = retry(list, e);
+		}
+		for (E entry : written)
+		{
+			_queueTimes.record(start - entry.queued);
+		}
+		_flushTimes.record(System.currentTimeMillis() - start);
+		return written;
+	}
+	
+	/**
+	 * Method retry. Requeues a failed batch until one of its rows failed ATTEMPTS times, then writes the rows one by one and drops those still failing.
+	 * @param list List<E>
+	 * @param e Exception
+	 * @return List<E> rows written
+	 */
+	private List<E> retry(List<E> list, Exception e)
+	{
+		boolean isolate = false;
+		for (E entry : list)
+		{
+			if (++entry.attempts >= ATTEMPTS)
+			{
+				isolate = true;
+			}
+		}
+		if (!isolate)
+		{
+			_log.error(_name + ": could not write " + list.size() + " row(s), will retry", e);
+			requeue(list);
+			return Collections.emptyList();
+		}
+		if (list.size() == 1)
+		{
+			drop(list.get(0), e);
+			return Collections.emptyList();
+		}
+		_log.error(_name + ": could not write " + list.size() + " row(s), writing them one by one", e);
+		List<E> written = new ArrayList<>();
+		for (E entry : isolate(list))
+		{
+			List<E> single = Collections.singletonList(entry);
+			try
+			{
+				writeRows(single);
+				written.add(entry);
+			}
+			catch (Exception e1)
+			{
+				_errors.incrementAndGet();
+				if (entry.attempts < ATTEMPTS)
+				{
+					_log.error(_name + ": could not write " + describe(entry) + ", will retry", e1);
+					requeue(single);
+				}
+				else
+				{
+					drop(entry, e1);
+				}
+			}
+		}
+		return written;
+	}
+	
+	/**
+	 * Method drop.
+	 * @param entry E
+	 * @param e Exception
+	 */
+	private void drop(E entry, Exception e)
+	{
+		_dropped.incrementAndGet();
+		_log.error(_name + ": dropped " + describe(entry) + " after " + entry.attempts + " attempts", e);
+	}
+}
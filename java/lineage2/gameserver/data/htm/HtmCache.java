@@ -24,7 +24,6 @@ import net.sf.ehcache.CacheManager;
 import net.sf.ehcache.Element;
 
 import org.apache.commons.io.FileUtils;
-import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -171,7 +170,7 @@ public class HtmCache
 	{
 		String content = FileUtils.readFileToString(f, "UTF-8");
 		String path = f.getAbsolutePath().substring(rootPath.length()).replace("\\", "/");
-		_cache[lang.ordinal()].put(new Element(path.toLowerCase(), Strings.bbParse(content)));
+		_cache[lang.ordinal()].put(new Element(path.toLowerCase(), new HtmTemplate(Strings.bbParse(content))));
 	}
 	
 	/**
@@ -183,12 +182,12 @@ public class HtmCache
 	public String getNotNull(String fileName, Player player)
 	{
 		Language lang = player == null ? Language.ENGLISH : player.getLanguage();
-		String cache = getCache(fileName, lang);
-		if (StringUtils.isEmpty(cache))
+		HtmTemplate cache = getCache(fileName, lang);
+		if ((cache == null) || cache.isEmpty())
 		{
-			cache = "Dialog not found: " + fileName + "; Lang: " + lang;
+			return "Dialog not found: " + fileName + "; Lang: " + lang;
 		}
-		return cache;
+		return cache.getHtml();
 	}
 	
 	/**
@@ -198,10 +197,22 @@ public class HtmCache
 	 * @return String
 	 */
 	public String getNullable(String fileName, Player player)
+	{
+		HtmTemplate cache = getTemplate(fileName, player);
+		return cache == null ? null : cache.getHtml();
+	}
+	
+	/**
+	 * Method getTemplate.
+	 * @param fileName String
+	 * @param player Player
+	 * @return HtmTemplate null when the file is missing or empty
+	 */
+	public HtmTemplate getTemplate(String fileName, Player player)
 	{
 		Language lang = player == null ? Language.ENGLISH : player.getLanguage();
-		String cache = getCache(fileName, lang);
-		if (StringUtils.isEmpty(cache))
+		HtmTemplate cache = getCache(fileName, lang);
+		if ((cache == null) || cache.isEmpty())
 		{
 			return null;
 		}
@@ -212,16 +223,16 @@ public class HtmCache
 	 * Method getCache.
 	 * @param file String
 	 * @param lang Language
-	 * @return String
+	 * @return HtmTemplate
 	 */
-	private String getCache(String file, Language lang)
+	private HtmTemplate getCache(String file, Language lang)
 	{
 		if (file == null)
 		{
 			return null;
 		}
 		final String fileLower = file.toLowerCase();
-		String cache = get(lang, fileLower);
+		HtmTemplate cache = get(lang, fileLower);
 		if (cache == null)
 		{
 			switch (Config.HTM_CACHE_MODE)
@@ -251,11 +262,11 @@ public class HtmCache
 	 * Method loadDisabled.
 	 * @param lang Language
 	 * @param file String
-	 * @return String
+	 * @return HtmTemplate
 	 */
-	private String loadDisabled(Language lang, String file)
+	private HtmTemplate loadDisabled(Language lang, String file)
 	{
-		String cache = null;
+		HtmTemplate cache = null;
 		File f;
 		if (lang.getShortName().equals("en"))
 		{
@@ -269,8 +280,7 @@ public class HtmCache
 		{
 			try
 			{
-				cache = FileUtils.readFileToString(f, "UTF-8");
-				cache = Strings.bbParse(cache);
+				cache = new HtmTemplate(Strings.bbParse(FileUtils.readFileToString(f, "UTF-8")));
 			}
 			catch (IOException e)
 			{
@@ -284,11 +294,11 @@ public class HtmCache
 	 * Method loadLazy.
 	 * @param lang Language
 	 * @param file String
-	 * @return String
+	 * @return HtmTemplate
 	 */
-	private String loadLazy(Language lang, String file)
+	private HtmTemplate loadLazy(Language lang, String file)
 	{
-		String cache = null;
+		HtmTemplate cache = null;
 		File f;
 		if (lang.getShortName().equals("en"))
 		{
@@ -302,8 +312,7 @@ public class HtmCache
 		{
 			try
 			{
-				cache = FileUtils.readFileToString(f, "UTF-8");
-				cache = Strings.bbParse(cache);
+				cache = new HtmTemplate(Strings.bbParse(FileUtils.readFileToString(f, "UTF-8")));
 				_cache[lang.ordinal()].put(new Element(file, cache));
 			}
 			catch (IOException e)
@@ -318,16 +327,16 @@ public class HtmCache
 	 * Method get.
 	 * @param lang Language
 	 * @param f String
-	 * @return String
+	 * @return HtmTemplate
 	 */
-	private String get(Language lang, String f)
+	private HtmTemplate get(Language lang, String f)
 	{
 		Element element = _cache[lang.ordinal()].get(f);
 		if (element == null)
 		{
 			element = _cache[Language.ENGLISH.ordinal()].get(f);
 		}
-		return element == null ? null : (String) element.getObjectValue();
+		return element == null ? null : (HtmTemplate) element.getObjectValue();
 	}
 	
 	/**
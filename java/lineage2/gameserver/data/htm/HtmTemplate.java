@@ -0,0 +1,265 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.gameserver.data.htm;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Html page split at its %name% placeholders and at its &lt;/body&gt; tags, so that the replacements of a dialog are filled in by one pass over the page.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public final class HtmTemplate
+{
+	/**
+	 * Field BODY_END.
+	 */
+	private static final String BODY_END = "</body>";
+	/**
+	 * Field OBJECT_ID.
+	 */
+	private static final String OBJECT_ID = "%objectId%";
+	/**
+	 * Field PLAYER_NAME.
+	 */
+	private static final String PLAYER_NAME = "%playername%";
+	
+	/**
+	 * Field _html.
+	 */
+	private final String _html;
+	/**
+	 * Field _starts. Start of each placeholder, or of each &lt;/body&gt; tag, in page order.
+	 */
+	private final int[] _starts;
+	/**
+	 * Field _ends. End of each placeholder, -1 for a &lt;/body&gt; tag.
+	 */
+	private final int[] _ends;
+	/**
+	 * Field _ambiguous. Placeholders share a % or may join to new ones, the page has to be replaced pattern by pattern.
+	 */
+	private final boolean _ambiguous;
+	/**
+	 * Field _document.
+	 */
+	private final boolean _document;
+	
+	/**
+	 * Constructor for HtmTemplate.
+	 * @param html String
+	 */
+	public HtmTemplate(String html)
+	{
+		_html = html;
+		_document = html.contains("<html>");
+		int count = 0;
+		int[] starts = new int[16];
+		int[] ends = new int[16];
+		boolean ambiguous = false;
+		int body = html.indexOf(BODY_END);
+		int i = html.indexOf('%');
+		while ((i >= 0) || (body >= 0))
+		{
+			if (count == starts.length)
+			{
+				starts = grow(starts);
+				ends = grow(ends);
+			}
+			if ((body >= 0) && ((i < 0) || (body < i)))
+			{
+				starts[count] = body;
+				ends[count++] = -1;
+				body = html.indexOf(BODY_END, body + BODY_END.length());
+				continue;
+			}
+			int end = skipWord(html, i + 1);
+			if ((end == (i + 1)) || (end == html.length()) || (html.charAt(end) != '%'))
+			{
+				i = html.indexOf('%', i + 1);
+				continue;
+			}
+			end++;
+			starts[count] = i;
+			ends[count++] = end;
+			int next = skipWord(html, end);
+			if ((next < html.length()) && (html.charAt(next) == '%'))
+			{
+				ambiguous |= (next > end) || ((i > 0) && (html.charAt(i - 1) == '%'));
+			}
+			i = html.indexOf('%', end);
+		}
+		_starts = count == starts.length ? starts : Arrays.copyOf(starts, count);
+		_ends = count == ends.length ? ends : Arrays.copyOf(ends, count);
+		_ambiguous = ambiguous;
+	}
+	
+	/**
+	 * Method grow.
+	 * @param array int[]
+	 * @return int[]
+	 */
+	private static int[] grow(int[] array)
+	{
+		return Arrays.copyOf(array, array.length * 2);
+	}
+	
+	/**
+	 * Method skipWord.
+	 * @param s String
+	 * @param i int
+	 * @return int index of the first character from i which can not be part of a placeholder name
+	 */
+	private static int skipWord(String s, int i)
+	{
+		while ((i < s.length()) && isWordChar(s.charAt(i)))
+		{
+			i++;
+		}
+		return i;
+	}
+	
+	/**
+	 * Method isWordChar.
+	 * @param c char
+	 * @return boolean
+	 */
+	private static boolean isWordChar(char c)
+	{
+		return ((c >= 'a') && (c <= 'z')) || ((c >= 'A') && (c <= 'Z')) || ((c >= '0') && (c <= '9')) || (c == '_');
+	}
+	
+	/**
+	 * Method isPlaceholder.
+	 * @param s String
+	 * @return boolean
+	 */
+	private static boolean isPlaceholder(String s)
+	{
+		return (s.length() > 2) && (s.charAt(0) == '%') && (skipWord(s, 1) == (s.length() - 1)) && (s.charAt(s.length() - 1) == '%');
+	}
+	
+	/**
+	 * Method getHtml.
+	 * @return String
+	 */
+	public String getHtml()
+	{
+		return _html;
+	}
+	
+	/**
+	 * Method isDocument.
+	 * @return boolean true when the page has an &lt;html&gt; tag
+	 */
+	public boolean isDocument()
+	{
+		return _document;
+	}
+	
+	/**
+	 * Method isEmpty.
+	 * @return boolean
+	 */
+	public boolean isEmpty()
+	{
+		return _html.isEmpty();
+	}
+	
+	/**
+	 * Method render. Gives the same page as inserting the append before each &lt;/body&gt; tag, then replacing each pattern with String.replace in list order and %objectId% and %playername% last.
+	 * @param out StringBuilder receives the page
+	 * @param append HtmTemplate inserted before each &lt;/body&gt; tag and filled in the same way, may be null
+	 * @param replaces List<String> pattern and value pairs
+	 * @param objectId String
+	 * @param playerName String
+	 * @return boolean false, with the content of out undefined, when a pattern is not a %name% placeholder, a value contains %, the append starts with a placeholder character or the placeholders of the page are ambiguous; the patterns have to be replaced one by one then
+	 */
+	public boolean render(StringBuilder out, HtmTemplate append, List<String> replaces, String objectId, String playerName)
+	{
+		if (_ambiguous)
+		{
+			return false;
+		}
+		for (int i = 0; i < replaces.size(); i += 2)
+		{
+			if (!isPlaceholder(replaces.get(i)) || (replaces.get(i + 1).indexOf('%') >= 0))
+			{
+				return false;
+			}
+		}
+		int from = 0;
+		for (int i = 0; i < _starts.length; i++)
+		{
+			int start = _starts[i];
+			int end = _ends[i];
+			if (end < 0)
+			{
+				if (append != null)
+				{
+					out.append(_html, from, start);
+					if (!append.isEmpty() && ((append._html.charAt(0) == '%') || isWordChar(append._html.charAt(0))))
+					{
+						return false;
+					}
+					if (!append.render(out, null, replaces, objectId, playerName))
+					{
+						return false;
+					}
+					from = start;
+				}
+				continue;
+			}
+			String value = getValue(start, end, replaces, objectId, playerName);
+			if (value != null)
+			{
+				out.append(_html, from, start).append(value);
+				from = end;
+			}
+		}
+		out.append(_html, from, _html.length());
+		return true;
+	}
+	
+	/**
+	 * Method getValue.
+	 * @param start int
+	 * @param end int
+	 * @param replaces List<String>
+	 * @param objectId String
+	 * @param playerName String
+	 * @return String null when the placeholder is kept
+	 */
+	private String getValue(int start, int end, List<String> replaces, String objectId, String playerName)
+	{
+		int length = end - start;
+		for (int i = 0; i < replaces.size(); i += 2)
+		{
+			String pattern = replaces.get(i);
+			if ((pattern.length() == length) && _html.regionMatches(start, pattern, 0, length))
+			{
+				return replaces.get(i + 1);
+			}
+		}
+		if ((length == OBJECT_ID.length()) && _html.regionMatches(start, OBJECT_ID, 0, length))
+		{
+			return objectId;
+		}
+		if ((length == PLAYER_NAME.length()) && _html.regionMatches(start, PLAYER_NAME, 0, length))
+		{
+			return playerName;
+		}
+		return null;
+	}
+}
\ No newline at end of file
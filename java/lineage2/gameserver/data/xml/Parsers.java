@@ -12,6 +12,7 @@
  */
 package lineage2.gameserver.data.xml;
 
+import lineage2.commons.threading.TaskGraph;
 import lineage2.gameserver.data.StringHolder;
 import lineage2.gameserver.data.htm.HtmCache;
 import lineage2.gameserver.data.xml.holder.BuyListHolder;
@@ -62,52 +63,128 @@ import lineage2.gameserver.tables.SkillTable;
 public abstract class Parsers
 {
 	/**
-	 * Method parseAll.
+	 * Field STAGES. Names of the stages added by addStages.
 	 */
-	public static void parseAll()
+	public static final String[] STAGES =
 	{
-		HtmCache.getInstance().reload();
-		StringHolder.getInstance().load();
-		SkillTable.getInstance().load();
-		RestorationInfoParser.getInstance().load();
-		OptionDataParser.getInstance().load();
-		EtcItemParser.getInstance().load();
-		WeaponItemParser.getInstance().load();
-		ArmorItemParser.getInstance().load();
-		EnchantItemParser.getInstance().load();
-		NpcParser.getInstance().load();
-		DropListDataParser.getInstance().load();
-		DomainParser.getInstance().load();
-		RestartPointParser.getInstance().load();
-		StaticObjectParser.getInstance().load();
-		DoorParser.getInstance().load();
-		CustomSpawnTable.getInstance();
-		ZoneParser.getInstance().load();
-		SpawnParser.getInstance().load();
-		InstantZoneParser.getInstance().load();
-		WalkerRoutesParser.getInstance().load();
-		RecipeParser.getInstance().load();
-		ReflectionManager.getInstance();
-		AirshipDockParser.getInstance().load();
-		SkillAcquireParser.getInstance().load();
-		ResidenceParser.getInstance().load();
-		ShuttleTemplateParser.getInstance().load();
-		EventParser.getInstance().load();
-		CubicParser.getInstance().load();
-		BuyListHolder.getInstance();
-		RecipeHolder.getInstance();
-		MultiSellHolder.getInstance();
-		ProductHolder.getInstance();
-		HennaParser.getInstance().load();
-		JumpTracksParser.getInstance().load();
-		SoulCrystalParser.getInstance().load();
-		ArmorSetsParser.getInstance().load();
-		FishDataParser.getInstance().load();
-		FishTable.getInstance().reload();
-		PetitionGroupParser.getInstance().load();
-		PlayerTemplateParser.getInstance().load();
-		LevelBonusParser.getInstance().load();
-
-		StatuesSpawnParser.getInstance().load();
+		"HtmCache",
+		"Strings",
+		"Skills",
+		"Items",
+		"Npcs",
+		"MapRegions",
+		"PlayerData",
+		"WorldData"
+	};
+	
+	/**
+	 * Method addStages. Parsers filling the same holder share a stage, a stage depends on the stages whose holders its parsers read.
+	 * @param graph TaskGraph
+	 * @param worldDependencies String[] stages the spawns, doors and zones have to wait for in addition
+	 */
+	public static void addStages(TaskGraph graph, String... worldDependencies)
+	{
+		graph.add("HtmCache", new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				HtmCache.getInstance().reload();
+			}
+		});
+		graph.add("Strings", new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				StringHolder.getInstance().load();
+			}
+		});
+		graph.add("Skills", new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				SkillTable.getInstance().load();
+			}
+		});
+		graph.add("Items", new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				RestorationInfoParser.getInstance().load();
+				OptionDataParser.getInstance().load();
+				EtcItemParser.getInstance().load();
+				WeaponItemParser.getInstance().load();
+				ArmorItemParser.getInstance().load();
+				EnchantItemParser.getInstance().load();
+			}
+		}, "Skills");
+		graph.add("Npcs", new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				NpcParser.getInstance().load();
+				DropListDataParser.getInstance().load();
+			}
+		}, "Skills", "Items");
+		graph.add("MapRegions", new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				DomainParser.getInstance().load();
+				RestartPointParser.getInstance().load();
+			}
+		});
+		graph.add("PlayerData", new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				RecipeParser.getInstance().load();
+				SkillAcquireParser.getInstance().load();
+				CubicParser.getInstance().load();
+				BuyListHolder.getInstance();
+				RecipeHolder.getInstance();
+				MultiSellHolder.getInstance();
+				ProductHolder.getInstance();
+				HennaParser.getInstance().load();
+				JumpTracksParser.getInstance().load();
+				SoulCrystalParser.getInstance().load();
+				ArmorSetsParser.getInstance().load();
+				FishDataParser.getInstance().load();
+				FishTable.getInstance().reload();
+				PetitionGroupParser.getInstance().load();
+				PlayerTemplateParser.getInstance().load();
+				LevelBonusParser.getInstance().load();
+			}
+		}, "Skills", "Items", "Npcs");
+		String[] dependencies = new String[worldDependencies.length + 2];
+		dependencies[0] = "Npcs";
+		dependencies[1] = "MapRegions";
+		System.arraycopy(worldDependencies, 0, dependencies, 2, worldDependencies.length);
+		graph.add("WorldData", new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				StaticObjectParser.getInstance().load();
+				DoorParser.getInstance().load();
+				CustomSpawnTable.getInstance();
+				ZoneParser.getInstance().load();
+				SpawnParser.getInstance().load();
+				InstantZoneParser.getInstance().load();
+				WalkerRoutesParser.getInstance().load();
+				ReflectionManager.getInstance();
+				AirshipDockParser.getInstance().load();
+				ResidenceParser.getInstance().load();
+				ShuttleTemplateParser.getInstance().load();
+				EventParser.getInstance().load();
+				StatuesSpawnParser.getInstance().load();
+			}
+		}, dependencies);
 	}
 }
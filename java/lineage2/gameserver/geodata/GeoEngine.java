@@ -22,6 +22,8 @@ import java.nio.ByteOrder;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
@@ -34,6 +36,7 @@ import lineage2.commons.geometry.Shape;
 import lineage2.gameserver.Config;
 import lineage2.gameserver.geodata.GeoOptimizer.BlockLink;
 import lineage2.gameserver.model.GameObject;
+import lineage2.gameserver.model.Territory;
 import lineage2.gameserver.model.World;
 import lineage2.gameserver.utils.Location;
 
@@ -82,6 +85,14 @@ public class GeoEngine
 	 * Field geodata.
 	 */
 	private static final byte[][][][][] geodata = new byte[World.WORLD_SIZE_X][World.WORLD_SIZE_Y][1][][];
+	/**
+	 * Field sharedBlocks. Blocks decoded from rawgeo, never modified, every geo index of the region starts as a copy of these references.
+	 */
+	private static final byte[][][][] sharedBlocks = new byte[World.WORLD_SIZE_X][World.WORLD_SIZE_Y][][];
+	/**
+	 * Field privateBlocks. Blocks a geo index copied before a collision changed them, same layout as geodata.
+	 */
+	private static final BitSet[][][] privateBlocks = new BitSet[World.WORLD_SIZE_X][World.WORLD_SIZE_Y][1];
 	
 	/**
 	 * Method getType.
@@ -1737,17 +1748,66 @@ public class GeoEngine
 		byte[][][] region = geodata[ix][iy];
 		int blockX = getBlock(geoX);
 		int blockY = getBlock(geoY);
-		int regIndex = 0;
+		return region[getRegIndex(ix, iy, geoIndex)][getBlockIndex(blockX, blockY)];
+	}
+	
+	/**
+	 * Method getWritableGeoBlock. Same as getGeoBlockFromGeoCoords, but a block still shared with other geo indices is copied first.
+	 * @param geoX int
+	 * @param geoY int
+	 * @param geoIndex int
+	 * @return byte[]
+	 */
+	private static byte[] getWritableGeoBlock(int geoX, int geoY, int geoIndex)
+	{
+		if (!Config.ALLOW_GEODATA)
+		{
+			return null;
+		}
+		int ix = geoX >> 11;
+		int iy = geoY >> 11;
+		if ((ix < 0) || (ix >= World.WORLD_SIZE_X) || (iy < 0) || (iy >= World.WORLD_SIZE_Y))
+		{
+			return null;
+		}
+		int regIndex = getRegIndex(ix, iy, geoIndex);
+		int blockIndex = getBlockIndex(getBlock(geoX), getBlock(geoY));
+		synchronized (geodata)
+		{
+			byte[][] blocks = geodata[ix][iy][regIndex];
+			if (blocks == null)
+			{
+				return null;
+			}
+			BitSet owned = privateBlocks[ix][iy][regIndex];
+			if ((owned != null) && !owned.get(blockIndex))
+			{
+				blocks[blockIndex] = blocks[blockIndex].clone();
+				owned.set(blockIndex);
+			}
+			return blocks[blockIndex];
+		}
+	}
+	
+	/**
+	 * Method getRegIndex.
+	 * @param ix int
+	 * @param iy int
+	 * @param geoIndex int
+	 * @return int
+	 */
+	private static int getRegIndex(int ix, int iy, int geoIndex)
+	{
 		if ((geoIndex & 0x0f000000) == 0x0f000000)
 		{
 			int x = (geoIndex & 0x00ff0000) >> 16;
 			int y = (geoIndex & 0x0000ff00) >> 8;
 			if ((ix == x) && (iy == y))
 			{
-				regIndex = (geoIndex & 0x000000ff);
+				return geoIndex & 0x000000ff;
 			}
 		}
-		return region[regIndex][getBlockIndex(blockX, blockY)];
+		return 0;
 	}
 	
 	/**
@@ -1930,7 +1990,7 @@ public class GeoEngine
 	}
 	
 	/**
-	 * Method LoadGeodata.
+	 * Method LoadGeodata. Decodes the region into new shared blocks, geo indices created before keep the blocks they already reference.
 	 * @param rx int
 	 * @param ry int
 	 * @param regIndex int
@@ -1941,14 +2001,7 @@ public class GeoEngine
 		int iy = ry - Config.GEO_Y_FIRST;
 		MappedByteBuffer geo = rawgeo[ix][iy];
 		int index = 0, orgIndex, block = 0, floor = 0;
-		byte[][] blocks;
-		synchronized (geodata)
-		{
-			if ((blocks = geodata[ix][iy][regIndex]) == null)
-			{
-				geodata[ix][iy][regIndex] = (blocks = new byte[BLOCKS_IN_MAP][]);
-			}
-		}
+		byte[][] blocks = new byte[BLOCKS_IN_MAP][];
 		for (block = 0; block < BLOCKS_IN_MAP; block++)
 		{
 			byte type = geo.get(index);
@@ -1995,6 +2048,12 @@ public class GeoEngine
 					throw new RuntimeException("Invalid geodata: " + rx + "_" + ry + "!");
 			}
 		}
+		synchronized (geodata)
+		{
+			sharedBlocks[ix][iy] = blocks;
+			geodata[ix][iy][regIndex] = blocks.clone();
+			privateBlocks[ix][iy][regIndex] = new BitSet(BLOCKS_IN_MAP);
+		}
 	}
 	
 	/**
@@ -2015,6 +2074,11 @@ public class GeoEngine
 		int regIndex = -1;
 		synchronized (geodata)
 		{
+			byte[][] blocks = sharedBlocks[ix][iy];
+			if (blocks == null)
+			{
+				return 0;
+			}
 			byte[][][] region = geodata[ix][iy];
 			for (int i = 0; i < region.length; i++)
 			{
@@ -2026,14 +2090,12 @@ public class GeoEngine
 			}
 			if (regIndex == -1)
 			{
-				byte[][][] resizedRegion = new byte[(regIndex = region.length) + 1][][];
-				for (int i = 0; i < region.length; i++)
-				{
-					resizedRegion[i] = region[i];
-				}
-				geodata[ix][iy] = resizedRegion;
+				regIndex = region.length;
+				geodata[ix][iy] = Arrays.copyOf(region, regIndex + 1);
+				privateBlocks[ix][iy] = Arrays.copyOf(privateBlocks[ix][iy], regIndex + 1);
 			}
-			LoadGeodata(rx, ry, regIndex);
+			geodata[ix][iy][regIndex] = blocks.clone();
+			privateBlocks[ix][iy][regIndex] = new BitSet(BLOCKS_IN_MAP);
 		}
 		return 0x0f000000 | (ix << 16) | (iy << 8) | regIndex;
 	}
@@ -2058,7 +2120,76 @@ public class GeoEngine
 		synchronized (geodata)
 		{
 			geodata[ix][iy][regIndex] = null;
+			privateBlocks[ix][iy][regIndex] = null;
+		}
+		Territory.invalidateSpawnCells(geoIndex);
+	}
+	
+	/**
+	 * Method getGeoIndexMemory. Memory held by one geo index on top of the shared blocks of its region.
+	 * @param geoIndex int
+	 * @return long[] private blocks, private block bytes, block reference table bytes
+	 */
+	public static long[] getGeoIndexMemory(int geoIndex)
+	{
+		long[] result = new long[3];
+		if (!Config.ALLOW_GEODATA || ((geoIndex & 0x0f000000) != 0x0f000000))
+		{
+			return result;
+		}
+		int ix = (geoIndex & 0x00ff0000) >> 16;
+		int iy = (geoIndex & 0x0000ff00) >> 8;
+		int regIndex = geoIndex & 0x000000ff;
+		synchronized (geodata)
+		{
+			byte[][] blocks = geodata[ix][iy][regIndex];
+			BitSet owned = privateBlocks[ix][iy][regIndex];
+			if ((blocks == null) || (owned == null))
+			{
+				return result;
+			}
+			for (int i = owned.nextSetBit(0); i >= 0; i = owned.nextSetBit(i + 1))
+			{
+				result[0]++;
+				result[1] += blocks[i].length;
+			}
+			result[2] = (long) blocks.length * 4;
+		}
+		return result;
+	}
+	
+	/**
+	 * Method getGeoIndexesInfo.
+	 * @return String one line per allocated geo index
+	 */
+	public static String getGeoIndexesInfo()
+	{
+		StringBuilder sb = new StringBuilder();
+		synchronized (geodata)
+		{
+			for (int ix = 0; ix < World.WORLD_SIZE_X; ix++)
+			{
+				for (int iy = 0; iy < World.WORLD_SIZE_Y; iy++)
+				{
+					if (geodata[ix][iy] == null)
+					{
+						continue;
+					}
+					for (int regIndex = 1; regIndex < geodata[ix][iy].length; regIndex++)
+					{
+						if (geodata[ix][iy][regIndex] == null)
+						{
+							continue;
+						}
+						int geoIndex = 0x0f000000 | (ix << 16) | (iy << 8) | regIndex;
+						long[] memory = getGeoIndexMemory(geoIndex);
+						sb.append("Geo index ").append(ix + Config.GEO_X_FIRST).append('_').append(iy + Config.GEO_Y_FIRST).append('#').append(regIndex);
+						sb.append(": private blocks ").append(memory[0]).append(", ").append((memory[1] + memory[2]) / 1024).append(" KB\n");
+					}
+				}
+			}
 		}
+		return sb.toString();
 	}
 	
 	/**
@@ -2086,7 +2217,7 @@ public class GeoEngine
 			{
 				int geoX = minX + gX;
 				int geoY = minY + gY;
-				byte[] block = getGeoBlockFromGeoCoords(geoX, geoY, geoIndex);
+				byte[] block = getWritableGeoBlock(geoX, geoY, geoIndex);
 				if (block == null)
 				{
 					continue;
@@ -2177,6 +2308,7 @@ public class GeoEngine
 				}
 			}
 		}
+		Territory.invalidateSpawnCells(shape, geoIndex);
 	}
 	
 	/**
@@ -2281,7 +2413,7 @@ public class GeoEngine
 			{
 				int geoX = minX + gX;
 				int geoY = minY + gY;
-				byte[] block = getGeoBlockFromGeoCoords(geoX, geoY, geoIndex);
+				byte[] block = getWritableGeoBlock(geoX, geoY, geoIndex);
 				if (block == null)
 				{
 					continue;
@@ -2398,6 +2530,7 @@ public class GeoEngine
 				}
 			}
 		}
+		Territory.invalidateSpawnCells(shape, geoIndex);
 	}
 	
 	/**
@@ -2570,6 +2703,8 @@ public class GeoEngine
 			for (int mapY = 0; mapY < World.WORLD_SIZE_Y; mapY++)
 			{
 				geodata[mapX][mapY] = null;
+				sharedBlocks[mapX][mapY] = null;
+				privateBlocks[mapX][mapY] = null;
 			}
 		}
 	}
@@ -17,6 +17,7 @@ import java.util.Collections;
 import java.util.List;
 
 import lineage2.gameserver.Config;
+import lineage2.gameserver.model.Creature;
 import lineage2.gameserver.model.GameObject;
 import lineage2.gameserver.model.Player;
 import lineage2.gameserver.network.serverpackets.ExShowTrace;
@@ -35,11 +36,10 @@ public class GeoMove
 	 * @param z int
 	 * @param target Location
 	 * @param obj GameObject
-	 * @param showTrace boolean
 	 * @param geoIndex int
 	 * @return List<Location>
 	 */
-	private static List<Location> findPath(int x, int y, int z, Location target, GameObject obj, boolean showTrace, int geoIndex)
+	static List<Location> findPath(int x, int y, int z, Location target, GameObject obj, int geoIndex)
 	{
 		if (Math.abs(z - target.z) > 256)
 		{
@@ -63,15 +63,25 @@ public class GeoMove
 		{
 			pathClean(targetRecorder, geoIndex);
 		}
-		if (showTrace && obj.isPlayer() && ((Player) obj).getVarB("trace"))
+		return targetRecorder;
+	}
+	
+	/**
+	 * Method showTrace.
+	 * @param path List<Location>
+	 * @param obj GameObject
+	 */
+	private static void showTrace(List<Location> path, GameObject obj)
+	{
+		if (obj.isPlayer() && ((Player) obj).getVarB("trace"))
 		{
 			Player player = (Player) obj;
 			ExShowTrace trace = new ExShowTrace();
 			int i = 0;
-			for (Location loc : targetRecorder)
+			for (Location loc : path)
 			{
 				i++;
-				if ((i == 1) || (i == targetRecorder.size()))
+				if ((i == 1) || (i == path.size()))
 				{
 					continue;
 				}
@@ -79,7 +89,6 @@ public class GeoMove
 			}
 			player.sendPacket(trace);
 		}
-		return targetRecorder;
 	}
 	
 	/**
@@ -95,7 +104,71 @@ public class GeoMove
 	 */
 	public static List<List<Location>> findMovePath(int x, int y, int z, Location target, GameObject obj, boolean showTrace, int geoIndex)
 	{
-		return getNodePath(findPath(x, y, z, target, obj, showTrace, geoIndex), geoIndex);
+		PathFindService service = PathFindService.getInstance();
+		List<Location> path = service.getCachedPath(x, y, z, target, geoIndex);
+		if (path != null)
+		{
+			if (path.isEmpty())
+			{
+				return Collections.emptyList();
+			}
+			List<List<Location>> nodePath = getNodePath(path, geoIndex);
+			// a path cached for a nearby start point may not be walkable from here
+			if (!nodePath.isEmpty())
+			{
+				if (showTrace)
+				{
+					showTrace(path, obj);
+				}
+				return nodePath;
+			}
+		}
+		path = findPath(x, y, z, target.clone(), obj, geoIndex);
+		service.cachePath(x, y, z, target, geoIndex, path);
+		if (showTrace)
+		{
+			showTrace(path, obj);
+		}
+		return getNodePath(path, geoIndex);
+	}
+	
+	/**
+	 * Method findMovePathAsync. Cached paths are returned at once, otherwise the search is queued to the path find workers.
+	 * @param x int
+	 * @param y int
+	 * @param z int
+	 * @param target Location
+	 * @param actor Creature
+	 * @param geoIndex int
+	 * @return List<List<Location>> null while the search is pending
+	 */
+	public static List<List<Location>> findMovePathAsync(int x, int y, int z, Location target, Creature actor, int geoIndex)
+	{
+		PathFindService service = PathFindService.getInstance();
+		if (service.isPending(actor))
+		{
+			return null;
+		}
+		List<Location> path = service.getCachedPath(x, y, z, target, geoIndex);
+		if (path != null)
+		{
+			if (path.isEmpty())
+			{
+				return Collections.emptyList();
+			}
+			List<List<Location>> nodePath = getNodePath(path, geoIndex);
+			if (!nodePath.isEmpty())
+			{
+				return nodePath;
+			}
+		}
+		if (service.submit(actor, x, y, z, target, geoIndex))
+		{
+			return null;
+		}
+		path = findPath(x, y, z, target.clone(), actor, geoIndex);
+		service.cachePath(x, y, z, target, geoIndex, path);
+		return getNodePath(path, geoIndex);
 	}
 	
 	/**
@@ -138,6 +138,7 @@ public class PathFind
 			currentNode.state = GeoNode.CLOSED;
 		}
 		buff.totalTime += searhTime;
+		PathFindBuffers.recordSolveTime(searhTime);
 		buff.totalItr += itr;
 		if (path != null)
 		{
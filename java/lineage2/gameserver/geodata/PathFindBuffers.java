@@ -17,11 +17,14 @@ import gnu.trove.map.hash.TIntIntHashMap;
 import gnu.trove.map.hash.TIntObjectHashMap;
 
 import java.util.Arrays;
+import java.util.List;
 import java.util.PriorityQueue;
 import java.util.Queue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
+import lineage2.commons.math.LatencyHistogram;
 import lineage2.commons.text.StrTable;
 import lineage2.gameserver.Config;
 import lineage2.gameserver.utils.Location;
@@ -56,6 +59,18 @@ public class PathFindBuffers
 	 * Field lock.
 	 */
 	private static Lock lock = new ReentrantLock();
+	/**
+	 * Field localBuffers. Buffers owned by a path find worker, by map size.
+	 */
+	private static final ThreadLocal<TIntObjectHashMap<PathFindBuffer>> localBuffers = new ThreadLocal<>();
+	/**
+	 * Field allLocalBuffers.
+	 */
+	private static final List<PathFindBuffer> allLocalBuffers = new CopyOnWriteArrayList<>();
+	/**
+	 * Field solveTimes. Search times in microseconds.
+	 */
+	private static final LatencyHistogram solveTimes = new LatencyHistogram();
 	static
 	{
 		TIntIntHashMap config = new TIntIntHashMap();
@@ -146,6 +161,59 @@ public class PathFindBuffers
 		}
 	}
 	
+	/**
+	 * Method useLocalBuffers. The calling thread allocates its buffers without locking from now on, they are never released.
+	 */
+	static void useLocalBuffers()
+	{
+		if (localBuffers.get() == null)
+		{
+			localBuffers.set(new TIntObjectHashMap<PathFindBuffer>());
+		}
+	}
+	
+	/**
+	 * Method allocLocal.
+	 * @param local TIntObjectHashMap<PathFindBuffer>
+	 * @param mapSize int
+	 * @return PathFindBuffer
+	 */
+	private static PathFindBuffer allocLocal(TIntObjectHashMap<PathFindBuffer> local, int mapSize)
+	{
+		int bufferSize = -1;
+		for (int size : sizes)
+		{
+			if (size >= mapSize)
+			{
+				bufferSize = size;
+				break;
+			}
+		}
+		if (bufferSize == -1)
+		{
+			for (int size = MIN_MAP_SIZE; size < MAX_MAP_SIZE; size += STEP_MAP_SIZE)
+			{
+				if (size >= mapSize)
+				{
+					bufferSize = size;
+					break;
+				}
+			}
+		}
+		if (bufferSize == -1)
+		{
+			return null;
+		}
+		PathFindBuffer buffer = local.get(bufferSize);
+		if (buffer == null)
+		{
+			local.put(bufferSize, buffer = new PathFindBuffer(bufferSize));
+			allLocalBuffers.add(buffer);
+		}
+		buffer.inUse = true;
+		return buffer;
+	}
+	
 	/**
 	 * Method alloc.
 	 * @param mapSize int
@@ -162,6 +230,11 @@ public class PathFindBuffers
 		{
 			mapSize = MIN_MAP_SIZE;
 		}
+		TIntObjectHashMap<PathFindBuffer> local = localBuffers.get();
+		if (local != null)
+		{
+			return allocLocal(local, mapSize);
+		}
 		PathFindBuffer buffer = null;
 		for (int size : sizes)
 		{
@@ -193,15 +266,16 @@ public class PathFindBuffers
 	 */
 	public static void recycle(PathFindBuffer buffer)
 	{
-		lock.lock();
-		try
-		{
-			buffer.inUse = false;
-		}
-		finally
-		{
-			lock.unlock();
-		}
+		buffer.inUse = false;
+	}
+	
+	/**
+	 * Method recordSolveTime.
+	 * @param nanos long
+	 */
+	static void recordSolveTime(long nanos)
+	{
+		solveTimes.record(nanos / 1000);
 	}
 	
 	/**
@@ -254,8 +328,29 @@ public class PathFindBuffers
 				table.set(index, "Iter., avg", (uses > 0) ? itrs / uses : 0);
 				table.set(index, "Time, avg (ms)", String.format("%1.3f", (uses > 0) ? (double) time / uses : 0.));
 			}
+			count = 0;
+			uses = 0;
+			playable = 0;
+			time = 0;
+			for (PathFindBuffer buff : allLocalBuffers)
+			{
+				count++;
+				uses += buff.totalUses;
+				playable += buff.playableUses;
+				time += buff.totalTime / 1000000;
+			}
+			totalUses += uses;
+			totalPlayable += playable;
+			totalTime += time;
+			PathFindService service = PathFindService.getInstance();
+			long hits = service.getCacheHits();
+			long lookups = hits + service.getCacheMisses();
 			table.addTitle("Uses, total / playable  : " + totalUses + " / " + totalPlayable);
 			table.addTitle("Uses, total time / avg (ms) : " + totalTime + " / " + String.format("%1.3f", totalUses > 0 ? (double) totalTime / totalUses : 0));
+			table.addTitle("Worker buffers / uses : " + count + " / " + uses);
+			table.addTitle("Cache size / hit rate : " + service.getCacheSize() + " / " + String.format("%2.2f", lookups > 0 ? (hits * 100.) / lookups : 0) + "%");
+			table.addTitle("Queue depth / pending / rejected : " + service.getQueueSize() + " / " + service.getPendingCount() + " / " + service.getRejected());
+			table.addTitle("Solve time p50 / p99 / max (ms) : " + String.format("%1.3f / %1.3f / %1.3f", solveTimes.getPercentile(50) / 1000., solveTimes.getPercentile(99) / 1000., solveTimes.getMax() / 1000.));
 		}
 		finally
 		{
@@ -291,7 +386,7 @@ public class PathFindBuffers
 		/**
 		 * Field inUse.
 		 */
-		boolean inUse;
+		volatile boolean inUse;
 		/**
 		 * Field totalUses.
 		 */
@@ -0,0 +1,501 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.gameserver.geodata;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lineage2.commons.lang.reference.HardReference;
+import lineage2.commons.threading.PriorityThreadFactory;
+import lineage2.commons.threading.RunnableImpl;
+import lineage2.gameserver.Config;
+import lineage2.gameserver.ai.CtrlEvent;
+import lineage2.gameserver.model.Creature;
+import lineage2.gameserver.model.World;
+import lineage2.gameserver.utils.Location;
+
+/**
+ * Path search for AI driven characters on a small pool of worker threads, plus an LRU cache of recent paths shared with synchronous searches.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class PathFindService
+{
+	/**
+	 * Field CACHE_CELL_SHIFT. Start and end points are quantized to 4x4 geo cells.
+	 */
+	private static final int CACHE_CELL_SHIFT = 2;
+	/**
+	 * Field CACHE_HEIGHT_SHIFT.
+	 */
+	private static final int CACHE_HEIGHT_SHIFT = 6;
+	/**
+	 * Field CACHE_SEGMENTS. Power of two, every segment is a LRU with its own lock.
+	 */
+	private static final int CACHE_SEGMENTS = 16;
+	/**
+	 * Field _instance.
+	 */
+	private static final PathFindService _instance = new PathFindService();
+	
+	/**
+	 * Method getInstance.
+	 * @return PathFindService
+	 */
+	public static PathFindService getInstance()
+	{
+		return _instance;
+	}
+	
+	/**
+	 * Field _executor. Null when searches run on the calling thread.
+	 */
+	private final ThreadPoolExecutor _executor;
+	/**
+	 * Field _caches. Segments by key hash.
+	 */
+	private final PathCache[] _caches = new PathCache[CACHE_SEGMENTS];
+	/**
+	 * Field _pending. Characters waiting for a search, by object id.
+	 */
+	private final Map<Integer, Boolean> _pending = new ConcurrentHashMap<>();
+	/**
+	 * Field _cacheHits.
+	 */
+	private final AtomicLong _cacheHits = new AtomicLong();
+	/**
+	 * Field _cacheMisses.
+	 */
+	private final AtomicLong _cacheMisses = new AtomicLong();
+	/**
+	 * Field _rejected.
+	 */
+	private final AtomicLong _rejected = new AtomicLong();
+	
+	/**
+	 * Constructor for PathFindService.
+	 */
+	private PathFindService()
+	{
+		if (Config.THREAD_P_PATHFIND > 0)
+		{
+			_executor = new ThreadPoolExecutor(Config.THREAD_P_PATHFIND, Config.THREAD_P_PATHFIND, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(Config.PATHFIND_QUEUE_SIZE), new PriorityThreadFactory("PathFind", Thread.NORM_PRIORITY));
+		}
+		else
+		{
+			_executor = null;
+		}
+		for (int i = 0; i < CACHE_SEGMENTS; i++)
+		{
+			_caches[i] = new PathCache(((Config.PATHFIND_CACHE_SIZE + CACHE_SEGMENTS) - 1) / CACHE_SEGMENTS);
+		}
+	}
+	
+	/**
+	 * Method getCache.
+	 * @param key PathKey
+	 * @return PathCache the segment of the key
+	 */
+	private PathCache getCache(PathKey key)
+	{
+		int hash = key.hashCode();
+		return _caches[(hash ^ (hash >>> 16)) & (CACHE_SEGMENTS - 1)];
+	}
+	
+	/**
+	 * Method getCachedPath.
+	 * @param x int
+	 * @param y int
+	 * @param z int
+	 * @param target Location
+	 * @param geoIndex int
+	 * @return List<Location> way points from x, y, z to the target, empty if no path exists, null if nothing is cached
+	 */
+	public List<Location> getCachedPath(int x, int y, int z, Location target, int geoIndex)
+	{
+		if (Config.PATHFIND_CACHE_SIZE <= 0)
+		{
+			return null;
+		}
+		PathKey key = new PathKey(x, y, z, target, geoIndex);
+		PathCache cache = getCache(key);
+		CachedPath cached;
+		synchronized (cache)
+		{
+			cached = cache.get(key);
+		}
+		if ((cached == null) || (cached.expire < System.currentTimeMillis()))
+		{
+			_cacheMisses.incrementAndGet();
+			return null;
+		}
+		_cacheHits.incrementAndGet();
+		if (cached.path.isEmpty())
+		{
+			return Collections.emptyList();
+		}
+		List<Location> path = new ArrayList<>(cached.path.size());
+		path.add(new Location(x, y, GeoEngine.getHeight(x, y, z, geoIndex)));
+		for (int i = 1; i < (cached.path.size() - 1); i++)
+		{
+			path.add(cached.path.get(i).clone());
+		}
+		path.add(new Location(target.x, target.y, GeoEngine.getHeight(target, geoIndex)));
+		return path;
+	}
+	
+	/**
+	 * Method cachePath.
+	 * @param x int
+	 * @param y int
+	 * @param z int
+	 * @param target Location
+	 * @param geoIndex int
+	 * @param path List<Location>
+	 */
+	public void cachePath(int x, int y, int z, Location target, int geoIndex, List<Location> path)
+	{
+		if (Config.PATHFIND_CACHE_SIZE <= 0)
+		{
+			return;
+		}
+		CachedPath cached = new CachedPath(new ArrayList<>(path), System.currentTimeMillis() + Config.PATHFIND_CACHE_TIME);
+		PathKey key = new PathKey(x, y, z, target, geoIndex);
+		PathCache cache = getCache(key);
+		synchronized (cache)
+		{
+			cache.put(key, cached);
+		}
+	}
+	
+	/**
+	 * Method submit. Queues a search, the AI of the actor gets EVT_THINK once the path is in the cache.
+	 * @param actor Creature
+	 * @param x int
+	 * @param y int
+	 * @param z int
+	 * @param target Location
+	 * @param geoIndex int
+	 * @return boolean false if the search has to run on the calling thread
+	 */
+	public boolean submit(Creature actor, int x, int y, int z, Location target, int geoIndex)
+	{
+		if (_executor == null)
+		{
+			return false;
+		}
+		Integer objectId = actor.getObjectId();
+		if (_pending.put(objectId, Boolean.TRUE) != null)
+		{
+			return true;
+		}
+		try
+		{
+			_executor.execute(new SearchTask(actor, x, y, z, target.clone(), geoIndex));
+			return true;
+		}
+		catch (RejectedExecutionException e)
+		{
+			_pending.remove(objectId);
+			_rejected.incrementAndGet();
+			return false;
+		}
+	}
+	
+	/**
+	 * Method isPending.
+	 * @param actor Creature
+	 * @return boolean
+	 */
+	public boolean isPending(Creature actor)
+	{
+		return _pending.containsKey(actor.getObjectId());
+	}
+	
+	/**
+	 * Method getCacheHits.
+	 * @return long
+	 */
+	public long getCacheHits()
+	{
+		return _cacheHits.get();
+	}
+	
+	/**
+	 * Method getCacheMisses.
+	 * @return long
+	 */
+	public long getCacheMisses()
+	{
+		return _cacheMisses.get();
+	}
+	
+	/**
+	 * Method getCacheSize.
+	 * @return int
+	 */
+	public int getCacheSize()
+	{
+		int size = 0;
+		for (PathCache cache : _caches)
+		{
+			synchronized (cache)
+			{
+				size += cache.size();
+			}
+		}
+		return size;
+	}
+	
+	/**
+	 * Method getQueueSize.
+	 * @return int
+	 */
+	public int getQueueSize()
+	{
+		return _executor == null ? 0 : _executor.getQueue().size();
+	}
+	
+	/**
+	 * Method getPendingCount.
+	 * @return int
+	 */
+	public int getPendingCount()
+	{
+		return _pending.size();
+	}
+	
+	/**
+	 * Method getRejected.
+	 * @return long
+	 */
+	public long getRejected()
+	{
+		return _rejected.get();
+	}
+	
+	/**
+	 * @author Mobius
+	 */
+	private class SearchTask extends RunnableImpl
+	{
+		/**
+		 * Field _actorRef.
+		 */
+		private final HardReference<? extends Creature> _actorRef;
+		/**
+		 * Field _objectId.
+		 */
+		private final int _objectId;
+		/**
+		 * Field _z. Field _y. Field _x.
+		 */
+		private final int _x, _y, _z;
+		/**
+		 * Field _target.
+		 */
+		private final Location _target;
+		/**
+		 * Field _geoIndex.
+		 */
+		private final int _geoIndex;
+		
+		/**
+		 * Constructor for SearchTask.
+		 * @param actor Creature
+		 * @param x int
+		 * @param y int
+		 * @param z int
+		 * @param target Location
+		 * @param geoIndex int
+		 */
+		SearchTask(Creature actor, int x, int y, int z, Location target, int geoIndex)
+		{
+			_actorRef = actor.getRef();
+			_objectId = actor.getObjectId();
+			_x = x;
+			_y = y;
+			_z = z;
+			_target = target;
+			_geoIndex = geoIndex;
+		}
+		
+		/**
+		 * Method runImpl.
+		 */
+		@Override
+		public void runImpl()
+		{
+			try
+			{
+				Creature actor = _actorRef.get();
+				if (actor != null)
+				{
+					PathFindBuffers.useLocalBuffers();
+					cachePath(_x, _y, _z, _target, _geoIndex, GeoMove.findPath(_x, _y, _z, _target.clone(), actor, _geoIndex));
+				}
+			}
+			finally
+			{
+				_pending.remove(_objectId);
+			}
+			Creature actor = _actorRef.get();
+			if ((actor != null) && actor.hasAI())
+			{
+				actor.getAI().notifyEvent(CtrlEvent.EVT_THINK);
+			}
+		}
+	}
+	
+	/**
+	 * @author Mobius
+	 */
+	private static class CachedPath
+	{
+		/**
+		 * Field path.
+		 */
+		final List<Location> path;
+		/**
+		 * Field expire.
+		 */
+		final long expire;
+		
+		/**
+		 * Constructor for CachedPath.
+		 * @param path List<Location>
+		 * @param expire long
+		 */
+		CachedPath(List<Location> path, long expire)
+		{
+			this.path = path;
+			this.expire = expire;
+		}
+	}
+	
+	/**
+	 * @author Mobius
+	 */
+	private static class PathCache extends LinkedHashMap<PathKey, CachedPath>
+	{
+		/**
+		 * Field serialVersionUID. (value is 1)
+		 */
+		private static final long serialVersionUID = 1L;
+		/**
+		 * Field _maxSize.
+		 */
+		private final int _maxSize;
+		
+		/**
+		 * Constructor for PathCache.
+		 * @param maxSize int
+		 */
+		PathCache(int maxSize)
+		{
+			super(Math.max(16, maxSize), 0.75f, true);
+			_maxSize = maxSize;
+		}
+		
+		/**
+		 * Method removeEldestEntry.
+		 * @param eldest Map.Entry<PathKey,CachedPath>
+		 * @return boolean
+		 */
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<PathKey, CachedPath> eldest)
+		{
+			return size() > _maxSize;
+		}
+	}
+	
+	/**
+	 * @author Mobius
+	 */
+	private static class PathKey
+	{
+		/**
+		 * Field geoIndex.
+		 */
+		private final int geoIndex;
+		/**
+		 * Field tz. Field ty. Field tx. Field z. Field y. Field x.
+		 */
+		private final int x, y, z, tx, ty, tz;
+		
+		/**
+		 * Constructor for PathKey.
+		 * @param x int
+		 * @param y int
+		 * @param z int
+		 * @param target Location
+		 * @param geoIndex int
+		 */
+		PathKey(int x, int y, int z, Location target, int geoIndex)
+		{
+			this.geoIndex = geoIndex;
+			this.x = ((x - World.MAP_MIN_X) >> 4) >> CACHE_CELL_SHIFT;
+			this.y = ((y - World.MAP_MIN_Y) >> 4) >> CACHE_CELL_SHIFT;
+			this.z = z >> CACHE_HEIGHT_SHIFT;
+			tx = ((target.x - World.MAP_MIN_X) >> 4) >> CACHE_CELL_SHIFT;
+			ty = ((target.y - World.MAP_MIN_Y) >> 4) >> CACHE_CELL_SHIFT;
+			tz = target.z >> CACHE_HEIGHT_SHIFT;
+		}
+		
+		/**
+		 * Method hashCode.
+		 * @return int
+		 */
+		@Override
+		public int hashCode()
+		{
+			int result = geoIndex;
+			result = (31 * result) + x;
+			result = (31 * result) + y;
+			result = (31 * result) + z;
+			result = (31 * result) + tx;
+			result = (31 * result) + ty;
+			result = (31 * result) + tz;
+			return result;
+		}
+		
+		/**
+		 * Method equals.
+		 * @param o Object
+		 * @return boolean
+		 */
+		@Override
+		public boolean equals(Object o)
+		{
+			if (o == this)
+			{
+				return true;
+			}
+			if (!(o instanceof PathKey))
+			{
+				return false;
+			}
+			PathKey key = (PathKey) o;
+			return (key.geoIndex == geoIndex) && (key.x == x) && (key.y == y) && (key.z == z) && (key.tx == tx) && (key.ty == ty) && (key.tz == tz);
+		}
+	}
+}
\ No newline at end of file
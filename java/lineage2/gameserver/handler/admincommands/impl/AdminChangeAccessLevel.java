@@ -22,6 +22,7 @@ import java.sql.ResultSet;
 import lineage2.commons.dbutils.DbUtils;
 import lineage2.gameserver.Announcements;
 import lineage2.gameserver.Config;
+import lineage2.gameserver.dao.VariablesStoreDAO;
 import lineage2.gameserver.database.DatabaseFactory;
 import lineage2.gameserver.database.mysql;
 import lineage2.gameserver.handler.admincommands.IAdminCommandHandler;
@@ -245,8 +246,9 @@ public class AdminChangeAccessLevel implements IAdminCommandHandler
 					oId = mysql.simple_get_int("obj_Id", "characters", "`char_name`='" + wordList[1] + "'");
 					if (oId > 0)
 					{
+						VariablesStoreDAO.getInstance().flush(oId);
 						Integer oldCount = (Integer) mysql.get("SELECT `value` FROM character_variables WHERE `obj_id` = " + oId + " AND `name` = 'penaltyChatCount'");
-						mysql.set("REPLACE INTO character_variables (obj_id, type, name, value, expire_time) VALUES (" + oId + ",'user-var','penaltyChatCount','" + (oldCount + count) + "',-1)");
+						VariablesStoreDAO.getInstance().setCharacterVariable(oId, "penaltyChatCount", String.valueOf(oldCount + count), -1);
 					}
 				}
 				if (oId > 0)
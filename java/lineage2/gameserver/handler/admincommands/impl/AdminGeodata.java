@@ -61,7 +61,11 @@ public class AdminGeodata implements IAdminCommandHandler
 		/**
 		 * Field admin_geo_map.
 		 */
-		admin_geo_map
+		admin_geo_map,
+		/**
+		 * Field admin_geo_memory.
+		 */
+		admin_geo_memory
 	}
 	
 	/**
@@ -187,6 +191,17 @@ public class AdminGeodata implements IAdminCommandHandler
 				int y = ((activeChar.getY() - World.MAP_MIN_Y) >> 15) + Config.GEO_Y_FIRST;
 				activeChar.sendMessage("GeoMap: " + x + "_" + y);
 				break;
+			case admin_geo_memory:
+				long[] memory = GeoEngine.getGeoIndexMemory(activeChar.getGeoIndex());
+				activeChar.sendMessage("GeoEngine: Current geo index private blocks = " + memory[0] + ", " + ((memory[1] + memory[2]) / 1024) + " KB");
+				for (String line : GeoEngine.getGeoIndexesInfo().split("\n"))
+				{
+					if (!line.isEmpty())
+					{
+						activeChar.sendMessage(line);
+					}
+				}
+				break;
 		}
 		return true;
 	}
@@ -17,6 +17,9 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 
 import lineage2.commons.dbutils.DbUtils;
+import lineage2.gameserver.dao.CharacterDAO;
+import lineage2.gameserver.dao.CharacterStoreDAO;
+import lineage2.gameserver.dao.VariablesStoreDAO;
 import lineage2.gameserver.database.DatabaseFactory;
 import lineage2.gameserver.handler.admincommands.IAdminCommandHandler;
 import lineage2.gameserver.model.Player;
@@ -68,6 +71,7 @@ public class AdminRepairChar implements IAdminCommandHandler
 		ResultSet rset = null;
 		try
 		{
+			CharacterStoreDAO.getInstance().flush(CharacterDAO.getInstance().getObjectIdByName(wordList[1]));
 			con = DatabaseFactory.getInstance().getConnection();
 			statement = con.prepareStatement("UPDATE characters SET x=-84318, y=244579, z=-3730 WHERE char_name=?");
 			statement.setString(1, wordList[1]);
@@ -94,10 +98,7 @@ public class AdminRepairChar implements IAdminCommandHandler
 			statement.setInt(1, objId);
 			statement.execute();
 			DbUtils.close(statement);
-			statement = con.prepareStatement("DELETE FROM character_variables WHERE obj_id=? AND `type`='user-var' AND `name`='reflection' LIMIT 1");
-			statement.setInt(1, objId);
-			statement.execute();
-			DbUtils.close(statement);
+			VariablesStoreDAO.getInstance().deleteCharacterVariable(objId, "reflection");
 		}
 		catch (Exception e)
 		{
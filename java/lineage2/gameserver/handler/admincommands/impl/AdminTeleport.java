@@ -20,6 +20,7 @@ import lineage2.commons.lang.ArrayUtils;
 import lineage2.gameserver.ai.CtrlIntention;
 import lineage2.gameserver.cache.Msg;
 import lineage2.gameserver.dao.CharacterDAO;
+import lineage2.gameserver.dao.CharacterStoreDAO;
 import lineage2.gameserver.database.DatabaseFactory;
 import lineage2.gameserver.handler.admincommands.IAdminCommandHandler;
 import lineage2.gameserver.instancemanager.ReflectionManager;
@@ -573,6 +574,7 @@ public class AdminTeleport implements IAdminCommandHandler
 		PreparedStatement st = null;
 		try
 		{
+			CharacterStoreDAO.getInstance().flush(obj_id);
 			con = DatabaseFactory.getInstance().getConnection();
 			st = con.prepareStatement("UPDATE characters SET x=?,y=?,z=? WHERE obj_Id=? LIMIT 1");
 			st.setInt(1, loc.x);
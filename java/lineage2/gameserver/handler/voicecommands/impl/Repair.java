@@ -20,7 +20,9 @@ import java.util.Map;
 
 import lineage2.commons.dao.JdbcEntityState;
 import lineage2.commons.dbutils.DbUtils;
+import lineage2.gameserver.dao.CharacterStoreDAO;
 import lineage2.gameserver.dao.ItemsDAO;
+import lineage2.gameserver.dao.VariablesStoreDAO;
 import lineage2.gameserver.database.DatabaseFactory;
 import lineage2.gameserver.handler.voicecommands.IVoicedCommandHandler;
 import lineage2.gameserver.model.Player;
@@ -103,6 +105,7 @@ public class Repair extends Functions implements IVoicedCommandHandler
 			ResultSet rs = null;
 			try
 			{
+				CharacterStoreDAO.getInstance().flush(objId);
 				con = DatabaseFactory.getInstance().getConnection();
 				statement = con.prepareStatement("SELECT karma FROM characters WHERE obj_Id=?");
 				statement.setInt(1, objId);
@@ -135,10 +138,7 @@ public class Repair extends Functions implements IVoicedCommandHandler
 						item.update();
 					}
 				}
-				statement = con.prepareStatement("DELETE FROM character_variables WHERE obj_id=? AND type='user-var' AND name='reflection'");
-				statement.setInt(1, objId);
-				statement.execute();
-				DbUtils.close(statement);
+				VariablesStoreDAO.getInstance().deleteCharacterVariable(objId, "reflection");
 				sendMessage(new CustomMessage("voicedcommandhandlers.Repair.RepairDone", activeChar), activeChar);
 				return true;
 			}
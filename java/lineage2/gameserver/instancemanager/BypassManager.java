@@ -13,7 +13,6 @@
 package lineage2.gameserver.instancemanager;
 
 import java.util.List;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import lineage2.gameserver.handler.bbs.ICommunityBoardHandler;
@@ -28,9 +27,20 @@ import lineage2.gameserver.utils.Strings;
 public class BypassManager
 {
 	/**
-	 * Field p.
+	 * Field BYPASS.
 	 */
-	private static final Pattern p = Pattern.compile("\"(bypass +-h +)(.+?)\"");
+	private static final String BYPASS = "\"bypass";
+	/**
+	 * Field BUFFER. Encoded page of the thread.
+	 */
+	private static final ThreadLocal<StringBuilder> BUFFER = new ThreadLocal<StringBuilder>()
+	{
+		@Override
+		protected StringBuilder initialValue()
+		{
+			return new StringBuilder(4096);
+		}
+	};
 	
 	/**
 	 * @author Mobius
@@ -82,7 +92,7 @@ public class BypassManager
 	}
 	
 	/**
-	 * Method encode.
+	 * Method encode. Replaces each "bypass -h code $params" attribute, as the pattern "(bypass +-h +)(.+?)" would find them, by "bypass -h 0index $params" and stores the code at the index.
 	 * @param html String
 	 * @param bypassStorage List<String>
 	 * @param bbs boolean
@@ -90,32 +100,102 @@ public class BypassManager
 	 */
 	public static String encode(String html, List<String> bypassStorage, boolean bbs)
 	{
-		Matcher m = p.matcher(html);
-		StringBuffer sb = new StringBuffer();
-		while (m.find())
+		StringBuilder sb = null;
+		int copied = 0;
+		int start = html.indexOf(BYPASS);
+		while (start >= 0)
 		{
-			String bypass = m.group(2);
+			int end = findBypassEnd(html, start);
+			if (end < 0)
+			{
+				start = html.indexOf(BYPASS, start + 1);
+				continue;
+			}
+			int codeStart = skipSpaces(html, skipSpaces(html, start + BYPASS.length()) + 2);
+			String bypass = html.substring(codeStart, end);
 			String code = bypass;
 			String params = "";
 			int i = bypass.indexOf(" $");
-			boolean use_params = i >= 0;
-			if (use_params)
+			if (i >= 0)
 			{
 				code = bypass.substring(0, i);
-				params = bypass.substring(i).replace("$", "\\$");
+				params = bypass.substring(i);
 			}
-			if (bbs)
+			if (sb == null)
 			{
-				m.appendReplacement(sb, "\"bypass -h 1" + Integer.toHexString(bypassStorage.size()) + params + "\"");
+				sb = BUFFER.get();
+				sb.setLength(0);
 			}
-			else
+			sb.append(html, copied, start).append(BYPASS).append(bbs ? " -h 1" : " -h 0").append(Integer.toHexString(bypassStorage.size())).append(params).append('"');
+			bypassStorage.add(code);
+			copied = end + 1;
+			start = html.indexOf(BYPASS, copied);
+		}
+		if (sb == null)
+		{
+			return html;
+		}
+		return sb.append(html, copied, html.length()).toString();
+	}
+	
+	/**
+	 * Method findBypassEnd.
+	 * @param html String
+	 * @param start int index of "bypass
+	 * @return int index of the closing quote, -1 when no bypass starts here
+	 */
+	private static int findBypassEnd(String html, int start)
+	{
+		int i = start + BYPASS.length();
+		int spaces = skipSpaces(html, i);
+		if ((spaces == i) || !html.startsWith("-h", spaces))
+		{
+			return -1;
+		}
+		i = spaces + 2;
+		spaces = skipSpaces(html, i);
+		if ((spaces == i) || (spaces == html.length()) || isLineTerminator(html.charAt(spaces)))
+		{
+			return -1;
+		}
+		for (i = spaces + 1; i < html.length(); i++)
+		{
+			char c = html.charAt(i);
+			if (c == '"')
 			{
-				m.appendReplacement(sb, "\"bypass -h 0" + Integer.toHexString(bypassStorage.size()) + params + "\"");
+				return i;
 			}
-			bypassStorage.add(code);
+			if (isLineTerminator(c))
+			{
+				return -1;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Method skipSpaces.
+	 * @param s String
+	 * @param i int
+	 * @return int
+	 */
+	private static int skipSpaces(String s, int i)
+	{
+		while ((i < s.length()) && (s.charAt(i) == ' '))
+		{
+			i++;
 		}
-		m.appendTail(sb);
-		return sb.toString();
+		return i;
+	}
+	
+	/**
+	 * Method isLineTerminator.
+	 * @param c char
+	 * @return boolean
+	 */
+	private static boolean isLineTerminator(char c)
+	{
+		return (c == '\n') || (c == '\r') || (c == '\u0085') || (c == '\u2028') || (c == '\u2029');
 	}
 	
 	/**
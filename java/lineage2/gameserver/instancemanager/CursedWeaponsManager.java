@@ -28,6 +28,7 @@ import lineage2.commons.threading.RunnableImpl;
 import lineage2.commons.util.Rnd;
 import lineage2.gameserver.Config;
 import lineage2.gameserver.ThreadPoolManager;
+import lineage2.gameserver.dao.CharacterStoreDAO;
 import lineage2.gameserver.data.xml.holder.ItemHolder;
 import lineage2.gameserver.database.DatabaseFactory;
 import lineage2.gameserver.model.CursedWeapon;
@@ -318,6 +319,7 @@ public class CursedWeaponsManager
 		PreparedStatement statement = null;
 		try
 		{
+			CharacterStoreDAO.getInstance().flush(playerId);
 			con = DatabaseFactory.getInstance().getConnection();
 			statement = con.prepareStatement("DELETE FROM items WHERE owner_id=? AND item_id=?");
 			statement.setInt(1, playerId);
@@ -443,6 +445,7 @@ public class CursedWeaponsManager
 				PreparedStatement statement = null;
 				try
 				{
+					CharacterStoreDAO.getInstance().flush(cw.getPlayerId());
 					con = DatabaseFactory.getInstance().getConnection();
 					statement = con.prepareStatement("DELETE FROM items WHERE owner_id=? AND item_id=?");
 					statement.setInt(1, cw.getPlayerId());
@@ -17,6 +17,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 
 import lineage2.commons.dbutils.DbUtils;
+import lineage2.gameserver.dao.VariablesStoreDAO;
 import lineage2.gameserver.database.DatabaseFactory;
 import lineage2.gameserver.templates.StatsSet;
 
@@ -86,33 +87,14 @@ public class ServerVariables
 	 */
 	private static void SaveToDB(String name)
 	{
-		Connection con = null;
-		PreparedStatement statement = null;
-		try
+		String value = getVars().getString(name, "");
+		if (value.isEmpty())
 		{
-			con = DatabaseFactory.getInstance().getConnection();
-			String value = getVars().getString(name, "");
-			if (value.isEmpty())
-			{
-				statement = con.prepareStatement("DELETE FROM server_variables WHERE name = ?");
-				statement.setString(1, name);
-				statement.execute();
-			}
-			else
-			{
-				statement = con.prepareStatement("REPLACE INTO server_variables (name, value) VALUES (?,?)");
-				statement.setString(1, name);
-				statement.setString(2, value);
-				statement.execute();
-			}
-		}
-		catch (Exception e)
-		{
-			_log.error("", e);
+			VariablesStoreDAO.getInstance().deleteServerVariable(name);
 		}
-		finally
+		else
 		{
-			DbUtils.closeQuietly(con, statement);
+			VariablesStoreDAO.getInstance().setServerVariable(name, value);
 		}
 	}
 	
@@ -0,0 +1,379 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.gameserver.instancemanager.commission;
+
+import gnu.trove.map.hash.TIntObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import lineage2.gameserver.templates.item.ExItemType;
+import lineage2.gameserver.templates.item.ItemTemplate;
+import lineage2.gameserver.templates.item.ItemTemplate.Grade;
+
+/**
+ * Live commission shop listings, indexed by item type, grade and rarity, by seller and by the three letter sequences of the item names. Not thread safe, guarded by the lock of the commission item container.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+final class CommissionCatalogue
+{
+	/**
+	 * Field MAX_ITEMS. Listings found by one search at most.
+	 */
+	static final int MAX_ITEMS = 1000;
+	/**
+	 * Field GRAM. Length of the name index sequences.
+	 */
+	private static final int GRAM = 3;
+	/**
+	 * Field GRADES.
+	 */
+	private static final int GRADES = Grade.values().length;
+	/**
+	 * Field AUCTION_ORDER.
+	 */
+	static final Comparator<CommissionItemInfo> AUCTION_ORDER = new Comparator<CommissionItemInfo>()
+	{
+		@Override
+		public int compare(CommissionItemInfo o1, CommissionItemInfo o2)
+		{
+			return Long.compare(o1.getAuctionId(), o2.getAuctionId());
+		}
+	};
+	
+	/**
+	 * @author Mobius
+	 */
+	private static final class Cursor implements Comparable<Cursor>
+	{
+		/**
+		 * Field list.
+		 */
+		final List<CommissionItemInfo> list;
+		/**
+		 * Field index.
+		 */
+		int index;
+		
+		/**
+		 * Constructor for Cursor.
+		 * @param list List<CommissionItemInfo>
+		 */
+		Cursor(List<CommissionItemInfo> list)
+		{
+			this.list = list;
+		}
+		
+		/**
+		 * Method current.
+		 * @return CommissionItemInfo
+		 */
+		CommissionItemInfo current()
+		{
+			return list.get(index);
+		}
+		
+		/**
+		 * Method compareTo.
+		 * @param o Cursor
+		 * @return int
+		 */
+		@Override
+		public int compareTo(Cursor o)
+		{
+			return AUCTION_ORDER.compare(current(), o.current());
+		}
+	}
+	
+	/**
+	 * Field _items.
+	 */
+	private final Map<Long, CommissionItemInfo> _items = new HashMap<>();
+	/**
+	 * Field _buckets. Listings of each item type, grade and rarity in auction order.
+	 */
+	private final List<List<CommissionItemInfo>> _buckets = new ArrayList<>();
+	/**
+	 * Field _sellers. Listings of each seller in auction order.
+	 */
+	private final TIntObjectHashMap<List<CommissionItemInfo>> _sellers = new TIntObjectHashMap<>();
+	/**
+	 * Field _names. Listings whose lower case name contains the sequence.
+	 */
+	private final Map<String, Set<CommissionItemInfo>> _names = new HashMap<>();
+	
+	/**
+	 * Constructor for CommissionCatalogue.
+	 */
+	CommissionCatalogue()
+	{
+		for (int i = 0; i < (ExItemType.values().length * GRADES * 2); i++)
+		{
+			_buckets.add(new ArrayList<CommissionItemInfo>());
+		}
+	}
+	
+	/**
+	 * Method getBucket.
+	 * @param type ExItemType
+	 * @param grade int
+	 * @param blessed boolean
+	 * @return int
+	 */
+	private static int getBucket(ExItemType type, int grade, boolean blessed)
+	{
+		return (((type.ordinal() * GRADES) + grade) * 2) + (blessed ? 1 : 0);
+	}
+	
+	/**
+	 * Method getBucket.
+	 * @param itemInfo CommissionItemInfo
+	 * @return int
+	 */
+	private static int getBucket(CommissionItemInfo itemInfo)
+	{
+		ItemTemplate template = itemInfo.getItem().getTemplate();
+		return getBucket(itemInfo.getExItemType(), template.getItemGrade().ordinal(), template.isBlessed());
+	}
+	
+	/**
+	 * Method getGrams.
+	 * @param name String lower case
+	 * @return Set<String>
+	 */
+	private static Set<String> getGrams(String name)
+	{
+		Set<String> grams = new HashSet<>();
+		for (int i = 0; (i + GRAM) <= name.length(); i++)
+		{
+			grams.add(name.substring(i, i + GRAM));
+		}
+		return grams;
+	}
+	
+	/**
+	 * Method add. Listings are mostly added in auction order.
+	 * @param itemInfo CommissionItemInfo
+	 */
+	void add(CommissionItemInfo itemInfo)
+	{
+		_items.put(itemInfo.getAuctionId(), itemInfo);
+		insert(_buckets.get(getBucket(itemInfo)), itemInfo);
+		List<CommissionItemInfo> seller = _sellers.get(itemInfo.getItem().getOwnerId());
+		if (seller == null)
+		{
+			seller = new ArrayList<>();
+			_sellers.put(itemInfo.getItem().getOwnerId(), seller);
+		}
+		insert(seller, itemInfo);
+		for (String gram : getGrams(itemInfo.getLowerCaseName()))
+		{
+			Set<CommissionItemInfo> listings = _names.get(gram);
+			if (listings == null)
+			{
+				listings = new HashSet<>();
+				_names.put(gram, listings);
+			}
+			listings.add(itemInfo);
+		}
+	}
+	
+	/**
+	 * Method insert.
+	 * @param list List<CommissionItemInfo>
+	 * @param itemInfo CommissionItemInfo
+	 */
+	private static void insert(List<CommissionItemInfo> list, CommissionItemInfo itemInfo)
+	{
+		if (list.isEmpty() || (AUCTION_ORDER.compare(list.get(list.size() - 1), itemInfo) < 0))
+		{
+			list.add(itemInfo);
+			return;
+		}
+		int index = Collections.binarySearch(list, itemInfo, AUCTION_ORDER);
+		list.add(index < 0 ? -index - 1 : index, itemInfo);
+	}
+	
+	/**
+	 * Method remove.
+	 * @param itemInfo CommissionItemInfo
+	 * @return boolean false when the listing is not in the catalogue
+	 */
+	boolean remove(CommissionItemInfo itemInfo)
+	{
+		if (_items.get(itemInfo.getAuctionId()) != itemInfo)
+		{
+			return false;
+		}
+		_items.remove(itemInfo.getAuctionId());
+		List<CommissionItemInfo> bucket = _buckets.get(getBucket(itemInfo));
+		bucket.remove(Collections.binarySearch(bucket, itemInfo, AUCTION_ORDER));
+		List<CommissionItemInfo> seller = _sellers.get(itemInfo.getItem().getOwnerId());
+		seller.remove(Collections.binarySearch(seller, itemInfo, AUCTION_ORDER));
+		if (seller.isEmpty())
+		{
+			_sellers.remove(itemInfo.getItem().getOwnerId());
+		}
+		for (String gram : getGrams(itemInfo.getLowerCaseName()))
+		{
+			Set<CommissionItemInfo> listings = _names.get(gram);
+			listings.remove(itemInfo);
+			if (listings.isEmpty())
+			{
+				_names.remove(gram);
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Method get.
+	 * @param auctionId long
+	 * @return CommissionItemInfo
+	 */
+	CommissionItemInfo get(long auctionId)
+	{
+		return _items.get(auctionId);
+	}
+	
+	/**
+	 * Method getItemsOf.
+	 * @param sellerId int
+	 * @return List<CommissionItemInfo> copy in auction order
+	 */
+	List<CommissionItemInfo> getItemsOf(int sellerId)
+	{
+		List<CommissionItemInfo> seller = _sellers.get(sellerId);
+		return seller == null ? new ArrayList<CommissionItemInfo>(0) : new ArrayList<>(seller);
+	}
+	
+	/**
+	 * Method getExpired.
+	 * @param time long
+	 * @return List<CommissionItemInfo> listings whose sale ended at the time
+	 */
+	List<CommissionItemInfo> getExpired(long time)
+	{
+		List<CommissionItemInfo> expired = new ArrayList<>();
+		for (CommissionItemInfo itemInfo : _items.values())
+		{
+			if (itemInfo.getSaleEndTime() <= time)
+			{
+				expired.add(itemInfo);
+			}
+		}
+		return expired;
+	}
+	
+	/**
+	 * Method find.
+	 * @param types ExItemType[]
+	 * @param rareType int 1 only blessed items, 0 none, both otherwise
+	 * @param grade int -1 any grade
+	 * @param searchName String part of the item name, any case
+	 * @return List<CommissionItemInfo> first {@link #MAX_ITEMS} matching listings in auction order
+	 */
+	List<CommissionItemInfo> find(ExItemType[] types, int rareType, int grade, String searchName)
+	{
+		List<CommissionItemInfo> found = new ArrayList<>();
+		if (grade >= GRADES)
+		{
+			return found;
+		}
+		boolean[] selected = new boolean[_buckets.size()];
+		List<Cursor> cursors = new ArrayList<>();
+		int candidates = 0;
+		for (ExItemType type : types)
+		{
+			for (int g = grade < 0 ? 0 : grade; g < (grade < 0 ? GRADES : grade + 1); g++)
+			{
+				for (int blessed = 0; blessed < 2; blessed++)
+				{
+					if (((rareType == 1) && (blessed == 0)) || ((rareType == 0) && (blessed == 1)))
+					{
+						continue;
+					}
+					int bucket = getBucket(type, g, blessed == 1);
+					if (!selected[bucket] && !_buckets.get(bucket).isEmpty())
+					{
+						cursors.add(new Cursor(_buckets.get(bucket)));
+						candidates += _buckets.get(bucket).size();
+					}
+					selected[bucket] = true;
+				}
+			}
+		}
+		String name = searchName.toLowerCase();
+		if (name.length() >= GRAM)
+		{
+			Set<CommissionItemInfo> smallest = null;
+			for (String gram : getGrams(name))
+			{
+				Set<CommissionItemInfo> listings = _names.get(gram);
+				if (listings == null)
+				{
+					return found;
+				}
+				if ((smallest == null) || (listings.size() < smallest.size()))
+				{
+					smallest = listings;
+				}
+			}
+			if (smallest.size() < candidates)
+			{
+				for (CommissionItemInfo itemInfo : smallest)
+				{
+					if (selected[getBucket(itemInfo)] && itemInfo.getLowerCaseName().contains(name))
+					{
+						found.add(itemInfo);
+					}
+				}
+				Collections.sort(found, AUCTION_ORDER);
+				return found.size() > MAX_ITEMS ? new ArrayList<>(found.subList(0, MAX_ITEMS)) : found;
+			}
+		}
+		PriorityQueue<Cursor> queue = new PriorityQueue<>(Math.max(1, cursors.size()));
+		queue.addAll(cursors);
+		while (!queue.isEmpty() && (found.size() < MAX_ITEMS))
+		{
+			Cursor cursor = queue.poll();
+			CommissionItemInfo itemInfo = cursor.current();
+			if (name.isEmpty() || itemInfo.getLowerCaseName().contains(name))
+			{
+				found.add(itemInfo);
+			}
+			if (++cursor.index < cursor.list.size())
+			{
+				queue.add(cursor);
+			}
+		}
+		return found;
+	}
+	
+	/**
+	 * Method size.
+	 * @return int
+	 */
+	int size()
+	{
+		return _items.size();
+	}
+}
\ No newline at end of file
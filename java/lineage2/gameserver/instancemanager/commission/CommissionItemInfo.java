@@ -45,6 +45,14 @@ public class CommissionItemInfo
 	 * Field sellerName.
 	 */
 	private String sellerName;
+	/**
+	 * Field itemName.
+	 */
+	private String itemName = "";
+	/**
+	 * Field lowerCaseName.
+	 */
+	private String lowerCaseName = "";
 	/**
 	 * Field item.
 	 */
@@ -122,6 +130,24 @@ public class CommissionItemInfo
 		return item;
 	}
 	
+	/**
+	 * Method getItemName.
+	 * @return String
+	 */
+	public String getItemName()
+	{
+		return itemName;
+	}
+	
+	/**
+	 * Method getLowerCaseName.
+	 * @return String
+	 */
+	public String getLowerCaseName()
+	{
+		return lowerCaseName;
+	}
+	
 	/**
 	 * Method setAuctionId.
 	 * @param auctionId long
@@ -175,4 +201,14 @@ public class CommissionItemInfo
 	{
 		this.sellerName = sellerName;
 	}
+	
+	/**
+	 * Method setItemName.
+	 * @param itemName String
+	 */
+	public void setItemName(String itemName)
+	{
+		this.itemName = itemName;
+		lowerCaseName = itemName.toLowerCase();
+	}
 }
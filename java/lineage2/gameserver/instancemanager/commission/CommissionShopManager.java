@@ -12,10 +12,8 @@
  */
 package lineage2.gameserver.instancemanager.commission;
 
-import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Queue;
 
 import lineage2.commons.math.SafeMath;
 import lineage2.gameserver.cache.Msg;
@@ -65,10 +63,18 @@ public class CommissionShopManager
 	 * Field SALE_FEE. (value is 0.5)
 	 */
 	private static final double SALE_FEE = 0.5;
+	/**
+	 * Field PAGE_SIZE. Listings per list packet.
+	 */
+	private static final int PAGE_SIZE = 120;
 	/**
 	 * Field container.
 	 */
 	private static final CommissionItemContainer container = new CommissionItemContainer();
+	/**
+	 * Field catalogue. Guarded by the container lock.
+	 */
+	private static final CommissionCatalogue catalogue = new CommissionCatalogue();
 	/**
 	 * Field ourInstance.
 	 */
@@ -106,6 +112,19 @@ public class CommissionShopManager
 	private void restore()
 	{
 		container.restore();
+		container.writeLock();
+		try
+		{
+			for (CommissionItemInfo itemInfo : CommissionShopDAO.getInstance().restore(container))
+			{
+				catalogue.add(itemInfo);
+			}
+		}
+		finally
+		{
+			container.writeUnlock();
+		}
+		_log.info("CommissionShopManager: Loaded " + catalogue.size() + " listings.");
 	}
 	
 	/**
@@ -159,7 +178,16 @@ public class CommissionShopManager
 	 */
 	public void showPlayerRegisteredItems(Player player)
 	{
-		List<CommissionItemInfo> items = CommissionShopDAO.getInstance().getRegisteredItemsFor(player);
+		List<CommissionItemInfo> items;
+		container.readLock();
+		try
+		{
+			items = catalogue.getItemsOf(player.getObjectId());
+		}
+		finally
+		{
+			container.readUnlock();
+		}
 		if (items.size() == 0)
 		{
 			player.sendPacket(new ExResponseCommissionList(ExResponseCommissionList.EMPTY_LIST));
@@ -206,8 +234,25 @@ public class CommissionShopManager
 			}
 			ItemInstance cItem = inventory.removeItemByObjectId(objectId, count);
 			container.addItem(cItem);
-			String item_type = cItem.getTemplate().getExItemType().name();
-			CommissionShopDAO.getInstance().saveNewItem(cItem.getObjectId(), player.getObjectId(), item_name, price, item_type, sale_days, System.currentTimeMillis() + (days * 86400000), player.getName());
+			ExItemType itemType = cItem.getTemplate().getExItemType();
+			long saleEndTime = System.currentTimeMillis() + (days * 86400000);
+			long auctionId = CommissionShopDAO.getInstance().saveNewItem(cItem.getObjectId(), player.getObjectId(), item_name, price, itemType.name(), sale_days, saleEndTime, player.getName());
+			if (auctionId <= 0)
+			{
+				container.removeItem(cItem);
+				inventory.addItem(cItem);
+				player.addAdena(fee, false);
+				return;
+			}
+			CommissionItemInfo itemInfo = new CommissionItemInfo(cItem);
+			itemInfo.setAuctionId(auctionId);
+			itemInfo.setRegisteredPrice(price);
+			itemInfo.setItemName(item_name);
+			itemInfo.setExItemType(itemType);
+			itemInfo.setSaleDays(sale_days);
+			itemInfo.setSaleEndTime(saleEndTime);
+			itemInfo.setSellerName(player.getName());
+			catalogue.add(itemInfo);
 			Log.LogItem(player, Log.CommissionItemRegister, cItem);
 		}
 		catch (ArithmeticException ae)
@@ -234,45 +279,66 @@ public class CommissionShopManager
 	 */
 	public void showItems(int listType, int category, int rareType, int grade, String searchName, Player player)
 	{
-		Queue<List<CommissionItemInfo>> list = new ArrayDeque<>();
-		container.readLock();
-		try
+		ExItemType[] types;
+		if (listType == 1)
 		{
-			ExItemType[] types;
-			if (listType == 1)
-			{
-				types = ExItemType.getTypesForMask(category);
-			}
-			else if (listType == 2)
-			{
-				types = new ExItemType[]
-				{
-					ExItemType.valueOf(category)
-				};
-			}
-			else
+			types = ExItemType.getTypesForMask(category);
+		}
+		else if (listType == 2)
+		{
+			types = new ExItemType[]
 			{
-				return;
-			}
-			list = CommissionShopDAO.getInstance().getRegisteredItems(types, rareType, grade, searchName);
+				ExItemType.valueOf(category)
+			};
 		}
-		catch (Exception e)
+		else
+		{
+			return;
+		}
+		List<CommissionItemInfo> items;
+		container.readLock();
+		try
 		{
-			_log.info("CommissionShopManager.showItems: " + e, e);
+			items = catalogue.find(types, rareType, grade, searchName);
 		}
 		finally
 		{
 			container.readUnlock();
 		}
-		if ((list.size() == 1) && list.peek().isEmpty())
+		if (items.isEmpty())
 		{
 			player.sendPacket(new ExResponseCommissionList(ExResponseCommissionList.EMPTY_LIST));
 			return;
 		}
-		while (list.size() > 0)
+		int parts = ((items.size() + PAGE_SIZE) - 1) / PAGE_SIZE;
+		for (int part = 0; part < parts; part++)
 		{
-			List<CommissionItemInfo> part = list.poll();
-			player.sendPacket(new ExResponseCommissionList(ExResponseCommissionList.ALL_ITEMS, list.size(), part));
+			List<CommissionItemInfo> page = items.subList(part * PAGE_SIZE, Math.min(items.size(), (part + 1) * PAGE_SIZE));
+			player.sendPacket(new ExResponseCommissionList(ExResponseCommissionList.ALL_ITEMS, parts - part - 1, page));
+		}
+	}
+	
+	/**
+	 * Method getCommissionItemInfo.
+	 * @param auctionId long
+	 * @param exItemType int
+	 * @return CommissionItemInfo null when the listing is gone
+	 */
+	private CommissionItemInfo getCommissionItemInfo(long auctionId, int exItemType)
+	{
+		container.readLock();
+		try
+		{
+			CommissionItemInfo itemInfo = catalogue.get(auctionId);
+			if ((itemInfo == null) || (itemInfo.getExItemType().ordinal() != exItemType))
+			{
+				return null;
+			}
+			return itemInfo;
+		}
+		finally
+		{
+			container.readUnlock();
 		}
 	}
 	
@@ -288,7 +354,7 @@ public class CommissionShopManager
 		{
 			return;
 		}
-		CommissionItemInfo itemInfo = CommissionShopDAO.getInstance().getCommissionItemInfo(auctionId, ExItemType.values()[exItemType]);
+		CommissionItemInfo itemInfo = getCommissionItemInfo(auctionId, exItemType);
 		if (itemInfo != null)
 		{
 			player.sendPacket(new ExResponseCommissionBuyInfo(itemInfo));
@@ -303,7 +369,7 @@ public class CommissionShopManager
 	 */
 	public void returnBuyItem(Player player, long auctionId, int exItemType)
 	{
-		CommissionItemInfo itemInfo = CommissionShopDAO.getInstance().getCommissionItemInfo(auctionId, ExItemType.values()[exItemType]);
+		CommissionItemInfo itemInfo = getCommissionItemInfo(auctionId, exItemType);
 		if (itemInfo == null)
 		{
 			return;
@@ -313,7 +379,7 @@ public class CommissionShopManager
 		inventory.writeLock();
 		try
 		{
-			if (itemInfo.getItem().getOwnerId() != player.getObjectId())
+			if ((catalogue.get(auctionId) != itemInfo) || (itemInfo.getItem().getOwnerId() != player.getObjectId()))
 			{
 				player.sendPacket(new SystemMessage2(SystemMsg.ITEM_PURCHASE_HAS_FAILED));
 				return;
@@ -322,6 +388,7 @@ public class CommissionShopManager
 			{
 				return;
 			}
+			catalogue.remove(itemInfo);
 			container.removeItem(itemInfo.getItem());
 			inventory.addItem(itemInfo.getItem());
 			Log.LogItem(player, Log.CommissionItemDelete, itemInfo.getItem());
@@ -347,7 +414,7 @@ public class CommissionShopManager
 	 */
 	public void requestBuyItem(Player player, long auctionId, int exItemType)
 	{
-		CommissionItemInfo itemInfo = CommissionShopDAO.getInstance().getCommissionItemInfo(auctionId, ExItemType.values()[exItemType]);
+		CommissionItemInfo itemInfo = getCommissionItemInfo(auctionId, exItemType);
 		if (itemInfo == null)
 		{
 			return;
@@ -357,7 +424,7 @@ public class CommissionShopManager
 		inventory.writeLock();
 		try
 		{
-			if (itemInfo.getItem().getOwnerId() == player.getObjectId())
+			if ((catalogue.get(auctionId) != itemInfo) || (itemInfo.getItem().getOwnerId() == player.getObjectId()))
 			{
 				player.sendPacket(new SystemMessage2(SystemMsg.ITEM_PURCHASE_HAS_FAILED));
 				player.sendPacket(ExResponseCommissionBuyItem.FAILED);
@@ -380,6 +447,7 @@ public class CommissionShopManager
 				return;
 			}
 			int receiverId = itemInfo.getItem().getOwnerId();
+			catalogue.remove(itemInfo);
 			inventory.reduceAdena(price);
 			container.removeItem(itemInfo.getItem());
 			inventory.addItem(itemInfo.getItem());
@@ -434,9 +502,14 @@ public class CommissionShopManager
 		container.writeLock();
 		try
 		{
-			List<CommissionItemInfo> expiredItems = CommissionShopDAO.getInstance().removeExpiredItems(System.currentTimeMillis());
+			List<CommissionItemInfo> expiredItems = catalogue.getExpired(System.currentTimeMillis());
 			for (CommissionItemInfo itemInfo : expiredItems)
 			{
+				if (!CommissionShopDAO.getInstance().removeItem(itemInfo.getAuctionId()))
+				{
+					continue;
+				}
+				catalogue.remove(itemInfo);
 				Mail mail = new Mail();
 				mail.setSenderId(itemInfo.getItem().getOwnerId());
 				mail.setSenderName("CommissionBuyTitle");
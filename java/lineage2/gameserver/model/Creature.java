@@ -13,6 +13,7 @@
 package lineage2.gameserver.model;
 
 import static lineage2.gameserver.ai.CtrlIntention.AI_INTENTION_ACTIVE;
+import gnu.trove.procedure.TObjectProcedure;
 import gnu.trove.set.hash.TIntHashSet;
 
 import java.util.ArrayList;
@@ -28,6 +29,7 @@ import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -114,6 +116,7 @@ import lineage2.gameserver.stats.funcs.Func;
 import lineage2.gameserver.stats.triggers.TriggerInfo;
 import lineage2.gameserver.stats.triggers.TriggerType;
 import lineage2.gameserver.taskmanager.LazyPrecisionTaskManager;
+import lineage2.gameserver.taskmanager.MoveTaskManager;
 import lineage2.gameserver.taskmanager.RegenTaskManager;
 import lineage2.gameserver.templates.CharTemplate;
 import lineage2.gameserver.templates.item.WeaponTemplate;
@@ -153,6 +156,14 @@ public abstract class Creature extends GameObject
 		 * Field alldist.
 		 */
 		private double alldist, donedist;
+		/**
+		 * Field _nextRunTime.
+		 */
+		private volatile long _nextRunTime;
+		/**
+		 * Field _scheduled. Guarded by moveLock, tells if the task is held by the MoveTaskManager.
+		 */
+		private boolean _scheduled;
 		
 		/**
 		 * Method setDist.
@@ -166,6 +177,60 @@ public abstract class Creature extends GameObject
 			return this;
 		}
 		
+		/**
+		 * Method schedule. Has to be called under moveLock.
+		 * @param delay long
+		 */
+		void schedule(long delay)
+		{
+			_nextRunTime = System.currentTimeMillis() + delay;
+			if (!_scheduled)
+			{
+				_scheduled = true;
+				MoveTaskManager.getInstance().add(this);
+			}
+		}
+		
+		/**
+		 * Method release. Called by the MoveTaskManager when the character looks stopped.
+		 * @return boolean true if the character is really stopped and the task left the manager
+		 */
+		public boolean release()
+		{
+			moveLock.lock();
+			try
+			{
+				if (isMoving)
+				{
+					return false;
+				}
+				_scheduled = false;
+				return true;
+			}
+			finally
+			{
+				moveLock.unlock();
+			}
+		}
+		
+		/**
+		 * Method getNextRunTime.
+		 * @return long
+		 */
+		public long getNextRunTime()
+		{
+			return _nextRunTime;
+		}
+		
+		/**
+		 * Method getActor.
+		 * @return Creature
+		 */
+		public Creature getActor()
+		{
+			return Creature.this;
+		}
+		
 		/**
 		 * Method runImpl.
 		 */
@@ -286,7 +351,7 @@ public abstract class Creature extends GameObject
 				}
 				_previousSpeed = speed;
 				_startMoveTime = now;
-				_moveTask = ThreadPoolManager.getInstance().schedule(this, getMoveTickInterval());
+				schedule(getMoveTickInterval());
 			}
 			catch (Exception e)
 			{
@@ -303,6 +368,17 @@ public abstract class Creature extends GameObject
 	 * Field _log.
 	 */
 	private static final Logger _log = LoggerFactory.getLogger(Creature.class);
+	/**
+	 * Field _broadcasts. Reused by broadcastPacketToOthers, a nested broadcast on the same thread takes a new one.
+	 */
+	private static final ThreadLocal<PacketBroadcast> _broadcasts = new ThreadLocal<PacketBroadcast>()
+	{
+		@Override
+		protected PacketBroadcast initialValue()
+		{
+			return new PacketBroadcast();
+		}
+	};
 	/**
 	 * Field HEADINGS_IN_PI. (value is 10430.378350470453)
 	 */
@@ -602,10 +678,6 @@ public abstract class Creature extends GameObject
 	 * Field moveLock.
 	 */
 	final Lock moveLock = new ReentrantLock();
-	/**
-	 * Field _moveTask.
-	 */
-	Future<?> _moveTask;
 	/**
 	 * Field _moveTaskRunnable.
 	 */
@@ -670,6 +742,10 @@ public abstract class Creature extends GameObject
 	 * Field _calculators.
 	 */
 	private final Calculator[] _calculators;
+	/**
+	 * Field _statsVersion. Bumped whenever a memoized stat value may be outdated.
+	 */
+	private final AtomicInteger _statsVersion = new AtomicInteger();
 	/**
 	 * Field _template.
 	 */
@@ -722,6 +798,18 @@ public abstract class Creature extends GameObject
 	 * Field _zones.
 	 */
 	private final List<Zone> _zones = new LazyArrayList<Zone>();
+	/**
+	 * Field _zoneCell. Zone cell of the last zones update.
+	 */
+	private ZoneGrid.Cell _zoneCell;
+	/**
+	 * Field _zoneReflection. Reflection of the last zones update.
+	 */
+	private Reflection _zoneReflection;
+	/**
+	 * Field _zoneMask. Zone cell mask of the last zones update.
+	 */
+	private long _zoneMask;
 	/**
 	 * Field zonesLock.
 	 */
@@ -1187,6 +1275,7 @@ public abstract class Creature extends GameObject
 			}
 			_calculators[stat].addFunc(f);
 		}
+		invalidateStatCache();
 	}
 	
 	/**
@@ -1219,6 +1308,7 @@ public abstract class Creature extends GameObject
 				_calculators[stat].removeFunc(f);
 			}
 		}
+		invalidateStatCache();
 	}
 	
 	/**
@@ -1249,6 +1339,35 @@ public abstract class Creature extends GameObject
 				}
 			}
 		}
+		invalidateStatCache();
+	}
+	
+	/**
+	 * Method invalidateStatCache. Has to be called after any change of state read by a cacheable stat function.
+	 */
+	public final void invalidateStatCache()
+	{
+		_statsVersion.incrementAndGet();
+	}
+	
+	/**
+	 * Method getStatsVersion.
+	 * @return int
+	 */
+	public final int getStatsVersion()
+	{
+		return _statsVersion.get();
+	}
+	
+	/**
+	 * Method isStatCacheable.
+	 * @param stat Stats
+	 * @return boolean
+	 */
+	public final boolean isStatCacheable(Stats stat)
+	{
+		Calculator c = _calculators[stat.ordinal()];
+		return (c == null) || c.isCacheable();
 	}
 	
 	/**
@@ -1420,12 +1539,15 @@ public abstract class Creature extends GameObject
 		{
 			return;
 		}
-		List<Player> players = World.getAroundPlayers(this);
-		Player target;
-		for (int i = 0; i < players.size(); i++)
+		PacketBroadcast broadcast = PacketBroadcast.get();
+		try
+		{
+			broadcast.packets = packets;
+			World.forEachAroundPlayer(this, broadcast);
+		}
+		finally
 		{
-			target = players.get(i);
-			target.sendPacket(packets);
+			broadcast.release();
 		}
 	}
 	
@@ -1439,12 +1561,15 @@ public abstract class Creature extends GameObject
 		{
 			return;
 		}
-		List<Player> players = World.getAroundPlayers(this);
-		Player target;
-		for (int i = 0; i < players.size(); i++)
+		PacketBroadcast broadcast = PacketBroadcast.get();
+		try
+		{
+			broadcast.packetList = packets;
+			World.forEachAroundPlayer(this, broadcast);
+		}
+		finally
 		{
-			target = players.get(i);
-			target.sendPacket(packets);
+			broadcast.release();
 		}
 	}
 
@@ -1555,13 +1680,15 @@ public abstract class Creature extends GameObject
 		}
 		StatusUpdate statusUpdatePacket = new StatusUpdate(this).addAttribute(StatusUpdateField.CUR_HP, StatusUpdateField.MAX_HP);
 
-		for(final Player pla : World.getAroundPlayers(this))
+		PacketBroadcast broadcast = PacketBroadcast.get();
+		try
 		{
-			if(pla == null)
-			{
-				continue;
-			}
-			pla.sendPacket(statusUpdatePacket);
+			broadcast.packet = statusUpdatePacket;
+			World.forEachAroundPlayer(this, broadcast);
+		}
+		finally
+		{
+			broadcast.release();
 		}
 	}
 	
@@ -1603,6 +1730,11 @@ public abstract class Creature extends GameObject
 		{
 			return init;
 		}
+		double cached = c.getCachedValue(init);
+		if (!Double.isNaN(cached))
+		{
+			return cached;
+		}
 		Env env = new Env();
 		env.character = this;
 		env.target = target;
@@ -1621,14 +1753,19 @@ public abstract class Creature extends GameObject
 	 */
 	public final double calcStat(Stats stat, Creature target, Skill skill)
 	{
-		Env env = new Env(this, target, skill);
-		env.value = stat.getInit();
-		int id = stat.ordinal();
-		Calculator c = _calculators[id];
-		if (c != null)
+		Calculator c = _calculators[stat.ordinal()];
+		if (c == null)
 		{
-			c.calc(env);
+			return stat.getInit();
 		}
+		double cached = c.getCachedValue(stat.getInit());
+		if (!Double.isNaN(cached))
+		{
+			return cached;
+		}
+		Env env = new Env(this, target, skill);
+		env.value = stat.getInit();
+		c.calc(env);
 		return env.value;
 	}
 	
@@ -3631,7 +3768,12 @@ public abstract class Creature extends GameObject
 		}
 		if (pathFind)
 		{
-			List<List<Location>> targets = GeoMove.findMovePath(getX(), getY(), getZ(), dest.clone(), this, true, geoIndex);
+			List<List<Location>> targets = isPlayable() ? GeoMove.findMovePath(getX(), getY(), getZ(), dest.clone(), this, true, geoIndex) : GeoMove.findMovePathAsync(getX(), getY(), getZ(), dest, this, geoIndex);
+			if (targets == null)
+			{
+				// searching on a path find thread, the AI thinks again when it is done
+				return false;
+			}
 			if (!targets.isEmpty())
 			{
 				moveList = targets.remove(targets.size() - 1);
@@ -3855,7 +3997,7 @@ public abstract class Creature extends GameObject
 		{
 			_moveTaskRunnable = new MoveNextTask();
 		}
-		_moveTask = ThreadPoolManager.getInstance().schedule(_moveTaskRunnable.setDist(distance), getMoveTickInterval());
+		_moveTaskRunnable.setDist(distance).schedule(getMoveTickInterval());
 	}
 	
 	/**
@@ -3913,11 +4055,6 @@ public abstract class Creature extends GameObject
 			}
 			isMoving = false;
 			isFollow = false;
-			if (_moveTask != null)
-			{
-				_moveTask.cancel(false);
-				_moveTask = null;
-			}
 			destination = null;
 			moveList = null;
 			_targetRecorder.clear();
@@ -3989,7 +4126,7 @@ public abstract class Creature extends GameObject
 	}
 	
 	/**
-	 * Method updateZones.
+	 * Method updateZones. Nothing is tested while the character stays in a zone cell without zone borders at the same zone heights.
 	 */
 	public void updateZones()
 	{
@@ -3997,20 +4134,32 @@ public abstract class Creature extends GameObject
 		{
 			return;
 		}
-		Zone[] zones = isVisible() ? getCurrentRegion().getZones() : Zone.EMPTY_L2ZONE_ARRAY;
+		int x = getX();
+		int y = getY();
+		int z = getZ();
+		Reflection reflection = getReflection();
+		ZoneGrid.Cell cell = isVisible() ? getCurrentRegion().getZoneCell(x, y) : ZoneGrid.EMPTY_CELL;
+		long mask = cell.getMask(z);
 		LazyArrayList<Zone> entering = null;
 		LazyArrayList<Zone> leaving = null;
 		Zone zone;
 		zonesWrite.lock();
 		try
 		{
+			if ((cell == _zoneCell) && (reflection == _zoneReflection) && (mask != -1) && (mask == _zoneMask))
+			{
+				return;
+			}
+			_zoneCell = cell;
+			_zoneReflection = reflection;
+			_zoneMask = mask;
 			if (!_zones.isEmpty())
 			{
 				leaving = LazyArrayList.newInstance();
 				for (int i = 0; i < _zones.size(); i++)
 				{
 					zone = _zones.get(i);
-					if (!ArrayUtils.contains(zones, zone) || !zone.checkIfInZone(getX(), getY(), getZ(), getReflection()))
+					if (!cell.isInside(zone, x, y, z, reflection))
 					{
 						leaving.add(zone);
 					}
@@ -4024,15 +4173,15 @@ public abstract class Creature extends GameObject
 					}
 				}
 			}
-			if (zones.length > 0)
+			if (cell != ZoneGrid.EMPTY_CELL)
 			{
 				entering = LazyArrayList.newInstance();
-				for (Zone zone2 : zones)
+				cell.getZones(entering, x, y, z, reflection);
+				for (int i = entering.size() - 1; i >= 0; i--)
 				{
-					zone = zone2;
-					if (!_zones.contains(zone) && zone.checkIfInZone(getX(), getY(), getZ(), getReflection()))
+					if (_zones.contains(entering.get(i)))
 					{
-						entering.add(zone);
+						entering.remove(i);
 					}
 				}
 				if (!entering.isEmpty())
@@ -5288,7 +5437,12 @@ public abstract class Creature extends GameObject
 	 */
 	public final void setName(String name)
 	{
+		String oldName = _name;
 		_name = name;
+		if (isPlayer())
+		{
+			GameObjectsStorage.rename((Player) this, oldName);
+		}
 	}
 	
 	/**
@@ -5483,6 +5637,120 @@ public abstract class Creature extends GameObject
 		}
 	}
 	
+	/**
+	 * Sends packets to the players visited by a World scan, the payload of shareable packets is serialized once there is a second recipient.
+	 * @author Mobius
+	 */
+	private static final class PacketBroadcast implements TObjectProcedure<Player>
+	{
+		/**
+		 * Field busy.
+		 */
+		boolean busy;
+		/**
+		 * Field packet.
+		 */
+		L2GameServerPacket packet;
+		/**
+		 * Field packets.
+		 */
+		L2GameServerPacket[] packets;
+		/**
+		 * Field packetList.
+		 */
+		List<L2GameServerPacket> packetList;
+		/**
+		 * Field sent.
+		 */
+		int sent;
+		
+		/**
+		 * Method get.
+		 * @return PacketBroadcast
+		 */
+		static PacketBroadcast get()
+		{
+			PacketBroadcast broadcast = _broadcasts.get();
+			if (broadcast.busy)
+			{
+				broadcast = new PacketBroadcast();
+			}
+			broadcast.busy = true;
+			return broadcast;
+		}
+		
+		/**
+		 * Method release.
+		 */
+		void release()
+		{
+			packet = null;
+			packets = null;
+			packetList = null;
+			sent = 0;
+			busy = false;
+		}
+		
+		/**
+		 * Method execute.
+		 * @param player Player
+		 * @return boolean
+		 * @see gnu.trove.procedure.TObjectProcedure#execute(Object)
+		 */
+		@Override
+		public boolean execute(Player player)
+		{
+			if (sent++ == 1)
+			{
+				share();
+			}
+			if (packet != null)
+			{
+				player.sendPacket(packet);
+			}
+			else if (packets != null)
+			{
+				player.sendPacket(packets);
+			}
+			else
+			{
+				player.sendPacket(packetList);
+			}
+			return true;
+		}
+		
+		/**
+		 * Method share.
+		 */
+		private void share()
+		{
+			if (packet != null)
+			{
+				packet.getSharedPayload();
+			}
+			else if (packets != null)
+			{
+				for (L2GameServerPacket p : packets)
+				{
+					if (p != null)
+					{
+						p.getSharedPayload();
+					}
+				}
+			}
+			else
+			{
+				for (int i = 0; i < packetList.size(); i++)
+				{
+					if (packetList.get(i) != null)
+					{
+						packetList.get(i).getSharedPayload();
+					}
+				}
+			}
+		}
+	}
+	
 	/**
 	 * @author Mobius
 	 */
@@ -286,7 +286,11 @@ public abstract class Effect extends RunnableImpl implements Comparable<Effect>,
 	 */
 	public void setInUse(boolean inUse)
 	{
-		_inUse = inUse;
+		if (_inUse != inUse)
+		{
+			_inUse = inUse;
+			_effected.invalidateStatCache();
+		}
 	}
 	
 	/**
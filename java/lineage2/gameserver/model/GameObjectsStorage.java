@@ -13,7 +13,11 @@
 package lineage2.gameserver.model;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import lineage2.commons.text.StrTable;
 import lineage2.gameserver.Config;
@@ -22,10 +26,13 @@ import lineage2.gameserver.model.instances.NpcInstance;
 import lineage2.gameserver.model.instances.PetInstance;
 import lineage2.gameserver.model.items.ItemInstance;
 
+import org.napile.primitive.maps.CIntObjectMap;
+import org.napile.primitive.maps.impl.CHashIntObjectMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
+ * Stored objects are kept in one array per kind for the stored ids and in a concurrent map by object id, npcs are indexed by npc id and players by lower case name. Lookups by object id, npc id or player name never take a lock.
  * @author Mobius
  * @version $Revision: 1.0 $
  */
@@ -68,6 +75,18 @@ public class GameObjectsStorage
 		storages[STORAGE_NPCS] = new GameObjectArray<NpcInstance>("NPCS", 60000 * Config.RATE_MOB_SPAWN, 5000);
 		storages[STORAGE_OTHER] = new GameObjectArray<>("OTHER", 2000, 1000);
 	}
+	/**
+	 * Field _objects. Stored objects by object id.
+	 */
+	private static final CIntObjectMap<GameObject> _objects = new CHashIntObjectMap<>(Config.MAXIMUM_ONLINE_USERS + (60000 * Config.RATE_MOB_SPAWN));
+	/**
+	 * Field _npcsByNpcId. Stored npcs by npc id, the sets are never removed.
+	 */
+	private static final CIntObjectMap<Set<NpcInstance>> _npcsByNpcId = new CHashIntObjectMap<>();
+	/**
+	 * Field _playersByName. Stored players by lower case name.
+	 */
+	private static final ConcurrentMap<String, Player> _playersByName = new ConcurrentHashMap<>();
 	
 	/**
 	 * Method getStoragePlayers.
@@ -266,7 +285,7 @@ public class GameObjectsStorage
 	 */
 	public static Player getPlayer(String name)
 	{
-		return getStoragePlayers().findByName(name);
+		return name == null ? null : _playersByName.get(name.toLowerCase());
 	}
 	
 	/**
@@ -276,7 +295,8 @@ public class GameObjectsStorage
 	 */
 	public static Player getPlayer(int objId)
 	{
-		return getStoragePlayers().findByObjectId(objId);
+		GameObject o = _objects.get(objId);
+		return o instanceof Player ? (Player) o : null;
 	}
 	
 	/**
@@ -351,18 +371,7 @@ public class GameObjectsStorage
 	 */
 	public static GameObject findObject(int objId)
 	{
-		GameObject result = null;
-		for (GameObjectArray<?> storage : storages)
-		{
-			if (storage != null)
-			{
-				if ((result = storage.findByObjectId(objId)) != null)
-				{
-					return result;
-				}
-			}
-		}
-		return null;
+		return _objects.get(objId);
 	}
 	
 	/**
@@ -425,17 +434,19 @@ public class GameObjectsStorage
 	 */
 	public static NpcInstance getByNpcId(int npc_id)
 	{
+		Set<NpcInstance> npcs = _npcsByNpcId.get(npc_id);
+		if (npcs == null)
+		{
+			return null;
+		}
 		NpcInstance result = null;
-		for (NpcInstance temp : getStorageNpcs())
+		for (NpcInstance temp : npcs)
 		{
-			if (npc_id == temp.getNpcId())
+			if (!temp.isDead())
 			{
-				if (!temp.isDead())
-				{
-					return temp;
-				}
-				result = temp;
+				return temp;
 			}
+			result = temp;
 		}
 		return result;
 	}
@@ -449,13 +460,7 @@ public class GameObjectsStorage
 	public static List<NpcInstance> getAllByNpcId(int npc_id, boolean justAlive)
 	{
 		List<NpcInstance> result = new ArrayList<>();
-		for (NpcInstance temp : getStorageNpcs())
-		{
-			if ((temp.getTemplate() != null) && (npc_id == temp.getTemplate().getNpcId()) && (!justAlive || !temp.isDead()))
-			{
-				result.add(temp);
-			}
-		}
+		addAllByNpcId(result, npc_id, justAlive);
 		return result;
 	}
 	
@@ -468,20 +473,33 @@ public class GameObjectsStorage
 	public static List<NpcInstance> getAllByNpcId(int[] npc_ids, boolean justAlive)
 	{
 		List<NpcInstance> result = new ArrayList<>();
-		for (NpcInstance temp : getStorageNpcs())
+		for (int npc_id : npc_ids)
+		{
+			addAllByNpcId(result, npc_id, justAlive);
+		}
+		return result;
+	}
+	
+	/**
+	 * Method addAllByNpcId.
+	 * @param result List<NpcInstance>
+	 * @param npc_id int
+	 * @param justAlive boolean
+	 */
+	private static void addAllByNpcId(List<NpcInstance> result, int npc_id, boolean justAlive)
+	{
+		Set<NpcInstance> npcs = _npcsByNpcId.get(npc_id);
+		if (npcs == null)
+		{
+			return;
+		}
+		for (NpcInstance temp : npcs)
 		{
 			if (!justAlive || !temp.isDead())
 			{
-				for (int npc_id : npc_ids)
-				{
-					if (npc_id == temp.getNpcId())
-					{
-						result.add(temp);
-					}
-				}
+				result.add(temp);
 			}
 		}
-		return result;
 	}
 	
 	/**
@@ -517,7 +535,8 @@ public class GameObjectsStorage
 	 */
 	public static NpcInstance getNpc(int objId)
 	{
-		return getStorageNpcs().findByObjectId(objId);
+		GameObject o = _objects.get(objId);
+		return o instanceof NpcInstance ? (NpcInstance) o : null;
 	}
 	
 	/**
@@ -529,7 +548,49 @@ public class GameObjectsStorage
 	public static long put(GameObject o)
 	{
 		int STORAGE_ID = selectStorageID(o);
-		return (o.getObjectId() & 0xFFFFFFFFL) | ((STORAGE_ID & 0x1FL) << 32) | ((storages[STORAGE_ID].add(o) & 0xFFFFFFFFL) << 37);
+		long storedId = (o.getObjectId() & 0xFFFFFFFFL) | ((STORAGE_ID & 0x1FL) << 32) | ((storages[STORAGE_ID].add(o) & 0xFFFFFFFFL) << 37);
+		_objects.put(o.getObjectId(), o);
+		if (o.isNpc())
+		{
+			NpcInstance npc = (NpcInstance) o;
+			Set<NpcInstance> npcs = _npcsByNpcId.get(npc.getNpcId());
+			if (npcs == null)
+			{
+				npcs = Collections.newSetFromMap(new ConcurrentHashMap<NpcInstance, Boolean>());
+				Set<NpcInstance> old = _npcsByNpcId.putIfAbsent(npc.getNpcId(), npcs);
+				if (old != null)
+				{
+					npcs = old;
+				}
+			}
+			npcs.add(npc);
+		}
+		else if (o.isPlayer() && (o.getName() != null))
+		{
+			_playersByName.put(o.getName().toLowerCase(), (Player) o);
+		}
+		return storedId;
+	}
+	
+	/**
+	 * Method rename. Keeps the name index of a stored player.
+	 * @param player Player
+	 * @param oldName String null if the player had no name yet
+	 */
+	public static void rename(Player player, String oldName)
+	{
+		if (!_objects.containsKey(player.getObjectId()))
+		{
+			return;
+		}
+		if (oldName != null)
+		{
+			_playersByName.remove(oldName.toLowerCase(), player);
+		}
+		if (player.getName() != null)
+		{
+			_playersByName.put(player.getName().toLowerCase(), player);
+		}
 	}
 	
 	/**
@@ -559,6 +620,10 @@ public class GameObjectsStorage
 	 */
 	public static long refreshId(Creature o)
 	{
+		if (_objects.remove(getStoredObjectId(o.getStoredId()), o))
+		{
+			_objects.put(o.getObjectId(), o);
+		}
 		return (o.getObjectId() & 0xFFFFFFFFL) | ((o.getStoredId() >> 32) << 32);
 	}
 	
@@ -570,7 +635,25 @@ public class GameObjectsStorage
 	public static GameObject remove(long storedId)
 	{
 		int STORAGE_ID = getStorageID(storedId);
-		return STORAGE_ID == STORAGE_NONE ? null : storages[STORAGE_ID].remove(getStoredIndex(storedId), getStoredObjectId(storedId));
+		GameObject o = STORAGE_ID == STORAGE_NONE ? null : storages[STORAGE_ID].remove(getStoredIndex(storedId), getStoredObjectId(storedId));
+		if (o == null)
+		{
+			return null;
+		}
+		_objects.remove(o.getObjectId(), o);
+		if (o.isNpc())
+		{
+			Set<NpcInstance> npcs = _npcsByNpcId.get(((NpcInstance) o).getNpcId());
+			if (npcs != null)
+			{
+				npcs.remove(o);
+			}
+		}
+		else if (o.isPlayer() && (o.getName() != null))
+		{
+			_playersByName.remove(o.getName().toLowerCase(), o);
+		}
+		return o;
 	}
 	
 	/**
@@ -68,8 +68,10 @@ import lineage2.gameserver.dao.AccountBonusDAO;
 import lineage2.gameserver.dao.CharacterDAO;
 import lineage2.gameserver.dao.CharacterGroupReuseDAO;
 import lineage2.gameserver.dao.CharacterPostFriendDAO;
+import lineage2.gameserver.dao.CharacterStoreDAO;
 import lineage2.gameserver.dao.CharacterSubclassDAO;
 import lineage2.gameserver.dao.EffectsDAO;
+import lineage2.gameserver.dao.VariablesStoreDAO;
 import lineage2.gameserver.data.xml.holder.EventHolder;
 import lineage2.gameserver.data.xml.holder.HennaHolder;
 import lineage2.gameserver.data.xml.holder.InstantZoneHolder;
@@ -81,7 +83,6 @@ import lineage2.gameserver.data.xml.holder.RecipeHolder;
 import lineage2.gameserver.data.xml.holder.ResidenceHolder;
 import lineage2.gameserver.data.xml.holder.SkillAcquireHolder;
 import lineage2.gameserver.database.DatabaseFactory;
-import lineage2.gameserver.database.mysql;
 import lineage2.gameserver.handler.bbs.CommunityBoardManager;
 import lineage2.gameserver.handler.bbs.ICommunityBoardHandler;
 import lineage2.gameserver.handler.items.IItemHandler;
@@ -299,7 +300,6 @@ import lineage2.gameserver.templates.npc.NpcTemplate;
 import lineage2.gameserver.templates.player.PlayerTemplate;
 import lineage2.gameserver.utils.AntiFlood;
 import lineage2.gameserver.utils.EffectsComparator;
-import lineage2.gameserver.utils.GameStats;
 import lineage2.gameserver.utils.ItemFunctions;
 import lineage2.gameserver.utils.Language;
 import lineage2.gameserver.utils.Location;
@@ -1498,6 +1498,7 @@ public final class Player extends Playable implements PlayerGroup
 		{
 			_log.error("", t);
 		}
+		VariablesStoreDAO.getInstance().flush(getObjectId());
 	}
 	
 	/**
@@ -1568,7 +1569,7 @@ public final class Player extends Playable implements PlayerGroup
 		}
 		if (saveDB)
 		{
-			mysql.set("REPLACE INTO character_recipebook (char_id, id) VALUES(?,?)", getObjectId(), recipe.getId());
+			VariablesStoreDAO.getInstance().addRecipe(getObjectId(), recipe.getId());
 		}
 	}
 	
@@ -1580,12 +1581,12 @@ public final class Player extends Playable implements PlayerGroup
 	{
 		if (_recipebook.containsKey(RecipeID))
 		{
-			mysql.set("DELETE FROM `character_recipebook` WHERE `char_id`=? AND `id`=? LIMIT 1", getObjectId(), RecipeID);
+			VariablesStoreDAO.getInstance().deleteRecipe(getObjectId(), RecipeID);
 			_recipebook.remove(RecipeID);
 		}
 		else if (_commonrecipebook.containsKey(RecipeID))
 		{
-			mysql.set("DELETE FROM `character_recipebook` WHERE `char_id`=? AND `id`=? LIMIT 1", getObjectId(), RecipeID);
+			VariablesStoreDAO.getInstance().deleteRecipe(getObjectId(), RecipeID);
 			_commonrecipebook.remove(RecipeID);
 		}
 		else
@@ -3127,6 +3128,7 @@ public final class Player extends Playable implements PlayerGroup
 			}
 			_template = t;
 		}
+		invalidateStatCache();
 		if (isInParty())
 		{
 			getParty().broadCast(new PartySmallWindowUpdate(this));
@@ -6065,6 +6067,7 @@ public final class Player extends Playable implements PlayerGroup
 		PreparedStatement statement = null;
 		try
 		{
+			CharacterStoreDAO.getInstance().flush(getObjectId());
 			con = DatabaseFactory.getInstance().getConnection();
 			statement = con.prepareStatement("UPDATE characters SET online=?, lastAccess=? WHERE obj_id=?");
 			statement.setInt(1, isOnline() && !isInOfflineMode() ? 1 : 0);
@@ -6180,6 +6183,8 @@ public final class Player extends Playable implements PlayerGroup
 		ResultSet rset = null;
 		ResultSet rset2 = null;
 		ResultSet rset3 = null;
+		CharacterStoreDAO.getInstance().flush(objectId);
+		VariablesStoreDAO.getInstance().flush(objectId);
 		try
 		{
 			con = DatabaseFactory.getInstance().getConnection();
@@ -6574,59 +6579,48 @@ public final class Player extends Playable implements PlayerGroup
 		}
 		try
 		{
-			Connection con = null;
-			PreparedStatement statement = null;
+			int x = _stablePoint == null ? getX() : _stablePoint.x;
+			int y = _stablePoint == null ? getY() : _stablePoint.y;
+			int z = _stablePoint == null ? getZ() : _stablePoint.z;
+			Object[] row =
+			{
+				x,
+				y,
+				z,
+				getKarma(),
+				getPvpKills(),
+				getPkKills(),
+				getRecomHave(),
+				getRecomLeft(),
+				getRecomBonusTime(),
+				getPcBangPoints(),
+				getFame(),
+				getFace(),
+				getHairStyle(),
+				getHairColor(),
+				getSex(),
+				getName(),
+				_title,
+				_accessLevel,
+				getKeyBindings(),
+				bookmarks.getCapacity(),
+				getClanId(),
+				getPledgeType(),
+				getPowerGrade(),
+				getLvlJoinedAcademy(),
+				getApprentice(),
+				getLeaveClanTime() / 1000L,
+				getDeleteClanTime() / 1000L,
+				isOnline() && !isInOfflineMode() ? 1 : 0,
+				(int) (_onlineBeginTime > 0 ? ((_onlineTime + System.currentTimeMillis()) - _onlineBeginTime) / 1000L : _onlineTime / 1000L),
+				_NoChannel > 0 ? getNoChannelRemained() / 1000 : _NoChannel,
+				getDeleteTimer()
+			};
+			if (_onlineBeginTime > 0L)
+				WorldStatisticsManager.getInstance().updateStat(this, CategoryType.TIME_PLAYED, (System.currentTimeMillis() - _onlineBeginTime) / 1000);
+			
 			try
 			{
-				con = DatabaseFactory.getInstance().getConnection();
-				statement = con.prepareStatement("UPDATE characters SET face=?,hairStyle=?,hairColor=?,sex=?,x=?,y=?,z=?,karma=?,pvpkills=?,pkkills=?,rec_have=?,rec_left=?,rec_bonus_time=?,clanid=?,deletetime=?,title=?,accesslevel=?,online=?,leaveclan=?,deleteclan=?,nochannel=?,onlinetime=?,pledge_type=?,pledge_rank=?,lvl_joined_academy=?,apprentice=?,key_bindings=?,pcBangPoints=?,char_name=?,fame=?,bookmarks=? WHERE obj_Id=? LIMIT 1");
-				statement.setInt(1, getFace());
-				statement.setInt(2, getHairStyle());
-				statement.setInt(3, getHairColor());
-				statement.setInt(4, getSex());
-				if (_stablePoint == null)
-				{
-					statement.setInt(5, getX());
-					statement.setInt(6, getY());
-					statement.setInt(7, getZ());
-				}
-				else
-				{
-					statement.setInt(5, _stablePoint.x);
-					statement.setInt(6, _stablePoint.y);
-					statement.setInt(7, _stablePoint.z);
-				}
-				statement.setInt(8, getKarma());
-				statement.setInt(9, getPvpKills());
-				statement.setInt(10, getPkKills());
-				statement.setInt(11, getRecomHave());
-				statement.setInt(12, getRecomLeft());
-				statement.setInt(13, getRecomBonusTime());
-				statement.setInt(14, getClanId());
-				statement.setInt(15, getDeleteTimer());
-				statement.setString(16, _title);
-				statement.setInt(17, _accessLevel);
-				statement.setInt(18, isOnline() && !isInOfflineMode() ? 1 : 0);
-				statement.setLong(19, getLeaveClanTime() / 1000L);
-				statement.setLong(20, getDeleteClanTime() / 1000L);
-				statement.setLong(21, _NoChannel > 0 ? getNoChannelRemained() / 1000 : _NoChannel);
-				statement.setInt(22, (int) (_onlineBeginTime > 0 ? ((_onlineTime + System.currentTimeMillis()) - _onlineBeginTime) / 1000L : _onlineTime / 1000L));
-				
-				if (_onlineBeginTime > 0L)
-					WorldStatisticsManager.getInstance().updateStat(this, CategoryType.TIME_PLAYED, (System.currentTimeMillis() - _onlineBeginTime) / 1000);
-
-				statement.setInt(23, getPledgeType());
-				statement.setInt(24, getPowerGrade());
-				statement.setInt(25, getLvlJoinedAcademy());
-				statement.setInt(26, getApprentice());
-				statement.setBytes(27, getKeyBindings());
-				statement.setInt(28, getPcBangPoints());
-				statement.setString(29, getName());
-				statement.setInt(30, getFame());
-				statement.setInt(31, bookmarks.getCapacity());
-				statement.setInt(32, getObjectId());
-				statement.executeUpdate();
-				GameStats.increaseUpdatePlayerBase();
 				if (!fast)
 				{
 					EffectsDAO.getInstance().insert(this);
@@ -6636,21 +6630,12 @@ public final class Player extends Playable implements PlayerGroup
 				}
 				storeCharSubClasses();
 				bookmarks.store();
-				DbUtils.closeQuietly(con, statement);
-				con = DatabaseFactory.getInstance().getConnection();
-				statement = con.prepareStatement("UPDATE `vitality_points` SET `points`=? WHERE `account_name`=?");
-				statement.setInt(1, getVitality());
-				statement.setString(2, getAccountName());
-				statement.execute();
 			}
 			catch (Exception e)
 			{
 				_log.error("Could not store char data: " + this + "!", e);
 			}
-			finally
-			{
-				DbUtils.closeQuietly(con, statement);
-			}
+			CharacterStoreDAO.getInstance().store(getObjectId(), getAccountName(), row, getVitality());
 		}
 		finally
 		{
@@ -7456,6 +7441,7 @@ public final class Player extends Playable implements PlayerGroup
 		{
 			_hennaDEX = 15;
 		}
+		invalidateStatCache();
 	}
 	
 	/**
@@ -9356,7 +9342,7 @@ public final class Player extends Playable implements PlayerGroup
 	public void setVar(String name, String value, long expirationTime)
 	{
 		user_variables.put(name, value);
-		mysql.set("REPLACE INTO character_variables (obj_id, type, name, value, expire_time) VALUES (?,'user-var',?,?,?)", getObjectId(), name, value, expirationTime);
+		VariablesStoreDAO.getInstance().setCharacterVariable(getObjectId(), name, value, expirationTime);
 	}
 	
 	/**
@@ -9393,7 +9379,7 @@ public final class Player extends Playable implements PlayerGroup
 		}
 		if (user_variables.remove(name) != null)
 		{
-			mysql.set("DELETE FROM `character_variables` WHERE `obj_id`=? AND `type`='user-var' AND `name`=? LIMIT 1", getObjectId(), name);
+			VariablesStoreDAO.getInstance().deleteCharacterVariable(getObjectId(), name);
 		}
 	}
 	
@@ -9544,6 +9530,7 @@ public final class Player extends Playable implements PlayerGroup
 		Connection con = null;
 		PreparedStatement offline = null;
 		ResultSet rs = null;
+		VariablesStoreDAO.getInstance().flush(objId);
 		try
 		{
 			con = DatabaseFactory.getInstance().getConnection();
@@ -9737,6 +9724,7 @@ public final class Player extends Playable implements PlayerGroup
 		PreparedStatement statement = null;
 		try
 		{
+			CharacterStoreDAO.getInstance().flush(getObjectId());
 			con = DatabaseFactory.getInstance().getConnection();
 			final String stmt = "UPDATE characters SET nochannel = ? WHERE obj_Id=?";
 			statement = con.prepareStatement(stmt);
@@ -12823,6 +12811,7 @@ public final class Player extends Playable implements PlayerGroup
 		PreparedStatement st = null;
 		try
 		{
+			CharacterStoreDAO.getInstance().flush(getObjectId());
 			con = DatabaseFactory.getInstance().getConnection();
 			st = con.prepareStatement("UPDATE characters SET char_name = ? WHERE obj_Id = ?");
 			st.setString(1, getName());
@@ -13872,7 +13861,7 @@ public final class Player extends Playable implements PlayerGroup
 		final SystemMessage msg = new SystemMessage(SystemMessage.INSTANT_ZONE_FROM_HERE__S1_S_ENTRY_HAS_BEEN_RESTRICTED_YOU_CAN_CHECK_THE_NEXT_ENTRY_POSSIBLE).addString(getName());
 		sendPacket(msg);
 		_instancesReuses.put(id, time);
-		mysql.set("REPLACE INTO character_instances (obj_id, id, reuse) VALUES (?,?,?)", getObjectId(), id, time);
+		VariablesStoreDAO.getInstance().setInstanceReuse(getObjectId(), id, time);
 	}
 	
 	/**
@@ -13883,7 +13872,7 @@ public final class Player extends Playable implements PlayerGroup
 	{
 		if (_instancesReuses.remove(id) != null)
 		{
-			mysql.set("DELETE FROM `character_instances` WHERE `obj_id`=? AND `id`=? LIMIT 1", getObjectId(), id);
+			VariablesStoreDAO.getInstance().deleteInstanceReuse(getObjectId(), id);
 		}
 	}
 	
@@ -13893,7 +13882,7 @@ public final class Player extends Playable implements PlayerGroup
 	public void removeAllInstanceReuses()
 	{
 		_instancesReuses.clear();
-		mysql.set("DELETE FROM `character_instances` WHERE `obj_id`=?", getObjectId());
+		VariablesStoreDAO.getInstance().deleteInstanceReuses(getObjectId());
 	}
 	
 	/**
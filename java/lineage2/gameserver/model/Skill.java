@@ -12,6 +12,8 @@
  */
 package lineage2.gameserver.model;
 
+import gnu.trove.procedure.TObjectProcedure;
+
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -2658,13 +2660,19 @@ public abstract class Skill extends StatTemplate implements Cloneable
 				if (activeChar.isMonster() || activeChar.isSiegeGuard())
 				{
 					targets.add(activeChar);
-					for (Creature c : World.getAroundCharacters(activeChar, _skillRadius, 600))
+					final List<Creature> monsters = targets;
+					World.forEachAroundCharacter(activeChar, _skillRadius, 600, true, new TObjectProcedure<Creature>()
 					{
-						if (!c.isDead() && (c.isMonster() || c.isSiegeGuard()))
+						@Override
+						public boolean execute(Creature c)
 						{
-							targets.add(c);
+							if (c.isMonster() || c.isSiegeGuard())
+							{
+								monsters.add(c);
+							}
+							return true;
 						}
-					}
+					});
 					break;
 				}
 				Player player = activeChar.getPlayer();
@@ -2760,9 +2768,8 @@ public abstract class Skill extends StatTemplate implements Cloneable
 	 * @param activeChar Creature
 	 * @param forceUse boolean
 	 */
-	private void addTargetsToList(List<Creature> targets, Creature aimingTarget, Creature activeChar, boolean forceUse)
+	private void addTargetsToList(final List<Creature> targets, final Creature aimingTarget, final Creature activeChar, final boolean forceUse)
 	{
-		int count = 0;
 		Polygon terr = null;
 		if (_targetType == SkillTargetType.TARGET_TUNNEL)
 		{
@@ -2776,35 +2783,43 @@ public abstract class Skill extends StatTemplate implements Cloneable
 			double radian2 = Math.toRadians(angle + 90);
 			terr = new Polygon().add(activeChar.getX() + (int) (Math.cos(radian1) * radius), activeChar.getY() + (int) (Math.sin(radian1) * radius)).add(activeChar.getX() + (int) (Math.cos(radian2) * radius), activeChar.getY() + (int) (Math.sin(radian2) * radius)).add(aimingTarget.getX() + (int) (Math.cos(radian2) * radius), aimingTarget.getY() + (int) (Math.sin(radian2) * radius)).add(aimingTarget.getX() + (int) (Math.cos(radian1) * radius), aimingTarget.getY() + (int) (Math.sin(radian1) * radius)).setZmin(Math.min(zmin1, zmin2)).setZmax(Math.max(zmax1, zmax2));
 		}
-		for (Creature target : aimingTarget.getAroundCharacters(_skillRadius, 300))
+		if (!aimingTarget.isVisible())
 		{
-			if ((terr != null) && !terr.isInside(target.getX(), target.getY(), target.getZ()))
-			{
-				continue;
-			}
-			if ((target == null) || (activeChar == target) || ((activeChar.getPlayer() != null) && (activeChar.getPlayer() == target.getPlayer())))
-			{
-				continue;
-			}
-			if (getId() == SKILL_DETECTION)
-			{
-				target.checkAndRemoveInvisible();
-			}
-			if (checkTarget(activeChar, target, aimingTarget, forceUse, false) != null)
-			{
-				continue;
-			}
-			if (!(activeChar instanceof DecoyInstance) && activeChar.isNpc() && target.isNpc())
-			{
-				continue;
-			}
-			targets.add(target);
-			count++;
-			if (isOffensive() && (count >= 20) && !activeChar.isRaid())
+			return;
+		}
+		final Polygon tunnel = terr;
+		World.forEachAroundCharacter(aimingTarget, _skillRadius, 300, new TObjectProcedure<Creature>()
+		{
+			private int count;
+			
+			@Override
+			public boolean execute(Creature target)
 			{
-				break;
+				if ((tunnel != null) && !tunnel.isInside(target.getX(), target.getY(), target.getZ()))
+				{
+					return true;
+				}
+				if ((activeChar == target) || ((activeChar.getPlayer() != null) && (activeChar.getPlayer() == target.getPlayer())))
+				{
+					return true;
+				}
+				if (getId() == SKILL_DETECTION)
+				{
+					target.checkAndRemoveInvisible();
+				}
+				if (checkTarget(activeChar, target, aimingTarget, forceUse, false) != null)
+				{
+					return true;
+				}
+				if (!(activeChar instanceof DecoyInstance) && activeChar.isNpc() && target.isNpc())
+				{
+					return true;
+				}
+				targets.add(target);
+				count++;
+				return !isOffensive() || (count < 20) || activeChar.isRaid();
 			}
-		}
+		});
 	}
 	
 	/**
@@ -2814,36 +2829,37 @@ public abstract class Skill extends StatTemplate implements Cloneable
 	 * @param activeChar Creature
 	 * @param forceUse boolean
 	 */
-	public void addTargetsToLakcis(List<Creature> targets, Creature activeChar, boolean isHealTask)
+	public void addTargetsToLakcis(final List<Creature> targets, final Creature activeChar, boolean isHealTask)
 	{		
 		_skillHealStance = isHealTask;
-		int count = 0;
-		Polygon terr = null;
-		for (Creature target : activeChar.getAroundCharacters(_skillRadius, 300))
+		if (!activeChar.isVisible())
 		{
-			if ((terr != null) && !terr.isInside(target.getX(), target.getY(), target.getZ()))
-			{
-				continue;
-			}
-			if ((target == null) || (activeChar == target) || ((activeChar.getPlayer() != null) && (activeChar.getPlayer() == target.getPlayer())))
-			{
-				continue;
-			}
-			if (checkTarget(activeChar, target, activeChar, false, false) != null)
-			{
-				continue;
-			}
-			if (!(activeChar instanceof DecoyInstance) && activeChar.isNpc() && target.isNpc())
-			{
-				continue;
-			}
-			targets.add(target);
-			count++;
-			if (isOffensive() && (count >= 20) && !activeChar.isRaid())
+			return;
+		}
+		World.forEachAroundCharacter(activeChar, _skillRadius, 300, new TObjectProcedure<Creature>()
+		{
+			private int count;
+			
+			@Override
+			public boolean execute(Creature target)
 			{
-				break;
+				if ((activeChar.getPlayer() != null) && (activeChar.getPlayer() == target.getPlayer()))
+				{
+					return true;
+				}
+				if (checkTarget(activeChar, target, activeChar, false, false) != null)
+				{
+					return true;
+				}
+				if (!(activeChar instanceof DecoyInstance) && activeChar.isNpc() && target.isNpc())
+				{
+					return true;
+				}
+				targets.add(target);
+				count++;
+				return !isOffensive() || (count < 20) || activeChar.isRaid();
 			}
-		}
+		});
 	}
 	/**
 	 * Method addTargetsToList.
@@ -2852,33 +2868,39 @@ public abstract class Skill extends StatTemplate implements Cloneable
 	 * @param activeChar Creature
 	 * @param forceUse boolean
 	 */
-	private void addTargetsToList(List<Creature> targets, Location loc, Creature activeChar, boolean forceUse)
+	private void addTargetsToList(final List<Creature> targets, final Location loc, final Creature activeChar, final boolean forceUse)
 	{
-		int count = 0;
-		for (Creature target : activeChar.getAroundCharacters(1600, 300))
+		if (!activeChar.isVisible())
 		{
-			if ((target == null) || (activeChar == target) || ((activeChar.getPlayer() != null) && (activeChar.getPlayer() == target.getPlayer())))
-			{
-				continue;
-			}
-			if (target.getDistance(loc) < getSkillRadius())
+			return;
+		}
+		World.forEachAroundCharacter(activeChar, 1600, 300, new TObjectProcedure<Creature>()
+		{
+			private int count;
+			
+			@Override
+			public boolean execute(Creature target)
 			{
-				if (checkTarget(activeChar, target, target, forceUse, false) != null)
+				if ((activeChar.getPlayer() != null) && (activeChar.getPlayer() == target.getPlayer()))
 				{
-					continue;
+					return true;
 				}
-				if (!(activeChar instanceof DecoyInstance) && activeChar.isNpc() && target.isNpc())
+				if (target.getDistance(loc) < getSkillRadius())
 				{
-					continue;
+					if (checkTarget(activeChar, target, target, forceUse, false) != null)
+					{
+						return true;
+					}
+					if (!(activeChar instanceof DecoyInstance) && activeChar.isNpc() && target.isNpc())
+					{
+						return true;
+					}
+					targets.add(target);
 				}
-				targets.add(target);
+				count++;
+				return !isOffensive() || (count < 20) || activeChar.isRaid();
 			}
-			count++;
-			if (isOffensive() && (count >= 20) && !activeChar.isRaid())
-			{
-				break;
-			}
-		}
+		});
 	}
 
 	/**
@@ -13,21 +13,79 @@
 package lineage2.gameserver.model;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import lineage2.commons.geometry.Point3D;
 import lineage2.commons.geometry.Shape;
 import lineage2.commons.util.Rnd;
+import lineage2.gameserver.Config;
 import lineage2.gameserver.geodata.GeoEngine;
 import lineage2.gameserver.templates.spawn.SpawnRange;
 import lineage2.gameserver.utils.Location;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 /**
+ * Random locations are picked from spawn cells validated once per geo index: a grid of at most {@link #MAX_SPAWN_CELLS} geo cells over the bounds, each packed into an int as grid index and height. On a coarser grid a point of the whole block around the picked cell is validated, the cell itself is the fallback. Cells touched by a door collision are validated again on the next pick.
  * @author Mobius
  * @version $Revision: 1.0 $
  */
 public class Territory implements Shape, SpawnRange
 {
+	/**
+	 * Field _log.
+	 */
+	private static final Logger _log = LoggerFactory.getLogger(Territory.class);
+	/**
+	 * Field MAX_SPAWN_CELLS. Larger territories are validated on a coarser grid.
+	 */
+	public static final int MAX_SPAWN_CELLS = 1024;
+	/**
+	 * Field BLOCK_ATTEMPTS. Points tried in the block of a picked cell on a coarser grid.
+	 */
+	private static final int BLOCK_ATTEMPTS = 4;
+	/**
+	 * Field _cached. Territories holding spawn cells.
+	 */
+	private static final Set<Territory> _cached = Collections.newSetFromMap(new ConcurrentHashMap<Territory, Boolean>());
+	
+	/**
+	 * @author Mobius
+	 */
+	private static final class SpawnCells
+	{
+		/**
+		 * Field step. Geo cells between two grid points.
+		 */
+		final int step;
+		/**
+		 * Field height. Grid points along y.
+		 */
+		final int height;
+		/**
+		 * Field cells. Grid index in the upper and geo height in the lower 16 bits.
+		 */
+		final int[] cells;
+		
+		/**
+		 * Constructor for SpawnCells.
+		 * @param step int
+		 * @param height int
+		 * @param cells int[]
+		 */
+		SpawnCells(int step, int height, int[] cells)
+		{
+			this.step = step;
+			this.height = height;
+			this.cells = cells;
+		}
+	}
+	
 	/**
 	 * Field max.
 	 */
@@ -44,6 +102,10 @@ public class Territory implements Shape, SpawnRange
 	 * Field exclude.
 	 */
 	private final List<Shape> exclude = new ArrayList<>(1);
+	/**
+	 * Field _spawnCells. Spawn cells by geo index, created on the first pick.
+	 */
+	private volatile Map<Integer, SpawnCells> _spawnCells;
 	
 	/**
 	 * Constructor for Territory.
@@ -275,10 +337,83 @@ public class Territory implements Shape, SpawnRange
 	 * @return Location
 	 */
 	public static Location getRandomLoc(Territory territory, int geoIndex)
+	{
+		if (!Config.ALLOW_GEODATA)
+		{
+			return getRandomLocSampled(territory, geoIndex);
+		}
+		SpawnCells spawnCells = territory.getSpawnCells(geoIndex);
+		int[] cells = spawnCells.cells;
+		if (cells.length == 0)
+		{
+			return getRandomLocSampled(territory, geoIndex);
+		}
+		int cell = cells[Rnd.get(cells.length)];
+		int index = cell >>> 16;
+		int geoX = ((territory.min.x - World.MAP_MIN_X) >> 4) + ((index / spawnCells.height) * spawnCells.step);
+		int geoY = ((territory.min.y - World.MAP_MIN_Y) >> 4) + ((index % spawnCells.height) * spawnCells.step);
+		int x = World.MAP_MIN_X + (geoX << 4);
+		int y = World.MAP_MIN_Y + (geoY << 4);
+		if (spawnCells.step > 1)
+		{
+			for (int i = 0; i < BLOCK_ATTEMPTS; i++)
+			{
+				int blockX = x + Rnd.get(spawnCells.step << 4);
+				int blockY = y + Rnd.get(spawnCells.step << 4);
+				Shape shape = territory.getIncludingShape(blockX, blockY);
+				if (shape != null)
+				{
+					int z = getSpawnHeight(shape, blockX, blockY, geoIndex);
+					if (z != Integer.MIN_VALUE)
+					{
+						return new Location(blockX, blockY, z);
+					}
+				}
+			}
+			return new Location(x + 8, y + 8, (short) cell);
+		}
+		Location pos = new Location(x + Rnd.get(16), y + Rnd.get(16), (short) cell);
+		if (!territory.isInside(pos.x, pos.y))
+		{
+			pos.x = x + 8;
+			pos.y = y + 8;
+		}
+		return pos;
+	}
+	
+	/**
+	 * Method getIncludingShape.
+	 * @param x int
+	 * @param y int
+	 * @return Shape the included shape containing the point, null when the point is out of the territory
+	 */
+	private Shape getIncludingShape(int x, int y)
+	{
+		if (isExcluded(x, y))
+		{
+			return null;
+		}
+		for (int i = 0; i < include.size(); i++)
+		{
+			Shape shape = include.get(i);
+			if (shape.isInside(x, y))
+			{
+				return shape;
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * Method getRandomLocSampled. Tries random points until one passes the geodata checks.
+	 * @param territory Territory
+	 * @param geoIndex int
+	 * @return Location the last point tried when none passed
+	 */
+	private static Location getRandomLocSampled(Territory territory, int geoIndex)
 	{
 		Location pos = new Location();
 		List<Shape> territories = territory.getTerritories();
-		loop:
 		for (int i = 0; i < 100; i++)
 		{
 			Shape shape = territories.get(Rnd.get(territories.size()));
@@ -287,35 +422,179 @@ public class Territory implements Shape, SpawnRange
 			pos.z = shape.getZmin() + ((shape.getZmax() - shape.getZmin()) / 2);
 			if (territory.isInside(pos.x, pos.y))
 			{
-				int tempz = GeoEngine.getHeight(pos, geoIndex);
-				if (shape.getZmin() != shape.getZmax())
+				int tempz = getSpawnHeight(shape, pos.x, pos.y, geoIndex);
+				if (tempz != Integer.MIN_VALUE)
 				{
-					if ((tempz < shape.getZmin()) || (tempz > shape.getZmax()))
-					{
-						continue;
-					}
+					pos.z = tempz;
+					return pos;
 				}
-				else if ((tempz < (shape.getZmin() - 200)) || (tempz > (shape.getZmin() + 200)))
+			}
+		}
+		return pos;
+	}
+	
+	/**
+	 * Method getSpawnHeight.
+	 * @param shape Shape the included shape the point was picked from
+	 * @param x int
+	 * @param y int
+	 * @param geoIndex int
+	 * @return int geo height, Integer.MIN_VALUE when it is out of the shape heights or the cells around are not passable in every direction
+	 */
+	private static int getSpawnHeight(Shape shape, int x, int y, int geoIndex)
+	{
+		int tempz = GeoEngine.getHeight(x, y, shape.getZmin() + ((shape.getZmax() - shape.getZmin()) / 2), geoIndex);
+		if (shape.getZmin() != shape.getZmax())
+		{
+			if ((tempz < shape.getZmin()) || (tempz > shape.getZmax()))
+			{
+				return Integer.MIN_VALUE;
+			}
+		}
+		else if ((tempz < (shape.getZmin() - 200)) || (tempz > (shape.getZmin() + 200)))
+		{
+			return Integer.MIN_VALUE;
+		}
+		int geoX = (x - World.MAP_MIN_X) >> 4;
+		int geoY = (y - World.MAP_MIN_Y) >> 4;
+		for (int gx = geoX - 1; gx <= (geoX + 1); gx++)
+		{
+			for (int gy = geoY - 1; gy <= (geoY + 1); gy++)
+			{
+				if (GeoEngine.NgetNSWE(gx, gy, tempz, geoIndex) != GeoEngine.NSWE_ALL)
+				{
+					return Integer.MIN_VALUE;
+				}
+			}
+		}
+		return tempz;
+	}
+	
+	/**
+	 * Method getSpawnCells. Cells are validated while holding the lock, an invalidation waits for it and drops cells validated against geodata it changed meanwhile.
+	 * @param geoIndex int
+	 * @return SpawnCells
+	 */
+	private SpawnCells getSpawnCells(int geoIndex)
+	{
+		Map<Integer, SpawnCells> spawnCells = _spawnCells;
+		SpawnCells result = spawnCells == null ? null : spawnCells.get(geoIndex);
+		if (result != null)
+		{
+			return result;
+		}
+		synchronized (this)
+		{
+			if (_spawnCells == null)
+			{
+				_spawnCells = new ConcurrentHashMap<>(1);
+			}
+			result = _spawnCells.get(geoIndex);
+			if (result != null)
+			{
+				return result;
+			}
+			_cached.add(this);
+			result = makeSpawnCells(geoIndex);
+			_spawnCells.put(geoIndex, result);
+			if (result.cells.length == 0)
+			{
+				_log.warn("Territory: no valid spawn cell in " + min + " - " + max + ", geo index " + geoIndex + ".");
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Method makeSpawnCells.
+	 * @param geoIndex int
+	 * @return SpawnCells
+	 */
+	private SpawnCells makeSpawnCells(int geoIndex)
+	{
+		int minX = (min.x - World.MAP_MIN_X) >> 4;
+		int minY = (min.y - World.MAP_MIN_Y) >> 4;
+		int sizeX = ((max.x - World.MAP_MIN_X) >> 4) - minX + 1;
+		int sizeY = ((max.y - World.MAP_MIN_Y) >> 4) - minY + 1;
+		int step = 1;
+		while ((((sizeX + step) - 1) / step) * (((sizeY + step) - 1) / step) > MAX_SPAWN_CELLS)
+		{
+			step++;
+		}
+		int width = ((sizeX + step) - 1) / step;
+		int height = ((sizeY + step) - 1) / step;
+		int[] cells = new int[width * height];
+		int count = 0;
+		for (int i = 0; i < width; i++)
+		{
+			int x = World.MAP_MIN_X + ((minX + (i * step)) << 4) + 8;
+			for (int j = 0; j < height; j++)
+			{
+				int y = World.MAP_MIN_Y + ((minY + (j * step)) << 4) + 8;
+				if (isExcluded(x, y))
 				{
 					continue;
 				}
-				pos.z = tempz;
-				int geoX = (pos.x - World.MAP_MIN_X) >> 4;
-				int geoY = (pos.y - World.MAP_MIN_Y) >> 4;
-				for (int x = geoX - 1; x <= (geoX + 1); x++)
+				for (int k = 0; k < include.size(); k++)
 				{
-					for (int y = geoY - 1; y <= (geoY + 1); y++)
+					Shape shape = include.get(k);
+					if (shape.isInside(x, y))
 					{
-						if (GeoEngine.NgetNSWE(x, y, tempz, geoIndex) != GeoEngine.NSWE_ALL)
+						int z = getSpawnHeight(shape, x, y, geoIndex);
+						if (z != Integer.MIN_VALUE)
 						{
-							continue loop;
+							cells[count++] = (((i * height) + j) << 16) | (z & 0xffff);
 						}
+						break;
 					}
 				}
-				return pos;
 			}
 		}
-		return pos;
+		int[] result = new int[count];
+		System.arraycopy(cells, 0, result, 0, count);
+		return new SpawnCells(step, height, result);
+	}
+	
+	/**
+	 * Method invalidateSpawnCells. Drops the spawn cells of territories near a changed geo collision.
+	 * @param shape Shape
+	 * @param geoIndex int
+	 */
+	public static void invalidateSpawnCells(Shape shape, int geoIndex)
+	{
+		for (Territory territory : _cached)
+		{
+			if (((shape.getXmin() - 32) > territory.max.x) || ((shape.getXmax() + 32) < territory.min.x) || ((shape.getYmin() - 32) > territory.max.y) || ((shape.getYmax() + 32) < territory.min.y))
+			{
+				continue;
+			}
+			territory.removeSpawnCells(geoIndex);
+		}
+	}
+	
+	/**
+	 * Method invalidateSpawnCells. Drops the spawn cells of all territories for a released geo index.
+	 * @param geoIndex int
+	 */
+	public static void invalidateSpawnCells(int geoIndex)
+	{
+		for (Territory territory : _cached)
+		{
+			territory.removeSpawnCells(geoIndex);
+		}
+	}
+	
+	/**
+	 * Method removeSpawnCells.
+	 * @param geoIndex int
+	 */
+	private synchronized void removeSpawnCells(int geoIndex)
+	{
+		_spawnCells.remove(geoIndex);
+		if (_spawnCells.isEmpty())
+		{
+			_cached.remove(this);
+		}
 	}
 	
 	/**
@@ -12,9 +12,12 @@
  */
 package lineage2.gameserver.model;
 
+import gnu.trove.procedure.TObjectProcedure;
+
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import lineage2.commons.collections.LazyArrayList;
 import lineage2.gameserver.Config;
@@ -105,6 +108,168 @@ public class World
 	 * Field _worldRegions.
 	 */
 	private static volatile WorldRegion[][][] _worldRegions = new WorldRegion[REGIONS_X + 1][REGIONS_Y + 1][REGIONS_Z + 1];
+	/**
+	 * Field _regionEnters. Objects spawned into a region.
+	 */
+	private static final AtomicLong _regionEnters = new AtomicLong();
+	/**
+	 * Field _regionChanges. Objects moved across a region border.
+	 */
+	private static final AtomicLong _regionChanges = new AtomicLong();
+	/**
+	 * Field _regionLeaves. Objects removed from a region.
+	 */
+	private static final AtomicLong _regionLeaves = new AtomicLong();
+	/**
+	 * Field _churnSample. Enters, changes, leaves and time of the previous getStats call.
+	 */
+	private static final long[] _churnSample = new long[4];
+	/**
+	 * Field FILTER_OBJECT. (value is 0)
+	 */
+	private static final int FILTER_OBJECT = 0;
+	/**
+	 * Field FILTER_CREATURE. (value is 1)
+	 */
+	private static final int FILTER_CREATURE = 1;
+	/**
+	 * Field FILTER_NPC. (value is 2)
+	 */
+	private static final int FILTER_NPC = 2;
+	/**
+	 * Field FILTER_PLAYABLE. (value is 3)
+	 */
+	private static final int FILTER_PLAYABLE = 3;
+	/**
+	 * Field FILTER_PLAYER. (value is 4)
+	 */
+	private static final int FILTER_PLAYER = 4;
+	/**
+	 * Field FILTER_TYPE. Bits of the filter holding one of the types above.
+	 */
+	private static final int FILTER_TYPE = 7;
+	/**
+	 * Field FILTER_ALIVE. Flag skipping dead creatures and everything which is not a creature.
+	 */
+	private static final int FILTER_ALIVE = 8;
+	/**
+	 * Field MAX_AROUND_RADIUS. Radius queries never leave the neighbour regions, larger values only risk an overflow.
+	 */
+	private static final int MAX_AROUND_RADIUS = 1 << (SHIFT_BY + 1);
+	/**
+	 * Field MAX_AROUND_HEIGHT.
+	 */
+	private static final int MAX_AROUND_HEIGHT = 1 << (SHIFT_BY_Z + 1);
+	/**
+	 * Field _selections. Reused by getNearest, a nested selection on the same thread takes a new one.
+	 */
+	private static final ThreadLocal<NearestSelection> _selections = new ThreadLocal<NearestSelection>()
+	{
+		@Override
+		protected NearestSelection initialValue()
+		{
+			return new NearestSelection();
+		}
+	};
+	
+	/**
+	 * Bounded selection of the nearest objects, ordered by the squared 3D distance and then the object id. Keeps the selected objects sorted, an object farther than the last one of a full selection is only compared once.
+	 * @author Mobius
+	 */
+	private static final class NearestSelection implements TObjectProcedure<GameObject>
+	{
+		/**
+		 * Field busy.
+		 */
+		boolean busy;
+		/**
+		 * Field x.
+		 */
+		int x;
+		/**
+		 * Field y.
+		 */
+		int y;
+		/**
+		 * Field z.
+		 */
+		int z;
+		/**
+		 * Field accept. May be null.
+		 */
+		TObjectProcedure<GameObject> accept;
+		/**
+		 * Field afterDistance. Only objects ordered strictly after this distance and afterId are selected, so the after object itself is skipped, -1 for all.
+		 */
+		long afterDistance;
+		/**
+		 * Field afterId.
+		 */
+		int afterId;
+		/**
+		 * Field nearest.
+		 */
+		GameObject[] nearest;
+		/**
+		 * Field distances. Squared distances of the selected objects.
+		 */
+		long[] distances = new long[16];
+		/**
+		 * Field count.
+		 */
+		int count;
+		
+		/**
+		 * Method execute.
+		 * @param obj GameObject
+		 * @return boolean
+		 * @see gnu.trove.procedure.TObjectProcedure#execute(Object)
+		 */
+		@Override
+		public boolean execute(GameObject obj)
+		{
+			long dx = obj.getX() - x;
+			long dy = obj.getY() - y;
+			long dz = obj.getZ() - z;
+			long distance = (dx * dx) + (dy * dy) + (dz * dz);
+			int id = obj.getObjectId();
+			if (!isBefore(afterDistance, afterId, distance, id))
+			{
+				return true;
+			}
+			int size = nearest.length;
+			if ((count == size) && !isBefore(distance, id, distances[count - 1], nearest[count - 1].getObjectId()))
+			{
+				return true;
+			}
+			if ((accept != null) && !accept.execute(obj))
+			{
+				return true;
+			}
+			int i = count < size ? count++ : count - 1;
+			for (; (i > 0) && isBefore(distance, id, distances[i - 1], nearest[i - 1].getObjectId()); i--)
+			{
+				nearest[i] = nearest[i - 1];
+				distances[i] = distances[i - 1];
+			}
+			nearest[i] = obj;
+			distances[i] = distance;
+			return true;
+		}
+		
+		/**
+		 * Method isBefore.
+		 * @param distance long
+		 * @param id int
+		 * @param otherDistance long
+		 * @param otherId int
+		 * @return boolean
+		 */
+		private static boolean isBefore(long distance, int id, long otherDistance, int otherId)
+		{
+			return (distance < otherDistance) || ((distance == otherDistance) && (id < otherId));
+		}
+	}
 	
 	/**
 	 * Method init.
@@ -261,6 +426,399 @@ public class World
 		return (z >> SHIFT_BY_Z) + OFFSET_Z;
 	}
 	
+	/**
+	 * Method forEachAroundObject. Allocation free variant of getAroundObjects, the procedure returns false to stop the scan.
+	 * @param object GameObject
+	 * @param radius int
+	 * @param height int
+	 * @param procedure TObjectProcedure<GameObject>
+	 * @return boolean false if the procedure stopped the scan
+	 */
+	public static boolean forEachAroundObject(GameObject object, int radius, int height, TObjectProcedure<GameObject> procedure)
+	{
+		return forEachAround(object, radius, height, FILTER_OBJECT, procedure);
+	}
+	
+	/**
+	 * Method forEachAroundCharacter. Allocation free variant of getAroundCharacters without radius, visits the whole neighbourhood.
+	 * @param object GameObject
+	 * @param procedure TObjectProcedure<Creature>
+	 * @return boolean false if the procedure stopped the scan
+	 */
+	public static boolean forEachAroundCharacter(GameObject object, TObjectProcedure<Creature> procedure)
+	{
+		return forEachAround(object, Integer.MAX_VALUE, Integer.MAX_VALUE, FILTER_CREATURE, procedure);
+	}
+	
+	/**
+	 * Method forEachAroundCharacter.
+	 * @param object GameObject
+	 * @param radius int
+	 * @param height int
+	 * @param procedure TObjectProcedure<Creature>
+	 * @return boolean false if the procedure stopped the scan
+	 */
+	public static boolean forEachAroundCharacter(GameObject object, int radius, int height, TObjectProcedure<Creature> procedure)
+	{
+		return forEachAround(object, radius, height, FILTER_CREATURE, procedure);
+	}
+	
+	/**
+	 * Method forEachAroundCharacter.
+	 * @param object GameObject
+	 * @param radius int
+	 * @param height int
+	 * @param alive boolean skip dead creatures
+	 * @param procedure TObjectProcedure<Creature>
+	 * @return boolean false if the procedure stopped the scan
+	 */
+	public static boolean forEachAroundCharacter(GameObject object, int radius, int height, boolean alive, TObjectProcedure<Creature> procedure)
+	{
+		return forEachAround(object, radius, height, alive ? FILTER_CREATURE | FILTER_ALIVE : FILTER_CREATURE, procedure);
+	}
+	
+	/**
+	 * Method forEachAroundNpc.
+	 * @param object GameObject
+	 * @param radius int
+	 * @param height int
+	 * @param procedure TObjectProcedure<NpcInstance>
+	 * @return boolean false if the procedure stopped the scan
+	 */
+	public static boolean forEachAroundNpc(GameObject object, int radius, int height, TObjectProcedure<NpcInstance> procedure)
+	{
+		return forEachAround(object, radius, height, FILTER_NPC, procedure);
+	}
+	
+	/**
+	 * Method forEachAroundNpc.
+	 * @param object GameObject
+	 * @param radius int
+	 * @param height int
+	 * @param alive boolean skip dead npcs
+	 * @param procedure TObjectProcedure<NpcInstance>
+	 * @return boolean false if the procedure stopped the scan
+	 */
+	public static boolean forEachAroundNpc(GameObject object, int radius, int height, boolean alive, TObjectProcedure<NpcInstance> procedure)
+	{
+		return forEachAround(object, radius, height, alive ? FILTER_NPC | FILTER_ALIVE : FILTER_NPC, procedure);
+	}
+	
+	/**
+	 * Method forEachAroundPlayable.
+	 * @param object GameObject
+	 * @param radius int
+	 * @param height int
+	 * @param procedure TObjectProcedure<Playable>
+	 * @return boolean false if the procedure stopped the scan
+	 */
+	public static boolean forEachAroundPlayable(GameObject object, int radius, int height, TObjectProcedure<Playable> procedure)
+	{
+		return forEachAround(object, radius, height, FILTER_PLAYABLE, procedure);
+	}
+	
+	/**
+	 * Method forEachAroundPlayable.
+	 * @param object GameObject
+	 * @param radius int
+	 * @param height int
+	 * @param alive boolean skip dead playables
+	 * @param procedure TObjectProcedure<Playable>
+	 * @return boolean false if the procedure stopped the scan
+	 */
+	public static boolean forEachAroundPlayable(GameObject object, int radius, int height, boolean alive, TObjectProcedure<Playable> procedure)
+	{
+		return forEachAround(object, radius, height, alive ? FILTER_PLAYABLE | FILTER_ALIVE : FILTER_PLAYABLE, procedure);
+	}
+	
+	/**
+	 * Method forEachAroundPlayer. Allocation free variant of getAroundPlayers without radius, visits the whole neighbourhood.
+	 * @param object GameObject
+	 * @param procedure TObjectProcedure<Player>
+	 * @return boolean false if the procedure stopped the scan
+	 */
+	public static boolean forEachAroundPlayer(GameObject object, TObjectProcedure<Player> procedure)
+	{
+		return forEachAround(object, Integer.MAX_VALUE, Integer.MAX_VALUE, FILTER_PLAYER, procedure);
+	}
+	
+	/**
+	 * Method forEachAroundPlayer.
+	 * @param object GameObject
+	 * @param radius int
+	 * @param height int
+	 * @param procedure TObjectProcedure<Player>
+	 * @return boolean false if the procedure stopped the scan
+	 */
+	public static boolean forEachAroundPlayer(GameObject object, int radius, int height, TObjectProcedure<Player> procedure)
+	{
+		return forEachAround(object, radius, height, FILTER_PLAYER, procedure);
+	}
+	
+	/**
+	 * Method forEachAroundPlayer.
+	 * @param object GameObject
+	 * @param radius int
+	 * @param height int
+	 * @param alive boolean skip dead players
+	 * @param procedure TObjectProcedure<Player>
+	 * @return boolean false if the procedure stopped the scan
+	 */
+	public static boolean forEachAroundPlayer(GameObject object, int radius, int height, boolean alive, TObjectProcedure<Player> procedure)
+	{
+		return forEachAround(object, radius, height, alive ? FILTER_PLAYER | FILTER_ALIVE : FILTER_PLAYER, procedure);
+	}
+	
+	/**
+	 * Method getNearestCharacters. Selects the nearest creatures without collecting and sorting the whole neighbourhood, calling it again with the last selected creature continues with the next ones.
+	 * @param object GameObject
+	 * @param radius int Integer.MAX_VALUE for the whole neighbourhood
+	 * @param height int Integer.MAX_VALUE for the whole neighbourhood
+	 * @param alive boolean skip dead creatures
+	 * @param accept TObjectProcedure<Creature> returns false to skip a creature, may be null
+	 * @param after Creature only creatures farther than this one are selected, null to start with the nearest
+	 * @param nearest Creature[] receives up to nearest.length creatures, the nearest first
+	 * @return int number of creatures selected
+	 */
+	public static int getNearestCharacters(GameObject object, int radius, int height, boolean alive, TObjectProcedure<Creature> accept, Creature after, Creature[] nearest)
+	{
+		return getNearest(object, radius, height, alive ? FILTER_CREATURE | FILTER_ALIVE : FILTER_CREATURE, accept, after, nearest);
+	}
+	
+	/**
+	 * Method getNearest.
+	 * @param object GameObject
+	 * @param radius int
+	 * @param height int
+	 * @param filter int
+	 * @param accept TObjectProcedure<T>
+	 * @param after T
+	 * @param nearest T[]
+	 * @return int number of objects selected
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T extends GameObject> int getNearest(GameObject object, int radius, int height, int filter, TObjectProcedure<T> accept, T after, T[] nearest)
+	{
+		if (nearest.length == 0)
+		{
+			return 0;
+		}
+		NearestSelection selection = _selections.get();
+		if (selection.busy)
+		{
+			selection = new NearestSelection();
+		}
+		selection.busy = true;
+		try
+		{
+			selection.x = object.getX();
+			selection.y = object.getY();
+			selection.z = object.getZ();
+			selection.accept = (TObjectProcedure<GameObject>) accept;
+			if (after == null)
+			{
+				selection.afterDistance = -1;
+				selection.afterId = 0;
+			}
+			else
+			{
+				long dx = after.getX() - selection.x;
+				long dy = after.getY() - selection.y;
+				long dz = after.getZ() - selection.z;
+				selection.afterDistance = (dx * dx) + (dy * dy) + (dz * dz);
+				selection.afterId = after.getObjectId();
+			}
+			selection.nearest = nearest;
+			if (selection.distances.length < nearest.length)
+			{
+				selection.distances = new long[nearest.length];
+			}
+			selection.count = 0;
+			forEachAround(object, radius, height, filter, selection);
+			for (int i = selection.count; i < nearest.length; i++)
+			{
+				nearest[i] = null;
+			}
+			return selection.count;
+		}
+		finally
+		{
+			selection.accept = null;
+			selection.nearest = null;
+			selection.busy = false;
+		}
+	}
+	
+	/**
+	 * Method forEachAround. Visits the objects of the regions overlapping the query box, same rules as the getAround methods. A radius and height of Integer.MAX_VALUE visit the whole neighbourhood.
+	 * @param object GameObject
+	 * @param radius int
+	 * @param height int
+	 * @param filter int
+	 * @param procedure TObjectProcedure<T>
+	 * @return boolean false if the procedure stopped the scan
+	 */
+	@SuppressWarnings("unchecked")
+	private static <T extends GameObject> boolean forEachAround(GameObject object, int radius, int height, int filter, TObjectProcedure<T> procedure)
+	{
+		WorldRegion currentRegion = object.getCurrentRegion();
+		if (currentRegion == null)
+		{
+			return true;
+		}
+		int oid = object.getObjectId();
+		int rid = object.getReflectionId();
+		int ox = object.getX();
+		int oy = object.getY();
+		int oz = object.getZ();
+		long sqrad = (long) radius * radius;
+		int type = filter & FILTER_TYPE;
+		boolean alive = (filter & FILTER_ALIVE) != 0;
+		int maxX = aroundMaxX(currentRegion, ox, radius);
+		int maxY = aroundMaxY(currentRegion, oy, radius);
+		int maxZ = aroundMaxZ(currentRegion, oz, height);
+		for (int x = aroundMinX(currentRegion, ox, radius); x <= maxX; x++)
+		{
+			for (int y = aroundMinY(currentRegion, oy, radius); y <= maxY; y++)
+			{
+				for (int z = aroundMinZ(currentRegion, oz, height); z <= maxZ; z++)
+				{
+					WorldRegion region = getRegion(x, y, z);
+					GameObject[] objects;
+					switch (type)
+					{
+						case FILTER_NPC:
+							objects = region.getNpcs();
+							break;
+						case FILTER_PLAYABLE:
+							objects = region.getPlayables();
+							break;
+						case FILTER_PLAYER:
+							objects = region.getPlayers();
+							break;
+						default:
+							objects = region.getObjects();
+							break;
+					}
+					for (GameObject obj : objects)
+					{
+						if (obj == null)
+						{
+							continue;
+						}
+						if ((obj.getObjectId() == oid) || (obj.getReflectionId() != rid))
+						{
+							continue;
+						}
+						if ((type == FILTER_CREATURE) && !obj.isCreature())
+						{
+							continue;
+						}
+						if (alive && (!obj.isCreature() || ((Creature) obj).isDead()))
+						{
+							continue;
+						}
+						if (Math.abs(obj.getZ() - oz) > height)
+						{
+							continue;
+						}
+						long dx = Math.abs(obj.getX() - ox);
+						if (dx > radius)
+						{
+							continue;
+						}
+						long dy = Math.abs(obj.getY() - oy);
+						if (dy > radius)
+						{
+							continue;
+						}
+						if (((dx * dx) + (dy * dy)) > sqrad)
+						{
+							continue;
+						}
+						if (!procedure.execute((T) obj))
+						{
+							return false;
+						}
+					}
+				}
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Method aroundMinX. First region column a radius query has to look at, never further than the neighbour regions.
+	 * @param region WorldRegion
+	 * @param x int
+	 * @param radius int
+	 * @return int
+	 */
+	private static int aroundMinX(WorldRegion region, int x, int radius)
+	{
+		return validX(Math.max(region.getX() - 1, regionX(x - Math.min(radius, MAX_AROUND_RADIUS))));
+	}
+	
+	/**
+	 * Method aroundMaxX.
+	 * @param region WorldRegion
+	 * @param x int
+	 * @param radius int
+	 * @return int
+	 */
+	private static int aroundMaxX(WorldRegion region, int x, int radius)
+	{
+		return validX(Math.min(region.getX() + 1, regionX(x + Math.min(radius, MAX_AROUND_RADIUS))));
+	}
+	
+	/**
+	 * Method aroundMinY.
+	 * @param region WorldRegion
+	 * @param y int
+	 * @param radius int
+	 * @return int
+	 */
+	private static int aroundMinY(WorldRegion region, int y, int radius)
+	{
+		return validY(Math.max(region.getY() - 1, regionY(y - Math.min(radius, MAX_AROUND_RADIUS))));
+	}
+	
+	/**
+	 * Method aroundMaxY.
+	 * @param region WorldRegion
+	 * @param y int
+	 * @param radius int
+	 * @return int
+	 */
+	private static int aroundMaxY(WorldRegion region, int y, int radius)
+	{
+		return validY(Math.min(region.getY() + 1, regionY(y + Math.min(radius, MAX_AROUND_RADIUS))));
+	}
+	
+	/**
+	 * Method aroundMinZ.
+	 * @param region WorldRegion
+	 * @param z int
+	 * @param height int
+	 * @return int
+	 */
+	private static int aroundMinZ(WorldRegion region, int z, int height)
+	{
+		return validZ(Math.max(region.getZ() - 1, regionZ(z - Math.min(height, MAX_AROUND_HEIGHT))));
+	}
+	
+	/**
+	 * Method aroundMaxZ.
+	 * @param region WorldRegion
+	 * @param z int
+	 * @param height int
+	 * @return int
+	 */
+	private static int aroundMaxZ(WorldRegion region, int z, int height)
+	{
+		return validZ(Math.min(region.getZ() + 1, regionZ(z + Math.min(height, MAX_AROUND_HEIGHT))));
+	}
+	
 	/**
 	 * Method isNeighbour.
 	 * @param x1 int
@@ -363,6 +921,7 @@ public class World
 		{
 			object.setCurrentRegion(region);
 			region.addObject(object);
+			_regionEnters.incrementAndGet();
 			for (int x = validX(region.getX() - 1); x <= validX(region.getX() + 1); x++)
 			{
 				for (int y = validY(region.getY() - 1); y <= validY(region.getY() + 1); y++)
@@ -379,6 +938,7 @@ public class World
 			currentRegion.removeObject(object);
 			object.setCurrentRegion(region);
 			region.addObject(object);
+			_regionChanges.incrementAndGet();
 			for (int x = validX(currentRegion.getX() - 1); x <= validX(currentRegion.getX() + 1); x++)
 			{
 				for (int y = validY(currentRegion.getY() - 1); y <= validY(currentRegion.getY() + 1); y++)
@@ -425,6 +985,7 @@ public class World
 		}
 		object.setCurrentRegion(null);
 		currentRegion.removeObject(object);
+		_regionLeaves.incrementAndGet();
 		for (int x = validX(currentRegion.getX() - 1); x <= validX(currentRegion.getX() + 1); x++)
 		{
 			for (int y = validY(currentRegion.getY() - 1); y <= validY(currentRegion.getY() + 1); y++)
@@ -525,11 +1086,14 @@ public class World
 		int oz = object.getZ();
 		int sqrad = radius * radius;
 		List<GameObject> result = new LazyArrayList<>(128);
-		for (int x = validX(currentRegion.getX() - 1); x <= validX(currentRegion.getX() + 1); x++)
+		int maxX = aroundMaxX(currentRegion, ox, radius);
+		int maxY = aroundMaxY(currentRegion, oy, radius);
+		int maxZ = aroundMaxZ(currentRegion, oz, height);
+		for (int x = aroundMinX(currentRegion, ox, radius); x <= maxX; x++)
 		{
-			for (int y = validY(currentRegion.getY() - 1); y <= validY(currentRegion.getY() + 1); y++)
+			for (int y = aroundMinY(currentRegion, oy, radius); y <= maxY; y++)
 			{
-				for (int z = validZ(currentRegion.getZ() - 1); z <= validZ(currentRegion.getZ() + 1); z++)
+				for (int z = aroundMinZ(currentRegion, oz, height); z <= maxZ; z++)
 				{
 					for (GameObject obj : getRegion(x, y, z))
 					{
@@ -619,11 +1183,14 @@ public class World
 		int oz = object.getZ();
 		int sqrad = radius * radius;
 		List<Creature> result = new LazyArrayList<>(64);
-		for (int x = validX(currentRegion.getX() - 1); x <= validX(currentRegion.getX() + 1); x++)
+		int maxX = aroundMaxX(currentRegion, ox, radius);
+		int maxY = aroundMaxY(currentRegion, oy, radius);
+		int maxZ = aroundMaxZ(currentRegion, oz, height);
+		for (int x = aroundMinX(currentRegion, ox, radius); x <= maxX; x++)
 		{
-			for (int y = validY(currentRegion.getY() - 1); y <= validY(currentRegion.getY() + 1); y++)
+			for (int y = aroundMinY(currentRegion, oy, radius); y <= maxY; y++)
 			{
-				for (int z = validZ(currentRegion.getZ() - 1); z <= validZ(currentRegion.getZ() + 1); z++)
+				for (int z = aroundMinZ(currentRegion, oz, height); z <= maxZ; z++)
 				{
 					for (GameObject obj : getRegion(x, y, z))
 					{
@@ -678,9 +1245,13 @@ public class World
 			{
 				for (int z = validZ(currentRegion.getZ() - 1); z <= validZ(currentRegion.getZ() + 1); z++)
 				{
-					for (GameObject obj : getRegion(x, y, z))
+					for (GameObject obj : getRegion(x, y, z).getNpcs())
 					{
-						if (!obj.isNpc() || (obj.getObjectId() == oid) || (obj.getReflectionId() != rid))
+						if (obj == null)
+						{
+							continue;
+						}
+						if ((obj.getObjectId() == oid) || (obj.getReflectionId() != rid))
 						{
 							continue;
 						}
@@ -713,15 +1284,22 @@ public class World
 		int oz = object.getZ();
 		int sqrad = radius * radius;
 		List<NpcInstance> result = new LazyArrayList<>(64);
-		for (int x = validX(currentRegion.getX() - 1); x <= validX(currentRegion.getX() + 1); x++)
+		int maxX = aroundMaxX(currentRegion, ox, radius);
+		int maxY = aroundMaxY(currentRegion, oy, radius);
+		int maxZ = aroundMaxZ(currentRegion, oz, height);
+		for (int x = aroundMinX(currentRegion, ox, radius); x <= maxX; x++)
 		{
-			for (int y = validY(currentRegion.getY() - 1); y <= validY(currentRegion.getY() + 1); y++)
+			for (int y = aroundMinY(currentRegion, oy, radius); y <= maxY; y++)
 			{
-				for (int z = validZ(currentRegion.getZ() - 1); z <= validZ(currentRegion.getZ() + 1); z++)
+				for (int z = aroundMinZ(currentRegion, oz, height); z <= maxZ; z++)
 				{
-					for (GameObject obj : getRegion(x, y, z))
+					for (GameObject obj : getRegion(x, y, z).getNpcs())
 					{
-						if (!obj.isNpc() || (obj.getObjectId() == oid) || (obj.getReflectionId() != rid))
+						if (obj == null)
+						{
+							continue;
+						}
+						if ((obj.getObjectId() == oid) || (obj.getReflectionId() != rid))
 						{
 							continue;
 						}
@@ -772,9 +1350,13 @@ public class World
 			{
 				for (int z = validZ(currentRegion.getZ() - 1); z <= validZ(currentRegion.getZ() + 1); z++)
 				{
-					for (GameObject obj : getRegion(x, y, z))
+					for (GameObject obj : getRegion(x, y, z).getPlayables())
 					{
-						if (!obj.isPlayable() || (obj.getObjectId() == oid) || (obj.getReflectionId() != rid))
+						if (obj == null)
+						{
+							continue;
+						}
+						if ((obj.getObjectId() == oid) || (obj.getReflectionId() != rid))
 						{
 							continue;
 						}
@@ -807,15 +1389,22 @@ public class World
 		int oz = object.getZ();
 		int sqrad = radius * radius;
 		List<Playable> result = new LazyArrayList<>(64);
-		for (int x = validX(currentRegion.getX() - 1); x <= validX(currentRegion.getX() + 1); x++)
+		int maxX = aroundMaxX(currentRegion, ox, radius);
+		int maxY = aroundMaxY(currentRegion, oy, radius);
+		int maxZ = aroundMaxZ(currentRegion, oz, height);
+		for (int x = aroundMinX(currentRegion, ox, radius); x <= maxX; x++)
 		{
-			for (int y = validY(currentRegion.getY() - 1); y <= validY(currentRegion.getY() + 1); y++)
+			for (int y = aroundMinY(currentRegion, oy, radius); y <= maxY; y++)
 			{
-				for (int z = validZ(currentRegion.getZ() - 1); z <= validZ(currentRegion.getZ() + 1); z++)
+				for (int z = aroundMinZ(currentRegion, oz, height); z <= maxZ; z++)
 				{
-					for (GameObject obj : getRegion(x, y, z))
+					for (GameObject obj : getRegion(x, y, z).getPlayables())
 					{
-						if (!obj.isPlayable() || (obj.getObjectId() == oid) || (obj.getReflectionId() != rid))
+						if (obj == null)
+						{
+							continue;
+						}
+						if ((obj.getObjectId() == oid) || (obj.getReflectionId() != rid))
 						{
 							continue;
 						}
@@ -866,9 +1455,13 @@ public class World
 			{
 				for (int z = validZ(currentRegion.getZ() - 1); z <= validZ(currentRegion.getZ() + 1); z++)
 				{
-					for (GameObject obj : getRegion(x, y, z))
+					for (GameObject obj : getRegion(x, y, z).getPlayers())
 					{
-						if (!obj.isPlayer() || (obj.getObjectId() == oid) || (obj.getReflectionId() != rid))
+						if (obj == null)
+						{
+							continue;
+						}
+						if ((obj.getObjectId() == oid) || (obj.getReflectionId() != rid))
 						{
 							continue;
 						}
@@ -901,15 +1494,22 @@ public class World
 		int oz = object.getZ();
 		int sqrad = radius * radius;
 		List<Player> result = new LazyArrayList<>(64);
-		for (int x = validX(currentRegion.getX() - 1); x <= validX(currentRegion.getX() + 1); x++)
+		int maxX = aroundMaxX(currentRegion, ox, radius);
+		int maxY = aroundMaxY(currentRegion, oy, radius);
+		int maxZ = aroundMaxZ(currentRegion, oz, height);
+		for (int x = aroundMinX(currentRegion, ox, radius); x <= maxX; x++)
 		{
-			for (int y = validY(currentRegion.getY() - 1); y <= validY(currentRegion.getY() + 1); y++)
+			for (int y = aroundMinY(currentRegion, oy, radius); y <= maxY; y++)
 			{
-				for (int z = validZ(currentRegion.getZ() - 1); z <= validZ(currentRegion.getZ() + 1); z++)
+				for (int z = aroundMinZ(currentRegion, oz, height); z <= maxZ; z++)
 				{
-					for (GameObject obj : getRegion(x, y, z))
+					for (GameObject obj : getRegion(x, y, z).getPlayers())
 					{
-						if (!obj.isPlayer() || (obj.getObjectId() == oid) || (obj.getReflectionId() != rid))
+						if (obj == null)
+						{
+							continue;
+						}
+						if ((obj.getObjectId() == oid) || (obj.getReflectionId() != rid))
 						{
 							continue;
 						}
@@ -1086,9 +1686,13 @@ public class World
 			{
 				for (int z = validZ(currentRegion.getZ() - 1); z <= validZ(currentRegion.getZ() + 1); z++)
 				{
-					for (GameObject obj : getRegion(x, y, z))
+					for (GameObject obj : getRegion(x, y, z).getPlayers())
 					{
-						if (!obj.isPlayer() || (obj.getObjectId() == oid) || (obj.getReflectionId() != rid))
+						if (obj == null)
+						{
+							continue;
+						}
+						if ((obj.getObjectId() == oid) || (obj.getReflectionId() != rid))
 						{
 							continue;
 						}
@@ -1176,19 +1780,7 @@ public class World
 	 */
 	public static void getZones(List<Zone> inside, Location loc, Reflection reflection)
 	{
-		WorldRegion region = getRegion(loc);
-		Zone[] zones = region.getZones();
-		if (zones.length == 0)
-		{
-			return;
-		}
-		for (Zone zone : zones)
-		{
-			if (zone.checkIfInZone(loc.x, loc.y, loc.z, reflection))
-			{
-				inside.add(zone);
-			}
-		}
+		getRegion(loc).getZoneCell(loc.x, loc.y).getZones(inside, loc.x, loc.y, loc.z, reflection);
 	}
 	
 	/**
@@ -1227,13 +1819,31 @@ public class World
 	}
 	
 	/**
-	 * Method getStats.
+	 * Method getStats. Region churn (ret[4] enters, ret[5] border changes, ret[6] leaves) is counted per second since the previous call.
 	 * @return int[]
 	 */
 	public static int[] getStats()
 	{
 		WorldRegion region;
 		int[] ret = new int[32];
+		synchronized (_churnSample)
+		{
+			long now = System.currentTimeMillis();
+			long enters = _regionEnters.get();
+			long changes = _regionChanges.get();
+			long leaves = _regionLeaves.get();
+			long elapsed = now - _churnSample[3];
+			if ((_churnSample[3] > 0) && (elapsed > 0))
+			{
+				ret[4] = (int) (((enters - _churnSample[0]) * 1000L) / elapsed);
+				ret[5] = (int) (((changes - _churnSample[1]) * 1000L) / elapsed);
+				ret[6] = (int) (((leaves - _churnSample[2]) * 1000L) / elapsed);
+			}
+			_churnSample[0] = enters;
+			_churnSample[1] = changes;
+			_churnSample[2] = leaves;
+			_churnSample[3] = now;
+		}
 		for (int x = 0; x <= REGIONS_X; x++)
 		{
 			for (int y = 0; y <= REGIONS_Y; y++)
@@ -1326,12 +1936,17 @@ public class World
 
 		List<NpcInstance> result = new ArrayList<NpcInstance>(64);
 
-		for (int x = validX(currentRegion.getX() - 1); x <= validX(currentRegion.getX() + 1); x++)
-			for (int y = validY(currentRegion.getY() - 1); y <= validY(currentRegion.getY() + 1); y++)
-				for (int z = validZ(currentRegion.getZ() - 1); z <= validZ(currentRegion.getZ() + 1); z++)
-					for (GameObject obj : getRegion(x, y, z))
+		int maxX = aroundMaxX(currentRegion, ox, radius);
+		int maxY = aroundMaxY(currentRegion, oy, radius);
+		int maxZ = aroundMaxZ(currentRegion, oz, height);
+		for (int x = aroundMinX(currentRegion, ox, radius); x <= maxX; x++)
+			for (int y = aroundMinY(currentRegion, oy, radius); y <= maxY; y++)
+				for (int z = aroundMinZ(currentRegion, oz, height); z <= maxZ; z++)
+					for (GameObject obj : getRegion(x, y, z).getNpcs())
 					{
-						if (!obj.isNpc() || obj.getReflectionId() != rid)
+						if (obj == null)
+							continue;
+						if (obj.getReflectionId() != rid)
 							continue;
 						if (Math.abs(obj.getZ() - oz) > height)
 							continue;
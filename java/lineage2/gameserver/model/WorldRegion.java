@@ -12,7 +12,9 @@
  */
 package lineage2.gameserver.model;
 
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.List;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -82,6 +84,103 @@ public final class WorldRegion implements Iterable<GameObject>
 		}
 	}
 	
+	/**
+	 * Amortized growth array, modified under the region lock and read without locking, readers skip empty slots. Removal empties the slot of the object and adding
+	 * fills the slot behind the last used one, objects are never moved within a published array, so a concurrent reader sees every object at most once. Only a full
+	 * or mostly empty array is compacted, into a new one.
+	 * @author Mobius
+	 */
+	private static final class ObjectArray
+	{
+		/**
+		 * Field INITIAL_CAPACITY. (value is 8)
+		 */
+		private static final int INITIAL_CAPACITY = 8;
+		/**
+		 * Field _array.
+		 */
+		volatile GameObject[] _array = GameObject.EMPTY_L2OBJECT_ARRAY;
+		/**
+		 * Field _size. Objects in the array.
+		 */
+		int _size = 0;
+		/**
+		 * Field _end. Slots used so far, emptied slots included.
+		 */
+		int _end = 0;
+		
+		/**
+		 * Method add.
+		 * @param obj GameObject
+		 */
+		void add(GameObject obj)
+		{
+			GameObject[] array = _array;
+			if (_end == array.length)
+			{
+				array = _size == _end ? Arrays.copyOf(array, Math.max(INITIAL_CAPACITY, _size * 2)) : compact(array, Math.max(INITIAL_CAPACITY, _size * 2));
+			}
+			array[_end++] = obj;
+			_size++;
+			_array = array;
+		}
+		
+		/**
+		 * Method compact.
+		 * @param array GameObject[]
+		 * @param capacity int
+		 * @return GameObject[] new array with the objects packed at its start
+		 */
+		private GameObject[] compact(GameObject[] array, int capacity)
+		{
+			GameObject[] result = new GameObject[capacity];
+			int end = 0;
+			for (int i = 0; i < _end; i++)
+			{
+				if (array[i] != null)
+				{
+					result[end++] = array[i];
+				}
+			}
+			_end = end;
+			return result;
+		}
+		
+		/**
+		 * Method remove.
+		 * @param obj GameObject
+		 * @return boolean
+		 */
+		boolean remove(GameObject obj)
+		{
+			GameObject[] array = _array;
+			int index = -1;
+			for (int i = 0; i < _end; i++)
+			{
+				if (array[i] == obj)
+				{
+					index = i;
+					break;
+				}
+			}
+			if (index == -1)
+			{
+				return false;
+			}
+			array[index] = null;
+			_size--;
+			if (index == (_end - 1))
+			{
+				_end--;
+			}
+			if ((array.length > INITIAL_CAPACITY) && (_size < (array.length / 4)))
+			{
+				_array = compact(array, array.length / 2);
+			}
+			return true;
+		}
+	}
+	
 	/**
 	 * Field tileZ. Field tileY. Field tileX.
 	 */
@@ -89,19 +188,27 @@ public final class WorldRegion implements Iterable<GameObject>
 	/**
 	 * Field _objects.
 	 */
-	private volatile GameObject[] _objects = GameObject.EMPTY_L2OBJECT_ARRAY;
+	private final ObjectArray _objects = new ObjectArray();
+	/**
+	 * Field _players.
+	 */
+	private final ObjectArray _players = new ObjectArray();
 	/**
-	 * Field _objectsCount.
+	 * Field _playables. Players included.
 	 */
-	private int _objectsCount = 0;
+	private final ObjectArray _playables = new ObjectArray();
+	/**
+	 * Field _npcs.
+	 */
+	private final ObjectArray _npcs = new ObjectArray();
 	/**
 	 * Field _zones.
 	 */
 	private volatile Zone[] _zones = Zone.EMPTY_L2ZONE_ARRAY;
 	/**
-	 * Field _playersCount.
+	 * Field _zoneGrid. Made again on the first lookup after the zones changed.
 	 */
-	private int _playersCount = 0;
+	private volatile ZoneGrid _zoneGrid;
 	/**
 	 * Field _isActive.
 	 */
@@ -166,9 +273,9 @@ public final class WorldRegion implements Iterable<GameObject>
 			return;
 		}
 		NpcInstance npc;
-		for (GameObject obj : this)
+		for (GameObject obj : _npcs._array)
 		{
-			if (!obj.isNpc())
+			if (obj == null)
 			{
 				continue;
 			}
@@ -210,8 +317,12 @@ public final class WorldRegion implements Iterable<GameObject>
 		int oid = object.getObjectId();
 		int rid = object.getReflectionId();
 		Player p;
-		for (GameObject obj : this)
+		for (GameObject obj : player != null ? _objects._array : _players._array)
 		{
+			if (obj == null)
+			{
+				continue;
+			}
 			if ((obj.getObjectId() == oid) || (obj.getReflectionId() != rid))
 			{
 				continue;
@@ -247,8 +358,12 @@ public final class WorldRegion implements Iterable<GameObject>
 		Reflection rid = object.getReflection();
 		Player p;
 		List<L2GameServerPacket> d = null;
-		for (GameObject obj : this)
+		for (GameObject obj : player != null ? _objects._array : _players._array)
 		{
+			if (obj == null)
+			{
+				continue;
+			}
 			if ((obj.getObjectId() == oid) || (obj.getReflection() != rid))
 			{
 				continue;
@@ -278,15 +393,19 @@ public final class WorldRegion implements Iterable<GameObject>
 		lock.lock();
 		try
 		{
-			GameObject[] objects = _objects;
-			GameObject[] resizedObjects = new GameObject[_objectsCount + 1];
-			System.arraycopy(objects, 0, resizedObjects, 0, _objectsCount);
-			objects = resizedObjects;
-			objects[_objectsCount++] = obj;
-			_objects = resizedObjects;
+			_objects.add(obj);
+			if (obj.isNpc())
+			{
+				_npcs.add(obj);
+			}
+			else if (obj.isPlayable())
+			{
+				_playables.add(obj);
+			}
 			if (obj.isPlayer())
 			{
-				if (_playersCount++ == 0)
+				_players.add(obj);
+				if (_players._size == 1)
 				{
 					if (_activateTask != null)
 					{
@@ -315,28 +434,22 @@ public final class WorldRegion implements Iterable<GameObject>
 		lock.lock();
 		try
 		{
-			GameObject[] objects = _objects;
-			int index = -1;
-			for (int i = 0; i < _objectsCount; i++)
+			if (!_objects.remove(obj))
 			{
-				if (objects[i] == obj)
-				{
-					index = i;
-					break;
-				}
+				return;
 			}
-			if (index == -1)
+			if (obj.isNpc())
 			{
-				return;
+				_npcs.remove(obj);
+			}
+			else if (obj.isPlayable())
+			{
+				_playables.remove(obj);
 			}
-			_objectsCount--;
-			GameObject[] resizedObjects = new GameObject[_objectsCount];
-			objects[index] = objects[_objectsCount];
-			System.arraycopy(objects, 0, resizedObjects, 0, _objectsCount);
-			_objects = resizedObjects;
 			if (obj.isPlayer())
 			{
-				if (--_playersCount == 0)
+				_players.remove(obj);
+				if (_players._size == 0)
 				{
 					if (_activateTask != null)
 					{
@@ -352,13 +465,49 @@ public final class WorldRegion implements Iterable<GameObject>
 		}
 	}
 	
+	/**
+	 * Method getObjects. Snapshot of the region content for allocation free scans, emptied slots are null and have to be skipped, never modify it.
+	 * @return GameObject[]
+	 */
+	GameObject[] getObjects()
+	{
+		return _objects._array;
+	}
+	
+	/**
+	 * Method getPlayers. Same contract as getObjects.
+	 * @return GameObject[]
+	 */
+	GameObject[] getPlayers()
+	{
+		return _players._array;
+	}
+	
+	/**
+	 * Method getPlayables. Same contract as getObjects, players included.
+	 * @return GameObject[]
+	 */
+	GameObject[] getPlayables()
+	{
+		return _playables._array;
+	}
+	
+	/**
+	 * Method getNpcs. Same contract as getObjects.
+	 * @return GameObject[]
+	 */
+	GameObject[] getNpcs()
+	{
+		return _npcs._array;
+	}
+	
 	/**
 	 * Method getObjectsSize.
 	 * @return int
 	 */
 	public int getObjectsSize()
 	{
-		return _objectsCount;
+		return _objects._size;
 	}
 	
 	/**
@@ -367,7 +516,7 @@ public final class WorldRegion implements Iterable<GameObject>
 	 */
 	public int getPlayersCount()
 	{
-		return _playersCount;
+		return _players._size;
 	}
 	
 	/**
@@ -376,7 +525,7 @@ public final class WorldRegion implements Iterable<GameObject>
 	 */
 	public boolean isEmpty()
 	{
-		return _playersCount == 0;
+		return _players._size == 0;
 	}
 	
 	/**
@@ -431,6 +580,28 @@ public final class WorldRegion implements Iterable<GameObject>
 		return _zones;
 	}
 	
+	/**
+	 * Method getZoneCell.
+	 * @param x int
+	 * @param y int
+	 * @return ZoneGrid.Cell zones of the region around the position
+	 */
+	ZoneGrid.Cell getZoneCell(int x, int y)
+	{
+		Zone[] zones = _zones;
+		if (zones.length == 0)
+		{
+			return ZoneGrid.EMPTY_CELL;
+		}
+		ZoneGrid grid = _zoneGrid;
+		if ((grid == null) || !grid.isMadeFrom(zones))
+		{
+			grid = new ZoneGrid(zones, (tileX - World.OFFSET_X) << World.SHIFT_BY, (tileY - World.OFFSET_Y) << World.SHIFT_BY, World.SHIFT_BY);
+			_zoneGrid = grid;
+		}
+		return grid.getCell(x, y);
+	}
+	
 	/**
 	 * Method toString.
 	 * @return String
@@ -448,7 +619,7 @@ public final class WorldRegion implements Iterable<GameObject>
 	@Override
 	public Iterator<GameObject> iterator()
 	{
-		return new InternalIterator(_objects);
+		return new InternalIterator(_objects._array);
 	}
 	
 	/**
@@ -464,6 +635,10 @@ public final class WorldRegion implements Iterable<GameObject>
 		 * Field cursor.
 		 */
 		int cursor = 0;
+		/**
+		 * Field next. Read ahead by hasNext, slots may be emptied meanwhile.
+		 */
+		GameObject next;
 		
 		/**
 		 * Constructor for InternalIterator.
@@ -481,11 +656,11 @@ public final class WorldRegion implements Iterable<GameObject>
 		@Override
 		public boolean hasNext()
 		{
-			if (cursor < objects.length)
+			while ((next == null) && (cursor < objects.length))
 			{
-				return objects[cursor] != null;
+				next = objects[cursor++];
 			}
-			return false;
+			return next != null;
 		}
 		
 		/**
@@ -495,7 +670,13 @@ public final class WorldRegion implements Iterable<GameObject>
 		@Override
 		public GameObject next()
 		{
-			return objects[cursor++];
+			if (!hasNext())
+			{
+				throw new NoSuchElementException();
+			}
+			GameObject obj = next;
+			next = null;
+			return obj;
 		}
 		
 		/**
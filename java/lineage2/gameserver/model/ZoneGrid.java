@@ -0,0 +1,358 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.gameserver.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import lineage2.commons.geometry.Polygon;
+import lineage2.commons.geometry.Rectangle;
+import lineage2.commons.geometry.Shape;
+import lineage2.gameserver.model.entity.Reflection;
+
+/**
+ * Splits a world region into {@link #CELLS} x {@link #CELLS} cells labelled with the zones of the region. A zone covers a cell fully when one of its shapes contains the whole cell and no other shape of its territory touches it, then only the shape heights decide. Zones crossing the cell are tested exactly, zones missing it are not listed.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+final class ZoneGrid
+{
+	/**
+	 * Field CELLS. Cells along one side of the region.
+	 */
+	private static final int CELLS = 16;
+	/**
+	 * Field OUT.
+	 */
+	private static final int OUT = 0;
+	/**
+	 * Field PARTIAL.
+	 */
+	private static final int PARTIAL = 1;
+	/**
+	 * Field FULL.
+	 */
+	private static final int FULL = 2;
+	/**
+	 * Field EMPTY_CELL.
+	 */
+	static final Cell EMPTY_CELL = new Cell(Zone.EMPTY_L2ZONE_ARRAY, new int[0], Zone.EMPTY_L2ZONE_ARRAY);
+	
+	/**
+	 * @author Mobius
+	 */
+	static final class Cell
+	{
+		/**
+		 * Field _full.
+		 */
+		private final Zone[] _full;
+		/**
+		 * Field _heights. Minimal and maximal height of each fully covering zone.
+		 */
+		private final int[] _heights;
+		/**
+		 * Field _partial.
+		 */
+		private final Zone[] _partial;
+		
+		/**
+		 * Constructor for Cell.
+		 * @param full Zone[]
+		 * @param heights int[]
+		 * @param partial Zone[]
+		 */
+		Cell(Zone[] full, int[] heights, Zone[] partial)
+		{
+			_full = full;
+			_heights = heights;
+			_partial = partial;
+		}
+		
+		/**
+		 * Method getMask. Two positions with the same mask in the same cell are inside the same zones.
+		 * @param z int
+		 * @return long bit per fully covering zone whose heights contain z, -1 when the cell has zones to test exactly
+		 */
+		long getMask(int z)
+		{
+			if ((_partial.length > 0) || (_full.length > 63))
+			{
+				return -1;
+			}
+			long mask = 0;
+			for (int i = 0; i < _full.length; i++)
+			{
+				if ((z >= _heights[i * 2]) && (z <= _heights[(i * 2) + 1]))
+				{
+					mask |= 1L << i;
+				}
+			}
+			return mask;
+		}
+		
+		/**
+		 * Method isInside.
+		 * @param zone Zone
+		 * @param x int
+		 * @param y int
+		 * @param z int
+		 * @param reflection Reflection
+		 * @return boolean same as {@link Zone#checkIfInZone(int, int, int, Reflection)} for a position in this cell
+		 */
+		boolean isInside(Zone zone, int x, int y, int z, Reflection reflection)
+		{
+			for (int i = 0; i < _full.length; i++)
+			{
+				if (_full[i] == zone)
+				{
+					return isInside(i, z, reflection);
+				}
+			}
+			for (Zone partial : _partial)
+			{
+				if (partial == zone)
+				{
+					return zone.checkIfInZone(x, y, z, reflection);
+				}
+			}
+			return false;
+		}
+		
+		/**
+		 * Method isInside.
+		 * @param i int index of a fully covering zone
+		 * @param z int
+		 * @param reflection Reflection
+		 * @return boolean
+		 */
+		private boolean isInside(int i, int z, Reflection reflection)
+		{
+			Zone zone = _full[i];
+			return zone.isActive() && (zone.getReflection() == reflection) && (z >= _heights[i * 2]) && (z <= _heights[(i * 2) + 1]);
+		}
+		
+		/**
+		 * Method getZones.
+		 * @param inside List<Zone> receives the zones containing the position
+		 * @param x int
+		 * @param y int
+		 * @param z int
+		 * @param reflection Reflection
+		 */
+		void getZones(List<Zone> inside, int x, int y, int z, Reflection reflection)
+		{
+			for (int i = 0; i < _full.length; i++)
+			{
+				if (isInside(i, z, reflection))
+				{
+					inside.add(_full[i]);
+				}
+			}
+			for (Zone zone : _partial)
+			{
+				if (zone.checkIfInZone(x, y, z, reflection))
+				{
+					inside.add(zone);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Field _zones. Zones of the region the grid was made from.
+	 */
+	private final Zone[] _zones;
+	/**
+	 * Field _minX.
+	 */
+	private final int _minX;
+	/**
+	 * Field _minY.
+	 */
+	private final int _minY;
+	/**
+	 * Field _shift. Cell size as power of two.
+	 */
+	private final int _shift;
+	/**
+	 * Field _cells. Equal cells share one instance.
+	 */
+	private final Cell[] _cells = new Cell[CELLS * CELLS];
+	/**
+	 * Field _outside. For positions out of the region, all zones are tested exactly.
+	 */
+	private final Cell _outside;
+	
+	/**
+	 * Constructor for ZoneGrid.
+	 * @param zones Zone[]
+	 * @param minX int
+	 * @param minY int
+	 * @param shift int region size as power of two
+	 */
+	ZoneGrid(Zone[] zones, int minX, int minY, int shift)
+	{
+		_zones = zones;
+		_minX = minX;
+		_minY = minY;
+		_shift = Math.max(0, shift - 4);
+		_outside = new Cell(Zone.EMPTY_L2ZONE_ARRAY, new int[0], zones);
+		Map<List<Object>, Cell> cells = new HashMap<>();
+		List<Zone> full = new ArrayList<>();
+		List<Zone> partial = new ArrayList<>();
+		List<Object> key = new ArrayList<>();
+		int size = 1 << _shift;
+		for (int i = 0; i < _cells.length; i++)
+		{
+			int xmin = minX + ((i / CELLS) << _shift);
+			int ymin = minY + ((i % CELLS) << _shift);
+			full.clear();
+			partial.clear();
+			key.clear();
+			for (Zone zone : zones)
+			{
+				Shape shape = getCoveringShape(zone.getTerritory(), xmin, ymin, (xmin + size) - 1, (ymin + size) - 1);
+				if (shape == null)
+				{
+					partial.add(zone);
+				}
+				else if (shape != zone.getTerritory())
+				{
+					full.add(zone);
+					key.add(shape);
+				}
+			}
+			key.addAll(full);
+			key.add(null);
+			key.addAll(partial);
+			Cell cell = cells.get(key);
+			if (cell == null)
+			{
+				int[] heights = new int[full.size() * 2];
+				for (int j = 0; j < full.size(); j++)
+				{
+					Shape shape = (Shape) key.get(j);
+					heights[j * 2] = shape.getZmin();
+					heights[(j * 2) + 1] = shape.getZmax();
+				}
+				cell = full.isEmpty() && partial.isEmpty() ? EMPTY_CELL : new Cell(full.toArray(new Zone[full.size()]), heights, partial.toArray(new Zone[partial.size()]));
+				cells.put(new ArrayList<>(key), cell);
+			}
+			_cells[i] = cell;
+		}
+	}
+	
+	/**
+	 * Method isMadeFrom.
+	 * @param zones Zone[]
+	 * @return boolean false when zones were added to or removed from the region since
+	 */
+	boolean isMadeFrom(Zone[] zones)
+	{
+		return _zones == zones;
+	}
+	
+	/**
+	 * Method getCell.
+	 * @param x int
+	 * @param y int
+	 * @return Cell
+	 */
+	Cell getCell(int x, int y)
+	{
+		int cellX = (x - _minX) >> _shift;
+		int cellY = (y - _minY) >> _shift;
+		if ((cellX < 0) || (cellX >= CELLS) || (cellY < 0) || (cellY >= CELLS))
+		{
+			return _outside;
+		}
+		return _cells[(cellX * CELLS) + cellY];
+	}
+	
+	/**
+	 * Method getCoveringShape.
+	 * @param territory Territory
+	 * @param xmin int
+	 * @param ymin int
+	 * @param xmax int
+	 * @param ymax int
+	 * @return Shape the only shape of the territory touching the cell when it contains the whole cell, the territory itself when it misses the cell, null when the cell has to be tested exactly
+	 */
+	private static Shape getCoveringShape(Territory territory, int xmin, int ymin, int xmax, int ymax)
+	{
+		if ((xmax < territory.getXmin()) || (xmin > territory.getXmax()) || (ymax < territory.getYmin()) || (ymin > territory.getYmax()))
+		{
+			return territory;
+		}
+		for (Shape shape : territory.getBannedTerritories())
+		{
+			if (getCoverage(shape, xmin, ymin, xmax, ymax) != OUT)
+			{
+				return null;
+			}
+		}
+		Shape covering = null;
+		for (Shape shape : territory.getTerritories())
+		{
+			int coverage = getCoverage(shape, xmin, ymin, xmax, ymax);
+			if (coverage == OUT)
+			{
+				continue;
+			}
+			if ((coverage == PARTIAL) || (covering != null))
+			{
+				return null;
+			}
+			covering = shape;
+		}
+		return covering == null ? territory : covering;
+	}
+	
+	/**
+	 * Method getCoverage.
+	 * @param shape Shape
+	 * @param xmin int
+	 * @param ymin int
+	 * @param xmax int
+	 * @param ymax int
+	 * @return int OUT, PARTIAL or FULL, PARTIAL for unknown shapes
+	 */
+	private static int getCoverage(Shape shape, int xmin, int ymin, int xmax, int ymax)
+	{
+		if (shape instanceof Rectangle)
+		{
+			if ((xmax < shape.getXmin()) || (xmin > shape.getXmax()) || (ymax < shape.getYmin()) || (ymin > shape.getYmax()))
+			{
+				return OUT;
+			}
+			if ((xmin >= shape.getXmin()) && (xmax <= shape.getXmax()) && (ymin >= shape.getYmin()) && (ymax <= shape.getYmax()))
+			{
+				return FULL;
+			}
+			return PARTIAL;
+		}
+		if (shape instanceof Polygon)
+		{
+			if (((Polygon) shape).isBorderInside(xmin - 1, ymin - 1, xmax + 1, ymax + 1))
+			{
+				return PARTIAL;
+			}
+			return shape.isInside(xmin + ((xmax - xmin) / 2), ymin + ((ymax - ymin) / 2)) ? FULL : OUT;
+		}
+		return PARTIAL;
+	}
+	
+}
\ No newline at end of file
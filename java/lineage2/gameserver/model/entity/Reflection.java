@@ -30,8 +30,8 @@ import lineage2.commons.listener.ListenerList;
 import lineage2.commons.threading.RunnableImpl;
 import lineage2.commons.util.Rnd;
 import lineage2.gameserver.ThreadPoolManager;
+import lineage2.gameserver.dao.VariablesStoreDAO;
 import lineage2.gameserver.data.xml.holder.NpcHolder;
-import lineage2.gameserver.database.mysql;
 import lineage2.gameserver.geodata.GeoEngine;
 import lineage2.gameserver.idfactory.IdFactory;
 import lineage2.gameserver.instancemanager.ReflectionManager;
@@ -1204,7 +1204,7 @@ public class Reflection
 					}
 					else
 					{
-						mysql.set("REPLACE INTO character_instances (obj_id, id, reuse) VALUES (?,?,?)", objectId, getInstancedZoneId(), time);
+						VariablesStoreDAO.getInstance().setInstanceReuse(objectId, getInstancedZoneId(), time);
 					}
 				}
 				catch (Exception e)
@@ -393,6 +393,7 @@ public abstract class Inventory extends ItemContainer
 		item.setJdbcState(JdbcEntityState.UPDATED);
 		sendModifyItem(item);
 		_wearedMask |= item.getTemplate().getItemMask();
+		getActor().invalidateStatCache();
 	}
 	
 	/**
@@ -410,6 +411,7 @@ public abstract class Inventory extends ItemContainer
 		item.setChargedSoulshot(ItemInstance.CHARGED_NONE);
 		sendModifyItem(item);
 		_wearedMask &= ~item.getTemplate().getItemMask();
+		getActor().invalidateStatCache();
 		_listeners.onUnequip(slot, item);
 	}
 	
@@ -381,6 +381,15 @@ public final class ItemInstance extends GameObject implements JdbcEntity
 		
 		this.enchantLevel = enchantLevel;
 		
+		if ((old != this.enchantLevel) && isEquipped())
+		{
+			GameObject owner = GameObjectsStorage.findObject(ownerId);
+			if ((owner != null) && owner.isCreature())
+			{
+				((Creature) owner).invalidateStatCache();
+			}
+		}
+		
 		if ((old != this.enchantLevel) && (getTemplate().getEnchantOptions().size() > 0))
 		{
 			Player player = GameObjectsStorage.getPlayer(ownerId);
@@ -26,6 +26,7 @@ import lineage2.commons.dbutils.DbUtils;
 import lineage2.gameserver.Config;
 import lineage2.gameserver.cache.CrestCache;
 import lineage2.gameserver.cache.Msg;
+import lineage2.gameserver.dao.CharacterStoreDAO;
 import lineage2.gameserver.data.xml.holder.ResidenceHolder;
 import lineage2.gameserver.database.DatabaseFactory;
 import lineage2.gameserver.database.mysql;
@@ -783,6 +784,7 @@ public class Clan implements Iterable<UnitMember>
 		PreparedStatement statement = null;
 		try
 		{
+			CharacterStoreDAO.getInstance().flush(getLeaderId());
 			con = DatabaseFactory.getInstance().getConnection();
 			statement = con.prepareStatement("INSERT INTO clan_data (clan_id,clan_level,hasCastle,hasFortress,hasHideout,ally_id,expelled_member,leaved_ally,dissolved_ally,airship) values (?,?,?,?,?,?,?,?,?,?)");
 			statement.setInt(1, _clanId);
@@ -18,6 +18,7 @@ import java.sql.ResultSet;
 import java.util.Collection;
 
 import lineage2.commons.dbutils.DbUtils;
+import lineage2.gameserver.dao.CharacterStoreDAO;
 import lineage2.gameserver.database.DatabaseFactory;
 import lineage2.gameserver.model.Player;
 import lineage2.gameserver.model.Skill;
@@ -477,6 +478,7 @@ public class SubUnit
 		PreparedStatement statement = null;
 		try
 		{
+			CharacterStoreDAO.getInstance().flush(member.getObjectId());
 			con = DatabaseFactory.getInstance().getConnection();
 			statement = con.prepareStatement("UPDATE characters SET clanid=0, pledge_type=?, pledge_rank=0, lvl_joined_academy=0, apprentice=0, title='', leaveclan=? WHERE obj_Id=?");
 			statement.setInt(1, Clan.SUBUNIT_NONE);
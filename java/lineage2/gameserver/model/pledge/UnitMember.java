@@ -16,6 +16,7 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 
 import lineage2.commons.dbutils.DbUtils;
+import lineage2.gameserver.dao.CharacterStoreDAO;
 import lineage2.gameserver.database.DatabaseFactory;
 import lineage2.gameserver.model.Player;
 import lineage2.gameserver.network.serverpackets.NickNameChanged;
@@ -263,6 +264,7 @@ public class UnitMember
 			PreparedStatement statement = null;
 			try
 			{
+				CharacterStoreDAO.getInstance().flush(getObjectId());
 				con = DatabaseFactory.getInstance().getConnection();
 				statement = con.prepareStatement("UPDATE characters SET title=? WHERE obj_Id=?");
 				statement.setString(1, title);
@@ -326,6 +328,7 @@ public class UnitMember
 		PreparedStatement statement = null;
 		try
 		{
+			CharacterStoreDAO.getInstance().flush(getObjectId());
 			con = DatabaseFactory.getInstance().getConnection();
 			statement = con.prepareStatement("UPDATE characters SET pledge_type=? WHERE obj_Id=?");
 			statement.setInt(1, _pledgeType);
@@ -400,6 +403,7 @@ public class UnitMember
 		PreparedStatement statement = null;
 		try
 		{
+			CharacterStoreDAO.getInstance().flush(getObjectId());
 			con = DatabaseFactory.getInstance().getConnection();
 			statement = con.prepareStatement("UPDATE characters SET pledge_rank=? WHERE obj_Id=?");
 			statement.setInt(1, _powerGrade);
@@ -453,6 +457,7 @@ public class UnitMember
 		PreparedStatement statement = null;
 		try
 		{
+			CharacterStoreDAO.getInstance().flush(getObjectId());
 			con = DatabaseFactory.getInstance().getConnection();
 			statement = con.prepareStatement("UPDATE characters SET apprentice=? WHERE obj_Id=?");
 			statement.setInt(1, _apprentice);
@@ -30,6 +30,7 @@ import lineage2.commons.threading.RunnableImpl;
 import lineage2.commons.util.TroveUtils;
 import lineage2.gameserver.Config;
 import lineage2.gameserver.ThreadPoolManager;
+import lineage2.gameserver.dao.VariablesStoreDAO;
 import lineage2.gameserver.data.xml.holder.ItemHolder;
 import lineage2.gameserver.data.xml.holder.NpcHolder;
 import lineage2.gameserver.database.DatabaseFactory;
@@ -255,26 +256,7 @@ public class Quest
 		{
 			return;
 		}
-		Connection con = null;
-		PreparedStatement statement = null;
-		try
-		{
-			con = DatabaseFactory.getInstance().getConnection();
-			statement = con.prepareStatement("REPLACE INTO character_quests (char_id,name,var,value) VALUES (?,?,?,?)");
-			statement.setInt(1, qs.getPlayer().getObjectId());
-			statement.setString(2, qs.getQuest().getName());
-			statement.setString(3, var);
-			statement.setString(4, value);
-			statement.executeUpdate();
-		}
-		catch (Exception e)
-		{
-			_log.error("could not insert char quest:", e);
-		}
-		finally
-		{
-			DbUtils.closeQuietly(con, statement);
-		}
+		VariablesStoreDAO.getInstance().setQuestVariable(player.getObjectId(), qs.getQuest().getName(), var, value);
 	}
 	
 	/**
@@ -283,24 +265,7 @@ public class Quest
 	 */
 	public static void deleteQuestInDb(QuestState qs)
 	{
-		Connection con = null;
-		PreparedStatement statement = null;
-		try
-		{
-			con = DatabaseFactory.getInstance().getConnection();
-			statement = con.prepareStatement("DELETE FROM character_quests WHERE char_id=? AND name=?");
-			statement.setInt(1, qs.getPlayer().getObjectId());
-			statement.setString(2, qs.getQuest().getName());
-			statement.executeUpdate();
-		}
-		catch (Exception e)
-		{
-			_log.error("could not delete char quest:", e);
-		}
-		finally
-		{
-			DbUtils.closeQuietly(con, statement);
-		}
+		VariablesStoreDAO.getInstance().deleteQuest(qs.getPlayer().getObjectId(), qs.getQuest().getName());
 	}
 	
 	/**
@@ -310,25 +275,7 @@ public class Quest
 	 */
 	public static void deleteQuestVarInDb(QuestState qs, String var)
 	{
-		Connection con = null;
-		PreparedStatement statement = null;
-		try
-		{
-			con = DatabaseFactory.getInstance().getConnection();
-			statement = con.prepareStatement("DELETE FROM character_quests WHERE char_id=? AND name=? AND var=?");
-			statement.setInt(1, qs.getPlayer().getObjectId());
-			statement.setString(2, qs.getQuest().getName());
-			statement.setString(3, var);
-			statement.executeUpdate();
-		}
-		catch (Exception e)
-		{
-			_log.error("could not delete char quest:", e);
-		}
-		finally
-		{
-			DbUtils.closeQuietly(con, statement);
-		}
+		VariablesStoreDAO.getInstance().deleteQuestVariable(qs.getPlayer().getObjectId(), qs.getQuest().getName(), var);
 	}
 	
 	/**
@@ -24,6 +24,7 @@ import lineage2.commons.net.nio.impl.MMOConnection;
 import lineage2.gameserver.Config;
 import lineage2.gameserver.cache.Msg;
 import lineage2.gameserver.dao.CharacterDAO;
+import lineage2.gameserver.dao.CharacterStoreDAO;
 import lineage2.gameserver.database.DatabaseFactory;
 import lineage2.gameserver.model.CharSelectionInfo;
 import lineage2.gameserver.model.CharSelectionInfo.CharSelectInfoPackage;
@@ -144,6 +145,7 @@ public final class GameClient extends MMOClient<MMOConnection<GameClient>>
 		PreparedStatement statement = null;
 		try
 		{
+			CharacterStoreDAO.getInstance().flush(objid);
 			con = DatabaseFactory.getInstance().getConnection();
 			statement = con.prepareStatement("UPDATE characters SET deletetime=0 WHERE obj_id=?");
 			statement.setInt(1, objid);
@@ -178,6 +180,7 @@ public final class GameClient extends MMOClient<MMOConnection<GameClient>>
 		PreparedStatement statement = null;
 		try
 		{
+			CharacterStoreDAO.getInstance().flush(objid);
 			con = DatabaseFactory.getInstance().getConnection();
 			statement = con.prepareStatement("UPDATE characters SET deletetime=? WHERE obj_id=?");
 			statement.setLong(1, (int) (System.currentTimeMillis() / 1000L));
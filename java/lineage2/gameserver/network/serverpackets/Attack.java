@@ -86,6 +86,12 @@ public class Attack extends L2GameServerPacket
 		return hits.length > 0;
 	}
 
+	@Override
+	protected boolean isSharedPayload()
+	{
+		return true;
+	}
+
 	@Override
 	protected final void writeImpl()
 	{
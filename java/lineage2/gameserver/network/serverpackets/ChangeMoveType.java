@@ -21,6 +21,12 @@ public class ChangeMoveType extends L2GameServerPacket
 		_running = cha.isRunning();
 	}
 
+	@Override
+	protected boolean isSharedPayload()
+	{
+		return true;
+	}
+
 	@Override
 	protected final void writeImpl()
 	{
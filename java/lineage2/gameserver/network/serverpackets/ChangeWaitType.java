@@ -27,6 +27,12 @@ public class ChangeWaitType extends L2GameServerPacket
 		_z = cha.getZ();
 	}
 
+	@Override
+	protected boolean isSharedPayload()
+	{
+		return true;
+	}
+
 	@Override
 	protected final void writeImpl()
 	{
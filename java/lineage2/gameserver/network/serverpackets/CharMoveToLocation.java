@@ -35,6 +35,12 @@ public class CharMoveToLocation extends L2GameServerPacket
 		_destination = to;
 	}
 
+	@Override
+	protected boolean isSharedPayload()
+	{
+		return true;
+	}
+
 	@Override
 	protected final void writeImpl()
 	{
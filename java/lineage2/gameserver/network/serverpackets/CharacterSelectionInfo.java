@@ -6,7 +6,8 @@ import java.sql.ResultSet;
 
 import lineage2.commons.dbutils.DbUtils;
 import lineage2.gameserver.Config;
-import lineage2.gameserver.dao.CharacterDAO;
+import lineage2.gameserver.dao.CharacterDAO;
+import lineage2.gameserver.dao.CharacterStoreDAO;
 import lineage2.gameserver.database.DatabaseFactory;
 import lineage2.gameserver.model.CharSelectionInfo;
 import lineage2.gameserver.model.CharSelectionInfo.CharSelectInfoPackage;
@@ -159,6 +160,7 @@ public class CharacterSelectionInfo extends L2GameServerPacket
 		Connection con = null;
 		PreparedStatement statement = null;
 		ResultSet rset = null;
+		CharacterStoreDAO.getInstance().flushAccount(loginName);
 		try
 		{
 			con = DatabaseFactory.getInstance().getConnection();
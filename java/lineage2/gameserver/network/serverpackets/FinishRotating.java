@@ -13,6 +13,12 @@ public class FinishRotating extends L2GameServerPacket
 		_speed = speed;
 	}
 
+	@Override
+	protected boolean isSharedPayload()
+	{
+		return true;
+	}
+
 	@Override
 	protected final void writeImpl()
 	{
@@ -27,6 +27,12 @@ public class FlyToLocation extends L2GameServerPacket
 		_speed = speed;
 	}
 
+	@Override
+	protected boolean isSharedPayload()
+	{
+		return true;
+	}
+
 	@Override
 	protected void writeImpl()
 	{
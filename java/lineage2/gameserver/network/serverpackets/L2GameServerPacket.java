@@ -1,6 +1,9 @@
 package lineage2.gameserver.network.serverpackets;
 
+import java.nio.ByteBuffer;
+
 import lineage2.commons.net.nio.impl.SendablePacket;
+import lineage2.gameserver.Config;
 import lineage2.gameserver.GameServer;
 import lineage2.gameserver.data.xml.holder.ItemHolder;
 import lineage2.gameserver.model.Player;
@@ -18,8 +21,44 @@ public abstract class L2GameServerPacket extends SendablePacket<GameClient> impl
 {
 	private static final Logger _log = LoggerFactory.getLogger(L2GameServerPacket.class);
 
+	private static final ThreadLocal<ByteBuffer> SHARED_PAYLOAD_BUFFER = new ThreadLocal<ByteBuffer>()
+	{
+		@Override
+		protected ByteBuffer initialValue()
+		{
+			return ByteBuffer.allocate(Config.SELECTOR_CONFIG.WRITE_BUFFER_SIZE).order(Config.SELECTOR_CONFIG.BYTE_ORDER);
+		}
+	};
+
+	private volatile byte[] _sharedPayload;
+	private boolean _sharedPayloadFailed;
+	/** Buffer writeImpl() goes to while the shared payload is serialized, only set under the packet lock */
+	private ByteBuffer _payloadBuffer;
+
 	@Override
 	public final boolean write()
+	{
+		if (isSharedPayload())
+		{
+			// only a broadcast builds the shared payload, a single recipient is written directly
+			byte[] payload = _sharedPayload;
+			if (payload == null)
+			{
+				synchronized (this)
+				{
+					payload = _sharedPayload;
+					if (payload == null)
+						return writeDirect();
+				}
+			}
+			super.getByteBuffer().put(payload);
+			return true;
+		}
+
+		return writeDirect();
+	}
+
+	private boolean writeDirect()
 	{
 		try
 		{
@@ -35,6 +74,62 @@ public abstract class L2GameServerPacket extends SendablePacket<GameClient> impl
 
 	protected abstract void writeImpl();
 
+	/**
+	 * Packets whose writeImpl() depends only on the packet itself (never on getClient() or the receiving player) may return true.
+	 * When broadcast to more than one player their body is then serialized once and every recipient connection only copies and encrypts it.
+	 * The packet must not be modified after it was sent for the first time.
+	 */
+	protected boolean isSharedPayload()
+	{
+		return false;
+	}
+
+	/**
+	 * @return plain body of a shared payload packet, serialized on the first call, or null if the packet can not be shared
+	 */
+	public final byte[] getSharedPayload()
+	{
+		byte[] payload = _sharedPayload;
+		if (payload != null || !isSharedPayload())
+			return payload;
+
+		synchronized (this)
+		{
+			if (_sharedPayload != null || _sharedPayloadFailed)
+				return _sharedPayload;
+
+			ByteBuffer buf = SHARED_PAYLOAD_BUFFER.get();
+			buf.clear();
+			_payloadBuffer = buf;
+			try
+			{
+				writeImpl();
+				payload = new byte[buf.position()];
+				buf.flip();
+				buf.get(payload);
+				_sharedPayload = payload;
+			}
+			catch (Exception e)
+			{
+				// fall back to the per connection writeImpl()
+				_sharedPayloadFailed = true;
+				_log.warn("Failed to share payload of " + getType() + ", writing it per client", e);
+			}
+			finally
+			{
+				_payloadBuffer = null;
+			}
+		}
+		return payload;
+	}
+
+	@Override
+	protected ByteBuffer getByteBuffer()
+	{
+		ByteBuffer buf = _payloadBuffer;
+		return buf != null ? buf : super.getByteBuffer();
+	}
+
 	protected void writeEx(int value)
 	{
 		writeC(0xFE);
@@ -10,6 +10,12 @@ public class MagicSkillCanceled extends L2GameServerPacket
 		_objectId = objectId;
 	}
 
+	@Override
+	protected boolean isSharedPayload()
+	{
+		return true;
+	}
+
 	@Override
 	protected final void writeImpl()
 	{
@@ -28,6 +28,12 @@ public class MagicSkillLaunched extends L2GameServerPacket
 		_targets = targets;
 	}
 
+	@Override
+	protected boolean isSharedPayload()
+	{
+		return true;
+	}
+
 	@Override
 	protected final void writeImpl()
 	{
@@ -67,6 +67,12 @@ public class MagicSkillUse extends L2GameServerPacket
 		_isDoubleCasting = false;
 	}
 
+	@Override
+	protected boolean isSharedPayload()
+	{
+		return true;
+	}
+	
 	@Override
 	protected final void writeImpl()
 	{
@@ -20,6 +20,12 @@ public class MoveToPawn extends L2GameServerPacket
 		_tz = target.getZ();
 	}
 
+	@Override
+	protected boolean isSharedPayload()
+	{
+		return true;
+	}
+
 	@Override
 	protected final void writeImpl()
 	{
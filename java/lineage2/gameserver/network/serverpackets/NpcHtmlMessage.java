@@ -1,6 +1,7 @@
 package lineage2.gameserver.network.serverpackets;
 
 import lineage2.gameserver.data.htm.HtmCache;
+import lineage2.gameserver.data.htm.HtmTemplate;
 import lineage2.gameserver.model.Player;
 import lineage2.gameserver.model.instances.NpcInstance;
 import lineage2.gameserver.network.serverpackets.components.NpcString;
@@ -14,7 +15,6 @@ import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 /**
@@ -30,12 +30,24 @@ public class NpcHtmlMessage extends L2GameServerPacket
 	protected static final Logger _log = LoggerFactory.getLogger(NpcHtmlMessage.class);
 	protected static final Pattern objectId = Pattern.compile("%objectId%");
 	protected static final Pattern playername = Pattern.compile("%playername%");
+	// страница собирается в буфер потока, отправляющего пакет
+	private static final ThreadLocal<StringBuilder> renderBuffer = new ThreadLocal<StringBuilder>()
+	{
+		@Override
+		protected StringBuilder initialValue()
+		{
+			return new StringBuilder(4096);
+		}
+	};
 
 	protected int _npcObjId;
 	protected String _html;
 	protected String _file = null;
 	protected List<String> _replaces = new ArrayList<String>();
 	protected boolean have_appends = false;
+	protected String _append = null;
+	private Player _renderedFor;
+	private String _renderedHtml;
 
 	public NpcHtmlMessage(Player player, int npcId, String filename, int val)
 	{
@@ -60,7 +72,7 @@ public class NpcHtmlMessage extends L2GameServerPacket
 			}
 
 			if (!replaces.equals(""))
-				replace("</body>", "\n" + Strings.bbParse(replaces) + "</body>");
+				_append = "\n" + Strings.bbParse(replaces);
 		}
 		else
 			setFile(filename);
@@ -140,44 +152,95 @@ public class NpcHtmlMessage extends L2GameServerPacket
 		return this;
 	}
 
+	// страница собирается в потоке, отправляющем пакет, а не в потоке селектора
 	@Override
-	protected void writeImpl()
+	public L2GameServerPacket packet(Player player)
+	{
+		if (player != null && _renderedFor != player)
+			render(player);
+		return this;
+	}
+
+	protected final String getRenderedHtml()
 	{
 		Player player = getClient().getActiveChar();
 		if (player == null)
-			return;
+			return null;
+		if (_renderedFor != player)
+			render(player);
+		return _renderedHtml;
+	}
+
+	protected void render(Player player)
+	{
+		_renderedFor = player;
+		_renderedHtml = null;
 
-		if (_file != null) // TODO может быть не очень хорошо здесь это
-		                   // делать...
+		HtmTemplate template = null;
+		if (_file != null)
 		{
 			if (player.isGM())
 				Functions.sendDebugMessage(player, "HTML: " + _file);
-			String content = HtmCache.getInstance().getNotNull(_file, player);
-			String content2 = HtmCache.getInstance().getNullable(_file, player);
-			if (content2 == null)
-				setHtml(have_appends && _file.endsWith(".htm") ? "" : content);
+			template = HtmCache.getInstance().getTemplate(_file, player);
+			if (template == null)
+				setHtml(have_appends && _file.endsWith(".htm") ? "" : HtmCache.getInstance().getNotNull(_file, player));
+			else if (template.isDocument())
+				_html = template.getHtml();
 			else
-				setHtml(content);
+			{
+				setHtml(template.getHtml());
+				template = null;
+			}
 		}
 
-		for (int i = 0; i < _replaces.size(); i += 2)
-			_html = _html.replace(_replaces.get(i), _replaces.get(i + 1));
-
 		if (_html == null)
 			return;
 
-		Matcher m = objectId.matcher(_html);
-		if (m != null)
-			_html = m.replaceAll(String.valueOf(_npcObjId));
+		if (template == null)
+			template = new HtmTemplate(_html);
 
-		_html = playername.matcher(_html).replaceAll(player.getName());
+		String npcObjId = String.valueOf(_npcObjId);
+		String html;
+		StringBuilder sb = renderBuffer.get();
+		sb.setLength(0);
+		if (canRender() && template.render(sb, _append == null ? null : new HtmTemplate(_append), _replaces, npcObjId, player.getName()))
+			html = sb.toString();
+		else
+		{
+			// замены по одной, если они могут влиять друг на друга
+			html = _html;
+			if (_append != null)
+				html = html.replace("</body>", _append + "</body>");
+			for (int i = 0; i < _replaces.size(); i += 2)
+				html = applyReplace(html, _replaces.get(i), _replaces.get(i + 1));
+			html = objectId.matcher(html).replaceAll(npcObjId);
+			html = playername.matcher(html).replaceAll(player.getName());
+		}
 
 		player.cleanBypasses(false);
-		_html = player.encodeBypasses(_html, false);
+		_renderedHtml = player.encodeBypasses(html, false);
+	}
+
+	protected boolean canRender()
+	{
+		return true;
+	}
+
+	protected String applyReplace(String html, String pattern, String value)
+	{
+		return html.replace(pattern, value);
+	}
+
+	@Override
+	protected void writeImpl()
+	{
+		String html = getRenderedHtml();
+		if (html == null)
+			return;
 
 		writeC(0x19);
 		writeD(_npcObjId);
-		writeS(_html);
+		writeS(html);
 		writeD(0x00);
 	}
 }
\ No newline at end of file
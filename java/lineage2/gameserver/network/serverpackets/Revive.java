@@ -16,6 +16,12 @@ public class Revive extends L2GameServerPacket
 		_objectId = obj.getObjectId();
 	}
 
+	@Override
+	protected boolean isSharedPayload()
+	{
+		return true;
+	}
+
 	@Override
 	protected final void writeImpl()
 	{
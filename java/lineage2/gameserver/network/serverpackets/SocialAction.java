@@ -34,6 +34,12 @@ public class SocialAction extends L2GameServerPacket
 		_actionId = actionId;
 	}
 
+	@Override
+	protected boolean isSharedPayload()
+	{
+		return true;
+	}
+
 	@Override
 	protected final void writeImpl()
 	{
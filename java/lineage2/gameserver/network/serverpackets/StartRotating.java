@@ -14,6 +14,12 @@ public class StartRotating extends L2GameServerPacket
 		_speed = speed;
 	}
 
+	@Override
+	protected boolean isSharedPayload()
+	{
+		return true;
+	}
+
 	@Override
 	protected final void writeImpl()
 	{
@@ -22,6 +22,12 @@ public class StopMove extends L2GameServerPacket
 		_heading = cha.getHeading();
 	}
 
+	@Override
+	protected boolean isSharedPayload()
+	{
+		return true;
+	}
+
 	@Override
 	protected final void writeImpl()
 	{
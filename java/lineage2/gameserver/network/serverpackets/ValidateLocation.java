@@ -18,6 +18,12 @@ public class ValidateLocation extends L2GameServerPacket
 		_loc = cha.getLoc();
 	}
 
+	@Override
+	protected boolean isSharedPayload()
+	{
+		return true;
+	}
+
 	@Override
 	protected final void writeImpl()
 	{
@@ -27,14 +27,17 @@ import lineage2.commons.net.nio.impl.SelectorThread;
 import lineage2.commons.threading.RunnableStatsManager;
 import lineage2.gameserver.Config;
 import lineage2.gameserver.ThreadPoolManager;
+import lineage2.gameserver.dao.CharacterStoreDAO;
 import lineage2.gameserver.dao.ItemsDAO;
 import lineage2.gameserver.dao.MailDAO;
+import lineage2.gameserver.dao.VariablesStoreDAO;
 import lineage2.gameserver.database.DatabaseFactory;
 import lineage2.gameserver.geodata.PathFindBuffers;
 import lineage2.gameserver.network.telnet.TelnetCommand;
 import lineage2.gameserver.network.telnet.TelnetCommandHolder;
 import lineage2.gameserver.taskmanager.AiTaskManager;
 import lineage2.gameserver.taskmanager.EffectTaskManager;
+import lineage2.gameserver.taskmanager.MoveTaskManager;
 import lineage2.gameserver.utils.GameStats;
 import net.sf.ehcache.Cache;
 import net.sf.ehcache.statistics.LiveCacheStatistics;
@@ -95,6 +98,37 @@ public class TelnetPerfomance implements TelnetCommandHolder
 				return sb.toString();
 			}
 		});
+		_commands.add(new TelnetCommand("runstats", "rs")
+		{
+			@Override
+			public String getUsage()
+			{
+				return "runstats [packets] <count>";
+			}
+			
+			@Override
+			public String handle(String[] args)
+			{
+				if (!RunnableStatsManager.getInstance().isEnabled())
+				{
+					return "Runnable stats are disabled, see EnableRunnableStats.\n";
+				}
+				boolean packets = (args.length > 0) && (args[0].equals("packets") || args[0].equals("p"));
+				int count = 20;
+				try
+				{
+					if ((args.length > (packets ? 1 : 0)) && !args[packets ? 1 : 0].isEmpty())
+					{
+						count = Integer.parseInt(args[packets ? 1 : 0]);
+					}
+				}
+				catch (NumberFormatException e)
+				{
+					return null;
+				}
+				return RunnableStatsManager.getInstance().getWindowStats(packets, count).toString();
+			}
+		});
 		_commands.add(new TelnetCommand("mem", "m")
 		{
 			@Override
@@ -219,6 +253,22 @@ public class TelnetPerfomance implements TelnetCommandHolder
 				return sb.toString();
 			}
 		});
+		_commands.add(new TelnetCommand("move", "mv")
+		{
+			@Override
+			public String getUsage()
+			{
+				return "move";
+			}
+			
+			@Override
+			public String handle(String[] args)
+			{
+				StringBuilder sb = new StringBuilder();
+				sb.append(MoveTaskManager.getInstance().getStats());
+				return sb.toString();
+			}
+		});
 		_commands.add(new TelnetCommand("pathfind", "pfs")
 		{
 			@Override
@@ -254,6 +304,9 @@ public class TelnetPerfomance implements TelnetCommandHolder
 				sb.append("     Idle: ........................ ").append(DatabaseFactory.getInstance().getIdleConnectionCount()).append('\n');
 				sb.append("Players").append('\n');
 				sb.append("     Update: ...................... ").append(GameStats.getUpdatePlayerBase()).append('\n');
+				sb.append(CharacterStoreDAO.getInstance().getStats());
+				sb.append("Variables").append('\n');
+				sb.append(VariablesStoreDAO.getInstance().getStats());
 				double cacheHitCount, cacheMissCount, cacheHitRatio;
 				Cache cache;
 				LiveCacheStatistics cacheStats;
@@ -269,6 +322,8 @@ public class TelnetPerfomance implements TelnetCommandHolder
 				sb.append("     getInsertCount: .............. ").append(entityStats.getInsertCount()).append('\n');
 				sb.append("     getUpdateCount: .............. ").append(entityStats.getUpdateCount()).append('\n');
 				sb.append("     getDeleteCount: .............. ").append(entityStats.getDeleteCount()).append('\n');
+				sb.append("     getBatchCount: ............... ").append(entityStats.getBatchCount()).append('\n');
+				sb.append("     rowsPerBatch: ................ ").append(entityStats.getBatchCount() == 0 ? 0 : entityStats.getBatchRowCount() / entityStats.getBatchCount()).append('\n');
 				sb.append("Cache").append('\n');
 				sb.append("     getPutCount: ................. ").append(cacheStats.getPutCount()).append('\n');
 				sb.append("     getUpdateCount: .............. ").append(cacheStats.getUpdateCount()).append('\n');
@@ -291,6 +346,8 @@ public class TelnetPerfomance implements TelnetCommandHolder
 				sb.append("     getInsertCount: .............. ").append(entityStats.getInsertCount()).append('\n');
 				sb.append("     getUpdateCount: .............. ").append(entityStats.getUpdateCount()).append('\n');
 				sb.append("     getDeleteCount: .............. ").append(entityStats.getDeleteCount()).append('\n');
+				sb.append("     getBatchCount: ............... ").append(entityStats.getBatchCount()).append('\n');
+				sb.append("     rowsPerBatch: ................ ").append(entityStats.getBatchCount() == 0 ? 0 : entityStats.getBatchRowCount() / entityStats.getBatchCount()).append('\n');
 				sb.append("Cache").append('\n');
 				sb.append("     getPutCount: ................. ").append(cacheStats.getPutCount()).append('\n');
 				sb.append("     getUpdateCount: .............. ").append(cacheStats.getUpdateCount()).append('\n');
@@ -79,6 +79,7 @@ public class TelnetStatus implements TelnetCommandHolder
 				sb.append("     Active: ............. ").append(stats[1]).append('\n');
 				sb.append("     Inactive: ........... ").append(stats[2]).append('\n');
 				sb.append("     Null: ............... ").append(stats[3]).append('\n');
+				sb.append("Region churn/s: .......... ").append(stats[4]).append('/').append(stats[5]).append('/').append(stats[6]).append(" (enter/move/leave)").append('\n');
 				sb.append("Game Time: ............... ").append(getGameTime()).append('\n');
 				sb.append("Real Time: ............... ").append(getCurrentTime()).append('\n');
 				sb.append("Start Time: .............. ").append(getStartTime()).append('\n');
@@ -0,0 +1,274 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.gameserver.scripts;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.lang3.ClassUtils;
+import org.apache.commons.lang3.reflect.FieldUtils;
+
+/**
+ * Invocation data of a loaded script class: method handles resolved once per method name and argument count, the fields written before a call and the shared instance of a {@link Stateless} class. Dropped by {@link Scripts} when the class is reloaded.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+final class ScriptClass
+{
+	/**
+	 * @author Mobius
+	 */
+	static final class ScriptMethod
+	{
+		/**
+		 * Field arity.
+		 */
+		final int arity;
+		/**
+		 * Field next. Method of the same name with another argument count.
+		 */
+		final ScriptMethod next;
+		/**
+		 * Field _handle. Takes the instance and the arguments array, null when the call has to be resolved by reflection.
+		 */
+		private final MethodHandle _handle;
+		/**
+		 * Field _types. Parameter types, primitives boxed.
+		 */
+		private final Class<?>[] _types;
+		/**
+		 * Field _primitives.
+		 */
+		private final boolean[] _primitives;
+		
+		/**
+		 * Constructor for ScriptMethod.
+		 * @param method Method null when the class has none or several public methods of the name and argument count
+		 * @param arity int
+		 * @param next ScriptMethod
+		 */
+		ScriptMethod(Method method, int arity, ScriptMethod next)
+		{
+			this.arity = arity;
+			this.next = next;
+			MethodHandle handle = null;
+			if (method != null)
+			{
+				try
+				{
+					handle = MethodHandles.publicLookup().unreflect(method).asFixedArity();
+					if (Modifier.isStatic(method.getModifiers()))
+					{
+						handle = MethodHandles.dropArguments(handle.asType(MethodType.genericMethodType(arity)), 0, Object.class);
+					}
+					else
+					{
+						handle = handle.asType(MethodType.genericMethodType(arity + 1));
+					}
+					handle = handle.asSpreader(Object[].class, arity);
+				}
+				catch (IllegalAccessException e)
+				{
+					handle = null;
+				}
+			}
+			_handle = handle;
+			_types = new Class<?>[arity];
+			_primitives = new boolean[arity];
+			for (int i = 0; (handle != null) && (i < arity); i++)
+			{
+				Class<?> type = method.getParameterTypes()[i];
+				_primitives[i] = type.isPrimitive();
+				_types[i] = ClassUtils.primitiveToWrapper(type);
+			}
+		}
+		
+		/**
+		 * Method accepts.
+		 * @param args Object[]
+		 * @return boolean false when the call has to be resolved by reflection, e.g. for overloaded methods or widened primitives
+		 */
+		boolean accepts(Object[] args)
+		{
+			if (_handle == null)
+			{
+				return false;
+			}
+			for (int i = 0; i < arity; i++)
+			{
+				if (args[i] == null ? _primitives[i] : !_types[i].isInstance(args[i]))
+				{
+					return false;
+				}
+			}
+			return true;
+		}
+		
+		/**
+		 * Method invoke.
+		 * @param instance Object ignored for static methods
+		 * @param args Object[] accepted arguments
+		 * @return Object null for void methods
+		 * @throws Throwable thrown by the method
+		 */
+		Object invoke(Object instance, Object[] args) throws Throwable
+		{
+			return _handle.invokeExact(instance, args);
+		}
+	}
+	
+	/**
+	 * Field clazz.
+	 */
+	final Class<?> clazz;
+	/**
+	 * Field _stateless.
+	 */
+	private final boolean _stateless;
+	/**
+	 * Field _instance. Shared instance of a stateless class.
+	 */
+	private volatile Object _instance;
+	/**
+	 * Field _self. Null when the class has no public self field.
+	 */
+	private final Field _self;
+	/**
+	 * Field _fields. Public fields written from call variables.
+	 */
+	private final ConcurrentMap<String, Field> _fields = new ConcurrentHashMap<>();
+	/**
+	 * Field _methods. Methods of each name, one per argument count.
+	 */
+	private final ConcurrentMap<String, ScriptMethod> _methods = new ConcurrentHashMap<>();
+	
+	/**
+	 * Constructor for ScriptClass.
+	 * @param clazz Class<?>
+	 */
+	ScriptClass(Class<?> clazz)
+	{
+		this.clazz = clazz;
+		_stateless = clazz.isAnnotationPresent(Stateless.class);
+		_self = FieldUtils.getField(clazz, "self");
+	}
+	
+	/**
+	 * Method isStateless.
+	 * @return boolean
+	 */
+	boolean isStateless()
+	{
+		return _stateless;
+	}
+	
+	/**
+	 * Method newInstance.
+	 * @return Object the shared instance of a stateless class, a new one otherwise
+	 * @throws Exception
+	 */
+	Object newInstance() throws Exception
+	{
+		if (!_stateless)
+		{
+			return clazz.getDeclaredConstructor().newInstance();
+		}
+		Object instance = _instance;
+		if (instance == null)
+		{
+			_instance = instance = clazz.getDeclaredConstructor().newInstance();
+		}
+		return instance;
+	}
+	
+	/**
+	 * Method getSelf.
+	 * @return Field
+	 */
+	Field getSelf()
+	{
+		return _self;
+	}
+	
+	/**
+	 * Method writeField.
+	 * @param instance Object
+	 * @param name String
+	 * @param value Object
+	 * @throws IllegalAccessException
+	 */
+	void writeField(Object instance, String name, Object value) throws IllegalAccessException
+	{
+		Field field = _fields.get(name);
+		if (field == null)
+		{
+			field = FieldUtils.getField(clazz, name);
+			if (field == null)
+			{
+				throw new IllegalArgumentException("Cannot locate field " + name + " on " + clazz);
+			}
+			_fields.put(name, field);
+		}
+		field.set(instance, value);
+	}
+	
+	/**
+	 * Method getMethod.
+	 * @param name String
+	 * @param arity int
+	 * @return ScriptMethod
+	 */
+	ScriptMethod getMethod(String name, int arity)
+	{
+		for (ScriptMethod method = _methods.get(name); method != null; method = method.next)
+		{
+			if (method.arity == arity)
+			{
+				return method;
+			}
+		}
+		synchronized (this)
+		{
+			ScriptMethod head = _methods.get(name);
+			for (ScriptMethod method = head; method != null; method = method.next)
+			{
+				if (method.arity == arity)
+				{
+					return method;
+				}
+			}
+			Method found = null;
+			for (Method method : clazz.getMethods())
+			{
+				if (method.getName().equals(name) && (method.getParameterTypes().length == arity))
+				{
+					if (found != null)
+					{
+						found = null;
+						break;
+					}
+					found = method;
+				}
+			}
+			ScriptMethod method = new ScriptMethod(found, arity, head);
+			_methods.put(name, method);
+			return method;
+		}
+	}
+}
\ No newline at end of file
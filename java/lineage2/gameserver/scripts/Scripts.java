@@ -14,7 +14,6 @@ package lineage2.gameserver.scripts;
 
 import java.io.File;
 import java.io.FileInputStream;
-import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
@@ -25,6 +24,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.jar.JarEntry;
 import java.util.jar.JarInputStream;
 
@@ -33,13 +34,13 @@ import lineage2.commons.compiler.MemoryClassLoader;
 import lineage2.gameserver.Config;
 import lineage2.gameserver.model.Player;
 import lineage2.gameserver.model.quest.Quest;
+import lineage2.gameserver.scripts.ScriptClass.ScriptMethod;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.io.filefilter.FileFilterUtils;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.ClassUtils;
-import org.apache.commons.lang3.reflect.FieldUtils;
 import org.apache.commons.lang3.reflect.MethodUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -90,6 +91,10 @@ public class Scripts
 	 * Field _classes.
 	 */
 	private final Map<String, Class<?>> _classes = new TreeMap<>();
+	/**
+	 * Field _scriptClasses. Resolved call data of the classes called since the last reload.
+	 */
+	private final ConcurrentMap<String, ScriptClass> _scriptClasses = new ConcurrentHashMap<>();
 	
 	/**
 	 * Constructor for Scripts.
@@ -276,6 +281,8 @@ public class Scripts
 			addHandlers(clazz);
 		}
 		
+		_scriptClasses.clear();
+		
 		return true;
 	}
 	
@@ -560,19 +567,18 @@ public class Scripts
 	 */
 	public Object callScripts(Player caller, String className, String methodName, Object[] args, Map<String, Object> variables)
 	{
-		Object o;
-		Class<?> clazz;
-		
-		clazz = _classes.get(className);
-		if (clazz == null)
+		ScriptClass script = getScriptClass(className);
+		if (script == null)
 		{
 			_log.error("Script class " + className + " not found!");
 			return null;
 		}
 		
+		Class<?> clazz = script.clazz;
+		Object o;
 		try
 		{
-			o = clazz.newInstance();
+			o = script.newInstance();
 		}
 		catch (Exception e)
 		{
@@ -580,34 +586,52 @@ public class Scripts
 			return null;
 		}
 		
-		if ((variables != null) && !variables.isEmpty())
+		if (!script.isStateless())
 		{
-			for (Map.Entry<String, Object> param : variables.entrySet())
+			if ((variables != null) && !variables.isEmpty())
+			{
+				for (Map.Entry<String, Object> param : variables.entrySet())
+				{
+					try
+					{
+						script.writeField(o, param.getKey(), param.getValue());
+					}
+					catch (Exception e)
+					{
+						_log.error("Scripts: Failed setting fields for " + clazz.getName(), e);
+					}
+				}
+			}
+			
+			if ((caller != null) && (script.getSelf() != null))
 			{
 				try
 				{
-					FieldUtils.writeField(o, param.getKey(), param.getValue());
+					script.getSelf().set(o, caller.getRef());
 				}
 				catch (Exception e)
 				{
-					_log.error("Scripts: Failed setting fields for " + clazz.getName(), e);
+					_log.error("Scripts: Failed setting field for " + clazz.getName(), e);
 				}
 			}
 		}
 		
-		if (caller != null)
+		if (args == null)
+		{
+			args = ArrayUtils.EMPTY_OBJECT_ARRAY;
+		}
+		
+		ScriptMethod method = script.getMethod(methodName, args.length);
+		if (method.accepts(args))
 		{
 			try
 			{
-				Field field = null;
-				if ((field = FieldUtils.getField(clazz, "self")) != null)
-				{
-					FieldUtils.writeField(field, o, caller.getRef());
-				}
+				return method.invoke(o, args);
 			}
-			catch (Exception e)
+			catch (Throwable t)
 			{
-				_log.error("Scripts: Failed setting field for " + clazz.getName(), e);
+				_log.error("Scripts: Error while calling " + clazz.getName() + "." + methodName + "()", t);
+				return null;
 			}
 		}
 		
@@ -638,6 +662,36 @@ public class Scripts
 		return ret;
 	}
 	
+	/**
+	 * Method getScriptClass.
+	 * @param className String
+	 * @return ScriptClass null when no such class is loaded
+	 */
+	private ScriptClass getScriptClass(String className)
+	{
+		ScriptClass script = _scriptClasses.get(className);
+		if (script != null)
+		{
+			return script;
+		}
+		Class<?> clazz = _classes.get(className);
+		if (clazz == null)
+		{
+			return null;
+		}
+		script = new ScriptClass(clazz);
+		ScriptClass old = _scriptClasses.putIfAbsent(className, script);
+		if (old != null)
+		{
+			return old;
+		}
+		if (_classes.get(className) != clazz)
+		{
+			_scriptClasses.remove(className, script);
+		}
+		return script;
+	}
+	
 	/**
 	 * Method getClasses.
 	 * @return Map<String,Class<?>>
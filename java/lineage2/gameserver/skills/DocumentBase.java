@@ -126,19 +126,41 @@ abstract class DocumentBase
 	 */
 	Document parse()
 	{
-		Document doc;
+		Document doc = read();
+		if (doc == null)
+		{
+			return null;
+		}
+		return parse(doc);
+	}
+	
+	/**
+	 * Method read.
+	 * @return Document null if the file could not be read
+	 */
+	Document read()
+	{
 		try
 		{
 			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
 			factory.setValidating(false);
 			factory.setIgnoringComments(true);
-			doc = factory.newDocumentBuilder().parse(file);
+			return factory.newDocumentBuilder().parse(file);
 		}
 		catch (Exception e)
 		{
 			_log.error("Error loading file " + file, e);
 			return null;
 		}
+	}
+	
+	/**
+	 * Method parse.
+	 * @param doc Document read from the file or from a snapshot
+	 * @return Document
+	 */
+	Document parse(Document doc)
+	{
 		try
 		{
 			parseDocument(doc);
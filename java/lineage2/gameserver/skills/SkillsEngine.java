@@ -13,12 +13,14 @@
 package lineage2.gameserver.skills;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import lineage2.commons.data.xml.XmlSnapshot;
 import lineage2.gameserver.Config;
 import lineage2.gameserver.model.Skill;
 import lineage2.gameserver.tables.SkillTable;
@@ -27,6 +29,7 @@ import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.FileFilterUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
 
 /**
  * @author Mobius
@@ -88,12 +91,54 @@ public class SkillsEngine
 			_log.info("Dir " + dir.getAbsolutePath() + " not exists");
 			return Collections.emptyMap();
 		}
-		Collection<File> files = FileUtils.listFiles(dir, FileFilterUtils.suffixFileFilter(".xml"), FileFilterUtils.directoryFileFilter());
+		List<List<Skill>> lists = new ArrayList<>();
+		XmlSnapshot snapshot = XmlSnapshot.isEnabled() ? new XmlSnapshot("SkillsEngine", dir) : null;
+		List<XmlSnapshot.Entry<Document>> documents = snapshot == null ? null : snapshot.readW3c();
+		if (documents != null)
+		{
+			for (XmlSnapshot.Entry<Document> entry : documents)
+			{
+				DocumentSkill doc = new DocumentSkill(new File(dir, entry.getName()));
+				doc.parse(entry.getDocument());
+				lists.add(doc.getSkills());
+			}
+		}
+		else
+		{
+			long parseTime = 0;
+			boolean failed = false;
+			Collection<File> files = FileUtils.listFiles(dir, FileFilterUtils.suffixFileFilter(".xml"), FileFilterUtils.directoryFileFilter());
+			for (File file : files)
+			{
+				DocumentSkill doc = new DocumentSkill(file);
+				long start = System.nanoTime();
+				Document document = doc.read();
+				parseTime += System.nanoTime() - start;
+				if (document == null)
+				{
+					failed = true;
+					continue;
+				}
+				if (snapshot != null)
+				{
+					snapshot.add(file.getPath().substring(dir.getPath().length() + 1), document);
+				}
+				doc.parse(document);
+				lists.add(doc.getSkills());
+			}
+			if (failed && (snapshot != null))
+			{
+				snapshot.delete();
+			}
+			else if (snapshot != null)
+			{
+				snapshot.save(parseTime / 1000000L);
+			}
+		}
 		Map<Integer, Skill> result = new HashMap<>();
 		int maxId = 0, maxLvl = 0;
-		for (File file : files)
+		for (List<Skill> s : lists)
 		{
-			List<Skill> s = loadSkills(file);
 			if (s == null)
 			{
 				continue;
@@ -13,16 +13,62 @@
 package lineage2.gameserver.stats;
 
 import lineage2.commons.lang.ArrayUtils;
+import lineage2.gameserver.Config;
 import lineage2.gameserver.model.Creature;
 import lineage2.gameserver.stats.funcs.Func;
 import lineage2.gameserver.stats.funcs.FuncOwner;
 
 /**
+ * Ordered chain of stat functions of one creature. When every function of the chain only depends on state that bumps the stats version of the creature the last result is memoized until that version, the level or the template changes.
  * @author Mobius
  * @version $Revision: 1.0 $
  */
 public final class Calculator
 {
+	/**
+	 * @author Mobius
+	 */
+	private static final class CachedValue
+	{
+		/**
+		 * Field version.
+		 */
+		final int version;
+		/**
+		 * Field level.
+		 */
+		final int level;
+		/**
+		 * Field template.
+		 */
+		final Object template;
+		/**
+		 * Field init.
+		 */
+		final double init;
+		/**
+		 * Field value.
+		 */
+		final double value;
+		
+		/**
+		 * Constructor for CachedValue.
+		 * @param version int
+		 * @param level int
+		 * @param template Object
+		 * @param init double
+		 * @param value double
+		 */
+		CachedValue(int version, int level, Object template, double init, double value)
+		{
+			this.version = version;
+			this.level = level;
+			this.template = template;
+			this.init = init;
+			this.value = value;
+		}
+	}
+	
 	/**
 	 * Field _functions.
 	 */
@@ -43,6 +89,14 @@ public final class Calculator
 	 * Field _character.
 	 */
 	public final Creature _character;
+	/**
+	 * Field _cache.
+	 */
+	private volatile CachedValue _cache;
+	/**
+	 * Field _cacheableState. Stats version shifted left by one, the low bit tells if the chain is cacheable.
+	 */
+	private volatile long _cacheableState = Long.MIN_VALUE;
 	
 	/**
 	 * Constructor for Calculator.
@@ -114,8 +168,19 @@ public final class Calculator
 	 */
 	public void calc(Env env)
 	{
+		int version = _character.getStatsVersion();
+		int level = _character.getLevel();
+		Object template = _character.getTemplate();
+		double init = env.value;
+		CachedValue cache = _cache;
+		_base = init;
+		if ((cache != null) && (cache.version == version) && (cache.level == level) && (cache.template == template) && (cache.init == init))
+		{
+			env.value = cache.value;
+			_last = env.value;
+			return;
+		}
 		Func[] funcs = _functions;
-		_base = env.value;
 		boolean overrideLimits = false;
 		for (Func func : funcs)
 		{
@@ -147,6 +212,59 @@ public final class Calculator
 		{
 			_last = env.value;
 		}
+		if (Config.STATS_CACHE_ENABLED && isCacheable(version))
+		{
+			_cache = new CachedValue(version, level, template, init, env.value);
+		}
+	}
+	
+	/**
+	 * Method getCachedValue. Lets the caller skip the chain without building an Env.
+	 * @param init double
+	 * @return double memoized result or Double.NaN when the chain has to be evaluated
+	 */
+	public double getCachedValue(double init)
+	{
+		CachedValue cache = _cache;
+		if ((cache == null) || (cache.init != init) || (cache.version != _character.getStatsVersion()) || (cache.level != _character.getLevel()) || (cache.template != _character.getTemplate()))
+		{
+			return Double.NaN;
+		}
+		return cache.value;
+	}
+	
+	/**
+	 * Method isCacheable.
+	 * @return boolean
+	 */
+	public boolean isCacheable()
+	{
+		return isCacheable(_character.getStatsVersion());
+	}
+	
+	/**
+	 * Method isCacheable.
+	 * @param version int
+	 * @return boolean
+	 */
+	private boolean isCacheable(int version)
+	{
+		long state = _cacheableState;
+		if ((state >> 1) == version)
+		{
+			return (state & 1L) != 0;
+		}
+		boolean cacheable = true;
+		for (Func func : _functions)
+		{
+			if ((func != null) && !func.isCacheable(_character))
+			{
+				cacheable = false;
+				break;
+			}
+		}
+		_cacheableState = ((long) version << 1) | (cacheable ? 1L : 0L);
+		return cacheable;
 	}
 	
 	/**
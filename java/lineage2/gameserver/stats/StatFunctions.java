@@ -197,6 +197,17 @@ public class StatFunctions
 			super(Stats.POWER_ATTACK, 0x20, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return creature.isStatCacheable(Stats.STAT_STR);
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -226,6 +237,17 @@ public class StatFunctions
 			super(Stats.MAGIC_ATTACK, 0x20, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return creature.isStatCacheable(Stats.STAT_INT);
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -257,6 +279,17 @@ public class StatFunctions
 			super(Stats.POWER_DEFENCE, 0x20, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return true;
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -286,6 +319,17 @@ public class StatFunctions
 			super(Stats.MAGIC_DEFENCE, 0x20, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return creature.isStatCacheable(Stats.STAT_MEN);
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -315,6 +359,17 @@ public class StatFunctions
 			super(Stats.POWER_ATTACK_RANGE, 0x20, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return true;
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -349,6 +404,17 @@ public class StatFunctions
 			super(Stats.MACCURACY_COMBAT, 0x10, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return creature.isStatCacheable(Stats.STAT_WIT);
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -382,6 +448,17 @@ public class StatFunctions
 			super(Stats.MEVASION_RATE, 0x10, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return creature.isStatCacheable(Stats.STAT_WIT);
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -411,6 +488,17 @@ public class StatFunctions
 			super(Stats.ACCURACY_COMBAT, 0x10, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return creature.isStatCacheable(Stats.STAT_DEX);
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -460,6 +548,17 @@ public class StatFunctions
 			super(Stats.EVASION_RATE, 0x10, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return creature.isStatCacheable(Stats.STAT_DEX);
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -497,6 +596,17 @@ public class StatFunctions
 			super(Stats.MCRITICAL_RATE, 0x10, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return creature.isStatCacheable(Stats.STAT_WIT);
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -559,6 +669,17 @@ public class StatFunctions
 			super(Stats.RUN_SPEED, 0x20, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return true;
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -587,6 +708,17 @@ public class StatFunctions
 			super(Stats.POWER_ATTACK_SPEED, 0x20, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return creature.isStatCacheable(Stats.STAT_DEX);
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -616,6 +748,17 @@ public class StatFunctions
 			super(Stats.MAGIC_ATTACK_SPEED, 0x20, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return creature.isStatCacheable(Stats.STAT_WIT);
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -645,6 +788,17 @@ public class StatFunctions
 			super(Stats.STAT_STR, 0x10, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return true;
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -678,6 +832,17 @@ public class StatFunctions
 			super(Stats.STAT_DEX, 0x10, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return true;
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -711,6 +876,17 @@ public class StatFunctions
 			super(Stats.STAT_INT, 0x10, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return true;
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -744,6 +920,17 @@ public class StatFunctions
 			super(Stats.STAT_MEN, 0x10, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return true;
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -777,6 +964,17 @@ public class StatFunctions
 			super(Stats.STAT_CON, 0x10, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return true;
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -810,6 +1008,17 @@ public class StatFunctions
 			super(Stats.STAT_WIT, 0x10, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return true;
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -843,6 +1052,17 @@ public class StatFunctions
 			super(Stats.MAX_HP, 0x20, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return creature.isStatCacheable(Stats.STAT_CON);
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -872,6 +1092,17 @@ public class StatFunctions
 			super(Stats.MAX_CP, 0x20, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return creature.isStatCacheable(Stats.STAT_CON);
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -901,6 +1132,17 @@ public class StatFunctions
 			super(Stats.MAX_MP, 0x20, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return creature.isStatCacheable(Stats.STAT_MEN);
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -1247,6 +1489,17 @@ public class StatFunctions
 			super(Stats.MAX_HP, 0x100, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return true;
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -1276,6 +1529,17 @@ public class StatFunctions
 			super(Stats.MAX_MP, 0x100, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return true;
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -1305,6 +1569,17 @@ public class StatFunctions
 			super(Stats.MAX_CP, 0x100, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return true;
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -1370,6 +1645,17 @@ public class StatFunctions
 			super(Stats.POWER_DEFENCE, 0x100, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return true;
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -1399,6 +1685,17 @@ public class StatFunctions
 			super(Stats.MAGIC_DEFENCE, 0x100, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return true;
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -1428,6 +1725,17 @@ public class StatFunctions
 			super(Stats.POWER_ATTACK, 0x100, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return true;
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -1457,6 +1765,17 @@ public class StatFunctions
 			super(Stats.MAGIC_ATTACK, 0x100, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return true;
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -1486,6 +1805,17 @@ public class StatFunctions
 			super(Stats.POWER_ATTACK_SPEED, 0x100, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return true;
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -1515,6 +1845,17 @@ public class StatFunctions
 			super(Stats.MAGIC_ATTACK_SPEED, 0x100, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return true;
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -1544,6 +1885,17 @@ public class StatFunctions
 			super(Stats.CRITICAL_DAMAGE, 0x100, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return true;
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -1573,6 +1925,17 @@ public class StatFunctions
 			super(Stats.EVASION_RATE, 0x100, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return true;
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -1601,6 +1964,17 @@ public class StatFunctions
 			super(Stats.MEVASION_RATE, 0x100, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return true;
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -1630,6 +2004,17 @@ public class StatFunctions
 			super(Stats.MACCURACY_COMBAT, 0x100, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return true;
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -1658,6 +2043,17 @@ public class StatFunctions
 			super(Stats.ACCURACY_COMBAT, 0x100, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return true;
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -1687,6 +2083,17 @@ public class StatFunctions
 			super(Stats.CRITICAL_BASE, 0x100, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return true;
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
@@ -1713,6 +2120,17 @@ public class StatFunctions
 			super(Stats.MCRITICAL_RATE, 0x100, null);
 		}
 		
+		/**
+		 * Method isCacheable.
+		 * @param creature Creature
+		 * @return boolean
+		 */
+		@Override
+		public boolean isCacheable(Creature creature)
+		{
+			return true;
+		}
+		
 		/**
 		 * Method calc.
 		 * @param env Env
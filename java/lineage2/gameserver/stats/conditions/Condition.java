@@ -64,4 +64,14 @@ public abstract class Condition
 	 * @return boolean
 	 */
 	protected abstract boolean testImpl(Env env);
+	
+	/**
+	 * Method isCacheable. Conditions of the character itself which only change together with its equipment, effects, level or template.
+	 * @return boolean
+	 */
+	public boolean isCacheable()
+	{
+		return false;
+	}
 }
+
@@ -71,4 +71,21 @@ public class ConditionLogicAnd extends Condition
 		}
 		return true;
 	}
+	
+	/**
+	 * Method isCacheable.
+	 * @return boolean
+	 */
+	@Override
+	public boolean isCacheable()
+	{
+		for (Condition c : _conditions)
+		{
+			if (!c.isCacheable())
+			{
+				return false;
+			}
+		}
+		return true;
+	}
 }
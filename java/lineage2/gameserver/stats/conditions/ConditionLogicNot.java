@@ -44,4 +44,14 @@ public class ConditionLogicNot extends Condition
 	{
 		return !_condition.test(env);
 	}
+	
+	/**
+	 * Method isCacheable.
+	 * @return boolean
+	 */
+	@Override
+	public boolean isCacheable()
+	{
+		return _condition.isCacheable();
+	}
 }
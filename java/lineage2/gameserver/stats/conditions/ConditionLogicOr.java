@@ -63,4 +63,21 @@ public class ConditionLogicOr extends Condition
 		}
 		return false;
 	}
+	
+	/**
+	 * Method isCacheable.
+	 * @return boolean
+	 */
+	@Override
+	public boolean isCacheable()
+	{
+		for (Condition c : _conditions)
+		{
+			if (!c.isCacheable())
+			{
+				return false;
+			}
+		}
+		return true;
+	}
 }
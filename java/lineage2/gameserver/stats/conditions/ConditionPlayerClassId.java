@@ -61,4 +61,14 @@ public class ConditionPlayerClassId extends Condition
 		}
 		return false;
 	}
+	
+	/**
+	 * Method isCacheable. Player.setClassId invalidates the stats.
+	 * @return boolean
+	 */
+	@Override
+	public boolean isCacheable()
+	{
+		return true;
+	}
 }
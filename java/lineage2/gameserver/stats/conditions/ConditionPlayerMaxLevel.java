@@ -44,4 +44,14 @@ public class ConditionPlayerMaxLevel extends Condition
 	{
 		return env.character.getLevel() <= _level;
 	}
+	
+	/**
+	 * Method isCacheable. The level is a part of the cache key.
+	 * @return boolean
+	 */
+	@Override
+	public boolean isCacheable()
+	{
+		return true;
+	}
 }
@@ -50,4 +50,14 @@ public class ConditionPlayerRace extends Condition
 		}
 		return ((Player) env.character).getRace() == _race;
 	}
+	
+	/**
+	 * Method isCacheable.
+	 * @return boolean
+	 */
+	@Override
+	public boolean isCacheable()
+	{
+		return true;
+	}
 }
@@ -65,4 +65,14 @@ public final class ConditionSlotItemId extends ConditionInventory
 		}
 		return (item.getItemId() == _itemId) && (item.getEnchantLevel() >= _enchantLevel);
 	}
+	
+	/**
+	 * Method isCacheable. The paperdoll and the enchant level of equipped items invalidate the stats of the wearer.
+	 * @return boolean
+	 */
+	@Override
+	public boolean isCacheable()
+	{
+		return true;
+	}
 }
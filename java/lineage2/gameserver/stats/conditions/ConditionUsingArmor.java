@@ -50,4 +50,14 @@ public class ConditionUsingArmor extends Condition
 		}
 		return false;
 	}
+	
+	/**
+	 * Method isCacheable. The armor changes together with the paperdoll.
+	 * @return boolean
+	 */
+	@Override
+	public boolean isCacheable()
+	{
+		return true;
+	}
 }
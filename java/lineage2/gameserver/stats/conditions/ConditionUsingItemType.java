@@ -49,4 +49,14 @@ public final class ConditionUsingItemType extends Condition
 		}
 		return (_mask & ((Playable) env.character).getWearedMask()) != 0;
 	}
+	
+	/**
+	 * Method isCacheable. The weared mask changes together with the paperdoll.
+	 * @return boolean
+	 */
+	@Override
+	public boolean isCacheable()
+	{
+		return true;
+	}
 }
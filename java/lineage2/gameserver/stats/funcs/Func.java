@@ -12,6 +12,7 @@
  */
 package lineage2.gameserver.stats.funcs;
 
+import lineage2.gameserver.model.Creature;
 import lineage2.gameserver.stats.Env;
 import lineage2.gameserver.stats.Stats;
 import lineage2.gameserver.stats.conditions.Condition;
@@ -97,6 +98,25 @@ public abstract class Func implements Comparable<Func>
 	 */
 	public abstract void calc(Env env);
 	
+	/**
+	 * Method isCacheable. A cacheable function only reads state which bumps the stats version of the creature when it changes, besides the level and the template.
+	 * @param creature Creature
+	 * @return boolean
+	 */
+	public boolean isCacheable(Creature creature)
+	{
+		return false;
+	}
+	
+	/**
+	 * Method isConditionCacheable.
+	 * @return boolean
+	 */
+	protected final boolean isConditionCacheable()
+	{
+		return (cond == null) || cond.isCacheable();
+	}
+	
 	/**
 	 * Method compareTo.
 	 * @param f Func
@@ -16,6 +16,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import lineage2.gameserver.Config;
+import lineage2.gameserver.model.Creature;
 import lineage2.gameserver.model.items.ItemInstance;
 import lineage2.gameserver.stats.Env;
 import lineage2.gameserver.stats.Stats;
@@ -66,6 +67,17 @@ public class FuncEnchant extends Func
 		super(stat, order, owner);
 	}
 	
+	/**
+	 * Method isCacheable. The enchant level is read live, ItemInstance.setEnchantLevel invalidates the stats of the wearer.
+	 * @param creature Creature
+	 * @return boolean
+	 */
+	@Override
+	public boolean isCacheable(Creature creature)
+	{
+		return isConditionCacheable();
+	}
+	
 	/**
 	 * Method calc.
 	 * @param env Env
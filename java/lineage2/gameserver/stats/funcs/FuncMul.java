@@ -12,6 +12,7 @@
  */
 package lineage2.gameserver.stats.funcs;
 
+import lineage2.gameserver.model.Creature;
 import lineage2.gameserver.stats.Env;
 import lineage2.gameserver.stats.Stats;
 
@@ -42,4 +43,15 @@ public class FuncMul extends Func
 	{
 		env.value *= value;
 	}
+	
+	/**
+	 * Method isCacheable.
+	 * @param creature Creature
+	 * @return boolean
+	 */
+	@Override
+	public boolean isCacheable(Creature creature)
+	{
+		return isConditionCacheable();
+	}
 }
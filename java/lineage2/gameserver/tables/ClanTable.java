@@ -24,6 +24,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import lineage2.commons.dbutils.DbUtils;
 import lineage2.gameserver.Config;
 import lineage2.gameserver.cache.Msg;
+import lineage2.gameserver.dao.CharacterStoreDAO;
 import lineage2.gameserver.database.DatabaseFactory;
 import lineage2.gameserver.idfactory.IdFactory;
 import lineage2.gameserver.model.GameObjectsStorage;
@@ -390,6 +391,7 @@ public class ClanTable
 		PreparedStatement statement = null;
 		try
 		{
+			CharacterStoreDAO.getInstance().flush();
 			con = DatabaseFactory.getInstance().getConnection();
 			statement = con.prepareStatement("UPDATE characters SET clanid=0,title='',pledge_type=0,pledge_rank=0,lvl_joined_academy=0,apprentice=0,leaveclan=? WHERE clanid=?");
 			statement.setLong(1, curtime / 1000L);
@@ -12,13 +12,13 @@
  */
 package lineage2.gameserver.tables;
 
-import gnu.trove.map.hash.TIntIntHashMap;
-
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.LineNumberReader;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -49,17 +49,170 @@ public class SkillTable
 	 */
 	public Map<Integer, Integer> identifySkills = new HashMap<>();
 	/**
-	 * Field _skills.
+	 * Field ENCHANT_ROUTE. Levels from this on are enchant routes, numbered route * ENCHANT_ROUTE + enchant level.
 	 */
-	private Map<Integer, Skill> _skills;
+	private static final int ENCHANT_ROUTE = 100;
 	/**
-	 * Field _maxLevelsTable.
+	 * Field _index. Replaced as a whole on reload, volatile so readers see it fully built.
 	 */
-	private TIntIntHashMap _maxLevelsTable;
+	private volatile SkillIndex _index = new SkillIndex(0);
+	
 	/**
-	 * Field _baseLevelsTable.
+	 * Array index of all skills by id and level.
+	 * @author Mobius
 	 */
-	private TIntIntHashMap _baseLevelsTable;
+	private static final class SkillIndex
+	{
+		/**
+		 * Field levels. Levels below ENCHANT_ROUTE by skill id, null for unknown ids.
+		 */
+		final Skill[][] levels;
+		/**
+		 * Field routes. Enchant levels by skill id and route, null for skills without enchant routes.
+		 */
+		final Skill[][][] routes;
+		/**
+		 * Field maxLevels.
+		 */
+		final int[] maxLevels;
+		/**
+		 * Field baseLevels.
+		 */
+		final int[] baseLevels;
+		/**
+		 * Field size.
+		 */
+		int size;
+		
+		/**
+		 * Constructor for SkillIndex.
+		 * @param length int highest skill id + 1
+		 */
+		SkillIndex(int length)
+		{
+			levels = new Skill[length][];
+			routes = new Skill[length][][];
+			maxLevels = new int[length];
+			baseLevels = new int[length];
+		}
+		
+		/**
+		 * Method put.
+		 * @param skill Skill
+		 */
+		void put(Skill skill)
+		{
+			int id = skill.getId();
+			int level = skill.getLevel();
+			if (level < ENCHANT_ROUTE)
+			{
+				levels[id] = set(levels[id], level, skill);
+			}
+			else
+			{
+				int route = level / ENCHANT_ROUTE;
+				Skill[][] r = routes[id];
+				if (r == null)
+				{
+					r = routes[id] = new Skill[route + 1][];
+				}
+				else if (r.length <= route)
+				{
+					r = routes[id] = Arrays.copyOf(r, route + 1);
+				}
+				r[route] = set(r[route], level % ENCHANT_ROUTE, skill);
+			}
+			if (level > maxLevels[id])
+			{
+				maxLevels[id] = level;
+			}
+			if (baseLevels[id] == 0)
+			{
+				baseLevels[id] = skill.getBaseLevel();
+			}
+			size++;
+		}
+		
+		/**
+		 * Method set.
+		 * @param array Skill[]
+		 * @param index int
+		 * @param skill Skill
+		 * @return Skill[] array, grown to fit the index
+		 */
+		private static Skill[] set(Skill[] array, int index, Skill skill)
+		{
+			if (array == null)
+			{
+				array = new Skill[index + 1];
+			}
+			else if (array.length <= index)
+			{
+				array = Arrays.copyOf(array, index + 1);
+			}
+			array[index] = skill;
+			return array;
+		}
+		
+		/**
+		 * Method get.
+		 * @param id int
+		 * @param level int
+		 * @return Skill
+		 */
+		Skill get(int id, int level)
+		{
+			if ((id < 0) || (id >= levels.length) || (level < 0))
+			{
+				return null;
+			}
+			Skill[] array;
+			if (level < ENCHANT_ROUTE)
+			{
+				array = levels[id];
+			}
+			else
+			{
+				Skill[][] r = routes[id];
+				int route = level / ENCHANT_ROUTE;
+				if ((r == null) || (route >= r.length))
+				{
+					return null;
+				}
+				array = r[route];
+				level %= ENCHANT_ROUTE;
+			}
+			return (array == null) || (level >= array.length) ? null : array[level];
+		}
+		
+		/**
+		 * Method getMemoryUsage. Estimated with compressed references and 16 byte array headers.
+		 * @return long bytes
+		 */
+		long getMemoryUsage()
+		{
+			long bytes = (16L + (4L * levels.length)) * 2 + ((16L + (4L * maxLevels.length)) * 2);
+			for (int id = 0; id < levels.length; id++)
+			{
+				if (levels[id] != null)
+				{
+					bytes += 16 + (4 * levels[id].length);
+				}
+				if (routes[id] != null)
+				{
+					bytes += 16 + (4 * routes[id].length);
+					for (Skill[] route : routes[id])
+					{
+						if (route != null)
+						{
+							bytes += 16 + (4 * route.length);
+						}
+					}
+				}
+			}
+			return bytes;
+		}
+	}
 	
 	/**
 	 * Method getInstance.
@@ -75,8 +228,7 @@ public class SkillTable
 	 */
 	public void load()
 	{
-		_skills = SkillsEngine.getInstance().loadAllSkills();
-		makeLevelsTable();
+		makeIndex(SkillsEngine.getInstance().loadAllSkills().values());
 		loadAlfaData();
 	}
 	
@@ -96,7 +248,7 @@ public class SkillTable
 	 */
 	public Skill getInfo(int skillId, int level)
 	{
-		return _skills.get(getSkillHashCode(skillId, level));
+		return _index.get(skillId, level);
 	}
 	
 	/**
@@ -106,7 +258,8 @@ public class SkillTable
 	 */
 	public int getMaxLevel(int skillId)
 	{
-		return _maxLevelsTable.get(skillId);
+		SkillIndex index = _index;
+		return (skillId < 0) || (skillId >= index.maxLevels.length) ? 0 : index.maxLevels[skillId];
 	}
 	
 	/**
@@ -116,7 +269,8 @@ public class SkillTable
 	 */
 	public int getBaseLevel(int skillId)
 	{
-		return _baseLevelsTable.get(skillId);
+		SkillIndex index = _index;
+		return (skillId < 0) || (skillId >= index.baseLevels.length) ? 0 : index.baseLevels[skillId];
 	}
 	
 	/**
@@ -141,26 +295,23 @@ public class SkillTable
 	}
 	
 	/**
-	 * Method makeLevelsTable.
+	 * Method makeIndex.
+	 * @param skills Collection<Skill>
 	 */
-	private void makeLevelsTable()
+	private void makeIndex(Collection<Skill> skills)
 	{
-		_maxLevelsTable = new TIntIntHashMap();
-		_baseLevelsTable = new TIntIntHashMap();
-		for (Skill s : _skills.values())
+		int maxId = -1;
+		for (Skill s : skills)
 		{
-			int skillId = s.getId();
-			int level = s.getLevel();
-			int maxLevel = _maxLevelsTable.get(skillId);
-			if (level > maxLevel)
-			{
-				_maxLevelsTable.put(skillId, level);
-			}
-			if (_baseLevelsTable.get(skillId) == 0)
-			{
-				_baseLevelsTable.put(skillId, s.getBaseLevel());
-			}
+			maxId = Math.max(maxId, s.getId());
+		}
+		SkillIndex index = new SkillIndex(maxId + 1);
+		for (Skill s : skills)
+		{
+			index.put(s);
 		}
+		_index = index;
+		_log.info("SkillTable: Indexed " + index.size + " skills, " + (index.getMemoryUsage() / 1024) + " KB.");
 	}
 	
 	/**
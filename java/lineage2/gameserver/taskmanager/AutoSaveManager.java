@@ -47,14 +47,6 @@ public class AutoSaveManager extends SteppingRunnableQueueManager
 	{
 		super(10000L);
 		ThreadPoolManager.getInstance().scheduleAtFixedRate(this, 10000L, 10000L);
-		ThreadPoolManager.getInstance().scheduleAtFixedRate(new RunnableImpl()
-		{
-			@Override
-			public void runImpl()
-			{
-				AutoSaveManager.this.purge();
-			}
-		}, 60000L, 60000L);
 	}
 	
 	/**
@@ -46,14 +46,6 @@ public class DecayTaskManager extends SteppingRunnableQueueManager
 	{
 		super(500L);
 		ThreadPoolManager.getInstance().scheduleAtFixedRate(this, 500L, 500L);
-		ThreadPoolManager.getInstance().scheduleAtFixedRate(new RunnableImpl()
-		{
-			@Override
-			public void runImpl()
-			{
-				DecayTaskManager.this.purge();
-			}
-		}, 60000L, 60000L);
 	}
 	
 	/**
@@ -12,7 +12,6 @@
  */
 package lineage2.gameserver.taskmanager;
 
-import lineage2.commons.threading.RunnableImpl;
 import lineage2.commons.threading.SteppingRunnableQueueManager;
 import lineage2.commons.util.Rnd;
 import lineage2.gameserver.Config;
@@ -60,14 +59,6 @@ public class EffectTaskManager extends SteppingRunnableQueueManager
 	{
 		super(TICK);
 		ThreadPoolManager.getInstance().scheduleAtFixedRate(this, Rnd.get(TICK), TICK);
-		ThreadPoolManager.getInstance().scheduleAtFixedRate(new RunnableImpl()
-		{
-			@Override
-			public void runImpl()
-			{
-				EffectTaskManager.this.purge();
-			}
-		}, 30000L, 30000L);
 	}
 	
 	/**
@@ -55,14 +55,6 @@ public class LazyPrecisionTaskManager extends SteppingRunnableQueueManager
 	{
 		super(1000L);
 		ThreadPoolManager.getInstance().scheduleAtFixedRate(this, 1000L, 1000L);
-		ThreadPoolManager.getInstance().scheduleAtFixedRate(new RunnableImpl()
-		{
-			@Override
-			public void runImpl()
-			{
-				LazyPrecisionTaskManager.this.purge();
-			}
-		}, 60000L, 60000L);
 	}
 	
 	/**
@@ -0,0 +1,311 @@
+/*
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package lineage2.gameserver.taskmanager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import lineage2.commons.math.LatencyHistogram;
+import lineage2.commons.threading.PriorityThreadFactory;
+import lineage2.gameserver.Config;
+import lineage2.gameserver.ThreadPoolManager;
+import lineage2.gameserver.model.Creature.MoveNextTask;
+import lineage2.gameserver.model.WorldRegion;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Advances all moving characters in fixed rate batches instead of one scheduled task per character. Every tick the moving characters are split by world region into shards, one shard runs on the ticking thread and the others on the move threads.
+ * @author Mobius
+ * @version $Revision: 1.0 $
+ */
+public class MoveTaskManager implements Runnable
+{
+	/**
+	 * Field _log.
+	 */
+	private static final Logger _log = LoggerFactory.getLogger(MoveTaskManager.class);
+	/**
+	 * Field _instance.
+	 */
+	private static final MoveTaskManager _instance = new MoveTaskManager();
+	
+	/**
+	 * Method getInstance.
+	 * @return MoveTaskManager
+	 */
+	public static MoveTaskManager getInstance()
+	{
+		return _instance;
+	}
+	
+	/**
+	 * Field _added. Tasks scheduled since the last tick.
+	 */
+	private final Queue<MoveNextTask> _added = new ConcurrentLinkedQueue<>();
+	/**
+	 * Field _moving. Only touched by the ticking thread.
+	 */
+	private final List<MoveNextTask> _moving = new ArrayList<>();
+	/**
+	 * Field _shards.
+	 */
+	private final List<List<MoveNextTask>> _shards;
+	/**
+	 * Field _executor. Null when every shard runs on the ticking thread.
+	 */
+	private final ThreadPoolExecutor _executor;
+	/**
+	 * Field _isRunning.
+	 */
+	private final AtomicBoolean _isRunning = new AtomicBoolean();
+	/**
+	 * Field _tickTimes. Duration of ticks in microseconds.
+	 */
+	private final LatencyHistogram _tickTimes = new LatencyHistogram();
+	/**
+	 * Field _ticks.
+	 */
+	private final AtomicLong _ticks = new AtomicLong();
+	/**
+	 * Field _steps.
+	 */
+	private final AtomicLong _steps = new AtomicLong();
+	/**
+	 * Field _overruns. Ticks which took longer than the tick interval or were skipped because the previous one was still running.
+	 */
+	private final AtomicLong _overruns = new AtomicLong();
+	/**
+	 * Field _movingCount.
+	 */
+	private volatile int _movingCount;
+	/**
+	 * Field _movingMax.
+	 */
+	private volatile int _movingMax;
+	
+	/**
+	 * Constructor for MoveTaskManager.
+	 */
+	private MoveTaskManager()
+	{
+		int shards = Math.max(1, Config.THREAD_P_MOVE);
+		_shards = new ArrayList<>(shards);
+		for (int i = 0; i < shards; i++)
+		{
+			_shards.add(new ArrayList<MoveNextTask>());
+		}
+		if (shards > 1)
+		{
+			_executor = new ThreadPoolExecutor(shards - 1, shards - 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(), new PriorityThreadFactory("Move", Thread.NORM_PRIORITY));
+		}
+		else
+		{
+			_executor = null;
+		}
+		ThreadPoolManager.getInstance().scheduleAtFixedRate(this, Config.MOVE_TASK_TICK, Config.MOVE_TASK_TICK);
+	}
+	
+	/**
+	 * Method add. The task stays in the manager until its character stops moving.
+	 * @param task MoveNextTask
+	 */
+	public void add(MoveNextTask task)
+	{
+		_added.add(task);
+	}
+	
+	/**
+	 * Method run.
+	 * @see java.lang.Runnable#run()
+	 */
+	@Override
+	public void run()
+	{
+		if (!_isRunning.compareAndSet(false, true))
+		{
+			_overruns.incrementAndGet();
+			return;
+		}
+		try
+		{
+			long start = System.nanoTime();
+			tick(System.currentTimeMillis());
+			long time = (System.nanoTime() - start) / 1000L;
+			_tickTimes.record(time);
+			_ticks.incrementAndGet();
+			if (time > (Config.MOVE_TASK_TICK * 1000L))
+			{
+				_overruns.incrementAndGet();
+			}
+		}
+		catch (Exception e)
+		{
+			_log.error("MoveTaskManager: tick failed", e);
+		}
+		finally
+		{
+			_isRunning.set(false);
+		}
+	}
+	
+	/**
+	 * Method tick.
+	 * @param now long
+	 * @throws InterruptedException
+	 */
+	private void tick(long now) throws InterruptedException
+	{
+		MoveNextTask task;
+		while ((task = _added.poll()) != null)
+		{
+			_moving.add(task);
+		}
+		int shardCount = _shards.size();
+		int size = 0;
+		for (int i = 0; i < _moving.size(); i++)
+		{
+			task = _moving.get(i);
+			if (!task.getActor().isMoving && task.release())
+			{
+				continue;
+			}
+			_moving.set(size++, task);
+			if (task.getNextRunTime() > now)
+			{
+				continue;
+			}
+			WorldRegion region = task.getActor().getCurrentRegion();
+			int shard = region == null ? 0 : (System.identityHashCode(region) & Integer.MAX_VALUE) % shardCount;
+			_shards.get(shard).add(task);
+		}
+		for (int i = _moving.size() - 1; i >= size; i--)
+		{
+			_moving.remove(i);
+		}
+		_movingCount = size;
+		if (size > _movingMax)
+		{
+			_movingMax = size;
+		}
+		if (_executor == null)
+		{
+			runShard(_shards.get(0));
+			return;
+		}
+		int submitted = 0;
+		for (int i = 1; i < shardCount; i++)
+		{
+			if (!_shards.get(i).isEmpty())
+			{
+				submitted++;
+			}
+		}
+		CountDownLatch latch = new CountDownLatch(submitted);
+		for (int i = 1; i < shardCount; i++)
+		{
+			if (!_shards.get(i).isEmpty())
+			{
+				_executor.execute(new ShardTask(_shards.get(i), latch));
+			}
+		}
+		runShard(_shards.get(0));
+		latch.await();
+	}
+	
+	/**
+	 * Method runShard.
+	 * @param shard List<MoveNextTask>
+	 */
+	void runShard(List<MoveNextTask> shard)
+	{
+		for (int i = 0; i < shard.size(); i++)
+		{
+			shard.get(i).run();
+		}
+		_steps.addAndGet(shard.size());
+		shard.clear();
+	}
+	
+	/**
+	 * @author Mobius
+	 */
+	private class ShardTask implements Runnable
+	{
+		/**
+		 * Field _shard.
+		 */
+		private final List<MoveNextTask> _shard;
+		/**
+		 * Field _latch.
+		 */
+		private final CountDownLatch _latch;
+		
+		/**
+		 * Constructor for ShardTask.
+		 * @param shard List<MoveNextTask>
+		 * @param latch CountDownLatch
+		 */
+		ShardTask(List<MoveNextTask> shard, CountDownLatch latch)
+		{
+			_shard = shard;
+			_latch = latch;
+		}
+		
+		/**
+		 * Method run.
+		 * @see java.lang.Runnable#run()
+		 */
+		@Override
+		public void run()
+		{
+			try
+			{
+				runShard(_shard);
+			}
+			finally
+			{
+				_latch.countDown();
+			}
+		}
+	}
+	
+	/**
+	 * Method getStats.
+	 * @return CharSequence
+	 */
+	public CharSequence getStats()
+	{
+		StringBuilder list = new StringBuilder();
+		list.append("tickInterval (ms): ...... ").append(Config.MOVE_TASK_TICK).append('\n');
+		list.append("shards: ................. ").append(_shards.size()).append('\n');
+		list.append("moving: ................. ").append(_movingCount).append('\n');
+		list.append("movingMax: .............. ").append(_movingMax).append('\n');
+		list.append("ticks: .................. ").append(_ticks.get()).append('\n');
+		list.append("steps: .................. ").append(_steps.get()).append('\n');
+		list.append("overruns: ............... ").append(_overruns.get()).append('\n');
+		list.append("tickTime p50 (us): ...... ").append(_tickTimes.getPercentile(50)).append('\n');
+		list.append("tickTime p99 (us): ...... ").append(_tickTimes.getPercentile(99)).append('\n');
+		list.append("tickTime max (us): ...... ").append(_tickTimes.getMax()).append('\n');
+		return list;
+	}
+}
\ No newline at end of file
@@ -12,7 +12,6 @@
  */
 package lineage2.gameserver.taskmanager;
 
-import lineage2.commons.threading.RunnableImpl;
 import lineage2.commons.threading.SteppingRunnableQueueManager;
 import lineage2.gameserver.ThreadPoolManager;
 
@@ -43,13 +42,5 @@ public class RegenTaskManager extends SteppingRunnableQueueManager
 	{
 		super(1000L);
 		ThreadPoolManager.getInstance().scheduleAtFixedRate(this, 1000L, 1000L);
-		ThreadPoolManager.getInstance().scheduleAtFixedRate(new RunnableImpl()
-		{
-			@Override
-			public void runImpl()
-			{
-				RegenTaskManager.this.purge();
-			}
-		}, 10000L, 10000L);
 	}
 }
@@ -19,8 +19,8 @@ import java.util.HashMap;
 import java.util.Map;
 
 import lineage2.commons.dbutils.DbUtils;
+import lineage2.gameserver.dao.VariablesStoreDAO;
 import lineage2.gameserver.database.DatabaseFactory;
-import lineage2.gameserver.database.mysql;
 import lineage2.gameserver.model.GameObjectsStorage;
 import lineage2.gameserver.model.Player;
 import lineage2.gameserver.utils.Strings;
@@ -57,6 +57,7 @@ public class DeleteExpiredVarsTask extends AutomaticTask
 		PreparedStatement query = null;
 		Map<Integer, String> varMap = new HashMap<>();
 		ResultSet rs = null;
+		VariablesStoreDAO.getInstance().flush();
 		try
 		{
 			con = DatabaseFactory.getInstance().getConnection();
@@ -89,7 +90,7 @@ public class DeleteExpiredVarsTask extends AutomaticTask
 				}
 				else
 				{
-					mysql.set("DELETE FROM `character_variables` WHERE `obj_id`=? AND `type`='user-var' AND `name`=? LIMIT 1", entry.getKey(), entry.getValue());
+					VariablesStoreDAO.getInstance().deleteCharacterVariable(entry.getKey(), entry.getValue());
 				}
 			}
 		}
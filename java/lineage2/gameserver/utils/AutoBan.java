@@ -21,6 +21,7 @@ import java.util.Date;
 
 import lineage2.commons.dbutils.DbUtils;
 import lineage2.gameserver.dao.CharacterDAO;
+import lineage2.gameserver.dao.CharacterStoreDAO;
 import lineage2.gameserver.database.DatabaseFactory;
 import lineage2.gameserver.model.Player;
 import lineage2.gameserver.model.World;
@@ -154,6 +155,7 @@ public final class AutoBan
 		PreparedStatement statement2 = null;
 		try
 		{
+			CharacterStoreDAO.getInstance().flush(obj_id);
 			con = DatabaseFactory.getInstance().getConnection();
 			statement = con.prepareStatement("UPDATE characters SET accesslevel=? WHERE obj_Id=?");
 			statement.setInt(1, acc_level);
@@ -289,6 +291,7 @@ public final class AutoBan
 		{
 			try
 			{
+				CharacterStoreDAO.getInstance().flush(obj_id);
 				con = DatabaseFactory.getInstance().getConnection();
 				statement = con.prepareStatement("UPDATE characters SET nochannel = ? WHERE obj_Id=?");
 				statement.setLong(1, NoChannel > 0 ? NoChannel / 1000 : NoChannel);
@@ -334,6 +337,7 @@ public final class AutoBan
 		{
 			try
 			{
+				CharacterStoreDAO.getInstance().flush(obj_id);
 				con = DatabaseFactory.getInstance().getConnection();
 				statement = con.prepareStatement("UPDATE characters SET nochannel = ? WHERE obj_Id=?");
 				statement.setLong(1, 0);
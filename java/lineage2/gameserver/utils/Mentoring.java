@@ -16,6 +16,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import lineage2.gameserver.cache.Msg;
+import lineage2.gameserver.dao.VariablesStoreDAO;
 import lineage2.gameserver.database.mysql;
 import lineage2.gameserver.model.Player;
 import lineage2.gameserver.model.Skill;
@@ -215,7 +216,7 @@ public class Mentoring
 		}
 		else
 		{
-			mysql.set("REPLACE INTO character_variables (obj_id, type, name, value, expire_time) VALUES (?,'user-var','mentorPenalty',?,?)", mentorId, timeTo, expirationTime);
+			VariablesStoreDAO.getInstance().setCharacterVariable(mentorId, "mentorPenalty", String.valueOf(timeTo), expirationTime);
 		}
 	}
 	
@@ -228,6 +229,7 @@ public class Mentoring
 		}
 		else
 		{
+			VariablesStoreDAO.getInstance().flush(mentorId);
 			return (long) mysql.get("SELECT value FROM character_variables WHERE obj_id = " + mentorId);
 		}
 	}